@@ -0,0 +1,33 @@
+attribute vec3 a_position;
+attribute vec3 a_normal;
+attribute vec2 a_texCoord0;
+attribute float a_instance;
+
+uniform mat4 u_modelViewProjectionMatrix;
+uniform vec3 u_cameraPosition;
+
+// first three rows of the world transform of every instance
+uniform vec4 u_instances[maxInstances * 3];
+
+varying vec2 v_texCoord0;
+varying vec3 v_normal, v_viewDirection;
+varying vec3 v_worldSpacePosition;
+
+void main() {
+    int index = int(a_instance) * 3;
+    vec4 row0 = u_instances[index];
+    vec4 row1 = u_instances[index + 1];
+    vec4 row2 = u_instances[index + 2];
+
+    vec4 position = vec4(a_position, 1.0);
+    vec3 worldSpacePosition = vec3(dot(row0, position), dot(row1, position), dot(row2, position));
+
+    v_normal = vec3(dot(row0.xyz, a_normal), dot(row1.xyz, a_normal), dot(row2.xyz, a_normal));
+    v_texCoord0 = a_texCoord0;
+
+    gl_Position = u_modelViewProjectionMatrix * vec4(worldSpacePosition, 1.0);
+
+    v_worldSpacePosition = worldSpacePosition;
+
+    v_viewDirection = normalize(u_cameraPosition - worldSpacePosition);
+}
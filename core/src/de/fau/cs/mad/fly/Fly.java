@@ -10,6 +10,7 @@ import com.badlogic.gdx.scenes.scene2d.Event;
 import com.badlogic.gdx.scenes.scene2d.EventListener;
 
 import de.fau.cs.mad.fly.db.FlyDBManager;
+import de.fau.cs.mad.fly.game.AllocationCounter;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameControllerBuilder;
 import de.fau.cs.mad.fly.game.ParticleController;
@@ -200,6 +201,8 @@ public class Fly extends Game implements Loadable<Fly> {
     
     private OrientationProvider orientationProvider;
     
+    private AllocationCounter allocationCounter;
+    
     public void add3d2dChangedListeners(EventListener listener) {
         if (listener != null) {
             mode3d2dChangedListeners.add(listener);
@@ -274,4 +277,25 @@ public class Fly extends Game implements Loadable<Fly> {
             return orientationProvider.orientationSwapped();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * This method is called by the launcher of a platform that can count the
+     * allocations of a thread. The counter is used by the profiler if the
+     * allocations are profiled, see {@link GameControllerBuilder#init(Fly)}.
+     * 
+     * @param allocationCounter
+     */
+    public void setAllocationCounter(AllocationCounter allocationCounter) {
+        this.allocationCounter = allocationCounter;
+    }
+    
+    /**
+     * Getter for the allocation counter of the platform.
+     * 
+     * @return allocation counter, null if the platform cannot count the
+     *         allocations
+     */
+    public AllocationCounter getAllocationCounter() {
+        return allocationCounter;
+    }
+}
@@ -1,18 +1,17 @@
 package de.fau.cs.mad.fly.features;
 
-import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
+import de.fau.cs.mad.fly.game.event.GameEventListener;
 
 /**
  * Implement this interface when you want to receive collision events.
+ * <p>
+ * The listeners are subscribed to the event bus of the
+ * {@link de.fau.cs.mad.fly.game.GameController} with
+ * {@link CollisionEvent#INVOLVES_PLAYER}, so the spaceship of the player is
+ * always the first game object of the event.
  * 
  * @author Tobias Zangl
  */
-public interface ICollisionListener {
-    
-    /**
-     * This method is called by the
-     * {@link de.fau.cs.mad.fly.game.CollisionDetector.CollisionContactListener}
-     * when a collision event is received.
-     */
-    public void onCollision(GameObject g1, GameObject g2);
+public interface ICollisionListener extends GameEventListener<CollisionEvent> {
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package de.fau.cs.mad.fly.features;
+
+/**
+ * Implement this interface additionally to {@link IFeatureUpdate} or
+ * {@link IFeatureDraw} when the feature does not need to be called every frame.
+ * <p>
+ * The delta of a scheduled call is the time since the last call of the
+ * feature, not of the last frame. Features with {@link #PRIORITY_LOW} share a
+ * time budget per frame and are moved to the next frame if it is used up.
+ * <p>
+ * If a feature implements {@link IFeatureUpdate} and {@link IFeatureDraw}, only
+ * the update is scheduled and the feature is drawn every frame.
+ */
+public interface IFeatureSchedule {
+    /** The feature is called whenever it is due. */
+    public static final int PRIORITY_NORMAL = 0;
+    
+    /** The feature is moved to a later frame if the frame is busy. */
+    public static final int PRIORITY_LOW = 1;
+    
+    /**
+     * Getter for the frequency of the feature.
+     * 
+     * @return calls per second, 0 to call the feature every frame.
+     */
+    public float getFrequency();
+    
+    /**
+     * Getter for the priority of the feature.
+     * 
+     * @return {@link #PRIORITY_NORMAL} or {@link #PRIORITY_LOW}
+     */
+    public int getPriority();
+}
\ No newline at end of file
@@ -8,7 +8,8 @@ package de.fau.cs.mad.fly.features;
  */
 public interface IFeatureUpdate {
     /**
-     * Called every frame if the game is not paused.
+     * Called every frame if the game is not paused, or with the frequency of
+     * the feature if it implements {@link IFeatureSchedule}.
      * 
      * @param delta
      *            The time between the last and the current call.
@@ -12,6 +12,7 @@ import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
 import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
 import de.fau.cs.mad.fly.res.CollectibleManager;
 
 /**
@@ -77,7 +78,8 @@ public abstract class CollectibleObjects implements IFeatureLoad, IFeatureDispos
     protected abstract void handleCollecting(Collectible c);
     
     @Override
-    public void onCollision(GameObject g1, GameObject g2) {
+    public void onEvent(CollisionEvent event) {
+        GameObject g2 = event.getSecond();
         if (!(g2 instanceof Collectible)) {
             return;
         }
@@ -100,4 +102,14 @@ public abstract class CollectibleObjects implements IFeatureLoad, IFeatureDispos
     public void addObject(Collectible c) {
         collectibleObjects.add(c);
     }
+    
+    /**
+     * Removes a collectible object that was not collected.
+     * 
+     * @param c
+     *            The collectible object to remove.
+     */
+    public void removeObject(Collectible c) {
+        collectibleObjects.remove(c);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package de.fau.cs.mad.fly.features.game;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
@@ -19,6 +21,8 @@ import de.fau.cs.mad.fly.features.upgrades.types.TemporarySpeedUpgrade;
 import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameControllerBuilder;
 import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObjectPool;
+import de.fau.cs.mad.fly.helper.RandomHelper;
 import de.fau.cs.mad.fly.res.Assets;
 import de.fau.cs.mad.fly.res.GateDisplay;
 import de.fau.cs.mad.fly.res.GateGoal;
@@ -32,6 +36,19 @@ import de.fau.cs.mad.fly.res.Level;
  */
 public class EndlessLevelGenerator {
     
+    /**
+     * Pool of upgrades of one type, the upgrades keep their rigid bodies.
+     * 
+     * @param <T>
+     *            Type of the upgrades.
+     */
+    protected abstract static class UpgradePool<T extends Collectible> extends GameObjectPool<T> {
+        @Override
+        protected void createBodies(T c) {
+            c.createShapeAndRigidBody(CollisionDetector.getInstance(), c.getType());
+        }
+    }
+    
 	protected AssetManager manager;
     
 	protected TemporarySpeedUpgradeHandler temporarySpeedHandler;
@@ -46,7 +63,6 @@ public class EndlessLevelGenerator {
     
     private GateGoal lastGate;
     private GateGoal lastGatePassed;
-    private GateGoal lastRemoved;
     
     private float maxAngle = 45;
     private float minAngle = 0.1f;
@@ -58,6 +74,27 @@ public class EndlessLevelGenerator {
     
     protected int defaultGateScore = 50;
     
+    /**
+     * Pool of the generated gates, the removed gates are reused.
+     */
+    protected GatePool gatePool;
+    
+    /**
+     * Ids of the gates that are removed when the next gate is passed, the
+     * successors of the gate passed before the last one.
+     */
+    private int[] lastRemovedSuccessors = new int[0];
+    
+    protected UpgradePool<ChangeTimeUpgrade> timeUpgradePool;
+    protected UpgradePool<TemporarySpeedUpgrade> speedUpgradePool;
+    
+    /**
+     * Upgrades that are removed with the gates they were generated with, by
+     * the id of the first of these gates.
+     */
+    private Map<Integer, Collectible> upgrades = new HashMap<Integer, Collectible>();
+    private final Matrix4 upgradeTransform = new Matrix4();
+    
     /**
      * 
      * @param level
@@ -79,7 +116,10 @@ public class EndlessLevelGenerator {
         builder.addFeatureToLists(temporarySpeedHandler);
         builder.addFeatureToLists(changeTimeHandler);
         
+        createUpgradePools();
+        
         this.level = level;
+        this.gatePool = new GatePool(level, defaultGateScore);
         
         this.difficulty = 0.f;
         this.maxAngle = 45.f + 4.5f * difficulty;
@@ -90,8 +130,6 @@ public class EndlessLevelGenerator {
         
         lastGatePassed = new GateGoal(-2, level.getDependency("hole"), defaultGateScore, new GateDisplay(level.getDependency("torus")));
         lastGatePassed.successors = new int[0];
-        lastRemoved = new GateGoal(-3, level.getDependency("hole"), defaultGateScore, new GateDisplay(level.getDependency("torus")));
-        lastRemoved.successors = new int[0];
         
         this.gateGoals = level.getGateCircuit().allGateGoals();
         int size = gateGoals.size();
@@ -151,17 +189,26 @@ public class EndlessLevelGenerator {
             lastGateId = passed.getGateId();
             
             // removing passed gate and all possible parallel gates
-            size = lastRemoved.successors.length;
+            size = lastRemovedSuccessors.length;
             for (int i = 0; i < size; i++) {
-                int id = lastRemoved.successors[i];
+                int id = lastRemovedSuccessors[i];
                 GateGoal successor = level.getGateCircuit().getGateGoalById(id);
                 
                 level.getGateCircuit().removeGate(successor);
                 
                 gateGoals.remove(successor);
-                successor.dispose();
+                Collectible upgrade = upgrades.remove(id);
+                if (upgrade != null) {
+                    level.getCollectibleManager().removeCollectible(upgrade);
+                    freeCollectible(upgrade);
+                }
+                if (gatePool.owns(successor)) {
+                    gatePool.free(successor);
+                } else {
+                    successor.dispose();
+                }
             }
-            lastRemoved = lastGatePassed;
+            lastRemovedSuccessors = lastGatePassed.successors;
             lastGatePassed = passed;
             
         }
@@ -176,8 +223,6 @@ public class EndlessLevelGenerator {
      * @return - The randomly generated Gates
      */
     private List<GateGoal> generateRandomGates(List<GateGoal> predecessors) {
-        CollisionDetector collisionDetector = CollisionDetector.getInstance();
-        
         List<GateGoal> newGates = new ArrayList<GateGoal>();
         float rand = 1.f;
         float min = 0.8f;
@@ -191,11 +236,13 @@ public class EndlessLevelGenerator {
         }
         
         Matrix4 matrix = new Matrix4().avg(t);
+        Matrix4 gateTransform = new Matrix4();
+        Vector3 gatePosition = new Vector3();
         
         while (rand > min) {
-            float distance = (MathUtils.random(5) + 6.f);
+            float distance = (RandomHelper.random(5) + 6.f);
             
-            int random = MathUtils.random(-1, 1);
+            int random = RandomHelper.random(-1, 1);
             
             distance -= difficulty * random / 2.f;
             
@@ -203,10 +250,6 @@ public class EndlessLevelGenerator {
                 shortestDistance = distance;
             }
             
-            GateDisplay newDisplay = new GateDisplay(level.getDependency("torus"));
-            GateGoal newGoal = new GateGoal(currGate, level.getDependency("hole"), defaultGateScore, newDisplay);
-            newDisplay.setGoal(newGoal);
-            
             Vector3 newDirection;
             
             boolean use = true;
@@ -220,35 +263,32 @@ public class EndlessLevelGenerator {
                 newDirection.rotate(new Vector3(1, 0, 0), randomAngle());
                 newDirection.nor();
                 
-                newDisplay.transform.set(matrix);
+                gateTransform.set(matrix);
                 
-                newDisplay.transform.rotate(lastDirection, newDirection);
-                newDisplay.transform.translate(new Vector3(0, 1, 0).scl(distance));
+                gateTransform.rotate(lastDirection, newDirection);
+                gateTransform.translate(new Vector3(0, 1, 0).scl(distance));
+                gateTransform.getTranslation(gatePosition);
                 
                 if (count-- <= 0) {
                     use = false;
                     break;
                 }
                 
-            } while (checkForSpawnCollision(newDisplay.getPosition(), newGates, 5.0f));
+            } while (checkForSpawnCollision(gatePosition, newGates, 5.0f));
             
             // Gate is discarded if the RandomAlgorithm can't find a position
             // that is far enough from the other Gates
             if (!use) {
-                rand = MathUtils.random();
+                rand = RandomHelper.random();
                 continue;
             }
             
-            newGoal.transform = newDisplay.transform.cpy();
-            newGoal.successors = new int[0];
-            
-            newGoal.createShapeAndRigidBody(collisionDetector);
-            newDisplay.createShapeAndRigidBody(collisionDetector);
+            GateGoal newGoal = gatePool.obtain(currGate, gateTransform);
             
             newLastDirection.add(newDirection.cpy());
             
             newGates.add(newGoal);
-            rand = MathUtils.random();
+            rand = RandomHelper.random();
             currGate++;
             min += 0.05f;
         }
@@ -258,7 +298,10 @@ public class EndlessLevelGenerator {
         
         // TODO: find nice a value for the minimum distance to add an Upgrade
         if (shortestDistance > 10.f) {
-            addRandomUpgrade(matrix, shortestDistance);
+            Collectible upgrade = addRandomUpgrade(matrix, shortestDistance);
+            if (upgrade != null && !newGates.isEmpty()) {
+                upgrades.put(newGates.get(0).getGateId(), upgrade);
+            }
         }
         
         int size = newGates.size();
@@ -291,38 +334,75 @@ public class EndlessLevelGenerator {
      * @param distance
      *            - The distance from the latest generated Gate to its
      *            predecessors
+     * @return The added Upgrade or null
      */
-    private void addRandomUpgrade(Matrix4 matrix, float distance) {
-        int random = MathUtils.random(1);
+    private Collectible addRandomUpgrade(Matrix4 matrix, float distance) {
+        int random = RandomHelper.random(1);
         
         Collectible c = null;
+        upgradeTransform.set(matrix).translate(lastDirection.cpy().scl(distance / 2.f));
         
         switch (random) {
         case 0:
-            c = new ChangeTimeUpgrade(manager.get("models/timeUpgrade/timeUpgrade", GameModel.class), 10);
-            changeTimeHandler.addObject(c);
+            ChangeTimeUpgrade timeUpgrade = timeUpgradePool.obtain(upgradeTransform);
+            timeUpgrade.setTimeChange(10);
+            changeTimeHandler.addObject(timeUpgrade);
+            c = timeUpgrade;
             break;
         case 1:
-            float maxSpeedupFactor = MathUtils.random(0.9f, 2.0f);
+            float maxSpeedupFactor = RandomHelper.random(0.9f, 2.0f);
             int speedupTimeInMilliSeconds = 200;
-            int maxSpeedTimeInMilliSeconds = MathUtils.random(500, 10000);
+            int maxSpeedTimeInMilliSeconds = RandomHelper.random(500, 10000);
             int slowdownTimeInMilliSeconds = 200;
             SpeedUpgradeEffect effect = new SpeedUpgradeEffect(maxSpeedupFactor, speedupTimeInMilliSeconds, maxSpeedTimeInMilliSeconds, slowdownTimeInMilliSeconds);
-            c = new TemporarySpeedUpgrade(manager.get("models/speedUpgrade/speedUpgrade", GameModel.class), effect);
-            temporarySpeedHandler.addObject(c);
+            TemporarySpeedUpgrade speedUpgrade = speedUpgradePool.obtain(upgradeTransform);
+            speedUpgrade.setEffect(effect);
+            temporarySpeedHandler.addObject(speedUpgrade);
+            c = speedUpgrade;
             break;
         default:
             break;
         }
         
         if (c != null) {
-            c.transform.set(matrix).translate(lastDirection.cpy().scl(distance / 2.f));
-            
-            CollisionDetector collisionDetector = CollisionDetector.getInstance();
-            c.createShapeAndRigidBody(collisionDetector, c.getType());
-            
             level.getCollectibleManager().addCollectible(c);
         }
+        return c;
+    }
+    
+    /**
+     * Creates the pools of the time and speed upgrades.
+     */
+    private void createUpgradePools() {
+        timeUpgradePool = new UpgradePool<ChangeTimeUpgrade>() {
+            @Override
+            protected ChangeTimeUpgrade newObject() {
+                return new ChangeTimeUpgrade(manager.get("models/timeUpgrade/timeUpgrade", GameModel.class), 0);
+            }
+        };
+        speedUpgradePool = new UpgradePool<TemporarySpeedUpgrade>() {
+            @Override
+            protected TemporarySpeedUpgrade newObject() {
+                return new TemporarySpeedUpgrade(manager.get("models/speedUpgrade/speedUpgrade", GameModel.class), null);
+            }
+        };
+    }
+    
+    /**
+     * Removes a removed Upgrade from its handler, if it was not collected, and
+     * returns it to its pool.
+     * 
+     * @param c
+     *            - The Upgrade that was removed from the collectible manager
+     */
+    protected void freeCollectible(Collectible c) {
+        if (c instanceof ChangeTimeUpgrade) {
+            changeTimeHandler.removeObject(c);
+            timeUpgradePool.free((ChangeTimeUpgrade) c);
+        } else if (c instanceof TemporarySpeedUpgrade) {
+            temporarySpeedHandler.removeObject(c);
+            speedUpgradePool.free((TemporarySpeedUpgrade) c);
+        }
     }
     
     /**
@@ -331,7 +411,7 @@ public class EndlessLevelGenerator {
      * @return A random angle
      */
     private float randomAngle() {
-        float angle = MathUtils.random(maxAngle * 2) - maxAngle;
+        float angle = RandomHelper.random(maxAngle * 2) - maxAngle;
         
         if (Math.abs(angle) < minAngle) {
             angle += Math.signum(angle) * minAngle;
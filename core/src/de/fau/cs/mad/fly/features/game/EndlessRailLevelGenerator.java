@@ -6,9 +6,8 @@ import java.util.Map;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 
 import de.fau.cs.mad.fly.features.upgrades.ChangePointsUpgradeHandler;
 import de.fau.cs.mad.fly.features.upgrades.types.ChangePointsUpgrade;
@@ -20,7 +19,8 @@ import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameControllerBuilder;
 import de.fau.cs.mad.fly.game.GameModel;
 import de.fau.cs.mad.fly.game.GameObject;
-import de.fau.cs.mad.fly.res.GateDisplay;
+import de.fau.cs.mad.fly.game.GameObjectPool;
+import de.fau.cs.mad.fly.helper.RandomHelper;
 import de.fau.cs.mad.fly.res.GateGoal;
 import de.fau.cs.mad.fly.res.Level;
 
@@ -36,6 +36,8 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
 	
 	private GateGoal lastGate;
 	private GateGoal firstGate;
+	/** Last removed gate, it stays the virtual gate until the next one is removed. */
+	private GateGoal lastRemovedGate;
 	
 	private int asteroidCount = 0;
 	
@@ -56,6 +58,10 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
     private Map<Integer,GameObject> objects;
     private Map<Integer,Collectible> collectibles;
     private Map<Integer,GateGoal> gates;
+    
+    private GameObjectPool<GameObject> asteroidPool;
+    private UpgradePool<ChangePointsUpgrade> pointsUpgradePool;
+    private final Matrix4 componentTransform = new Matrix4();
 
 	public EndlessRailLevelGenerator(Level level, GameControllerBuilder builder) {
 		super(level, builder);
@@ -70,7 +76,33 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
 		this.changePointsHandler = new ChangePointsUpgradeHandler();
 		builder.addFeatureToLists(changePointsHandler);
 		
-		
+		createRailPools();
+	}
+	
+	/**
+	 * Creates the pools of the asteroids and point upgrades, so the removed
+	 * ones are reused with their rigid bodies.
+	 */
+	private void createRailPools() {
+		asteroidPool = new GameObjectPool<GameObject>() {
+			@Override
+			protected GameObject newObject() {
+				return new GameObject(manager.get("models/asteroid/asteroid", GameModel.class), "asteroid");
+			}
+			
+			@Override
+			protected void createBodies(GameObject o) {
+				CollisionDetector collisionDetector = CollisionDetector.getInstance();
+				collisionDetector.createConvexBody(o, o.getModelId(), 0.0f, CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
+				collisionDetector.addRigidBody(o);
+			}
+		};
+		pointsUpgradePool = new UpgradePool<ChangePointsUpgrade>() {
+			@Override
+			protected ChangePointsUpgrade newObject() {
+				return new ChangePointsUpgrade(manager.get("models/pointsUpgrade/pointsUpgrade", GameModel.class), 50);
+			}
+		};
 	}
 	
 	/**
@@ -78,7 +110,7 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
 	 */
 	public void addRandomComponents() {
 		
-		int random = MathUtils.random(15);
+		int random = RandomHelper.random(15);
 		if((random - stepsSinceLastAsteroid) < 0) {
 			addRandomAsteroid();
 		}
@@ -103,13 +135,16 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
 	public void removeComponents(Vector3 railPosition) {
 		GameObject o = objects.get(currentRailStartPoint);
 		if(o !=  null) {
-			level.removeComponent(o);
+			if(level.removeComponent(o)) {
+				asteroidPool.free(o);
+			}
 			objects.remove(currentRailStartPoint);
 		}
 		
 		Collectible c = collectibles.get(currentRailStartPoint);
 		if(c !=  null) {
 			level.getCollectibleManager().removeCollectible(c);
+			freeCollectible(c);
 			collectibles.remove(currentRailStartPoint);
 		}
 		
@@ -118,21 +153,30 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
 			level.getGateCircuit().removeGate(g);
 			//gate is not passed but the player flew past it
 			level.getGateCircuit().setVirtualGate(g);
+			//the former virtual gate is not used anymore
+			if(lastRemovedGate != null && gatePool.owns(lastRemovedGate)) {
+				gatePool.free(lastRemovedGate);
+			}
+			lastRemovedGate = g;
 			gates.remove(currentRailStartPoint);
 		}
 		
 		currentRailStartPoint++;
 	}
 	
+	@Override
+	protected void freeCollectible(Collectible c) {
+		if(c instanceof ChangePointsUpgrade) {
+			changePointsHandler.removeObject(c);
+			pointsUpgradePool.free((ChangePointsUpgrade) c);
+		} else {
+			super.freeCollectible(c);
+		}
+	}
+	
 	
 	private GateGoal addRandomGate() {
 		
-        CollisionDetector collisionDetector = CollisionDetector.getInstance();
-        
-        GateDisplay newDisplay = new GateDisplay(level.getDependency("torus"));
-		GateGoal newGoal = new GateGoal(currGate, level.getDependency("hole"), defaultGateScore, newDisplay);
-		newDisplay.setGoal(newGoal);
-		 
 		Vector3 railOffset = addGateRailOffset();
     	
     	if(stepsSinceLastAsteroid <= 3) {
@@ -142,12 +186,7 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
     	}
         
 		Vector3 gatePositon = centerRail.get(centerRail.size()-1).cpy().add(railOffset);
-		newDisplay.transform.setToTranslation(gatePositon);
-		newGoal.transform = newDisplay.transform.cpy();
-		 
-		newGoal.createShapeAndRigidBody(collisionDetector);
-		newDisplay.createShapeAndRigidBody(collisionDetector);
-		
+		GateGoal newGoal = gatePool.obtain(currGate, componentTransform.setToTranslation(gatePositon));
 		
         level.getGateCircuit().addGate(newGoal);
         gates.put(currentRailEndPoint, newGoal);
@@ -182,9 +221,9 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
      *            predecessors
      */
     private void addRandomUpgrade() {
-        int random = MathUtils.random(7);
+        int random = RandomHelper.random(7);
         
-        Collectible c = null;
+        SpeedUpgradeEffect effect = null;
         
         if(stepsSinceLastGate == 0) {
         	return;
@@ -195,78 +234,72 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
         	if(stepsSinceLastTimeUpgrade <= 20 || stepsSinceLastSpeedUpgrade <= 20) {
         		return;
         	}
-            c = new ChangeTimeUpgrade(manager.get("models/timeUpgrade/timeUpgrade", GameModel.class), 5);
-            changeTimeHandler.addObject(c);
             break;
         case 1:
         	if(stepsSinceLastTimeUpgrade <= 20 || stepsSinceLastSpeedUpgrade <= 20) {
         		return;
         	}
-        	float maxSpeedupFactor = MathUtils.random(0.9f, 2.0f);
+        	float maxSpeedupFactor = RandomHelper.random(0.9f, 2.0f);
             int speedupTimeInMilliSeconds = 200;
-            int maxSpeedTimeInMilliSeconds = MathUtils.random(500, 10000);
+            int maxSpeedTimeInMilliSeconds = RandomHelper.random(500, 10000);
             int slowdownTimeInMilliSeconds = 200;
-            SpeedUpgradeEffect effect = new SpeedUpgradeEffect(maxSpeedupFactor, speedupTimeInMilliSeconds, maxSpeedTimeInMilliSeconds, slowdownTimeInMilliSeconds);
-            c = new TemporarySpeedUpgrade(manager.get("models/speedUpgrade/speedUpgrade", GameModel.class), effect);
-            temporarySpeedHandler.addObject(c);
+            effect = new SpeedUpgradeEffect(maxSpeedupFactor, speedupTimeInMilliSeconds, maxSpeedTimeInMilliSeconds, slowdownTimeInMilliSeconds);
             break;
         case 2:
         case 3:
         case 4:
-        	c = new ChangePointsUpgrade(manager.get("models/pointsUpgrade/pointsUpgrade", GameModel.class), 50);
-        	changePointsHandler.addObject(c);
         	random = 2;
             break;
         default:
-            break;
+            return;
         }
         
-        if (c != null) {
-        	Vector3 railOffset;
-        	
-        	if(random == 2) {
-        		railOffset = addPointUpgradeRailOffset();
-        	} else {
-        		railOffset = addRailOffset();
-        	}
-        	
-        	if(stepsSinceLastAsteroid <= 3) {
-        		if(railOffset.equals(lastAsteroidPos)) {
-        			return;
-        		}
-        	}
-        	
-        	Vector3 upgradePositon = centerRail.get(centerRail.size()-1).cpy().add(railOffset);
-    		c.transform.setToTranslation(upgradePositon);
-            
-            CollisionDetector collisionDetector = CollisionDetector.getInstance();
-            c.createShapeAndRigidBody(collisionDetector, c.getType());
-            
-            level.getCollectibleManager().addCollectible(c);
-            collectibles.put(currentRailEndPoint, c);
-
-            switch (random) {
-            case 0:
-            	stepsSinceLastTimeUpgrade = 0;
-                break;
-            case 1:
-            	stepsSinceLastSpeedUpgrade = 0;
-                break;
-            default:
-                break;
-            }
-            stepsSinceLastUpgrade = 0;
+    	Vector3 railOffset;
+    	
+    	if(random == 2) {
+    		railOffset = addPointUpgradeRailOffset();
+    	} else {
+    		railOffset = addRailOffset();
+    	}
+    	
+    	if(stepsSinceLastAsteroid <= 3) {
+    		if(railOffset.equals(lastAsteroidPos)) {
+    			return;
+    		}
+    	}
+    	
+    	Vector3 upgradePositon = centerRail.get(centerRail.size()-1).cpy().add(railOffset);
+    	componentTransform.setToTranslation(upgradePositon);
+    	
+    	// the upgrade is taken from its pool only if it is placed
+    	Collectible c;
+        switch (random) {
+        case 0:
+        	ChangeTimeUpgrade timeUpgrade = timeUpgradePool.obtain(componentTransform);
+        	timeUpgrade.setTimeChange(5);
+        	changeTimeHandler.addObject(timeUpgrade);
+        	c = timeUpgrade;
+        	stepsSinceLastTimeUpgrade = 0;
+            break;
+        case 1:
+        	TemporarySpeedUpgrade speedUpgrade = speedUpgradePool.obtain(componentTransform);
+        	speedUpgrade.setEffect(effect);
+        	temporarySpeedHandler.addObject(speedUpgrade);
+        	c = speedUpgrade;
+        	stepsSinceLastSpeedUpgrade = 0;
+            break;
+        default:
+        	c = pointsUpgradePool.obtain(componentTransform);
+        	changePointsHandler.addObject(c);
+            break;
         }
+        
+        level.getCollectibleManager().addCollectible(c);
+        collectibles.put(currentRailEndPoint, c);
+        stepsSinceLastUpgrade = 0;
     }
     
     private void addRandomAsteroid() {
-    	GameObject o;
-    	
-        String ref = "asteroid";
-    	
-    	o = new GameObject(manager.get("models/asteroid/asteroid", GameModel.class), ref);
-        o.setId("" + asteroidCount);
-
         Vector3 railOffset = addRailOffset();
         if(stepsSinceLastUpgrade <= 5 || stepsSinceLastGate <= 5) {
         	while(railOffset.equals(lastPointUpgradePos) ||railOffset.equals(lastUpgradePos) || railOffset.equals(lastGatePos) || railOffset.equals(lastAsteroidPos)) {
@@ -275,13 +308,8 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
         }
         
     	Vector3 asteroidPositon = centerRail.get(centerRail.size()-1).cpy().add(railOffset);
-    	o.transform.setToTranslation(asteroidPositon);
-    	
-    	CollisionDetector collisionDetector = CollisionDetector.getInstance();
-        btCollisionShape displayShape;
-        displayShape = collisionDetector.getShapeManager().createConvexShape(o.getModelId(), o);
-        o.createRigidBody(o.getModelId(), displayShape, 0.0f, CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
-        collisionDetector.addRigidBody(o);
+    	GameObject o = asteroidPool.obtain(componentTransform.setToTranslation(asteroidPositon));
+        o.setId("" + asteroidCount);
     	
     	level.addComponent(o);
     	objects.put(currentRailEndPoint, o);
@@ -327,8 +355,8 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
 	private Vector3 addRailOffset() {
 		Vector3 offset = new Vector3();
 		
-		offset.z = MathUtils.random(-1, 1) * railOffset;
-		offset.x = MathUtils.random(-1, 1) * railOffset;
+		offset.z = RandomHelper.random(-1, 1) * railOffset;
+		offset.x = RandomHelper.random(-1, 1) * railOffset;
 		
 		return offset;
 	}
@@ -338,8 +366,8 @@ public class EndlessRailLevelGenerator extends EndlessLevelGenerator {
 	private Vector3 addPointUpgradeRailOffset() {
 		Vector3 offset = new Vector3();
 		
-		int randomZ = MathUtils.random(-1, 1);
-		int randomX = MathUtils.random(-1, 1);
+		int randomZ = RandomHelper.random(-1, 1);
+		int randomX = RandomHelper.random(-1, 1);
 		
 		if(upgradeLine <= 0) {
 			offset.z = Math.signum(Math.signum(lastPointUpgradePos.z) + randomZ) * railOffset;
@@ -8,7 +8,7 @@ import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.utils.Array;
 
 import de.fau.cs.mad.fly.features.IFeatureDispose;
 import de.fau.cs.mad.fly.features.IFeatureInit;
@@ -16,9 +16,13 @@ import de.fau.cs.mad.fly.features.IFeatureLoad;
 import de.fau.cs.mad.fly.features.IFeatureRender;
 import de.fau.cs.mad.fly.features.IFeatureUpdate;
 import de.fau.cs.mad.fly.game.CollisionDetector;
+import de.fau.cs.mad.fly.game.FrustumCullingTree;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameModel;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.MeshMerger;
+import de.fau.cs.mad.fly.graphics.InstancedModel;
+import de.fau.cs.mad.fly.graphics.LightManager;
 import de.fau.cs.mad.fly.helper.RandomHelper;
 
 /**
@@ -40,6 +44,28 @@ public class FlyingObjects implements IFeatureLoad, IFeatureInit, IFeatureUpdate
     private String modelRef;
     private List<GameObject> objects;
     
+    /**
+     * The flying objects, they are moved by the physics and refit before
+     * every render call.
+     */
+    private final FrustumCullingTree cullingTree = new FrustumCullingTree(5.0f);
+    private final Array<GameObject> visibleObjects = new Array<GameObject>(false, 16, GameObject.class);
+    
+    /**
+     * Minimum number of visible flying objects that are rendered instanced,
+     * fewer are rendered one by one.
+     */
+    public static final int MIN_INSTANCES = 4;
+    
+    /** The model of the flying objects for instanced rendering, or null. */
+    private InstancedModel instancedModel = null;
+    
+    /**
+     * Environment with the point lights near the camera for the instanced
+     * flying objects, see {@link LightManager}.
+     */
+    private Environment instancedEnvironment = null;
+    
     /**
      * Constructor for the AstroidBelt
      * 
@@ -75,6 +101,11 @@ public class FlyingObjects implements IFeatureLoad, IFeatureInit, IFeatureUpdate
         
         for (int i = 0; i < count; i++) {
             objects.add(createFlyingObject(model, i));
+            cullingTree.insert(objects.get(i), true);
+        }
+        
+        if (count >= MIN_INSTANCES && MeshMerger.canMerge(model.display)) {
+            instancedModel = new InstancedModel(model.display);
         }
         
         Gdx.app.log("FlyingObjectst.load", "Flying objects created.");
@@ -103,8 +134,7 @@ public class FlyingObjects implements IFeatureLoad, IFeatureInit, IFeatureUpdate
         
         flyingObject.transform.setToTranslation(position);
         
-        btCollisionShape shape = CollisionDetector.getInstance().getShapeManager().createConvexShape(modelRef, flyingObject);
-        flyingObject.createRigidBody(modelRef, shape, 1.0f, CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
+        CollisionDetector.getInstance().createConvexBody(flyingObject, modelRef, 1.0f, CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
         flyingObject.setRestitution(1.0f);
         CollisionDetector.getInstance().addRigidBody(flyingObject);
         
@@ -185,8 +215,32 @@ public class FlyingObjects implements IFeatureLoad, IFeatureInit, IFeatureUpdate
     public void render(float delta) {
         for (int i = 0; i < count; i++) {
             objects.get(i).updateRigidBody();
-            objects.get(i).render(batch, environment, camera);
         }
+        
+        cullingTree.refit();
+        cullingTree.query(camera.frustum, visibleObjects);
+        final GameObject[] visible = visibleObjects.items;
+        final int numberOfVisible = visibleObjects.size;
+        if (instancedModel != null && numberOfVisible >= MIN_INSTANCES) {
+            instancedModel.begin();
+            for (int i = 0; i < numberOfVisible; i++) {
+                if (visible[i].isVisible() && visible[i].isVisibleInFrustum(camera)) {
+                    instancedModel.add(visible[i].getInterpolatedTransform());
+                }
+            }
+            final LightManager lightManager = GameObject.getLightManager();
+            if (lightManager == null) {
+                batch.render(instancedModel, environment);
+            } else {
+                instancedEnvironment = lightManager.select(environment, camera.position, instancedEnvironment);
+                batch.render(instancedModel, instancedEnvironment);
+            }
+        } else {
+            for (int i = 0; i < numberOfVisible; i++) {
+                visible[i].render(batch, environment, camera);
+            }
+        }
+        visibleObjects.clear();
     }
     
     @Override
@@ -194,5 +248,10 @@ public class FlyingObjects implements IFeatureLoad, IFeatureInit, IFeatureUpdate
         for (int i = 0; i < count; i++) {
             objects.get(i).dispose();
         }
+        cullingTree.clear();
+        if (instancedModel != null) {
+            instancedModel.dispose();
+            instancedModel = null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package de.fau.cs.mad.fly.features.game;
+
+import com.badlogic.gdx.math.Matrix4;
+
+import de.fau.cs.mad.fly.game.CollisionDetector;
+import de.fau.cs.mad.fly.game.GameObjectPool;
+import de.fau.cs.mad.fly.res.GateDisplay;
+import de.fau.cs.mad.fly.res.GateGoal;
+import de.fau.cs.mad.fly.res.Level;
+
+/**
+ * Pool of the gates of the endless levels. A gate goal is pooled together with
+ * its gate display, both keep their bodies.
+ */
+public class GatePool extends GameObjectPool<GateGoal> {
+    
+    private final Level level;
+    private final int gateScore;
+    
+    /**
+     * Creates a new gate pool.
+     * 
+     * @param level
+     *            The level with the models of the gates.
+     * @param gateScore
+     *            The score of the gates.
+     */
+    public GatePool(Level level, int gateScore) {
+        this.level = level;
+        this.gateScore = gateScore;
+    }
+    
+    /**
+     * Obtains a gate and adds its bodies to the collision world.
+     * 
+     * @param gateId
+     *            The id of the gate.
+     * @param transform
+     *            The transform of the gate, it is copied.
+     * @return the gate goal with its display
+     */
+    public GateGoal obtain(int gateId, Matrix4 transform) {
+        GateGoal goal = obtain(transform);
+        goal.reset(gateId);
+        return goal;
+    }
+    
+    @Override
+    protected GateGoal newObject() {
+        GateDisplay display = new GateDisplay(level.getDependency("torus"));
+        GateGoal goal = new GateGoal(-1, level.getDependency("hole"), gateScore, display);
+        display.setGoal(goal);
+        return goal;
+    }
+    
+    @Override
+    protected void createBodies(GateGoal goal) {
+        CollisionDetector collisionDetector = CollisionDetector.getInstance();
+        GateDisplay display = goal.getDisplay();
+        display.transform.set(goal.transform);
+        goal.createShapeAndRigidBody(collisionDetector);
+        display.createShapeAndRigidBody(collisionDetector);
+        display.storePreviousTransform();
+    }
+    
+    @Override
+    protected void addBodies(GateGoal goal) {
+        GateDisplay display = goal.getDisplay();
+        display.transform.set(goal.transform);
+        display.transform.getTranslation(display.gatePosition);
+        display.resetBody();
+        display.storePreviousTransform();
+        super.addBodies(goal);
+        CollisionDetector.getInstance().addRigidBody(display);
+    }
+    
+    @Override
+    protected void removeBodies(GateGoal goal) {
+        super.removeBodies(goal);
+        CollisionDetector.getInstance().removeRigidBody(goal.getDisplay());
+    }
+}
@@ -7,20 +7,36 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 
+import de.fau.cs.mad.fly.features.IFeatureSchedule;
+import de.fau.cs.mad.fly.features.IFeatureUpdate;
+import de.fau.cs.mad.fly.game.FrameProfiler;
+
 /**
  * Optional Feature to display the used time.
+ * <p>
+ * Can also display the most expensive sections of a {@link FrameProfiler}.
  * 
  * @author Tobias Zangl
  */
-public class DebugOverlay {
+public class DebugOverlay implements IFeatureUpdate, IFeatureSchedule {
+    /** Updates of the profiler label per second. */
+    private static final float PROFILER_FREQUENCY = 2.0f;
+    /** Number of profiler sections that are displayed. */
+    private static final int PROFILER_SECTIONS = 8;
+    
     private final Stage stage;
     private Label valueLabels[] = new Label[3];
     private int count;
     
+    private LabelStyle labelStyle;
+    private FrameProfiler profiler;
+    private Label profilerLabel;
+    private final StringBuilder profilerText = new StringBuilder();
+    
     public DebugOverlay(final Skin skin, final Stage stage, int count) {
         this.stage = stage;
         
-        LabelStyle labelStyle = new LabelStyle(skin.getFont("default-font"), Color.RED);
+        labelStyle = new LabelStyle(skin.getFont("default-font"), Color.RED);
         
         if (count > 3)
             count = 3;
@@ -67,4 +83,38 @@ public class DebugOverlay {
         
         valueLabels[index].setText(value);
     }
+    
+    /**
+     * Shows the sections of the profiler with the highest mean time.
+     * 
+     * @param profiler
+     *            The profiler to show.
+     */
+    public void showProfiler(final FrameProfiler profiler) {
+        this.profiler = profiler;
+        if (profilerLabel == null) {
+            profilerLabel = addLabel("", labelStyle, 0.01f, 0.95f);
+        }
+    }
+    
+    @Override
+    public void update(float delta) {
+        if (profiler == null) {
+            return;
+        }
+        profiler.summary(profilerText, PROFILER_SECTIONS);
+        profilerLabel.setText(profilerText);
+        profilerLabel.pack();
+        profilerLabel.setPosition(Gdx.graphics.getWidth() * 0.01f, Gdx.graphics.getHeight() * 0.95f - profilerLabel.getHeight());
+    }
+    
+    @Override
+    public float getFrequency() {
+        return PROFILER_FREQUENCY;
+    }
+    
+    @Override
+    public int getPriority() {
+        return PRIORITY_LOW;
+    }
 }
\ No newline at end of file
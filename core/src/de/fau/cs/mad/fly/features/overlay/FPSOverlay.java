@@ -1,11 +1,13 @@
 package de.fau.cs.mad.fly.features.overlay;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
 
 import de.fau.cs.mad.fly.I18n;
 import de.fau.cs.mad.fly.features.IFeatureDraw;
+import de.fau.cs.mad.fly.features.IFeatureSchedule;
 import de.fau.cs.mad.fly.ui.SkinManager;
 import de.fau.cs.mad.fly.ui.UI;
 
@@ -14,7 +16,10 @@ import de.fau.cs.mad.fly.ui.UI;
  * 
  * @author Tobias Zangl
  */
-public class FPSOverlay implements IFeatureDraw {
+public class FPSOverlay implements IFeatureDraw, IFeatureSchedule {
+    /** Updates of the displayed frames per second per second. */
+    private static final float FREQUENCY = 4.0f;
+    
     private Label fpsCounter;
     
     public FPSOverlay(final Stage stage) {
@@ -26,6 +31,18 @@ public class FPSOverlay implements IFeatureDraw {
     
     @Override
     public void draw(float delta) {
-        fpsCounter.setText(I18n.t("fps") + " " + String.valueOf((int) (1.0 / delta)));
+        // delta is the time since the last update of the label, not of the
+        // last frame
+        fpsCounter.setText(I18n.t("fps") + " " + String.valueOf(Gdx.graphics.getFramesPerSecond()));
+    }
+    
+    @Override
+    public float getFrequency() {
+        return FREQUENCY;
+    }
+    
+    @Override
+    public int getPriority() {
+        return PRIORITY_LOW;
     }
 }
@@ -9,6 +9,8 @@ import com.badlogic.gdx.math.Vector3;
 
 import de.fau.cs.mad.fly.features.IFeatureDraw;
 import de.fau.cs.mad.fly.features.IFeatureInit;
+import de.fau.cs.mad.fly.features.IFeatureSchedule;
+import de.fau.cs.mad.fly.features.IFeatureUpdate;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameObject;
 import de.fau.cs.mad.fly.res.GateCircuit;
@@ -18,11 +20,26 @@ import de.fau.cs.mad.fly.ui.UI;
 /**
  * This class implements the function to show in the game small arrows that
  * indicate the direction of the next gates.
+ * <p>
+ * The arrows are computed with {@link #FREQUENCY} in {@link #update(float)}
+ * and drawn every frame.
  * 
  * @author Lukas Hahmann
  * 
  */
-public class GateIndicator implements IFeatureInit, IFeatureDraw {
+public class GateIndicator implements IFeatureInit, IFeatureUpdate, IFeatureDraw, IFeatureSchedule {
+    
+    /** Computations of the arrows per second. */
+    private static final float FREQUENCY = 15.0f;
+    
+    /** Number of arrows that are computed in the last update. */
+    private int numberOfArrows = 0;
+    
+    /** Rotation angles of the computed arrows. */
+    private float[] arrowAngles = new float[4];
+    
+    /** Scaling factors of the computed arrows. */
+    private float[] arrowScales = new float[4];
     
     /** Local copy of the gate position to calculate with. */
     private Vector3 gatePosition;
@@ -30,6 +47,9 @@ public class GateIndicator implements IFeatureInit, IFeatureDraw {
     /** Projected target point on near plane of the camera. */
     private Vector3 pointOnNearPlane;
     
+    /** Copy of the gate position that is projected. */
+    private final Vector3 projected = new Vector3();
+    
     /** Points from camera.position to target */
     private Vector3 toGate;
     
@@ -130,53 +150,76 @@ public class GateIndicator implements IFeatureInit, IFeatureDraw {
     }
     
     @Override
-    public void draw(float delta) {
+    public void update(float delta) {
         GateCircuit gateCircuit = level.getGateCircuit();
         int numberOfGates = gateCircuit.currentGates().length;
-        boolean drawIndicator = true;
         int i = 0;
+        numberOfArrows = 0;
         
         // only show gate indicator when none of the next gates are visible
         for (; i < numberOfGates; i++) {
             GameObject gate = gateCircuit.getGateGoalById(gateCircuit.currentGates()[i]);
             if (gate.isVisibleInFrustum(camera)) {
-                drawIndicator = false;
-                i = numberOfGates;
+                return;
             }
         }
         
-        if (drawIndicator) {
-            batch.begin();
-            for (i = 0; i < numberOfGates; i++) {
-                gatePosition = gateCircuit.getGateGoalById(gateCircuit.currentGates()[i]).getPosition();
-                pointOnNearPlane = camera.project(gatePosition.cpy());
-                pointOnNearPlane.set(pointOnNearPlane.x - Gdx.graphics.getWidth() / 2, pointOnNearPlane.y - Gdx.graphics.getHeight() / 2, 0);
-                
-                toGate.set(gatePosition).sub(camera.position);
-                // flip the pointOnNearPlane because for angles > 90 the vector
-                // is calculated wrong
-                if (angleBetweenTwoVectors(camera.direction, toGate) > 90) {
-                    pointOnNearPlane.scl(-1);
-                }
-                angle = angleBetweenTwoVectors(screenUp, pointOnNearPlane);
-                
-                // as the angle is only computed from 0 to 180°, it is
-                // necessary to flip the direction, if it has the other
-                // direction than the reference vector. Otherwise the indicator
-                // would only point left
-                if (pointOnNearPlane.hasSameDirection(screenRight)) {
-                    angle = 360 - angle;
-                }
-                
-                // calculate the size of the arrow according to the distance of
-                // the target
-                scalingFactor = 10 / toGate.len();
-                scalingFactor = Math.min(scalingFactor, maxScalingFactor);
-                scalingFactor = Math.max(scalingFactor, minScalingFactor);
-                batch.draw(arrow, startPosX, startPosY, originX, originY, arrowWidth, arrowHeigth, scalingFactor, scalingFactor, angle);
+        if (arrowAngles.length < numberOfGates) {
+            arrowAngles = new float[numberOfGates];
+            arrowScales = new float[numberOfGates];
+        }
+        for (i = 0; i < numberOfGates; i++) {
+            gatePosition = gateCircuit.getGateGoalById(gateCircuit.currentGates()[i]).getPosition();
+            pointOnNearPlane = camera.project(projected.set(gatePosition));
+            pointOnNearPlane.set(pointOnNearPlane.x - Gdx.graphics.getWidth() / 2, pointOnNearPlane.y - Gdx.graphics.getHeight() / 2, 0);
+            
+            toGate.set(gatePosition).sub(camera.position);
+            // flip the pointOnNearPlane because for angles > 90 the vector
+            // is calculated wrong
+            if (angleBetweenTwoVectors(camera.direction, toGate) > 90) {
+                pointOnNearPlane.scl(-1);
+            }
+            angle = angleBetweenTwoVectors(screenUp, pointOnNearPlane);
+            
+            // as the angle is only computed from 0 to 180°, it is
+            // necessary to flip the direction, if it has the other
+            // direction than the reference vector. Otherwise the indicator
+            // would only point left
+            if (pointOnNearPlane.hasSameDirection(screenRight)) {
+                angle = 360 - angle;
             }
-            batch.end();
+            
+            // calculate the size of the arrow according to the distance of
+            // the target
+            scalingFactor = 10 / toGate.len();
+            scalingFactor = Math.min(scalingFactor, maxScalingFactor);
+            scalingFactor = Math.max(scalingFactor, minScalingFactor);
+            arrowAngles[numberOfArrows] = angle;
+            arrowScales[numberOfArrows] = scalingFactor;
+            numberOfArrows++;
+        }
+    }
+    
+    @Override
+    public void draw(float delta) {
+        if (numberOfArrows == 0) {
+            return;
         }
+        batch.begin();
+        for (int i = 0; i < numberOfArrows; i++) {
+            batch.draw(arrow, startPosX, startPosY, originX, originY, arrowWidth, arrowHeigth, arrowScales[i], arrowScales[i], arrowAngles[i]);
+        }
+        batch.end();
+    }
+    
+    @Override
+    public float getFrequency() {
+        return FREQUENCY;
+    }
+    
+    @Override
+    public int getPriority() {
+        return PRIORITY_LOW;
     }
     
     /**
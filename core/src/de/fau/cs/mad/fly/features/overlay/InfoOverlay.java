@@ -8,6 +8,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.utils.Align;
 import com.badlogic.gdx.scenes.scene2d.utils.NinePatchDrawable;
 
+import de.fau.cs.mad.fly.features.IFeatureSchedule;
 import de.fau.cs.mad.fly.features.IFeatureUpdate;
 import de.fau.cs.mad.fly.ui.SkinManager;
 import de.fau.cs.mad.fly.ui.UI;
@@ -17,7 +18,10 @@ import de.fau.cs.mad.fly.ui.UI;
  * @author Tobi
  * 
  */
-public class InfoOverlay implements IFeatureUpdate {
+public class InfoOverlay implements IFeatureUpdate, IFeatureSchedule {
+    /** Checks per second if the overlay has to be hidden. */
+    private static final float FREQUENCY = 10.0f;
+    
     /**
      * Singleton info overlay instance.
      */
@@ -25,6 +29,9 @@ public class InfoOverlay implements IFeatureUpdate {
     
     /**
      * Creates the info overlay instance.
+     * <p>
+     * Without a stage, for example in a headless simulation, the overlay only
+     * keeps the text and the duration.
      */
     public static void createInfoOverlay(final Stage stage) {
         instance = new InfoOverlay(stage);
@@ -39,13 +46,18 @@ public class InfoOverlay implements IFeatureUpdate {
         return instance;
     }
     
-    private final Label infoLabel;
-    private final Table innerTable;
-    private final Table outerTable;
+    private Label infoLabel;
+    private Table innerTable;
+    private Table outerTable;
     
+    private String text = "";
+    private boolean visible = false;
     private float duration = 0.0f;
     
     protected InfoOverlay(final Stage stage) {
+        if (stage == null) {
+            return;
+        }
         final Skin skin = SkinManager.getInstance().getSkin();
         
         outerTable = new Table();
@@ -65,7 +77,7 @@ public class InfoOverlay implements IFeatureUpdate {
     
     @Override
     public void update(float delta) {
-        if (!innerTable.isVisible()) {
+        if (!visible) {
             return;
         }
         
@@ -83,7 +95,19 @@ public class InfoOverlay implements IFeatureUpdate {
      *            True, if the info overlay should be visible, false otherwise.
      */
     public void setVisible(boolean visible) {
-        innerTable.setVisible(visible);
+        this.visible = visible;
+        if (innerTable != null) {
+            innerTable.setVisible(visible);
+        }
+    }
+    
+    /**
+     * Getter for the text of the info overlay.
+     * 
+     * @return the last text that was set
+     */
+    public String getText() {
+        return text;
     }
     
     /**
@@ -98,7 +122,20 @@ public class InfoOverlay implements IFeatureUpdate {
      */
     public void setOverlay(String text, int duration) {
         this.duration = (float) duration;
-        infoLabel.setText(text);
+        this.text = text;
+        if (infoLabel != null) {
+            infoLabel.setText(text);
+        }
         setVisible(true);
     }
+    
+    @Override
+    public float getFrequency() {
+        return FREQUENCY;
+    }
+    
+    @Override
+    public int getPriority() {
+        return PRIORITY_NORMAL;
+    }
 }
\ No newline at end of file
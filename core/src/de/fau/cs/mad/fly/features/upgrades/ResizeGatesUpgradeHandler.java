@@ -9,6 +9,7 @@ import de.fau.cs.mad.fly.features.overlay.InfoOverlay;
 import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
 import de.fau.cs.mad.fly.features.upgrades.types.ResizeGatesUpgrade;
 import de.fau.cs.mad.fly.sound.AudioManager;
+import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.res.GateCircuit;
 import de.fau.cs.mad.fly.res.GateGoal;
@@ -49,16 +50,12 @@ public class ResizeGatesUpgradeHandler extends CollectibleObjects implements IFe
      *            The scaling vector of the resizing of the gates.
      */
     private void resizeGates(Vector3 scale) {
-        Vector3 scaling = new Vector3();
         for (GateGoal g : gateCircuit.allGateGoals()) {
             if (g.getDisplay() != null) {
-                g.getDisplay().transform.scl(scale);
-                g.getDisplay().transform.getScale(scaling);
-                g.getDisplay().getRigidBody().getCollisionShape().setLocalScaling(scaling);
+                g.getDisplay().scale(scale);
             }
-            g.transform.scl(scale);
-            g.transform.getScale(scaling);
-            g.getRigidBody().getCollisionShape().setLocalScaling(scaling);
+            g.scale(scale);
         }
+        CollisionDetector.getInstance().updateStaticBodies();
     }
 }
\ No newline at end of file
@@ -36,6 +36,16 @@ public class ChangeTimeUpgrade extends Collectible {
         return timeChange;
     }
     
+    /**
+     * Setter for the time change.
+     * 
+     * @param timeChange
+     *            The amount of time to change.
+     */
+    public void setTimeChange(int timeChange) {
+        this.timeChange = timeChange;
+    }
+    
     @Override
     public String getType() {
         return "ChangeTimeUpgrade";
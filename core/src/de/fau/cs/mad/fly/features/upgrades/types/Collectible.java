@@ -1,8 +1,5 @@
 package de.fau.cs.mad.fly.features.upgrades.types;
 
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
-import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
-
 import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameModel;
 import de.fau.cs.mad.fly.game.GameObject;
@@ -35,9 +32,8 @@ public class Collectible extends GameObject {
      *            The collectible type for the shape.
      */
     public void createShapeAndRigidBody(CollisionDetector collisionDetector, String type) {
-        btCollisionShape shape = CollisionDetector.getInstance().getShapeManager().createConvexShape(type, this);
-        createRigidBody(type, shape, 1.0f, CollisionDetector.DUMMY_FLAG, CollisionDetector.PLAYER_FLAG);
-        getRigidBody().setCollisionFlags(getRigidBody().getCollisionFlags() | btRigidBody.CollisionFlags.CF_NO_CONTACT_RESPONSE);
+        CollisionDetector.getInstance().createConvexBody(this, type, 1.0f, CollisionDetector.DUMMY_FLAG, CollisionDetector.PLAYER_FLAG);
+        disableContactResponse();
         CollisionDetector.getInstance().addRigidBody(this);
         setDummy(true);
     }
@@ -36,6 +36,16 @@ public class TemporarySpeedUpgrade extends Collectible {
         return effect;
     }
     
+    /**
+     * Setter for the {@link #effect} of this upgrade.
+     * 
+     * @param effect
+     *            of this upgrade
+     */
+    public void setEffect(SpeedUpgradeEffect effect) {
+        this.effect = effect;
+    }
+    
     @Override
     public String getType() {
         return TYPE;
@@ -0,0 +1,15 @@
+package de.fau.cs.mad.fly.game;
+
+/**
+ * Counts the memory allocated by a thread, used by the {@link FrameProfiler}
+ * to attribute the allocations of a frame to its phases.
+ */
+public interface AllocationCounter {
+    
+    /**
+     * Getter for the bytes the counted thread allocated so far.
+     * 
+     * @return allocated bytes
+     */
+    public long getAllocatedBytes();
+}
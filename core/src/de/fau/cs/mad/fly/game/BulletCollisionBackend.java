@@ -0,0 +1,267 @@
+package de.fau.cs.mad.fly.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.*;
+import com.badlogic.gdx.physics.bullet.dynamics.btConstraintSolver;
+import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Collision backend with the Bullet worlds, see
+ * {@link CollisionDetector.Backend#DYNAMICS_WORLD} and
+ * {@link CollisionDetector.Backend#COLLISION_WORLD}.
+ * <p>
+ * The game objects get rigid bodies with the shapes of the
+ * {@link CollisionShapeManager}. Bullet calls the contact listener only for
+ * pairs of bodies whose contact callback flag and filter match, see
+ * {@link CollisionDetector#setContactFiltering(boolean)}. During the Bullet
+ * step the listener only stores the ids of the bodies in the contact buffer.
+ */
+public class BulletCollisionBackend implements ICollisionBackend {
+    
+    /** Flags with which {@link #addBody(GameObject, int)} classifies a body. */
+    private static final int CLASSIFICATION_FLAGS = btCollisionObject.CollisionFlags.CF_STATIC_OBJECT | btCollisionObject.CollisionFlags.CF_KINEMATIC_OBJECT;
+    
+    /**
+     * Listener that stores the ids of the bodies of every started contact.
+     */
+    private class BufferingContactListener extends ContactListener {
+        @Override
+        public void onContactStarted(int id1, boolean match1, int id2, boolean match2) {
+            // the ids are passed without creating or looking up the Java
+            // objects of the bodies
+            contactCallbacks++;
+            contacts.add(id1, id2);
+        }
+    }
+    
+    private final ContactBuffer contacts;
+    private final CollisionShapeManager shapeManager;
+    private final RigidBodyInfoManager rigidBodyInfoManager;
+    
+    private final btCollisionConfiguration collisionConfig;
+    private final btDispatcher dispatcher;
+    private final btBroadphaseInterface broadphase;
+    private final BufferingContactListener contactListener;
+    
+    /** The world with the bodies, the dynamics world if one is used. */
+    private final btCollisionWorld collisionWorld;
+    /** The dynamics world, null if only a collision world is used. */
+    private final btDynamicsWorld dynamicsWorld;
+    private final btConstraintSolver constraintSolver;
+    
+    /** Number of calls of the contact listener since the step began. */
+    private int contactCallbacks;
+    
+    /**
+     * Game objects with a mass, whose velocities are integrated by the
+     * backend if there is no dynamics world.
+     */
+    private final Array<GameObject> integratedObjects = new Array<GameObject>(false, 16, GameObject.class);
+    private final Matrix4 integratedTransform = new Matrix4();
+    
+    /**
+     * Creates the Bullet world.
+     * 
+     * @param backend
+     *            {@link CollisionDetector.Backend#DYNAMICS_WORLD} or
+     *            {@link CollisionDetector.Backend#COLLISION_WORLD}.
+     * @param worldRadius
+     *            Radius of the level for a sweep and prune broadphase, 0 for
+     *            a dynamic AABB tree, see
+     *            {@link CollisionDetector#createCollisionDetector(CollisionDetector.Backend, float)}.
+     * @param contacts
+     *            The buffer for the contacts.
+     */
+    public BulletCollisionBackend(CollisionDetector.Backend backend, float worldRadius, ContactBuffer contacts) {
+        this.contacts = contacts;
+        shapeManager = new CollisionShapeManager();
+        rigidBodyInfoManager = new RigidBodyInfoManager();
+        
+        collisionConfig = new btDefaultCollisionConfiguration();
+        dispatcher = new btCollisionDispatcher(collisionConfig);
+        if (worldRadius > 0.0f) {
+            final float bound = worldRadius * CollisionDetector.AXIS_SWEEP_MARGIN;
+            broadphase = new btAxisSweep3(new Vector3(-bound, -bound, -bound), new Vector3(bound, bound, bound));
+            Gdx.app.log("BulletCollisionBackend", "Using sweep and prune broadphase with bound " + bound + ".");
+        } else {
+            broadphase = new btDbvtBroadphase();
+        }
+        
+        if (backend == CollisionDetector.Backend.COLLISION_WORLD) {
+            constraintSolver = null;
+            dynamicsWorld = null;
+            collisionWorld = new btCollisionWorld(dispatcher, broadphase, collisionConfig);
+        } else {
+            constraintSolver = new btSequentialImpulseConstraintSolver();
+            dynamicsWorld = new btDiscreteDynamicsWorld(dispatcher, broadphase, constraintSolver, collisionConfig);
+            dynamicsWorld.setGravity(new Vector3(0.0f, 0.0f, 0.0f));
+            collisionWorld = dynamicsWorld;
+        }
+        // the bounding boxes of the static bodies are only computed when they
+        // are added, see addBody
+        collisionWorld.setForceUpdateAllAabbs(false);
+        
+        contactListener = new BufferingContactListener();
+    }
+    
+    /**
+     * Getter for the collision shape manager.
+     * 
+     * @return CollisionShapeManager
+     */
+    public CollisionShapeManager getShapeManager() {
+        return shapeManager;
+    }
+    
+    /**
+     * Getter for the rigid body info manager.
+     * 
+     * @return RigidBodyInfoManager
+     */
+    public RigidBodyInfoManager getRigidBodyInfoManager() {
+        return rigidBodyInfoManager;
+    }
+    
+    @Override
+    public void createConvexBody(GameObject gameObject, String shapeId, float mass, short filterGroup, short filterMask) {
+        btCollisionShape shape = shapeManager.createConvexShape(shapeId, gameObject);
+        gameObject.createRigidBody(shapeId, shape, mass, filterGroup, filterMask);
+    }
+    
+    @Override
+    public void createBoxBody(GameObject gameObject, String shapeId, Vector3 halfExtents, float mass, short filterGroup, short filterMask) {
+        btCollisionShape shape = shapeManager.createBoxShape(shapeId, halfExtents);
+        gameObject.createRigidBody(shapeId, shape, mass, filterGroup, filterMask);
+    }
+    
+    @Override
+    public void createMeshBody(GameObject gameObject, String shapeId, short filterGroup, short filterMask) {
+        btCollisionShape shape = shapeManager.createStaticMeshShape(shapeId, gameObject);
+        gameObject.createRigidBody(shapeId, shape, 0.0f, filterGroup, filterMask);
+    }
+    
+    /**
+     * Adds the rigid body of a game object to the world.
+     * <p>
+     * It also sets the filter group and mask. Bodies without mass are
+     * classified once: bodies of game objects with a mover are kinematic and
+     * stay active, all others are static and sleep, so Bullet neither updates
+     * their bounding boxes nor tests them against each other. Bodies with a
+     * mass stay dynamic, because their velocities are integrated by the world.
+     * <p>
+     * Pooled game objects add the same body again, maybe with another mover,
+     * so the previous classification is cleared first.
+     */
+    @Override
+    public void addBody(GameObject gameObject, int id) {
+        btRigidBody rigidBody = gameObject.getRigidBody();
+        rigidBody.setUserValue(id);
+        int flags = rigidBody.getCollisionFlags() & ~CLASSIFICATION_FLAGS;
+        if (rigidBody.getInvMass() > 0.0f) {
+            rigidBody.setCollisionFlags(flags);
+            rigidBody.forceActivationState(CollisionConstants.ACTIVE_TAG);
+        } else if (gameObject.getMover() != null) {
+            rigidBody.setCollisionFlags(flags | btCollisionObject.CollisionFlags.CF_KINEMATIC_OBJECT);
+            rigidBody.forceActivationState(CollisionConstants.DISABLE_DEACTIVATION);
+        } else {
+            rigidBody.setCollisionFlags(flags | btCollisionObject.CollisionFlags.CF_STATIC_OBJECT);
+            // forced, because a former kinematic body can not be deactivated
+            rigidBody.forceActivationState(CollisionConstants.ISLAND_SLEEPING);
+        }
+        if (dynamicsWorld != null) {
+            dynamicsWorld.addRigidBody(rigidBody, gameObject.getFilterGroup(), gameObject.getFilterMask());
+        } else {
+            collisionWorld.addCollisionObject(rigidBody, gameObject.getFilterGroup(), gameObject.getFilterMask());
+            if (rigidBody.getInvMass() > 0.0f) {
+                integratedObjects.add(gameObject);
+            }
+        }
+    }
+    
+    @Override
+    public int getBodyId(GameObject gameObject) {
+        btRigidBody rigidBody = gameObject.getRigidBody();
+        return rigidBody == null ? -1 : rigidBody.getUserValue();
+    }
+    
+    @Override
+    public void removeBody(GameObject gameObject) {
+        btRigidBody rigidBody = gameObject.getRigidBody();
+        if (dynamicsWorld != null) {
+            dynamicsWorld.removeRigidBody(rigidBody);
+        } else {
+            collisionWorld.removeCollisionObject(rigidBody);
+            integratedObjects.removeValue(gameObject, true);
+        }
+        rigidBody.setCollisionFlags(rigidBody.getCollisionFlags() & ~CLASSIFICATION_FLAGS);
+        rigidBody.setUserValue(-1);
+    }
+    
+    @Override
+    public void updateStaticBodies() {
+        collisionWorld.setForceUpdateAllAabbs(true);
+        collisionWorld.updateAabbs();
+        collisionWorld.setForceUpdateAllAabbs(false);
+    }
+    
+    @Override
+    public int step(float timeStep, int subSteps) {
+        contactCallbacks = 0;
+        final float subStepTime = timeStep / subSteps;
+        for (int i = 0; i < subSteps; i++) {
+            if (dynamicsWorld == null) {
+                stepCollisionWorld(subStepTime);
+            } else {
+                // the substeps cover the whole time, so Bullet neither
+                // accumulates the time nor interpolates the motion states
+                dynamicsWorld.stepSimulation(subStepTime, 0);
+            }
+        }
+        return contactCallbacks;
+    }
+    
+    /**
+     * Moves the bodies with a mass by their velocities and detects the
+     * contacts, without solving them.
+     * 
+     * @param timeStep
+     *            Time that is simulated in this step.
+     */
+    private void stepCollisionWorld(float timeStep) {
+        final GameObject[] items = integratedObjects.items;
+        final int size = integratedObjects.size;
+        for (int i = 0; i < size; i++) {
+            GameObject gameObject = items[i];
+            btRigidBody rigidBody = gameObject.getRigidBody();
+            rigidBody.applyDamping(timeStep);
+            rigidBody.predictIntegratedTransform(timeStep, integratedTransform);
+            rigidBody.proceedToTransform(integratedTransform);
+            if (gameObject.hasMotionState()) {
+                // like the dynamics world does with the motion state
+                gameObject.transform.set(integratedTransform);
+            }
+        }
+        collisionWorld.performDiscreteCollisionDetection();
+    }
+    
+    @Override
+    public void dispose() {
+        collisionWorld.dispose();
+        broadphase.dispose();
+        dispatcher.dispose();
+        collisionConfig.dispose();
+        contactListener.dispose();
+        if (constraintSolver != null) {
+            constraintSolver.dispose();
+        }
+        
+        rigidBodyInfoManager.dispose();
+        shapeManager.dispose();
+    }
+}
@@ -2,6 +2,7 @@ package de.fau.cs.mad.fly.game;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.Matrix4;
 
 import de.fau.cs.mad.fly.Loader;
 import de.fau.cs.mad.fly.player.Player;
@@ -50,12 +51,26 @@ public class CameraController {
      * @return The PersectiveCamera on the new position
      */
     public PerspectiveCamera updateCamera() {
+        return updateCamera(player.getPlane().getTransform());
+    }
+    
+    /**
+     * Computes new Position for the camera in 3rd person view behind a given
+     * transform of the plane, for example the interpolated transform when the
+     * game runs with a fixed time step.
+     * 
+     * @param planeTransform
+     *            The transform of the plane to follow.
+     * @return The PersectiveCamera on the new position
+     */
+    public PerspectiveCamera updateCamera(Matrix4 planeTransform) {
         
-        values = player.getPlane().getTransform().getValues();
+        values = planeTransform.getValues();
         camera.direction.set(values[8], values[9], values[10]).nor();
         camera.up.set(values[4], values[5], values[6]).nor();
         
-        camera.position.set(player.getPlane().getPosition().cpy().sub(camera.direction.cpy().scl(cameraDistance)));
+        camera.position.set(values[Matrix4.M03], values[Matrix4.M13], values[Matrix4.M23]);
+        camera.position.sub(camera.direction.x * cameraDistance, camera.direction.y * cameraDistance, camera.direction.z * cameraDistance);
         camera.position.add(camera.up.x * cameraOffset, camera.up.y * cameraOffset, camera.up.z * cameraOffset);
         
         camera.update();
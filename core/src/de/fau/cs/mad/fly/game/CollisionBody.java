@@ -0,0 +1,305 @@
+package de.fau.cs.mad.fly.game;
+
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Body of a game object for the collision detection without Bullet, see
+ * {@link SpatialHashCollisionBackend}.
+ * <p>
+ * Like a rigid body it has its own world transform, which is moved by the
+ * velocities if the body has a mass. The {@link CollisionVolume} is placed
+ * with the world transform and the scaling. The bounds in world space are
+ * updated whenever the transform or the scaling changes.
+ */
+public class CollisionBody {
+    
+    private final CollisionVolume volume;
+    private final float mass;
+    
+    private final Matrix4 worldTransform = new Matrix4();
+    private final Vector3 scaling = new Vector3(1.0f, 1.0f, 1.0f);
+    
+    /**
+     * Linear part of the world transform multiplied with the scaling, column
+     * major, and the translation. Maps a local point of the volume to world
+     * space.
+     */
+    final float[] basis = new float[12];
+    /** Inverse of {@link #basis}, only computed for meshes. */
+    float[] inverseBasis;
+    
+    /** Bounds in world space. */
+    final Vector3 min = new Vector3();
+    final Vector3 max = new Vector3();
+    /**
+     * Bounds with which a static body was inserted into the grid of the
+     * backend, the body is removed with them.
+     */
+    final Vector3 gridMin = new Vector3();
+    final Vector3 gridMax = new Vector3();
+    
+    private final Vector3 linearVelocity = new Vector3();
+    private final Vector3 angularVelocity = new Vector3();
+    private float linearDamping = 0.0f;
+    private float angularDamping = 0.0f;
+    
+    /** Filter group, filter mask and contact callback flag and filter. */
+    short filterGroup;
+    short filterMask;
+    short contactCallbackFlag;
+    short contactCallbackFilter;
+    
+    /** Id of the body in the {@link CollisionDetector}. */
+    int id = -1;
+    /** True, if the body is moved by a mover and not by its velocities. */
+    boolean kinematic = false;
+    
+    private final Matrix4 tmpTransform = new Matrix4();
+    private final Matrix4 tmpRotation = new Matrix4();
+    private final Vector3 tmpAxis = new Vector3();
+    private final Vector3 tmpPosition = new Vector3();
+    private final Vector3 tmpCorner = new Vector3();
+    private final Matrix3 tmpMatrix = new Matrix3();
+    
+    /**
+     * Creates a new body.
+     * 
+     * @param volume
+     *            The shape of the body.
+     * @param mass
+     *            The mass, 0 for bodies that are not moved by their velocities.
+     */
+    public CollisionBody(CollisionVolume volume, float mass) {
+        if (volume.getType() == CollisionVolume.MESH && mass > 0.0f) {
+            throw new IllegalArgumentException("A mesh can not have a mass.");
+        }
+        this.volume = volume;
+        this.mass = mass;
+        updateBasis();
+    }
+    
+    public CollisionVolume getVolume() {
+        return volume;
+    }
+    
+    public float getMass() {
+        return mass;
+    }
+    
+    /**
+     * Checks if the body is moved, by its velocities or by a mover.
+     * 
+     * @return true, if the body has a mass or is kinematic
+     */
+    public boolean isMoving() {
+        return mass > 0.0f || kinematic;
+    }
+    
+    /**
+     * Sets the world transform.
+     * 
+     * @param transform
+     *            The new world transform, it is copied.
+     */
+    public void setWorldTransform(Matrix4 transform) {
+        worldTransform.set(transform);
+        updateBasis();
+    }
+    
+    /**
+     * Getter for the world transform.
+     * 
+     * @param out
+     *            The matrix to store the world transform.
+     * @return out
+     */
+    public Matrix4 getWorldTransform(Matrix4 out) {
+        return out.set(worldTransform);
+    }
+    
+    /**
+     * Getter for the world transform, like the center of mass transform of a
+     * rigid body.
+     * 
+     * @return a temporary copy of the world transform, that is overwritten by
+     *         the next call
+     */
+    public Matrix4 getWorldTransform() {
+        return tmpTransform.set(worldTransform);
+    }
+    
+    /**
+     * Scales the volume of the body in local space.
+     * 
+     * @param scaling
+     *            The scaling in x, y and z.
+     */
+    public void setScaling(Vector3 scaling) {
+        this.scaling.set(scaling);
+        updateBasis();
+    }
+    
+    public Vector3 getScaling() {
+        return scaling;
+    }
+    
+    public void setLinearVelocity(Vector3 velocity) {
+        linearVelocity.set(velocity);
+    }
+    
+    public Vector3 getLinearVelocity() {
+        return linearVelocity;
+    }
+    
+    public void setAngularVelocity(Vector3 velocity) {
+        angularVelocity.set(velocity);
+    }
+    
+    public Vector3 getAngularVelocity() {
+        return angularVelocity;
+    }
+    
+    /**
+     * Sets the damping of the velocities.
+     * 
+     * @param linearDamping
+     *            Part of the linear velocity that is lost per second.
+     * @param angularDamping
+     *            Part of the angular velocity that is lost per second.
+     */
+    public void setDamping(float linearDamping, float angularDamping) {
+        this.linearDamping = Math.min(Math.max(linearDamping, 0.0f), 1.0f);
+        this.angularDamping = Math.min(Math.max(angularDamping, 0.0f), 1.0f);
+    }
+    
+    /**
+     * Moves the body by its velocities, like Bullet integrates a rigid body.
+     * 
+     * @param timeStep
+     *            Time in seconds.
+     */
+    public void integrate(float timeStep) {
+        if (linearDamping > 0.0f) {
+            linearVelocity.scl((float) Math.pow(1.0f - linearDamping, timeStep));
+        }
+        if (angularDamping > 0.0f) {
+            angularVelocity.scl((float) Math.pow(1.0f - angularDamping, timeStep));
+        }
+        worldTransform.getTranslation(tmpPosition);
+        final float angle = angularVelocity.len() * timeStep;
+        if (angle > 0.0f) {
+            tmpAxis.set(angularVelocity).nor();
+            worldTransform.setTranslation(0.0f, 0.0f, 0.0f);
+            worldTransform.mulLeft(tmpRotation.setToRotationRad(tmpAxis, angle));
+        }
+        tmpPosition.mulAdd(linearVelocity, timeStep);
+        worldTransform.setTranslation(tmpPosition);
+        updateBasis();
+    }
+    
+    /**
+     * Maps a point of the volume from local to world space.
+     * 
+     * @param point
+     *            The point in local space, it is overwritten.
+     * @return point in world space
+     */
+    public Vector3 toWorld(Vector3 point) {
+        final float[] b = basis;
+        return point.set(b[0] * point.x + b[3] * point.y + b[6] * point.z + b[9], b[1] * point.x + b[4] * point.y + b[7] * point.z + b[10], b[2] * point.x + b[5] * point.y + b[8] * point.z + b[11]);
+    }
+    
+    /**
+     * Maps a point from world to the local space of a mesh.
+     * 
+     * @param point
+     *            The point in world space, it is overwritten.
+     * @return point in local space
+     */
+    Vector3 toLocal(Vector3 point) {
+        final float[] b = inverseBasis;
+        final float x = point.x - basis[9];
+        final float y = point.y - basis[10];
+        final float z = point.z - basis[11];
+        return point.set(b[0] * x + b[3] * y + b[6] * z, b[1] * x + b[4] * y + b[7] * z, b[2] * x + b[5] * y + b[8] * z);
+    }
+    
+    /**
+     * Updates the basis and the bounds in world space after the transform or
+     * the scaling changed.
+     */
+    private void updateBasis() {
+        final float[] m = worldTransform.val;
+        for (int column = 0; column < 3; column++) {
+            final float s = column == 0 ? scaling.x : column == 1 ? scaling.y : scaling.z;
+            basis[3 * column] = m[4 * column] * s;
+            basis[3 * column + 1] = m[4 * column + 1] * s;
+            basis[3 * column + 2] = m[4 * column + 2] * s;
+        }
+        basis[9] = m[Matrix4.M03];
+        basis[10] = m[Matrix4.M13];
+        basis[11] = m[Matrix4.M23];
+        if (volume.getType() == CollisionVolume.MESH) {
+            if (inverseBasis == null) {
+                inverseBasis = new float[9];
+            }
+            System.arraycopy(basis, 0, tmpMatrix.val, 0, 9);
+            if (tmpMatrix.det() != 0.0f) {
+                tmpMatrix.inv();
+            }
+            System.arraycopy(tmpMatrix.val, 0, inverseBasis, 0, 9);
+        }
+        updateBounds();
+    }
+    
+    /**
+     * Computes the bounds in world space from the corners of the bounds in
+     * local space.
+     */
+    private void updateBounds() {
+        final Vector3 localMin = volume.getMin();
+        final Vector3 localMax = volume.getMax();
+        for (int i = 0; i < 8; i++) {
+            tmpCorner.set((i & 1) == 0 ? localMin.x : localMax.x, (i & 2) == 0 ? localMin.y : localMax.y, (i & 4) == 0 ? localMin.z : localMax.z);
+            toWorld(tmpCorner);
+            if (i == 0) {
+                min.set(tmpCorner);
+                max.set(tmpCorner);
+            } else {
+                min.set(Math.min(min.x, tmpCorner.x), Math.min(min.y, tmpCorner.y), Math.min(min.z, tmpCorner.z));
+                max.set(Math.max(max.x, tmpCorner.x), Math.max(max.y, tmpCorner.y), Math.max(max.z, tmpCorner.z));
+            }
+        }
+    }
+    
+    /**
+     * Getter for the minimum of the bounds in world space.
+     * 
+     * @return min
+     */
+    public Vector3 getMin() {
+        return min;
+    }
+    
+    /**
+     * Getter for the maximum of the bounds in world space.
+     * 
+     * @return max
+     */
+    public Vector3 getMax() {
+        return max;
+    }
+    
+    /**
+     * Checks if the bounds of two bodies overlap.
+     * 
+     * @param other
+     *            The other body.
+     * @return true, if the bounds overlap
+     */
+    public boolean boundsOverlap(CollisionBody other) {
+        return min.x <= other.max.x && max.x >= other.min.x && min.y <= other.max.y && max.y >= other.min.y && min.z <= other.max.z && max.z >= other.min.z;
+    }
+}
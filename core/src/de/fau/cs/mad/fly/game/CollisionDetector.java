@@ -1,20 +1,17 @@
 package de.fau.cs.mad.fly.game;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.DebugDrawer;
-import com.badlogic.gdx.physics.bullet.collision.*;
-import com.badlogic.gdx.physics.bullet.dynamics.btConstraintSolver;
-import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
-import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
-import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
 
-import de.fau.cs.mad.fly.features.ICollisionListener;
-import de.fau.cs.mad.fly.player.Spaceship;
-
-import java.util.ArrayList;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
+import de.fau.cs.mad.fly.game.event.EventBus;
 
 /**
  * The manager for the whole collision detection and handling stuff.
@@ -24,28 +21,78 @@ import java.util.ArrayList;
 public class CollisionDetector implements Disposable {
     
     /**
-     * The collision shape manager used to store the shape for the objects.
+     * The worlds the collision detector can use.
      */
-    CollisionShapeManager shapeManager;
+    public enum Backend {
+        /**
+         * A dynamics world that integrates the velocities and lets the bodies
+         * bounce off each other.
+         */
+        DYNAMICS_WORLD,
+        /**
+         * A collision world that only detects the contacts. The velocities are
+         * integrated without constraint solver, so the bodies fly through each
+         * other. Suits levels without flying objects.
+         */
+        COLLISION_WORLD,
+        /**
+         * A world in pure Java with a spatial hash grid, that does not need
+         * the Bullet natives. Like the collision world it only detects the
+         * contacts.
+         */
+        SPATIAL_HASH;
+        
+        /**
+         * Checks if the backend needs the Bullet natives.
+         * 
+         * @return true, if Bullet has to be initialized
+         */
+        public boolean usesBullet() {
+            return this != SPATIAL_HASH;
+        }
+    }
     
     /**
-     * The rigid body info manager used to store the rigid body construction
-     * info for the objects.
+     * Singleton collision detector instance.
      */
-    RigidBodyInfoManager rigidBodyInfoManager;
+    private static CollisionDetector instance;
     
     /**
-     * Singleton collision detector instance.
+     * Creates the collision detector with a dynamics world if there is not
+     * already an instance created.
      */
-    private static CollisionDetector instance;
+    public static void createCollisionDetector() {
+        createCollisionDetector(Backend.DYNAMICS_WORLD);
+    }
+    
+    /**
+     * Creates the collision detector with a dynamic AABB tree broadphase if
+     * there is not already an instance created.
+     * 
+     * @param backend
+     *            The world to use.
+     */
+    public static void createCollisionDetector(Backend backend) {
+        createCollisionDetector(backend, 0.0f);
+    }
     
     /**
      * Creates the collision detector if there is not already an instance
      * created.
+     * 
+     * @param backend
+     *            The world to use.
+     * @param worldRadius
+     *            Radius of the level. If it is greater than 0, a sweep and
+     *            prune broadphase is used whose bounds are the level cube with
+     *            a margin of {@link #AXIS_SWEEP_MARGIN}. Bodies outside the
+     *            bounds are still detected, but less efficient, so levels
+     *            without bounds like the endless levels pass 0 to use a
+     *            dynamic AABB tree.
      */
-    public static void createCollisionDetector() {
+    public static void createCollisionDetector(Backend backend, float worldRadius) {
         if (instance == null) {
-            instance = new CollisionDetector();
+            instance = new CollisionDetector(backend, worldRadius);
         }
     }
     
@@ -61,55 +108,48 @@ public class CollisionDetector implements Disposable {
     /**
      * The main listener for the collision detection.
      * <p>
-     * It transmits the collision events to the added collision listeners.
+     * The backend only stores the ids of the bodies of the contacts in a
+     * {@link ContactBuffer} while it steps. After the step the listener posts
+     * a {@link CollisionEvent} for every contact to the event bus of the
+     * {@link GameController}. The collision listeners are subscribed to the
+     * event bus, so they can change the collision world.
      * 
      * @author Tobi
      */
-    class CollisionContactListener extends ContactListener {
-        private ArrayList<ICollisionListener> listeners;
+    class CollisionContactListener {
+        private final EventBus eventBus;
+        private final ContactBuffer contacts = new ContactBuffer(CONTACT_BUFFER_CAPACITY);
         
-        public CollisionContactListener() {
-            listeners = new ArrayList<ICollisionListener>();
+        public CollisionContactListener(EventBus eventBus) {
+            this.eventBus = eventBus;
         }
         
         /**
-         * Adds a new collision listener.
-         * 
-         * @param listener
-         *            Collision listener which has to implement the
-         *            ICollisionListener interface.
+         * Posts a collision event for every contact of the last step.
          */
-        public void addListener(ICollisionListener listener) {
-            listeners.add(listener);
+        private void postContacts() {
+            while (contacts.size() > 0) {
+                GameObject o1 = getBody(contacts.peekFirst());
+                GameObject o2 = getBody(contacts.peekSecond());
+                contacts.poll();
+                if (o1 != null && o2 != null) {
+                    if (Gdx.app.getLogLevel() >= Application.LOG_DEBUG) {
+                        Gdx.app.debug("CollisionDetector.postContacts", "o1 = " + o1.getId() + " (userData = " + o1.getUserData().getClass() + "), o2 = " + o2.getId() + " (userData = " + o2.getUserData().getClass() + ")");
+                    }
+                    eventBus.post(eventBus.obtain(CollisionEvent.class).set(o1, o2));
+                }
+            }
+            if (contacts.getDropped() > 0) {
+                Gdx.app.error("CollisionDetector.postContacts", contacts.getDropped() + " contacts did not fit into the buffer.");
+            }
+            contacts.clear();
         }
         
         /**
-         * Removes a listener from the list. Can be used to save performance if
-         * the interface does not need to get informed for collisions anymore.
-         * 
-         * @param listener
-         *            Collision listener which has to implement the
-         *            ICollisionListener interface.
+         * Removes the collision listeners of the level from the event bus.
          */
-        public void removeListener(ICollisionListener listener) {
-            listeners.remove(listener);
-        }
-        
-        @Override
-        public void onContactStarted(btCollisionObject o1, btCollisionObject o2) {
-            GameObject g1 = (GameObject) o1.userData;
-            GameObject g2 = (GameObject) o2.userData;
-            
-            if (g2 instanceof Spaceship) {
-                GameObject spaceship = g2;
-                g2 = g1;
-                g1 = spaceship;
-            }
-            
-            Gdx.app.log("CollisionDetector.onContactStarted", "g1 = " + g1.getId() + " (userData = " + g1.getUserData().getClass() + "), g2 = " + g2.getId() + " (userData = " + g2.getUserData().getClass() + ")");
-            for (ICollisionListener listener : listeners) {
-                listener.onCollision(g1, g2);
-            }
+        public void unsubscribeListeners() {
+            eventBus.unsubscribeAll(CollisionEvent.class);
         }
     }
     
@@ -121,47 +161,162 @@ public class CollisionDetector implements Disposable {
     public final static short PLAYER_FLAG = 1 << 9;
     public final static short ALL_FLAG = -1;
     
-    btCollisionConfiguration collisionConfig;
-    btDispatcher dispatcher;
+    /**
+     * The contact callback filter of the player. Only contacts of the player
+     * with these groups are passed to the {@link CollisionContactListener}.
+     */
+    public final static short PLAYER_CONTACT_FILTER = OBJECT_FLAG | DUMMY_FLAG;
+    
+    /**
+     * Factor of the level radius for the bounds of the sweep and prune
+     * broadphase, so bodies at the level border are inside.
+     */
+    public final static float AXIS_SWEEP_MARGIN = 1.5f;
+    
+    /** Maximal number of different contacts in one step. */
+    public final static int CONTACT_BUFFER_CAPACITY = 256;
+    
+    /**
+     * True, if only the contacts of the player are passed to the
+     * {@link CollisionContactListener}, false if all contacts are passed.
+     */
+    private static boolean contactFiltering = true;
+    
+    /**
+     * True, if the substeps are chosen by the speed of the player, false for
+     * fixed substeps, see {@link SubStepPolicy}.
+     */
+    private static boolean adaptiveSubSteps = true;
+    
     CollisionContactListener contactListener;
-    btBroadphaseInterface broadphase;
     
-    btDynamicsWorld dynamicsWorld;
-    btConstraintSolver constraintSolver;
+    /** The world with the bodies. */
+    private final ICollisionBackend backend;
+    /** The Bullet world, null if the backend does not use Bullet. */
+    private final BulletCollisionBackend bulletBackend;
     
-    DebugDrawer debugDrawer;
+    /**
+     * Time in nanoseconds the last call of {@link #perform(float)} needed in
+     * the backend.
+     */
+    private long lastStepNanos;
     
-    protected CollisionDetector() {
-        shapeManager = new CollisionShapeManager();
-        rigidBodyInfoManager = new RigidBodyInfoManager();
-        
-        collisionConfig = new btDefaultCollisionConfiguration();
-        dispatcher = new btCollisionDispatcher(collisionConfig);
-        broadphase = new btDbvtBroadphase();
-        
-        constraintSolver = new btSequentialImpulseConstraintSolver();
-        dynamicsWorld = new btDiscreteDynamicsWorld(dispatcher, broadphase, constraintSolver, collisionConfig);
-        dynamicsWorld.setGravity(new Vector3(0.0f, 0.0f, 0.0f));
-        
-        contactListener = new CollisionContactListener();
+    /** Number of calls of the contact listener in the last step. */
+    private int lastStepContactCallbacks;
+    
+    /** Number of substeps of the last step. */
+    private int lastStepSubSteps;
+    
+    private final SubStepPolicy subStepPolicy;
+    
+    /** The game object of the player, null if it is not added yet. */
+    private GameObject player;
+    
+    /**
+     * Smallest size of the colliders the player can hit, 0 if there is none.
+     * It shrinks when smaller bodies are added. When bodies are removed it is
+     * kept, so it stays conservative, until {@link #updateStaticBodies()}
+     * computes it again.
+     */
+    private float smallestColliderSize = 0.0f;
+    
+    /** True, if the continuous collision of the player has to be updated. */
+    private boolean continuousCollisionDirty = false;
+    
+    /**
+     * Game objects with a body in the world, the index is the id that is
+     * stored in the body and passed to the contact buffer.
+     */
+    private final Array<GameObject> bodies = new Array<GameObject>(true, 128, GameObject.class);
+    /** Ids of removed bodies that can be reused. */
+    private final IntArray freeIds = new IntArray();
+    
+    protected CollisionDetector(Backend backend, float worldRadius) {
+        contactListener = new CollisionContactListener(GameController.getInstance().getEventBus());
+        subStepPolicy = new SubStepPolicy(adaptiveSubSteps);
+        if (backend.usesBullet()) {
+            bulletBackend = new BulletCollisionBackend(backend, worldRadius, contactListener.contacts);
+            this.backend = bulletBackend;
+        } else {
+            bulletBackend = null;
+            this.backend = new SpatialHashCollisionBackend(contactListener.contacts);
+        }
+        Gdx.app.log("CollisionDetector", "Using " + backend + ".");
     }
     
     /**
      * Getter for the collision shape manager.
      * 
-     * @return CollisionShapeManager
+     * @return CollisionShapeManager, null if the backend does not use Bullet
      */
     public CollisionShapeManager getShapeManager() {
-        return shapeManager;
+        return bulletBackend == null ? null : bulletBackend.getShapeManager();
     }
     
     /**
      * Getter for the rigid body info manager.
      * 
-     * @return RigidBodyInfoManager
+     * @return RigidBodyInfoManager, null if the backend does not use Bullet
      */
     public RigidBodyInfoManager getRigidBodyInfoManager() {
-        return rigidBodyInfoManager;
+        return bulletBackend == null ? null : bulletBackend.getRigidBodyInfoManager();
+    }
+    
+    /**
+     * Creates the body of a game object with the convex hull of its model.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @param shapeId
+     *            The id of the shape, game objects with the same model share
+     *            it.
+     * @param mass
+     *            The mass, 0 for bodies that are not moved by their
+     *            velocities.
+     * @param filterGroup
+     *            The collision filter group.
+     * @param filterMask
+     *            The collision filter mask.
+     */
+    public void createConvexBody(GameObject gameObject, String shapeId, float mass, short filterGroup, short filterMask) {
+        backend.createConvexBody(gameObject, shapeId, mass, filterGroup, filterMask);
+    }
+    
+    /**
+     * Creates the body of a game object with a box shape.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @param shapeId
+     *            The id of the shape.
+     * @param halfExtents
+     *            Half of the size of the box.
+     * @param mass
+     *            The mass.
+     * @param filterGroup
+     *            The collision filter group.
+     * @param filterMask
+     *            The collision filter mask.
+     */
+    public void createBoxBody(GameObject gameObject, String shapeId, Vector3 halfExtents, float mass, short filterGroup, short filterMask) {
+        backend.createBoxBody(gameObject, shapeId, halfExtents, mass, filterGroup, filterMask);
+    }
+    
+    /**
+     * Creates the static body of a game object with the triangle mesh of its
+     * model.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @param shapeId
+     *            The id of the shape.
+     * @param filterGroup
+     *            The collision filter group.
+     * @param filterMask
+     *            The collision filter mask.
+     */
+    public void createMeshBody(GameObject gameObject, String shapeId, short filterGroup, short filterMask) {
+        backend.createMeshBody(gameObject, shapeId, filterGroup, filterMask);
     }
     
     /**
@@ -182,38 +337,206 @@ public class CollisionDetector implements Disposable {
     public static btRigidBody createRigidBody(final GameObject instance, final btCollisionShape shape, final GameObject userData, btRigidBody.btRigidBodyConstructionInfo rigidBodyInfo) {
         btRigidBody rigidBody = new btRigidBody(rigidBodyInfo);
         rigidBody.setCollisionShape(shape);
-        rigidBody.setCollisionFlags(rigidBody.getCollisionFlags() | btRigidBody.CollisionFlags.CF_CUSTOM_MATERIAL_CALLBACK);
         
         rigidBody.setWorldTransform(instance.transform);
         rigidBody.userData = userData;
         
-        // TODO: use contact callback filtering
-        // rigidBody.setContactCallbackFlag(GROUND_FLAG);
-        // rigidBody.setContactCallbackFilter(0);
+        // the contact listener is called if the filter of one body matches
+        // the flag of the other one
+        rigidBody.setContactCallbackFlag(instance.getFilterGroup());
+        rigidBody.setContactCallbackFilter(getContactCallbackFilter(instance.getFilterGroup()));
         
         return rigidBody;
     }
     
     /**
-     * Adds a rigid body to the dynamics world from a given game object.
+     * Getter for the contact callback filter of a body. The contact callback
+     * flag of a body is its filter group.
+     * 
+     * @param filterGroup
+     *            The filter group of the body.
+     * @return the groups whose contacts with the body are passed to the
+     *         contact listener
+     */
+    static short getContactCallbackFilter(short filterGroup) {
+        if (!contactFiltering) {
+            return ALL_FLAG;
+        } else if (filterGroup == PLAYER_FLAG) {
+            return PLAYER_CONTACT_FILTER;
+        }
+        return 0;
+    }
+    
+    /**
+     * Sets if only the contacts of the player are passed to the contact
+     * listener. Without filtering every contact, for example of two asteroids,
+     * is passed from the backend to the contact listener. Applies to the
+     * bodies that are created afterwards.
+     * 
+     * @param contactFiltering
+     *            false, to pass all contacts, for comparison.
+     */
+    public static void setContactFiltering(boolean contactFiltering) {
+        CollisionDetector.contactFiltering = contactFiltering;
+    }
+    
+    /**
+     * Sets if the substeps of the collision detection are chosen by the speed
+     * of the player and the size of the colliders, see {@link SubStepPolicy}.
+     * Applies to the collision detectors that are created afterwards.
+     * 
+     * @param adaptiveSubSteps
+     *            false, for the fixed substeps, for comparison.
+     */
+    public static void setAdaptiveSubSteps(boolean adaptiveSubSteps) {
+        CollisionDetector.adaptiveSubSteps = adaptiveSubSteps;
+    }
+    
+    /**
+     * Adds the body of a game object to the world.
      * <p>
-     * It also sets the filter group and mask.
+     * It also sets the filter group and mask. Bodies without mass are
+     * classified once: bodies of game objects with a mover are kinematic, all
+     * others are static, so the backend neither updates their bounds nor
+     * tests them against each other.
      * 
      * @param gameObject
-     *            The game object with the rigid body to add.
+     *            The game object with the body to add.
      */
     public void addRigidBody(final GameObject gameObject) {
-        dynamicsWorld.addRigidBody(gameObject.getRigidBody(), gameObject.getFilterGroup(), gameObject.getFilterMask());
+        int id;
+        if (freeIds.size > 0) {
+            id = freeIds.pop();
+            bodies.set(id, gameObject);
+        } else {
+            id = bodies.size;
+            bodies.add(gameObject);
+        }
+        backend.addBody(gameObject, id);
+        if (gameObject.getFilterGroup() == PLAYER_FLAG) {
+            player = gameObject;
+            continuousCollisionDirty = true;
+        } else if (canHitPlayer(gameObject)) {
+            addColliderSize(gameObject.getCollisionSize());
+        }
+    }
+    
+    /**
+     * Checks if the player can collide with a game object and is called back
+     * for the contact.
+     */
+    private static boolean canHitPlayer(GameObject gameObject) {
+        return (gameObject.getFilterGroup() & PLAYER_CONTACT_FILTER) != 0 && (gameObject.getFilterMask() & PLAYER_FLAG) != 0;
+    }
+    
+    private void addColliderSize(float size) {
+        if (size > 0.0f && (smallestColliderSize == 0.0f || size < smallestColliderSize)) {
+            smallestColliderSize = size;
+            continuousCollisionDirty = true;
+        }
     }
     
     /**
-     * Removes a rigid body from the dynamics world from a given game object.
+     * Removes the body of a game object from the world. Does nothing if the
+     * body is not in the world.
      * 
      * @param gameObject
-     *            The game object with the rigid body to remove.
+     *            The game object with the body to remove.
      */
     public void removeRigidBody(final GameObject gameObject) {
-        dynamicsWorld.removeRigidBody(gameObject.getRigidBody());
+        // the id is stored in the body, a new body may also have id 0
+        int id = backend.getBodyId(gameObject);
+        if (id < 0 || id >= bodies.size || bodies.get(id) != gameObject) {
+            return;
+        }
+        bodies.set(id, null);
+        freeIds.add(id);
+        backend.removeBody(gameObject);
+        if (gameObject == player) {
+            player = null;
+        }
+    }
+    
+    /**
+     * Updates the bounding boxes of all bodies, also of the static ones. Has
+     * to be called after the collision shapes of static bodies were scaled.
+     */
+    public void updateStaticBodies() {
+        backend.updateStaticBodies();
+        // the colliders may be scaled
+        smallestColliderSize = 0.0f;
+        continuousCollisionDirty = true;
+        for (int i = 0; i < bodies.size; i++) {
+            GameObject gameObject = bodies.get(i);
+            if (gameObject != null && gameObject != player && canHitPlayer(gameObject)) {
+                addColliderSize(gameObject.getCollisionSize());
+            }
+        }
+    }
+    
+    /**
+     * Stores the current transform of all game objects whose transform follows
+     * their body as the transform before the next simulation tick, see
+     * {@link GameObject#storePreviousTransform()}. Has to be called before
+     * every fixed step, so the bodies moved by the physics are rendered
+     * interpolated.
+     */
+    public void storePreviousTransforms() {
+        final GameObject[] items = bodies.items;
+        final int size = bodies.size;
+        for (int i = 0; i < size; i++) {
+            if (items[i] != null && items[i].hasMotionState()) {
+                items[i].storePreviousTransform();
+            }
+        }
+    }
+    
+    /**
+     * Getter for the number of bodies in the world.
+     * 
+     * @return the number of bodies
+     */
+    public int getBodyCount() {
+        return bodies.size - freeIds.size;
+    }
+    
+    /**
+     * Getter for the smallest size of the colliders the player can hit.
+     * 
+     * @return the size, 0 if there is no such collider
+     */
+    public float getSmallestColliderSize() {
+        return smallestColliderSize;
+    }
+    
+    /**
+     * Computes the substeps of the next step and updates the continuous
+     * collision detection of the player if the colliders changed.
+     * 
+     * @param timeStep
+     *            Time that is simulated in the step.
+     * @return the number of substeps
+     */
+    private int prepareStep(float timeStep) {
+        if (player == null) {
+            return subStepPolicy.getSubSteps(timeStep, 0.0f, smallestColliderSize);
+        }
+        if (continuousCollisionDirty) {
+            continuousCollisionDirty = false;
+            player.setContinuousCollision(subStepPolicy.getCcdMotionThreshold(smallestColliderSize), subStepPolicy.getCcdSweptSphereRadius(player.getCollisionSize()));
+        }
+        return subStepPolicy.getSubSteps(timeStep, player.getLinearSpeed(), smallestColliderSize);
+    }
+    
+    /**
+     * Getter for a game object with a body in the world.
+     * 
+     * @param id
+     *            The id of the body.
+     * @return the game object, null if it is removed
+     */
+    private GameObject getBody(int id) {
+        return id < bodies.size ? bodies.get(id) : null;
     }
     
     /**
@@ -227,26 +550,63 @@ public class CollisionDetector implements Disposable {
     
     /**
      * Performs the collision detection and handling.
+     * <p>
+     * The whole time is simulated in one step, which the
+     * {@link SubStepPolicy} splits into substeps of equal length. The
+     * backend steps exactly these substeps, Bullet neither accumulates the
+     * time nor interpolates the motion states. The contacts of the step are
+     * posted to the event bus afterwards.
+     * <p>
+     * With the fixed time step of the {@link GameController} the time is one
+     * tick. Otherwise it is the frame time, which the fixed policy simulates
+     * in at most {@link SubStepPolicy#MAX_FIXED_SUB_STEPS} substeps that
+     * become longer than {@link SubStepPolicy#FIXED_SUB_STEP_TIME} in long
+     * frames. Bullet dropped the time beyond these substeps before.
      * 
      * @param delta
-     *            Time after the last call.
+     *            Time that is simulated in this step.
      */
     public void perform(float delta) {
-        // TODO: check if the values are okay
-        dynamicsWorld.stepSimulation(delta, 5, 1f / 60f);
+        final long start = TimeUtils.nanoTime();
+        lastStepSubSteps = prepareStep(delta);
+        lastStepContactCallbacks = backend.step(delta, lastStepSubSteps);
+        lastStepNanos = TimeUtils.nanoTime() - start;
+        contactListener.postContacts();
+    }
+    
+    /**
+     * Getter for the time the last step of the collision detection needed.
+     * 
+     * @return time in nanoseconds
+     */
+    public long getLastStepNanos() {
+        return lastStepNanos;
+    }
+    
+    /**
+     * Getter for the number of calls of the contact listener in the last step
+     * of the collision detection.
+     * 
+     * @return number of contacts that were passed from Bullet to Java
+     */
+    public int getLastStepContactCallbacks() {
+        return lastStepContactCallbacks;
+    }
+    
+    /**
+     * Getter for the number of substeps of the last step of the collision
+     * detection.
+     * 
+     * @return number of substeps, see {@link SubStepPolicy}
+     */
+    public int getLastStepSubSteps() {
+        return lastStepSubSteps;
     }
     
     @Override
     public void dispose() {
-        dynamicsWorld.dispose();
-        broadphase.dispose();
-        dispatcher.dispose();
-        collisionConfig.dispose();
-        contactListener.dispose();
-        constraintSolver.dispose();
-        
-        rigidBodyInfoManager.dispose();
-        shapeManager.dispose();
+        backend.dispose();
+        contactListener.unsubscribeListeners();
         Gdx.app.log("CollisionDetector", "Collision disposed.");
         
         instance = null;
@@ -1,11 +1,14 @@
 package de.fau.cs.mad.fly.game;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.bullet.Bullet;
 import com.badlogic.gdx.physics.bullet.collision.*;
+import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Disposable;
 
+import java.nio.FloatBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,6 +31,15 @@ public class CollisionShapeManager implements Disposable {
      */
     Map<String, btCollisionShape> meshShapeMap, convexShapeMap, boxShapeMap, sphereShapeMap;
     
+    /**
+     * True, if the points of the convex hulls are stored in the local storage,
+     * see {@link ConvexHullCache}.
+     */
+    private static boolean hullCacheEnabled = true;
+    
+    /** The cache of the convex hulls, null if it is disabled. */
+    private final ConvexHullCache hullCache;
+    
     /**
      * CollisionShapeManager
      * <p>
@@ -40,6 +52,20 @@ public class CollisionShapeManager implements Disposable {
         convexShapeMap = new HashMap<String, btCollisionShape>();
         boxShapeMap = new HashMap<String, btCollisionShape>();
         sphereShapeMap = new HashMap<String, btCollisionShape>();
+        hullCache = hullCacheEnabled ? new ConvexHullCache(Gdx.files.local(ConvexHullCache.DIRECTORY)) : null;
+    }
+    
+    /**
+     * Sets if the points of the convex hulls are stored in the local storage
+     * and reused when a level is loaded again. Applies to the collision shape
+     * managers that are created afterwards.
+     * 
+     * @param enabled
+     *            false, to build every convex hull from the vertices, for
+     *            comparison.
+     */
+    public static void setHullCacheEnabled(boolean enabled) {
+        hullCacheEnabled = enabled;
     }
     
     /**
@@ -114,6 +140,10 @@ public class CollisionShapeManager implements Disposable {
     /**
      * Creates a new btConvexHullShape out of the instance if the shape is not
      * already created.
+     * <p>
+     * The hull of the vertices is reduced with a btShapeHull. The points of
+     * the reduced hull are stored in the {@link ConvexHullCache}, so the shape
+     * is created from them without reduction when the model is loaded again.
      * 
      * @param shapeId
      *            The id of the needed shape.
@@ -128,6 +158,20 @@ public class CollisionShapeManager implements Disposable {
         }
         
         final Mesh mesh = instance.model.meshes.get(0);
+        long hash = 0;
+        if (hullCache != null) {
+            hash = ConvexHullCache.hash(mesh.getVerticesBuffer(), mesh.getNumVertices(), mesh.getVertexSize());
+            float[] points = hullCache.load(shapeId, hash);
+            if (points != null) {
+                FloatBuffer buffer = BufferUtils.newFloatBuffer(points.length);
+                buffer.put(points);
+                buffer.flip();
+                final btConvexHullShape convexShape = new btConvexHullShape(buffer, points.length / 3, 3 * 4);
+                convexShapeMap.put(shapeId, convexShape);
+                return convexShape;
+            }
+        }
+        
         final btConvexHullShape hullShape = new btConvexHullShape(mesh.getVerticesBuffer(), mesh.getNumVertices(), mesh.getVertexSize());
         
         // now optimize the shape
@@ -138,6 +182,18 @@ public class CollisionShapeManager implements Disposable {
         hullShape.dispose();
         hull.dispose();
         
+        if (hullCache != null) {
+            final int numPoints = convexShape.getNumPoints();
+            float[] points = new float[3 * numPoints];
+            for (int i = 0; i < numPoints; i++) {
+                Vector3 point = convexShape.getScaledPoint(i);
+                points[3 * i] = point.x;
+                points[3 * i + 1] = point.y;
+                points[3 * i + 2] = point.z;
+            }
+            hullCache.save(shapeId, hash, points);
+        }
+        
         // Gdx.app.log("CollisionShapeManager", "Created convex shape: " +
         // shapeId);
         
@@ -0,0 +1,264 @@
+package de.fau.cs.mad.fly.game;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Tests if two {@link CollisionBody}s intersect.
+ * <p>
+ * Convex volumes are tested with the GJK algorithm: the bodies intersect if
+ * their Minkowski difference contains the origin, which is searched with a
+ * simplex of up to four support points. A mesh is tested triangle by
+ * triangle, every triangle is a convex volume of three points. Only the
+ * triangles whose bounds overlap the bounds of the other body are tested.
+ * <p>
+ * A tester does not allocate, but it must only be used by one thread.
+ */
+public class CollisionTester {
+    
+    /** Maximal number of GJK iterations, the volumes touch if it is reached. */
+    private static final int MAX_ITERATIONS = 32;
+    private static final float EPSILON = 1.0e-10f;
+    
+    /** Points of the simplex, the newest one is the first. */
+    private final Vector3[] simplex = new Vector3[] { new Vector3(), new Vector3(), new Vector3(), new Vector3() };
+    private int simplexSize;
+    
+    private final Vector3 direction = new Vector3();
+    private final Vector3 point = new Vector3();
+    private final Vector3 supportA = new Vector3();
+    private final Vector3 supportB = new Vector3();
+    private final Vector3 ab = new Vector3();
+    private final Vector3 ac = new Vector3();
+    private final Vector3 ad = new Vector3();
+    private final Vector3 ao = new Vector3();
+    private final Vector3 normal = new Vector3();
+    private final Vector3 tmp = new Vector3();
+    private final Vector3 localMin = new Vector3();
+    private final Vector3 localMax = new Vector3();
+    private final Vector3 corner = new Vector3();
+    
+    /**
+     * Tests if two bodies intersect.
+     * 
+     * @param a
+     *            The first body.
+     * @param b
+     *            The second body.
+     * @return true, if the volumes of the bodies intersect, false if they are
+     *         apart or both are meshes
+     */
+    public boolean intersect(CollisionBody a, CollisionBody b) {
+        if (!a.boundsOverlap(b)) {
+            return false;
+        }
+        final boolean meshA = a.getVolume().getType() == CollisionVolume.MESH;
+        final boolean meshB = b.getVolume().getType() == CollisionVolume.MESH;
+        if (meshA && meshB) {
+            return false;
+        } else if (meshA) {
+            return intersectMesh(a, b);
+        } else if (meshB) {
+            return intersectMesh(b, a);
+        }
+        return intersectConvex(a, -1, b);
+    }
+    
+    /**
+     * Tests the triangles of a mesh whose bounds overlap the bounds of the
+     * other body.
+     */
+    private boolean intersectMesh(CollisionBody mesh, CollisionBody other) {
+        // bounds of the other body in the local space of the mesh
+        for (int i = 0; i < 8; i++) {
+            corner.set((i & 1) == 0 ? other.min.x : other.max.x, (i & 2) == 0 ? other.min.y : other.max.y, (i & 4) == 0 ? other.min.z : other.max.z);
+            mesh.toLocal(corner);
+            if (i == 0) {
+                localMin.set(corner);
+                localMax.set(corner);
+            } else {
+                localMin.set(Math.min(localMin.x, corner.x), Math.min(localMin.y, corner.y), Math.min(localMin.z, corner.z));
+                localMax.set(Math.max(localMax.x, corner.x), Math.max(localMax.y, corner.y), Math.max(localMax.z, corner.z));
+            }
+        }
+        final CollisionVolume volume = mesh.getVolume();
+        final int triangles = volume.getTriangles();
+        for (int i = 0; i < triangles; i++) {
+            if (volume.triangleOverlaps(i, localMin, localMax) && intersectConvex(mesh, i, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Runs the GJK algorithm for two convex volumes.
+     * 
+     * @param a
+     *            The first body.
+     * @param triangle
+     *            The triangle of the first body if it is a mesh.
+     * @param b
+     *            The second body, it is not a mesh.
+     * @return true, if the volumes intersect
+     */
+    private boolean intersectConvex(CollisionBody a, int triangle, CollisionBody b) {
+        direction.set(b.basis[9] - a.basis[9], b.basis[10] - a.basis[10], b.basis[11] - a.basis[11]);
+        if (direction.len2() < EPSILON) {
+            direction.set(1.0f, 0.0f, 0.0f);
+        }
+        support(a, triangle, b, direction, simplex[0]);
+        simplexSize = 1;
+        direction.set(simplex[0]).scl(-1.0f);
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            if (direction.len2() < EPSILON) {
+                // the origin is on the simplex
+                return true;
+            }
+            support(a, triangle, b, direction, point);
+            if (point.dot(direction) < 0.0f) {
+                return false;
+            }
+            pushFront(point);
+            if (nextSimplex()) {
+                return true;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Computes the support point of the Minkowski difference a - b in a
+     * direction in world space.
+     */
+    private void support(CollisionBody a, int triangle, CollisionBody b, Vector3 d, Vector3 out) {
+        supportWorld(a, triangle, d.x, d.y, d.z, supportA);
+        supportWorld(b, -1, -d.x, -d.y, -d.z, supportB);
+        out.set(supportA).sub(supportB);
+    }
+    
+    /**
+     * Computes the support point of a body in a direction in world space. The
+     * direction is mapped to local space with the transposed basis, the
+     * support point is mapped back with the basis.
+     */
+    private void supportWorld(CollisionBody body, int triangle, float x, float y, float z, Vector3 out) {
+        final float[] m = body.basis;
+        final float localX = m[0] * x + m[1] * y + m[2] * z;
+        final float localY = m[3] * x + m[4] * y + m[5] * z;
+        final float localZ = m[6] * x + m[7] * y + m[8] * z;
+        body.getVolume().support(triangle, localX, localY, localZ, out);
+        body.toWorld(out);
+    }
+    
+    private void pushFront(Vector3 p) {
+        for (int i = simplexSize; i > 0; i--) {
+            simplex[i].set(simplex[i - 1]);
+        }
+        simplex[0].set(p);
+        simplexSize++;
+    }
+    
+    /**
+     * Reduces the simplex to the feature that is closest to the origin and
+     * sets the next search direction.
+     * 
+     * @return true, if the simplex contains the origin
+     */
+    private boolean nextSimplex() {
+        switch (simplexSize) {
+        case 2:
+            return line();
+        case 3:
+            return triangle();
+        default:
+            return tetrahedron();
+        }
+    }
+    
+    private boolean line() {
+        final Vector3 a = simplex[0];
+        final Vector3 b = simplex[1];
+        ab.set(b).sub(a);
+        ao.set(a).scl(-1.0f);
+        if (ab.dot(ao) > 0.0f) {
+            direction.set(ab).crs(ao).crs(ab);
+        } else {
+            simplexSize = 1;
+            direction.set(ao);
+        }
+        return false;
+    }
+    
+    private boolean triangle() {
+        final Vector3 a = simplex[0];
+        final Vector3 b = simplex[1];
+        final Vector3 c = simplex[2];
+        ab.set(b).sub(a);
+        ac.set(c).sub(a);
+        ao.set(a).scl(-1.0f);
+        normal.set(ab).crs(ac);
+        
+        if (tmp.set(normal).crs(ac).dot(ao) > 0.0f) {
+            if (ac.dot(ao) > 0.0f) {
+                // keep a and c
+                simplex[1].set(c);
+                simplexSize = 2;
+                direction.set(ac).crs(ao).crs(ac);
+                return false;
+            }
+            simplexSize = 2;
+            return line();
+        }
+        if (tmp.set(ab).crs(normal).dot(ao) > 0.0f) {
+            simplexSize = 2;
+            return line();
+        }
+        final float side = normal.dot(ao);
+        if (side > 0.0f) {
+            direction.set(normal);
+        } else if (side < 0.0f) {
+            // swap b and c, so the normal points to the origin
+            tmp.set(b);
+            simplex[1].set(c);
+            simplex[2].set(tmp);
+            direction.set(normal).scl(-1.0f);
+        } else {
+            // the origin is in the triangle
+            return true;
+        }
+        return false;
+    }
+    
+    private boolean tetrahedron() {
+        final Vector3 a = simplex[0];
+        final Vector3 b = simplex[1];
+        final Vector3 c = simplex[2];
+        final Vector3 d = simplex[3];
+        ab.set(b).sub(a);
+        ac.set(c).sub(a);
+        ad.set(d).sub(a);
+        ao.set(a).scl(-1.0f);
+        
+        if (normal.set(ab).crs(ac).dot(ao) > 0.0f) {
+            // face a, b, c
+            simplexSize = 3;
+            return triangle();
+        }
+        if (normal.set(ac).crs(ad).dot(ao) > 0.0f) {
+            // face a, c, d
+            simplex[1].set(c);
+            simplex[2].set(d);
+            simplexSize = 3;
+            return triangle();
+        }
+        if (normal.set(ad).crs(ab).dot(ao) > 0.0f) {
+            // face a, d, b
+            tmp.set(b);
+            simplex[1].set(d);
+            simplex[2].set(tmp);
+            simplexSize = 3;
+            return triangle();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,233 @@
+package de.fau.cs.mad.fly.game;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Shape of a {@link CollisionBody} for the collision detection without Bullet,
+ * see {@link SpatialHashCollisionBackend}.
+ * <p>
+ * Boxes, spheres and convex hulls are convex and tested against each other by
+ * their support points, see {@link CollisionTester}. Triangle meshes like the
+ * gate displays are tested triangle by triangle, so their holes stay free.
+ * <p>
+ * A volume does not change after it is created, so it can be shared by all
+ * bodies of the same model.
+ */
+public class CollisionVolume {
+    
+    public static final int BOX = 0;
+    public static final int SPHERE = 1;
+    public static final int CONVEX_HULL = 2;
+    public static final int MESH = 3;
+    
+    private final int type;
+    
+    /** Half extents of a box. */
+    private final Vector3 halfExtents = new Vector3();
+    /** Radius of a sphere. */
+    private final float radius;
+    
+    /**
+     * x, y and z of the points of a convex hull or of the three corners of
+     * every triangle of a mesh, in local space.
+     */
+    private final float[] points;
+    
+    /** Bounds in local space. */
+    private final Vector3 min = new Vector3();
+    private final Vector3 max = new Vector3();
+    
+    /**
+     * Bounds of every triangle of a mesh in local space, six values per
+     * triangle, null for the other types.
+     */
+    private final float[] triangleBounds;
+    
+    private CollisionVolume(int type, float radius, float[] points) {
+        this.type = type;
+        this.radius = radius;
+        this.points = points;
+        if (type == MESH) {
+            triangleBounds = new float[2 * points.length / 3];
+            for (int i = 0; i < getTriangles(); i++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    float a = points[9 * i + axis];
+                    float b = points[9 * i + 3 + axis];
+                    float c = points[9 * i + 6 + axis];
+                    triangleBounds[6 * i + axis] = Math.min(a, Math.min(b, c));
+                    triangleBounds[6 * i + 3 + axis] = Math.max(a, Math.max(b, c));
+                }
+            }
+        } else {
+            triangleBounds = null;
+        }
+    }
+    
+    /**
+     * Creates a box.
+     * 
+     * @param halfExtents
+     *            Half of the size of the box in x, y and z.
+     * @return the box volume
+     */
+    public static CollisionVolume box(Vector3 halfExtents) {
+        CollisionVolume volume = new CollisionVolume(BOX, 0.0f, null);
+        volume.halfExtents.set(halfExtents);
+        volume.min.set(halfExtents).scl(-1.0f);
+        volume.max.set(halfExtents);
+        return volume;
+    }
+    
+    /**
+     * Creates a sphere around the origin.
+     * 
+     * @param radius
+     *            The radius of the sphere.
+     * @return the sphere volume
+     */
+    public static CollisionVolume sphere(float radius) {
+        if (radius <= 0.0f) {
+            throw new IllegalArgumentException("radius has to be greater than 0.");
+        }
+        CollisionVolume volume = new CollisionVolume(SPHERE, radius, null);
+        volume.min.set(-radius, -radius, -radius);
+        volume.max.set(radius, radius, radius);
+        return volume;
+    }
+    
+    /**
+     * Creates the convex hull of points.
+     * 
+     * @param points
+     *            x, y and z of every point, the array is not copied.
+     * @return the convex hull volume
+     */
+    public static CollisionVolume convexHull(float[] points) {
+        if (points.length < 3 || points.length % 3 != 0) {
+            throw new IllegalArgumentException("points has to contain x, y and z of at least one point.");
+        }
+        CollisionVolume volume = new CollisionVolume(CONVEX_HULL, 0.0f, points);
+        volume.computeBounds();
+        return volume;
+    }
+    
+    /**
+     * Creates a triangle mesh.
+     * 
+     * @param triangles
+     *            x, y and z of the three corners of every triangle, the array
+     *            is not copied.
+     * @return the mesh volume
+     */
+    public static CollisionVolume mesh(float[] triangles) {
+        if (triangles.length < 9 || triangles.length % 9 != 0) {
+            throw new IllegalArgumentException("triangles has to contain the corners of at least one triangle.");
+        }
+        CollisionVolume volume = new CollisionVolume(MESH, 0.0f, triangles);
+        volume.computeBounds();
+        return volume;
+    }
+    
+    private void computeBounds() {
+        min.set(points[0], points[1], points[2]);
+        max.set(min);
+        for (int i = 3; i < points.length; i += 3) {
+            min.set(Math.min(min.x, points[i]), Math.min(min.y, points[i + 1]), Math.min(min.z, points[i + 2]));
+            max.set(Math.max(max.x, points[i]), Math.max(max.y, points[i + 1]), Math.max(max.z, points[i + 2]));
+        }
+    }
+    
+    public int getType() {
+        return type;
+    }
+    
+    /**
+     * Getter for the minimum of the bounds in local space.
+     * 
+     * @return min
+     */
+    public Vector3 getMin() {
+        return min;
+    }
+    
+    /**
+     * Getter for the maximum of the bounds in local space.
+     * 
+     * @return max
+     */
+    public Vector3 getMax() {
+        return max;
+    }
+    
+    /**
+     * Getter for the number of triangles of a mesh.
+     * 
+     * @return triangles, 0 if the volume is not a mesh
+     */
+    public int getTriangles() {
+        return type == MESH ? points.length / 9 : 0;
+    }
+    
+    /**
+     * Checks if a triangle of a mesh overlaps a box in local space.
+     * 
+     * @param triangle
+     *            The index of the triangle.
+     * @param min
+     *            Minimum of the box.
+     * @param max
+     *            Maximum of the box.
+     * @return true, if the bounds of the triangle overlap the box
+     */
+    public boolean triangleOverlaps(int triangle, Vector3 min, Vector3 max) {
+        final int i = 6 * triangle;
+        return triangleBounds[i] <= max.x && triangleBounds[i + 3] >= min.x && triangleBounds[i + 1] <= max.y && triangleBounds[i + 4] >= min.y && triangleBounds[i + 2] <= max.z && triangleBounds[i + 5] >= min.z;
+    }
+    
+    /**
+     * Computes the point of the volume that is farthest in a direction, in
+     * local space.
+     * 
+     * @param triangle
+     *            The index of the triangle of a mesh, ignored for the other
+     *            types.
+     * @param x
+     *            The direction in x.
+     * @param y
+     *            The direction in y.
+     * @param z
+     *            The direction in z.
+     * @param out
+     *            The support point.
+     * @return out
+     */
+    public Vector3 support(int triangle, float x, float y, float z, Vector3 out) {
+        switch (type) {
+        case BOX:
+            return out.set(x >= 0.0f ? halfExtents.x : -halfExtents.x, y >= 0.0f ? halfExtents.y : -halfExtents.y, z >= 0.0f ? halfExtents.z : -halfExtents.z);
+        case SPHERE:
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            if (length == 0.0f) {
+                return out.set(radius, 0.0f, 0.0f);
+            }
+            return out.set(x, y, z).scl(radius / length);
+        case CONVEX_HULL:
+            return supportOfPoints(0, points.length, x, y, z, out);
+        default:
+            return supportOfPoints(9 * triangle, 9 * triangle + 9, x, y, z, out);
+        }
+    }
+    
+    private Vector3 supportOfPoints(int start, int end, float x, float y, float z, Vector3 out) {
+        int best = start;
+        float bestDot = points[start] * x + points[start + 1] * y + points[start + 2] * z;
+        for (int i = start + 3; i < end; i += 3) {
+            float dot = points[i] * x + points[i + 1] * y + points[i + 2] * z;
+            if (dot > bestDot) {
+                bestDot = dot;
+                best = i;
+            }
+        }
+        return out.set(points[best], points[best + 1], points[best + 2]);
+    }
+}
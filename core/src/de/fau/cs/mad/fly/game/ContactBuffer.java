@@ -0,0 +1,135 @@
+package de.fau.cs.mad.fly.game;
+
+/**
+ * Preallocated ring buffer for the contacts of a collision step.
+ * <p>
+ * The contact listener stores the ids of the two bodies of every contact while
+ * Bullet is stepping. A contact of the same two bodies is stored only once,
+ * until it is polled. After the step the contacts are polled in the order they
+ * were added.
+ * <p>
+ * Adding and polling does not allocate. If the buffer is full, further
+ * contacts are dropped and counted.
+ */
+public class ContactBuffer {
+    
+    /** Ids of the first and second body of every contact. */
+    private final int[] ids;
+    private final int capacity;
+    
+    /** Index of the oldest contact. */
+    private int head = 0;
+    /** Number of contacts in the buffer. */
+    private int size = 0;
+    /** Number of contacts that were dropped because the buffer was full. */
+    private int dropped = 0;
+    
+    /**
+     * Creates a new contact buffer.
+     * 
+     * @param capacity
+     *            Maximal number of contacts in the buffer.
+     */
+    public ContactBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity has to be greater than 0.");
+        }
+        this.capacity = capacity;
+        this.ids = new int[2 * capacity];
+    }
+    
+    /**
+     * Adds a contact, if the buffer does not already contain a contact of the
+     * two bodies.
+     * 
+     * @param id0
+     *            Id of the first body.
+     * @param id1
+     *            Id of the second body.
+     * @return true, if the contact was added, false if it is a duplicate or
+     *         the buffer is full.
+     */
+    public boolean add(int id0, int id1) {
+        for (int i = 0; i < size; i++) {
+            final int index = 2 * ((head + i) % capacity);
+            final int other0 = ids[index];
+            final int other1 = ids[index + 1];
+            if ((other0 == id0 && other1 == id1) || (other0 == id1 && other1 == id0)) {
+                return false;
+            }
+        }
+        if (size == capacity) {
+            dropped++;
+            return false;
+        }
+        final int index = 2 * ((head + size) % capacity);
+        ids[index] = id0;
+        ids[index + 1] = id1;
+        size++;
+        return true;
+    }
+    
+    /**
+     * Getter for the number of contacts in the buffer.
+     * 
+     * @return contacts that can be polled
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Getter for the id of the first body of the oldest contact.
+     * 
+     * @return id of the first body
+     */
+    public int peekFirst() {
+        if (size == 0) {
+            throw new IllegalStateException("The contact buffer is empty.");
+        }
+        return ids[2 * head];
+    }
+    
+    /**
+     * Getter for the id of the second body of the oldest contact.
+     * 
+     * @return id of the second body
+     */
+    public int peekSecond() {
+        if (size == 0) {
+            throw new IllegalStateException("The contact buffer is empty.");
+        }
+        return ids[2 * head + 1];
+    }
+    
+    /**
+     * Removes the oldest contact, after its ids are read with
+     * {@link #peekFirst()} and {@link #peekSecond()}.
+     */
+    public void poll() {
+        if (size == 0) {
+            throw new IllegalStateException("The contact buffer is empty.");
+        }
+        head = (head + 1) % capacity;
+        size--;
+    }
+    
+    /**
+     * Getter for the number of dropped contacts.
+     * 
+     * @return contacts that did not fit into the buffer since the last call
+     *         of {@link #clear()}
+     */
+    public int getDropped() {
+        return dropped;
+    }
+    
+    /**
+     * Removes all contacts and resets the number of dropped contacts.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        dropped = 0;
+    }
+}
@@ -0,0 +1,193 @@
+package de.fau.cs.mad.fly.game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/**
+ * Cache for the reduced points of convex hull shapes in the local storage.
+ * <p>
+ * Building a convex hull from the vertices of a model and reducing it with
+ * btShapeHull takes long for detailed models like asteroids and spaceships.
+ * The {@link CollisionShapeManager} stores the points of the reduced hull in
+ * a file per shape and creates the shape from the stored points when the
+ * model is loaded again. Every file contains a hash of the vertices it was
+ * built from, so the points are rebuilt if the model changes.
+ * <p>
+ * The binary format is written with a {@link DataOutputStream}: magic number,
+ * version, hash of the vertices, number of points, x, y and z of every point.
+ */
+public class ConvexHullCache {
+    
+    /** Directory of the cache in the local storage. */
+    public static final String DIRECTORY = "shapes";
+    
+    /** "FLYH" */
+    private static final int MAGIC = 0x464C5948;
+    private static final int VERSION = 1;
+    
+    private final FileHandle directory;
+    
+    /**
+     * Creates a new cache.
+     * 
+     * @param directory
+     *            The directory with the cache files, it is created when the
+     *            first file is written.
+     */
+    public ConvexHullCache(FileHandle directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Computes the hash of the vertices of a mesh, which are used to build a
+     * convex hull.
+     * 
+     * @param vertices
+     *            The vertices, the position of the buffer is not changed.
+     * @param numVertices
+     *            Number of vertices.
+     * @param vertexSize
+     *            Size of a vertex in bytes.
+     * @return 64 bit FNV-1a hash of the vertices
+     */
+    public static long hash(FloatBuffer vertices, int numVertices, int vertexSize) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ numVertices) * 0x100000001b3L;
+        hash = (hash ^ vertexSize) * 0x100000001b3L;
+        final int start = vertices.position();
+        final int floats = numVertices * vertexSize / 4;
+        for (int i = 0; i < floats; i++) {
+            hash = (hash ^ Float.floatToIntBits(vertices.get(start + i))) * 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * Loads the points of a convex hull.
+     * 
+     * @param shapeId
+     *            The id of the shape.
+     * @param hash
+     *            The hash of the vertices, see
+     *            {@link #hash(FloatBuffer, int, int)}.
+     * @return x, y and z of every point, null if the cache does not contain
+     *         the shape or it was built from other vertices
+     */
+    public float[] load(String shapeId, long hash) {
+        FileHandle file = getFile(shapeId);
+        if (!file.exists()) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = file.read();
+            return read(in, hash);
+        } catch (IOException e) {
+            Gdx.app.error("ConvexHullCache.load", "Error reading " + file + ": " + e.getMessage());
+            return null;
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("ConvexHullCache.load", "Error reading " + file + ": " + e.getMessage());
+            return null;
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+    
+    /**
+     * Stores the points of a convex hull.
+     * 
+     * @param shapeId
+     *            The id of the shape.
+     * @param hash
+     *            The hash of the vertices the hull was built from.
+     * @param points
+     *            x, y and z of every point.
+     */
+    public void save(String shapeId, long hash, float[] points) {
+        FileHandle file = getFile(shapeId);
+        OutputStream out = null;
+        try {
+            out = file.write(false);
+            write(out, hash, points);
+        } catch (IOException e) {
+            Gdx.app.error("ConvexHullCache.save", "Error writing " + file + ": " + e.getMessage());
+        } catch (GdxRuntimeException e) {
+            // the local storage may not be available
+            Gdx.app.error("ConvexHullCache.save", "Error writing " + file + ": " + e.getMessage());
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+    
+    /**
+     * Deletes all files of the cache.
+     */
+    public void clear() {
+        directory.deleteDirectory();
+    }
+    
+    /**
+     * Getter for the file of a shape. Characters of the id that may not be
+     * allowed in file names are replaced.
+     */
+    private FileHandle getFile(String shapeId) {
+        return directory.child(shapeId.replaceAll("[^A-Za-z0-9_.-]", "_") + ".hull");
+    }
+    
+    /**
+     * Writes the points to a stream.
+     * 
+     * @param stream
+     *            The stream to write, it is flushed but not closed.
+     */
+    static void write(OutputStream stream, long hash, float[] points) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(hash);
+        out.writeInt(points.length / 3);
+        for (int i = 0; i < points.length; i++) {
+            out.writeFloat(points[i]);
+        }
+        out.flush();
+    }
+    
+    /**
+     * Reads the points from a stream.
+     * 
+     * @param stream
+     *            The stream to read, it is not closed.
+     * @return the points, null if they were built from other vertices
+     * @throws IOException
+     *             if the stream does not contain points of this version.
+     */
+    static float[] read(InputStream stream, long hash) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a convex hull.");
+        }
+        if (in.readInt() != VERSION || in.readLong() != hash) {
+            return null;
+        }
+        int numPoints = in.readInt();
+        if (numPoints < 0) {
+            throw new IOException("Invalid number of points " + numPoints + ".");
+        }
+        float[] points = new float[3 * numPoints];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = in.readFloat();
+        }
+        return points;
+    }
+}
@@ -0,0 +1,198 @@
+package de.fau.cs.mad.fly.game;
+
+import java.util.List;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+import de.fau.cs.mad.fly.features.IFeatureSchedule;
+
+/**
+ * Decides which features of a feature list are called in the current tick.
+ * <p>
+ * Features that do not implement {@link IFeatureSchedule} are called every
+ * tick. Scheduled features are called with their frequency and get the time
+ * since their last call as delta. A call that is late does not delay the
+ * following ones, but after a stall the feature is called only once. Features
+ * with the same frequency are spread over the ticks. Features with
+ * {@link IFeatureSchedule#PRIORITY_LOW} are only called as long as the low
+ * priority features of the rendered frame did not use up the budget, but at
+ * the latest after {@link #MAX_DELAY} intervals.
+ * <p>
+ * {@link #startFrame()} is called once per rendered frame,
+ * {@link #startTick(List)} before the features of every tick of the frame.
+ * The draw features have one tick per frame.
+ * 
+ * @param <T>
+ *            The type of the features, for example {@link de.fau.cs.mad.fly.features.IFeatureUpdate}.
+ */
+public abstract class FeatureScheduler<T> {
+    
+    /** Number of intervals a low priority feature can be moved at most. */
+    public static final int MAX_DELAY = 4;
+    
+    /** Default time in milliseconds the low priority features may use per frame. */
+    public static final float DEFAULT_BUDGET = 2.0f;
+    
+    private List<T> features;
+    /** The features whose schedules were read, to notice changes of the list. */
+    private Object[] scheduled = new Object[0];
+    private float[] intervals = new float[0];
+    /** Time since the last call of the features. */
+    private float[] elapsed = new float[0];
+    /** Time since the features were last due, less than their interval. */
+    private float[] phases = new float[0];
+    private boolean[] lowPriority = new boolean[0];
+    
+    /** Time in nanoseconds the low priority features may use per frame. */
+    private long budget = (long) (DEFAULT_BUDGET * 1000000);
+    private long spent;
+    
+    /**
+     * Calls the feature.
+     * 
+     * @param feature
+     *            The feature to call.
+     * @param delta
+     *            The time since the last call of the feature.
+     */
+    protected abstract void call(T feature, float delta);
+    
+    /**
+     * Checks if the schedule of the feature is used.
+     * 
+     * @param feature
+     *            The feature to check.
+     * @return true, if the feature implements {@link IFeatureSchedule}.
+     */
+    protected boolean isScheduled(T feature) {
+        return feature instanceof IFeatureSchedule;
+    }
+    
+    /**
+     * Setter for the time budget of the low priority features per frame.
+     * 
+     * @param milliseconds
+     *            Time in milliseconds, has to be 0 or greater.
+     */
+    public void setBudget(float milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("budget has to be 0 or greater.");
+        }
+        budget = (long) (milliseconds * 1000000);
+    }
+    
+    /**
+     * Starts a new rendered frame, the low priority features get the whole
+     * budget again.
+     */
+    public void startFrame() {
+        spent = 0;
+    }
+    
+    /**
+     * Starts a new tick and reads the schedules of the features if the list
+     * or its features changed.
+     * 
+     * @param features
+     *            The features of the tick.
+     */
+    public void startTick(List<T> features) {
+        final int size = features.size();
+        if (features == this.features && size == scheduled.length && isUnchanged(features)) {
+            return;
+        }
+        final Object[] oldScheduled = scheduled;
+        final float[] oldElapsed = elapsed;
+        final float[] oldPhases = phases;
+        this.features = features;
+        scheduled = new Object[size];
+        intervals = new float[size];
+        elapsed = new float[size];
+        phases = new float[size];
+        lowPriority = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            T feature = features.get(i);
+            scheduled[i] = feature;
+            if (isScheduled(feature)) {
+                IFeatureSchedule schedule = (IFeatureSchedule) feature;
+                if (schedule.getFrequency() > 0.0f) {
+                    intervals[i] = 1.0f / schedule.getFrequency();
+                    // spread features with the same frequency over the ticks
+                    phases[i] = intervals[i] * ((i * 0.618034f) % 1.0f);
+                }
+                lowPriority[i] = schedule.getPriority() == IFeatureSchedule.PRIORITY_LOW;
+            }
+            // features that stay in the list keep their schedule
+            for (int j = 0; j < oldScheduled.length; j++) {
+                if (oldScheduled[j] == feature) {
+                    elapsed[i] = oldElapsed[j];
+                    phases[i] = Math.min(oldPhases[j], intervals[i]);
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks if the list contains the features whose schedules were read.
+     */
+    private boolean isUnchanged(List<T> features) {
+        final Object[] scheduled = this.scheduled;
+        for (int i = 0; i < scheduled.length; i++) {
+            if (features.get(i) != scheduled[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Forgets the features, the schedules are read again in the next tick.
+     */
+    public void reset() {
+        features = null;
+        scheduled = new Object[0];
+    }
+    
+    /**
+     * Calls the feature with the given index, if it is due in this tick.
+     * 
+     * @param index
+     *            Index of the feature in the list of {@link #startTick(List)}.
+     * @param delta
+     *            Time since the last tick.
+     * @return true, if the feature was called, false otherwise.
+     */
+    public boolean run(int index, float delta) {
+        final float interval = intervals[index];
+        if (interval == 0.0f && !lowPriority[index]) {
+            call(features.get(index), delta);
+            return true;
+        }
+        
+        elapsed[index] += delta;
+        if (interval > 0.0f) {
+            phases[index] += delta;
+            if (phases[index] < interval) {
+                return false;
+            }
+        }
+        if (lowPriority[index]) {
+            if (spent >= budget && elapsed[index] < MAX_DELAY * Math.max(interval, delta)) {
+                return false;
+            }
+            final long start = TimeUtils.nanoTime();
+            call(features.get(index), elapsed[index]);
+            spent += TimeUtils.nanoTime() - start;
+        } else {
+            call(features.get(index), elapsed[index]);
+        }
+        elapsed[index] = 0.0f;
+        if (interval > 0.0f) {
+            // the next call is due one interval after this one was due, after
+            // a stall only once
+            phases[index] %= interval;
+        }
+        return true;
+    }
+}
@@ -1,7 +1,5 @@
 package de.fau.cs.mad.fly.game;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -59,8 +57,11 @@ public class FlightController implements InputProcessor {
     
     // variables for Sensor input smoothing
     protected int bufferSize;
-    protected List<Float> rollInput;
-    protected List<Float> pitchInput;
+    protected float[] rollInput;
+    protected float[] pitchInput;
+    /** Number of values in the buffers and index of the next value to write */
+    protected int bufferCount;
+    protected int bufferIndex;
     
     /** Degree of lifting and leaning the ship */
     protected float roll;
@@ -78,6 +79,13 @@ public class FlightController implements InputProcessor {
 	private final int leftKey;
 	private final int downKey;
 	private final int rightKey;
+	
+    /** Recording that gets the steering of every update, null if the input is not recorded */
+    protected InputRecording recording = null;
+    /** Recording whose steering is used instead of the input, null if no recording is replayed */
+    protected InputRecording replay = null;
+    /** Number of the next replayed tick */
+    protected int replayTick;
     
     
     public FlightController(Player player, PlayerProfile playerProfile) {
@@ -95,6 +103,26 @@ public class FlightController implements InputProcessor {
         Gdx.app.log("orientation", "" + rotationFactor);
     }
     
+    /**
+     * Creates a flight controller that is not steered by the user, without
+     * sensor input, inverted axes and key bindings.
+     * 
+     * @param player
+     *            The player to steer.
+     */
+    protected FlightController(Player player) {
+        this.player = player;
+        this.useSensorData = false;
+        this.invertXFactor = 1;
+        this.invertYFactor = 1;
+        this.bufferSize = 10;
+        this.rotationFactor = 1;
+        this.upKey = Keys.UNKNOWN;
+        this.leftKey = Keys.UNKNOWN;
+        this.downKey = Keys.UNKNOWN;
+        this.rightKey = Keys.UNKNOWN;
+    }
+    
     /**
      * Resets steering and the buffers.
      */
@@ -142,12 +170,88 @@ public class FlightController implements InputProcessor {
         // rotating the camera according to UserInput
         if (useSensorData)
             interpretSensorInput();
+        recordOrReplayInput();
         player.getPlane().rotate(rollFactor * invertYFactor, azimuthFactor * invertXFactor, 60 * delta);
     }
 
+    /**
+     * Starts to add the steering of every update to a recording.
+     * 
+     * @param recording
+     *            The recording to fill.
+     */
+    public void startRecording(InputRecording recording) {
+        this.replay = null;
+        this.recording = recording;
+        recording.setInvertFactors(invertXFactor, invertYFactor);
+    }
+    
+    /**
+     * Starts to steer with the recorded steering instead of the input.
+     * 
+     * @param replay
+     *            The recording to replay.
+     */
+    public void startReplay(InputRecording replay) {
+        this.recording = null;
+        this.replay = replay;
+        this.replayTick = 0;
+        invertXFactor = replay.getInvertXFactor();
+        invertYFactor = replay.getInvertYFactor();
+    }
+    
+    /**
+     * Checks if all recorded ticks are replayed.
+     * 
+     * @return true, if a replay is finished.
+     */
+    public boolean isReplayFinished() {
+        return replay != null && replayTick >= replay.getTicks();
+    }
+    
+    /**
+     * Has to be called in every update after the roll and azimuth factor are
+     * calculated. Adds them to the recording or replaces them by the recorded
+     * ones.
+     */
+    protected void recordOrReplayInput() {
+        if (replay != null) {
+            if (replayTick < replay.getTicks()) {
+                rollFactor = replay.getRollFactor(replayTick);
+                azimuthFactor = replay.getAzimuthFactor(replayTick);
+                replayTick++;
+            } else {
+                rollFactor = 0.0f;
+                azimuthFactor = 0.0f;
+            }
+        } else if (recording != null) {
+            recording.addTick(rollFactor, azimuthFactor);
+        }
+    }
+    
     protected void resetBuffers() {
-        rollInput = new ArrayList<Float>();
-        pitchInput = new ArrayList<Float>();
+        if (rollInput == null || rollInput.length != bufferSize) {
+            rollInput = new float[bufferSize];
+            pitchInput = new float[bufferSize];
+        }
+        bufferCount = 0;
+        bufferIndex = 0;
+    }
+    
+    /**
+     * Adds the newest sensor data to the buffers and overwrites the oldest
+     * values if the buffers are full.
+     * 
+     * @param roll
+     * @param pitch
+     */
+    protected void addToBuffers(float roll, float pitch) {
+        rollInput[bufferIndex] = roll;
+        pitchInput[bufferIndex] = pitch;
+        bufferIndex = (bufferIndex + 1) % bufferSize;
+        if (bufferCount < bufferSize) {
+            bufferCount++;
+        }
     }
     
     /**
@@ -161,15 +265,8 @@ public class FlightController implements InputProcessor {
         roll *= rotationFactor;
         pitch *= rotationFactor;
         
-        // removing oldest element in buffers
-        if (rollInput.size() >= bufferSize) {
-            rollInput.remove(0);
-            pitchInput.remove(0);
-        }
-        
         // adding newest sensor-data to buffers
-        rollInput.add(roll);
-        pitchInput.add(pitch);
+        addToBuffers(roll, pitch);
         
         roll = average(rollInput);
         pitch = average(pitchInput);
@@ -248,14 +345,13 @@ public class FlightController implements InputProcessor {
 
     }
     
-    protected float average(List<Float> input) {
+    protected float average(float[] input) {
         float result = 0.0f;
-        int size = input.size();
-        for (int i = 0; i < size; i++) {
-            result += input.get(i);
+        for (int i = 0; i < bufferCount; i++) {
+            result += input[i];
         }
         
-        return result / (float) input.size();
+        return result / (float) bufferCount;
     }
 
     private void evaluateKeyboardInput() {
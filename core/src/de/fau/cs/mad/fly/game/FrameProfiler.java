@@ -0,0 +1,538 @@
+package de.fau.cs.mad.fly.game;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import de.fau.cs.mad.fly.graphics.GLStateCounter;
+
+/**
+ * Measures the time of the phases of a frame and of every feature of the
+ * {@link GameController}.
+ * <p>
+ * The phases and features are stored as sections. During a frame
+ * {@link #lap(int)} adds the time since the last lap to a section, so one
+ * section can be measured several times per frame, for example when more than
+ * one tick is simulated. {@link #endFrame()} stores the sum of every section in
+ * a rolling window for the display and in a histogram for the whole session.
+ * <p>
+ * With an {@link AllocationCounter} the bytes allocated between two laps are
+ * added to the section as well. With a {@link GLStateCounter} the OpenGL state
+ * changes of the last frame are added to the summary.
+ * <p>
+ * If the profiler is disabled, all the calls return immediately.
+ */
+public class FrameProfiler {
+    
+    /** Number of frames in the rolling window of every section. */
+    public static final int WINDOW_SIZE = 120;
+    
+    /**
+     * Upper bounds of the histogram buckets in microseconds, the last bucket
+     * contains all greater values.
+     */
+    public static final long[] BUCKET_BOUNDS = { 50, 100, 250, 500, 1000, 2000, 4000, 8000, 16000, 33000 };
+    
+    public static final int STAGE_ACT = 0;
+    public static final int FLIGHT = 1;
+    public static final int CAMERA = 2;
+    public static final int LEVEL_UPDATE = 3;
+    public static final int COLLISION = 4;
+    public static final int BATCH_RENDER = 5;
+    public static final int STAGE_DRAW = 6;
+    private static final String[] PHASE_NAMES = { "stage act", "flight", "camera", "level update", "collision", "batch render", "stage draw" };
+    
+    /**
+     * Times of one section, the phase of a frame or a feature.
+     */
+    public static class Section {
+        private final String name;
+        private final long[] window = new long[WINDOW_SIZE];
+        private final int[] buckets = new int[BUCKET_BOUNDS.length + 1];
+        private long current;
+        private int frames;
+        private long total;
+        private long max;
+        private final long[] windowBytes = new long[WINDOW_SIZE];
+        private long currentBytes;
+        private long totalBytes;
+        private long maxBytes;
+        
+        protected Section(String name) {
+            this.name = name;
+        }
+        
+        /**
+         * Stores the time of the ended frame and resets the current time.
+         */
+        protected void endFrame(int frame) {
+            window[frame % WINDOW_SIZE] = current;
+            total += current;
+            if (current > max) {
+                max = current;
+            }
+            long micros = current / 1000;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS.length && micros >= BUCKET_BOUNDS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+            windowBytes[frame % WINDOW_SIZE] = currentBytes;
+            totalBytes += currentBytes;
+            if (currentBytes > maxBytes) {
+                maxBytes = currentBytes;
+            }
+            frames++;
+            current = 0;
+            currentBytes = 0;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * Getter for the number of frames stored in the session.
+         * 
+         * @return frames
+         */
+        public int getFrames() {
+            return frames;
+        }
+        
+        /**
+         * Getter for the mean time of the section over the whole session.
+         * 
+         * @return mean time in nanoseconds
+         */
+        public long getSessionMean() {
+            return frames == 0 ? 0 : total / frames;
+        }
+        
+        /**
+         * Getter for the maximal time of the section in the session.
+         * 
+         * @return maximal time in nanoseconds
+         */
+        public long getSessionMax() {
+            return max;
+        }
+        
+        /**
+         * Getter for the number of frames in a bucket of the histogram.
+         * 
+         * @param bucket
+         *            Index of the bucket, see {@link FrameProfiler#BUCKET_BOUNDS}.
+         * @return number of frames
+         */
+        public int getBucket(int bucket) {
+            return buckets[bucket];
+        }
+        
+        /**
+         * Getter for the mean time of the section in the rolling window.
+         * 
+         * @return mean time in nanoseconds
+         */
+        public long getWindowMean() {
+            int size = Math.min(frames, WINDOW_SIZE);
+            if (size == 0) {
+                return 0;
+            }
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += window[i];
+            }
+            return sum / size;
+        }
+        
+        /**
+         * Getter for the mean allocated bytes of the section in the rolling
+         * window.
+         * 
+         * @return mean bytes per frame
+         */
+        public long getWindowMeanBytes() {
+            int size = Math.min(frames, WINDOW_SIZE);
+            if (size == 0) {
+                return 0;
+            }
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += windowBytes[i];
+            }
+            return sum / size;
+        }
+        
+        /**
+         * Getter for the mean allocated bytes of the section over the whole
+         * session.
+         * 
+         * @return mean bytes per frame
+         */
+        public long getSessionMeanBytes() {
+            return frames == 0 ? 0 : totalBytes / frames;
+        }
+        
+        /**
+         * Getter for the maximal allocated bytes of the section in one frame
+         * of the session.
+         * 
+         * @return maximal bytes
+         */
+        public long getSessionMaxBytes() {
+            return maxBytes;
+        }
+        
+        /**
+         * Computes a percentile of the time of the section in the rolling
+         * window.
+         * 
+         * @param percentile
+         *            The percentile between 0 and 100.
+         * @param scratch
+         *            Array of the size {@link FrameProfiler#WINDOW_SIZE} that
+         *            is used for sorting.
+         * @return time in nanoseconds
+         */
+        public long getWindowPercentile(int percentile, long[] scratch) {
+            int size = Math.min(frames, WINDOW_SIZE);
+            if (size == 0) {
+                return 0;
+            }
+            System.arraycopy(window, 0, scratch, 0, size);
+            Arrays.sort(scratch, 0, size);
+            int index = Math.min(size - 1, (size * percentile) / 100);
+            return scratch[index];
+        }
+    }
+    
+    private final List<Section> sections = new ArrayList<Section>();
+    private final long[] scratch = new long[WINDOW_SIZE];
+    private boolean enabled = false;
+    private long lastLap;
+    private AllocationCounter allocationCounter = null;
+    private long lastBytes;
+    private GLStateCounter glStateCounter = null;
+    private int programBinds, textureBinds, uniformUploads, avoidedUniformUploads, drawCalls;
+    private int frame = 0;
+    
+    public FrameProfiler() {
+        for (String name : PHASE_NAMES) {
+            sections.add(new Section(name));
+        }
+    }
+    
+    /**
+     * Getter for the enabled state.
+     * 
+     * @return true, if the profiler measures the frames, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Enables or disables the profiler.
+     * 
+     * @param enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Setter for the allocation counter.
+     * 
+     * @param allocationCounter
+     *            Counts the allocations of the thread that calls the profiler,
+     *            null to measure the time only.
+     */
+    public void setAllocationCounter(AllocationCounter allocationCounter) {
+        this.allocationCounter = allocationCounter;
+    }
+    
+    /**
+     * Getter for the allocation counter.
+     * 
+     * @return allocation counter, null if the allocations are not measured
+     */
+    public AllocationCounter getAllocationCounter() {
+        return allocationCounter;
+    }
+    
+    /**
+     * Setter for the OpenGL state counter.
+     * 
+     * @param glStateCounter
+     *            Counts the state changes of a frame, null to not count them.
+     */
+    public void setGLStateCounter(GLStateCounter glStateCounter) {
+        this.glStateCounter = glStateCounter;
+    }
+    
+    /**
+     * Getter for the OpenGL state counter.
+     * 
+     * @return OpenGL state counter, null if the state changes are not counted
+     */
+    public GLStateCounter getGLStateCounter() {
+        return glStateCounter;
+    }
+    
+    /**
+     * Adds a section for a feature.
+     * <p>
+     * The name is created from the given prefix and the class of the feature.
+     * 
+     * @param prefix
+     *            The phase of the feature, for example "update".
+     * @param feature
+     *            The feature to measure.
+     * @return index of the new section
+     */
+    public int addSection(String prefix, Object feature) {
+        Class<?> type = feature.getClass();
+        while (type.getSimpleName().length() == 0 && type.getEnclosingClass() != null) {
+            // anonymous classes are named after the class they are created in
+            type = type.getEnclosingClass();
+        }
+        sections.add(new Section(prefix + " " + type.getSimpleName()));
+        return sections.size() - 1;
+    }
+    
+    /**
+     * Adds a section for every feature in the list.
+     * 
+     * @param prefix
+     *            The phase of the features, for example "update".
+     * @param features
+     *            The features to measure.
+     * @return indices of the new sections in the order of the features
+     */
+    public int[] addSections(String prefix, List<?> features) {
+        int size = features.size();
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = addSection(prefix, features.get(i));
+        }
+        return indices;
+    }
+    
+    /**
+     * Removes all feature sections and all stored times.
+     */
+    public void reset() {
+        sections.clear();
+        for (String name : PHASE_NAMES) {
+            sections.add(new Section(name));
+        }
+        frame = 0;
+    }
+    
+    /**
+     * Starts the measurement of a frame.
+     */
+    public void startFrame() {
+        if (!enabled) {
+            return;
+        }
+        lastLap = TimeUtils.nanoTime();
+        if (allocationCounter != null) {
+            lastBytes = allocationCounter.getAllocatedBytes();
+        }
+        if (glStateCounter != null) {
+            glStateCounter.startFrame();
+        }
+    }
+    
+    /**
+     * Adds the time since the last lap or the start of the frame to a section.
+     * 
+     * @param section
+     *            Index of the section.
+     */
+    public void lap(int section) {
+        if (!enabled) {
+            return;
+        }
+        long now = TimeUtils.nanoTime();
+        Section lapSection = sections.get(section);
+        lapSection.current += now - lastLap;
+        lastLap = now;
+        if (allocationCounter != null) {
+            long bytes = allocationCounter.getAllocatedBytes();
+            lapSection.currentBytes += bytes - lastBytes;
+            lastBytes = bytes;
+        }
+    }
+    
+    /**
+     * Adds a measured time to a section.
+     * 
+     * @param section
+     *            Index of the section.
+     * @param nanos
+     *            Time in nanoseconds.
+     */
+    public void add(int section, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        sections.get(section).current += nanos;
+    }
+    
+    /**
+     * Ends the measurement of a frame and stores the times of all sections.
+     */
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        int size = sections.size();
+        for (int i = 0; i < size; i++) {
+            sections.get(i).endFrame(frame);
+        }
+        if (glStateCounter != null) {
+            programBinds = glStateCounter.getProgramBinds();
+            textureBinds = glStateCounter.getTextureBinds();
+            uniformUploads = glStateCounter.getUniformUploads();
+            avoidedUniformUploads = glStateCounter.getAvoidedUniformUploads();
+            drawCalls = glStateCounter.getDrawCalls();
+        }
+        frame++;
+    }
+    
+    /**
+     * Getter for the number of measured frames.
+     * 
+     * @return frames
+     */
+    public int getFrames() {
+        return frame;
+    }
+    
+    /**
+     * Getter for all sections.
+     * 
+     * @return sections, the phases first
+     */
+    public List<Section> getSections() {
+        return sections;
+    }
+    
+    /**
+     * Writes the sections with the highest mean in the rolling window to a
+     * string builder, one section per line, and the OpenGL state changes of
+     * the last frame.
+     * 
+     * @param builder
+     *            The string builder to write to, it is cleared before.
+     * @param count
+     *            Maximal number of sections.
+     */
+    public void summary(StringBuilder builder, int count) {
+        builder.setLength(0);
+        int size = sections.size();
+        boolean[] written = new boolean[size];
+        for (int n = 0; n < count && n < size; n++) {
+            int best = -1;
+            for (int i = 0; i < size; i++) {
+                if (!written[i] && (best < 0 || sections.get(i).getWindowMean() > sections.get(best).getWindowMean())) {
+                    best = i;
+                }
+            }
+            written[best] = true;
+            Section section = sections.get(best);
+            builder.append(section.getName()).append(": ").append(section.getWindowMean() / 1000).append(" us, p95 ").append(section.getWindowPercentile(95, scratch) / 1000).append(" us");
+            if (allocationCounter != null) {
+                builder.append(", ").append(section.getWindowMeanBytes()).append(" B");
+            }
+            builder.append("\n");
+        }
+        if (glStateCounter != null) {
+            builder.append("gl: ").append(programBinds).append(" programs, ").append(textureBinds).append(" textures, ").append(uniformUploads).append(" uniforms (").append(avoidedUniformUploads).append(" avoided), ").append(drawCalls).append(" draws\n");
+        }
+    }
+    
+    /**
+     * Writes the session histograms of all sections as CSV.
+     * <p>
+     * One line per section with the frames, the mean and the maximum in
+     * microseconds, the number of frames per bucket and the mean and the
+     * maximum of the allocated bytes.
+     * 
+     * @param writer
+     *            The writer to write to.
+     * @throws IOException
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("section,frames,mean_us,max_us");
+        for (int b = 0; b < BUCKET_BOUNDS.length; b++) {
+            writer.write(",lt" + BUCKET_BOUNDS[b] + "us");
+        }
+        writer.write(",ge" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1] + "us,mean_bytes,max_bytes\n");
+        for (Section section : sections) {
+            writer.write("\"" + section.getName() + "\"," + section.getFrames() + "," + section.getSessionMean() / 1000 + "," + section.getSessionMax() / 1000);
+            for (int b = 0; b < section.buckets.length; b++) {
+                writer.write("," + section.buckets[b]);
+            }
+            writer.write("," + section.getSessionMeanBytes() + "," + section.getSessionMaxBytes() + "\n");
+        }
+        writer.flush();
+    }
+    
+    /**
+     * Writes the session histograms of all sections as JSON.
+     * 
+     * @param writer
+     *            The writer to write to.
+     * @throws IOException
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\"frames\":" + frame + ",\"bucketBoundsUs\":" + Arrays.toString(BUCKET_BOUNDS) + ",\"sections\":[");
+        int size = sections.size();
+        for (int i = 0; i < size; i++) {
+            Section section = sections.get(i);
+            if (i > 0) {
+                writer.write(",");
+            }
+            writer.write("\n{\"name\":\"" + section.getName() + "\",\"frames\":" + section.getFrames() + ",\"meanUs\":" + section.getSessionMean() / 1000 + ",\"maxUs\":" + section.getSessionMax() / 1000 + ",\"buckets\":" + Arrays.toString(section.buckets) + ",\"meanBytes\":" + section.getSessionMeanBytes() + ",\"maxBytes\":" + section.getSessionMaxBytes() + "}");
+        }
+        writer.write("]}\n");
+        writer.flush();
+    }
+    
+    /**
+     * Exports the session to a file, as JSON if the file ends with .json and
+     * as CSV otherwise.
+     * 
+     * @param file
+     *            The file to write to.
+     */
+    public void export(FileHandle file) {
+        Writer writer = file.writer(false, "UTF-8");
+        try {
+            if ("json".equals(file.extension())) {
+                writeJson(writer);
+            } else {
+                writeCsv(writer);
+            }
+            Gdx.app.log("FrameProfiler.export", "Profile of " + frame + " frames written to " + file.path());
+        } catch (IOException e) {
+            Gdx.app.error("FrameProfiler.export", "Could not write " + file.path(), e);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
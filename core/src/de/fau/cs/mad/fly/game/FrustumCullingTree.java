@@ -0,0 +1,479 @@
+package de.fau.cs.mad.fly.game;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+/**
+ * Bounding volume hierarchy of game objects for the frustum culling.
+ * <p>
+ * Every game object is a leaf with the box of
+ * {@link GameObject#getFrustumBounds(Vector3, Vector3)}, every inner node
+ * has the box around its two children. A query walks down from the root and
+ * skips the subtrees whose box is outside of the frustum, so it costs about
+ * as much as the number of visible game objects and not as the number of all
+ * game objects. Subtrees whose box is completely inside the frustum are
+ * returned without further tests.
+ * <p>
+ * The game objects passed to {@link #build(List)} are sorted into a balanced
+ * tree once. Game objects inserted later are placed next to the node whose
+ * box grows least. Game objects with a mover or a motion state are dynamic:
+ * their leaves get a box enlarged by a margin, {@link #refit()} only enlarges
+ * a leaf and the boxes of its ancestors if the game object left this box.
+ * Static game objects are never refit.
+ * <p>
+ * A query returns candidates: the game objects are rendered with their own
+ * test, see {@link GameObject#isVisibleInFrustum(com.badlogic.gdx.graphics.Camera)}.
+ */
+public class FrustumCullingTree {
+    
+    /** Node of the tree, a leaf if it has a game object. */
+    private static class Node {
+        private final Vector3 min = new Vector3();
+        private final Vector3 max = new Vector3();
+        private Node parent;
+        private Node child1;
+        private Node child2;
+        private int height;
+        private GameObject gameObject;
+        private boolean dynamic;
+        
+        private boolean isLeaf() {
+            return child1 == null;
+        }
+    }
+    
+    /** Sorts nodes by the center of their boxes along an axis. */
+    private static class CenterComparator implements Comparator<Node> {
+        private final int axis;
+        
+        private CenterComparator(int axis) {
+            this.axis = axis;
+        }
+        
+        @Override
+        public int compare(Node a, Node b) {
+            return Float.compare(center(a, axis), center(b, axis));
+        }
+    }
+    
+    private static final int OUTSIDE = 0;
+    private static final int INTERSECTING = 1;
+    private static final int INSIDE = 2;
+    
+    private static final CenterComparator[] COMPARATORS = { new CenterComparator(0), new CenterComparator(1), new CenterComparator(2) };
+    
+    /** Distance a dynamic game object can move before its leaf is refit. */
+    private final float margin;
+    
+    private Node root = null;
+    private final IdentityMap<GameObject, Node> leaves = new IdentityMap<GameObject, Node>();
+    private final Array<Node> dynamicLeaves = new Array<Node>(false, 16, Node.class);
+    private final Array<Node> freeNodes = new Array<Node>(false, 16, Node.class);
+    private final Array<Node> stack = new Array<Node>(false, 64, Node.class);
+    
+    private final Vector3 tmpMin = new Vector3();
+    private final Vector3 tmpMax = new Vector3();
+    
+    /** Nodes whose box was tested in the last query. */
+    private int lastVisitedNodes = 0;
+    
+    /**
+     * Creates an empty tree.
+     * 
+     * @param margin
+     *            Distance a dynamic game object can move before its leaf and
+     *            the ancestors are refit.
+     */
+    public FrustumCullingTree(float margin) {
+        if (margin < 0.0f) {
+            throw new IllegalArgumentException("margin cannot be negative.");
+        }
+        this.margin = margin;
+    }
+    
+    /**
+     * Replaces the game objects of the tree and sorts them into a balanced
+     * tree, by splitting them at the median along the longest axis.
+     * 
+     * @param gameObjects
+     *            The game objects.
+     */
+    public void build(List<GameObject> gameObjects) {
+        clear();
+        final int size = gameObjects.size();
+        if (size == 0) {
+            return;
+        }
+        Node[] nodes = new Node[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = createLeaf(gameObjects.get(i), isDynamic(gameObjects.get(i)));
+        }
+        root = build(nodes, 0, size);
+        root.parent = null;
+    }
+    
+    private Node build(Node[] nodes, int from, int to) {
+        if (to - from == 1) {
+            return nodes[from];
+        }
+        tmpMin.set(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+        tmpMax.set(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+        for (int i = from; i < to; i++) {
+            final Node node = nodes[i];
+            final float x = center(node, 0);
+            final float y = center(node, 1);
+            final float z = center(node, 2);
+            tmpMin.set(Math.min(tmpMin.x, x), Math.min(tmpMin.y, y), Math.min(tmpMin.z, z));
+            tmpMax.set(Math.max(tmpMax.x, x), Math.max(tmpMax.y, y), Math.max(tmpMax.z, z));
+        }
+        tmpMax.sub(tmpMin);
+        int axis = 0;
+        if (tmpMax.y > tmpMax.x && tmpMax.y >= tmpMax.z) {
+            axis = 1;
+        } else if (tmpMax.z > tmpMax.x && tmpMax.z > tmpMax.y) {
+            axis = 2;
+        }
+        Arrays.sort(nodes, from, to, COMPARATORS[axis]);
+        
+        final int middle = (from + to) >>> 1;
+        Node parent = obtainNode();
+        parent.child1 = build(nodes, from, middle);
+        parent.child2 = build(nodes, middle, to);
+        parent.child1.parent = parent;
+        parent.child2.parent = parent;
+        updateNode(parent);
+        return parent;
+    }
+    
+    /**
+     * Inserts a game object next to the node whose box grows least. It is
+     * dynamic if it has a mover or a motion state.
+     * 
+     * @param gameObject
+     *            The game object, it must not be in the tree.
+     */
+    public void insert(GameObject gameObject) {
+        insert(gameObject, isDynamic(gameObject));
+    }
+    
+    /**
+     * Inserts a game object next to the node whose box grows least.
+     * 
+     * @param gameObject
+     *            The game object, it must not be in the tree.
+     * @param dynamic
+     *            True, if the game object moves and has to be refit, for
+     *            example if its body is moved by the physics.
+     */
+    public void insert(GameObject gameObject, boolean dynamic) {
+        if (leaves.containsKey(gameObject)) {
+            throw new IllegalArgumentException("gameObject is already in the tree.");
+        }
+        insertLeaf(createLeaf(gameObject, dynamic));
+    }
+    
+    /**
+     * Removes a game object.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @return true, if the game object was in the tree
+     */
+    public boolean remove(GameObject gameObject) {
+        Node leaf = leaves.remove(gameObject);
+        if (leaf == null) {
+            return false;
+        }
+        if (leaf.dynamic) {
+            dynamicLeaves.removeValue(leaf, true);
+        }
+        removeLeaf(leaf);
+        freeNode(leaf);
+        return true;
+    }
+    
+    /**
+     * Removes all game objects.
+     */
+    public void clear() {
+        root = null;
+        leaves.clear();
+        dynamicLeaves.clear();
+    }
+    
+    /**
+     * Enlarges the leaves of the dynamic game objects that left their boxes
+     * and the boxes of the ancestors of these leaves. Has to be called before
+     * a query if game objects moved.
+     */
+    public void refit() {
+        final Node[] items = dynamicLeaves.items;
+        final int size = dynamicLeaves.size;
+        for (int i = 0; i < size; i++) {
+            final Node leaf = items[i];
+            leaf.gameObject.getFrustumBounds(tmpMin, tmpMax);
+            if (!contains(leaf, tmpMin, tmpMax)) {
+                leaf.min.set(tmpMin).sub(margin);
+                leaf.max.set(tmpMax).add(margin);
+                refitAncestors(leaf.parent);
+            }
+        }
+    }
+    
+    /**
+     * Adds the game objects whose boxes are inside of a frustum or intersect
+     * it to a list.
+     * 
+     * @param frustum
+     *            The frustum of the camera.
+     * @param out
+     *            The list for the game objects, it is not cleared.
+     */
+    public void query(Frustum frustum, Array<GameObject> out) {
+        lastVisitedNodes = 0;
+        if (root == null) {
+            return;
+        }
+        stack.add(root);
+        while (stack.size > 0) {
+            final Node node = stack.pop();
+            lastVisitedNodes++;
+            final int classification = classify(frustum.planes, node);
+            if (classification == OUTSIDE) {
+                continue;
+            }
+            if (classification == INSIDE || node.isLeaf()) {
+                addLeaves(node, out);
+            } else {
+                stack.add(node.child1);
+                stack.add(node.child2);
+            }
+        }
+    }
+    
+    /**
+     * Getter for the number of game objects in the tree.
+     * 
+     * @return the number of game objects
+     */
+    public int size() {
+        return leaves.size;
+    }
+    
+    /**
+     * Getter for the height of the tree.
+     * 
+     * @return the number of nodes on the longest path from the root to a
+     *         leaf, 0 if the tree is empty
+     */
+    public int getHeight() {
+        return root == null ? 0 : root.height + 1;
+    }
+    
+    /**
+     * Getter for the number of nodes whose box was tested in the last query.
+     * 
+     * @return the number of tested nodes
+     */
+    public int getLastVisitedNodes() {
+        return lastVisitedNodes;
+    }
+    
+    private static boolean isDynamic(GameObject gameObject) {
+        return gameObject.getMover() != null || gameObject.hasMotionState();
+    }
+    
+    private Node createLeaf(GameObject gameObject, boolean dynamic) {
+        Node leaf = obtainNode();
+        leaf.gameObject = gameObject;
+        leaf.dynamic = dynamic;
+        gameObject.getFrustumBounds(leaf.min, leaf.max);
+        if (leaf.dynamic) {
+            leaf.min.sub(margin);
+            leaf.max.add(margin);
+            dynamicLeaves.add(leaf);
+        }
+        leaves.put(gameObject, leaf);
+        return leaf;
+    }
+    
+    private void insertLeaf(Node leaf) {
+        if (root == null) {
+            root = leaf;
+            leaf.parent = null;
+            return;
+        }
+        
+        // descends to the node whose box grows least, like the dynamic tree
+        // of Box2D with the surface area instead of the perimeter
+        Node sibling = root;
+        while (!sibling.isLeaf()) {
+            final float area = surfaceArea(sibling.min, sibling.max);
+            final float combinedArea = unionArea(sibling, leaf);
+            final float cost = 2.0f * combinedArea;
+            final float inheritanceCost = 2.0f * (combinedArea - area);
+            final float cost1 = descendCost(sibling.child1, leaf) + inheritanceCost;
+            final float cost2 = descendCost(sibling.child2, leaf) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            sibling = cost1 < cost2 ? sibling.child1 : sibling.child2;
+        }
+        
+        final Node oldParent = sibling.parent;
+        final Node newParent = obtainNode();
+        newParent.parent = oldParent;
+        newParent.child1 = sibling;
+        newParent.child2 = leaf;
+        sibling.parent = newParent;
+        leaf.parent = newParent;
+        if (oldParent == null) {
+            root = newParent;
+        } else if (oldParent.child1 == sibling) {
+            oldParent.child1 = newParent;
+        } else {
+            oldParent.child2 = newParent;
+        }
+        refitAncestors(newParent);
+    }
+    
+    private void removeLeaf(Node leaf) {
+        if (leaf == root) {
+            root = null;
+            return;
+        }
+        final Node parent = leaf.parent;
+        final Node grandParent = parent.parent;
+        final Node sibling = parent.child1 == leaf ? parent.child2 : parent.child1;
+        sibling.parent = grandParent;
+        if (grandParent == null) {
+            root = sibling;
+        } else {
+            if (grandParent.child1 == parent) {
+                grandParent.child1 = sibling;
+            } else {
+                grandParent.child2 = sibling;
+            }
+            refitAncestors(grandParent);
+        }
+        freeNode(parent);
+    }
+    
+    /**
+     * Cost of inserting a leaf below a node, the growth of the box of the
+     * node if it is not a leaf.
+     */
+    private float descendCost(Node node, Node leaf) {
+        final float combinedArea = unionArea(node, leaf);
+        if (node.isLeaf()) {
+            return combinedArea;
+        }
+        return combinedArea - surfaceArea(node.min, node.max);
+    }
+    
+    private float unionArea(Node a, Node b) {
+        tmpMin.set(Math.min(a.min.x, b.min.x), Math.min(a.min.y, b.min.y), Math.min(a.min.z, b.min.z));
+        tmpMax.set(Math.max(a.max.x, b.max.x), Math.max(a.max.y, b.max.y), Math.max(a.max.z, b.max.z));
+        return surfaceArea(tmpMin, tmpMax);
+    }
+    
+    private static float surfaceArea(Vector3 min, Vector3 max) {
+        final float x = max.x - min.x;
+        final float y = max.y - min.y;
+        final float z = max.z - min.z;
+        return 2.0f * (x * y + y * z + z * x);
+    }
+    
+    private static float center(Node node, int axis) {
+        switch (axis) {
+        case 0:
+            return node.min.x + node.max.x;
+        case 1:
+            return node.min.y + node.max.y;
+        default:
+            return node.min.z + node.max.z;
+        }
+    }
+    
+    private static boolean contains(Node node, Vector3 min, Vector3 max) {
+        return node.min.x <= min.x && node.min.y <= min.y && node.min.z <= min.z && max.x <= node.max.x && max.y <= node.max.y && max.z <= node.max.z;
+    }
+    
+    /**
+     * Updates the boxes and heights of a node and its ancestors.
+     */
+    private void refitAncestors(Node node) {
+        while (node != null) {
+            updateNode(node);
+            node = node.parent;
+        }
+    }
+    
+    private static void updateNode(Node node) {
+        final Node a = node.child1;
+        final Node b = node.child2;
+        node.min.set(Math.min(a.min.x, b.min.x), Math.min(a.min.y, b.min.y), Math.min(a.min.z, b.min.z));
+        node.max.set(Math.max(a.max.x, b.max.x), Math.max(a.max.y, b.max.y), Math.max(a.max.z, b.max.z));
+        node.height = 1 + Math.max(a.height, b.height);
+    }
+    
+    /**
+     * Classifies the box of a node against the planes of a frustum, like
+     * {@link Frustum#boundsInFrustum(Vector3, Vector3)} with the corner that
+     * is farthest in front of and behind every plane.
+     */
+    private static int classify(Plane[] planes, Node node) {
+        final float centerX = 0.5f * (node.min.x + node.max.x);
+        final float centerY = 0.5f * (node.min.y + node.max.y);
+        final float centerZ = 0.5f * (node.min.z + node.max.z);
+        final float halfX = 0.5f * (node.max.x - node.min.x);
+        final float halfY = 0.5f * (node.max.y - node.min.y);
+        final float halfZ = 0.5f * (node.max.z - node.min.z);
+        int classification = INSIDE;
+        for (int i = 0; i < planes.length; i++) {
+            final Vector3 normal = planes[i].normal;
+            final float distance = normal.x * centerX + normal.y * centerY + normal.z * centerZ + planes[i].d;
+            final float radius = Math.abs(normal.x) * halfX + Math.abs(normal.y) * halfY + Math.abs(normal.z) * halfZ;
+            if (distance + radius < 0.0f) {
+                return OUTSIDE;
+            }
+            if (distance - radius < 0.0f) {
+                classification = INTERSECTING;
+            }
+        }
+        return classification;
+    }
+    
+    /**
+     * Adds the game objects of the leaves of a subtree to a list.
+     */
+    private static void addLeaves(Node node, Array<GameObject> out) {
+        if (node.isLeaf()) {
+            out.add(node.gameObject);
+        } else {
+            addLeaves(node.child1, out);
+            addLeaves(node.child2, out);
+        }
+    }
+    
+    private Node obtainNode() {
+        return freeNodes.size > 0 ? freeNodes.pop() : new Node();
+    }
+    
+    private void freeNode(Node node) {
+        node.parent = null;
+        node.child1 = null;
+        node.child2 = null;
+        node.height = 0;
+        node.gameObject = null;
+        node.dynamic = false;
+        freeNodes.add(node);
+    }
+}
@@ -8,6 +8,7 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.TimeUtils;
 
 import de.fau.cs.mad.fly.features.IFeatureDispose;
 import de.fau.cs.mad.fly.features.IFeatureDraw;
@@ -15,7 +16,10 @@ import de.fau.cs.mad.fly.features.IFeatureFinish;
 import de.fau.cs.mad.fly.features.IFeatureInit;
 import de.fau.cs.mad.fly.features.IFeatureLoad;
 import de.fau.cs.mad.fly.features.IFeatureRender;
+import de.fau.cs.mad.fly.features.IFeatureSchedule;
 import de.fau.cs.mad.fly.features.IFeatureUpdate;
+import de.fau.cs.mad.fly.game.event.EventBus;
+import de.fau.cs.mad.fly.graphics.GLStateCounter;
 import de.fau.cs.mad.fly.player.Player;
 import de.fau.cs.mad.fly.res.Level;
 import de.fau.cs.mad.fly.sound.AudioManager;
@@ -36,6 +40,9 @@ import de.fau.cs.mad.fly.sound.AudioManager;
  * update(): - called every frame while the game is running and not paused -
  * should be stuff like calculating and updating values
  * <p>
+ * Features that implement {@link IFeatureSchedule} are updated or drawn with
+ * their own frequency instead of every frame.
+ * <p>
  * render(): - called every frame while the game is running or paused - should
  * be stuff like rendering models
  * <p>
@@ -76,6 +83,81 @@ public class GameController implements TimeIsUpListener {
     
     protected AudioManager audioManager;
     
+    /**
+     * Longest frame time in seconds that is fed into the fixed step
+     * simulation. Longer frames are clamped to avoid a spiral of catch-up
+     * ticks after a stall.
+     */
+    public static final float MAX_FRAME_TIME = 0.25f;
+    
+    /**
+     * Maximal number of threads of the parallel update. Phones often have
+     * slow cores beside the fast ones, more threads wait for them.
+     */
+    public static final int MAX_UPDATE_THREADS = 4;
+    
+    /**
+     * Duration of one simulation tick in seconds if the game runs with a fixed
+     * time step, 0 if the frame delta is used directly.
+     */
+    private float fixedTimeStep = 0.0f;
+    
+    /** Simulation time of the current frame that is not yet simulated. */
+    private float accumulator = 0.0f;
+    
+    /** The plane of the player, if its transform can be interpolated. */
+    private GameObject planeObject;
+    
+    /** Measures the phases of the frames and the features, if enabled. */
+    protected final FrameProfiler profiler = new FrameProfiler();
+    
+    /** Decides which update features are called in the current tick. */
+    protected final FeatureScheduler<IFeatureUpdate> updateScheduler = new FeatureScheduler<IFeatureUpdate>() {
+        @Override
+        protected void call(IFeatureUpdate feature, float delta) {
+            feature.update(delta);
+        }
+    };
+    
+    /** Decides which draw features are called in the current frame. */
+    protected final FeatureScheduler<IFeatureDraw> drawScheduler = new FeatureScheduler<IFeatureDraw>() {
+        @Override
+        protected void call(IFeatureDraw feature, float delta) {
+            feature.draw(delta);
+        }
+        
+        @Override
+        protected boolean isScheduled(IFeatureDraw feature) {
+            // the schedule of features that update and draw is used for the
+            // update, they have to draw every frame
+            return super.isScheduled(feature) && !(feature instanceof IFeatureUpdate);
+        }
+    };
+    
+    /**
+     * Queues the collision, gate and game state events and dispatches them at
+     * the start of every frame and after every collision step.
+     */
+    protected final EventBus eventBus = new EventBus();
+    
+    /**
+     * Moves the game objects of the level on several threads, null if the
+     * parallel update is disabled.
+     */
+    private ParallelMover parallelMover = null;
+    
+    /** Recording of the input, null if the input is neither recorded nor replayed. */
+    private InputRecording inputRecording = null;
+    /** True, if {@link #inputRecording} is replayed. */
+    private boolean replaying = false;
+    /** Number of the next replayed frame. */
+    private int replayFrame;
+    
+    /** Sections of the {@link #profiler} for the features. */
+    private int[] updateSections = new int[0];
+    private int[] renderSections = new int[0];
+    private int[] drawSections = new int[0];
+    
     private GameState gameState;
     
     private TimeController timeController;
@@ -168,7 +250,12 @@ public class GameController implements TimeIsUpListener {
      */
     public void loadGame() {
         camera = cameraController.getCamera();
-        ParticleController.getInstance().load(camera, batch);
+        if (player.getPlane() instanceof GameObject) {
+            planeObject = (GameObject) player.getPlane();
+        }
+        if (batch != null) {
+            ParticleController.getInstance().load(camera, batch);
+        }
         
         // load features
         for (IFeatureLoad optionalFeature : optionalFeaturesToLoad) {
@@ -191,6 +278,7 @@ public class GameController implements TimeIsUpListener {
         Gdx.input.setCatchBackKey(true);
         Gdx.input.setInputProcessor(inputProcessor);
         setGameState(GameState.RUNNING);
+        accumulator = 0.0f;
         timeController.initAndStartTimer((int) level.getLeftTime());
         Gdx.app.log("GameController.initGame", "OK HAVE FUN!");
     }
@@ -228,6 +316,157 @@ public class GameController implements TimeIsUpListener {
         }
     }
     
+    /**
+     * Setter for the tick rate of the simulation.
+     * <p>
+     * With a tick rate greater than 0 the flight, the level, the updating
+     * features and the collision detection are updated in fixed ticks and the
+     * moving game objects are rendered interpolated between the last two
+     * ticks. With 0 they are updated once per frame with the frame delta.
+     * 
+     * @param ticksPerSecond
+     *            Number of simulation ticks per second, 0 to disable the fixed
+     *            time step.
+     */
+    public void setFixedTickRate(int ticksPerSecond) {
+        if (ticksPerSecond < 0) {
+            throw new IllegalArgumentException("GameController.setFixedTickRate(" + ticksPerSecond + ") got a negative parameter.");
+        }
+        fixedTimeStep = ticksPerSecond == 0 ? 0.0f : 1.0f / ticksPerSecond;
+        accumulator = 0.0f;
+        GameObject.setRenderInterpolation(ticksPerSecond > 0);
+    }
+    
+    /**
+     * Setter for the time the low priority update and draw features may use
+     * per frame, see {@link IFeatureSchedule}.
+     * 
+     * @param milliseconds
+     *            Time in milliseconds, has to be 0 or greater.
+     */
+    public void setFeatureBudget(float milliseconds) {
+        updateScheduler.setBudget(milliseconds);
+        drawScheduler.setBudget(milliseconds);
+    }
+    
+    /**
+     * Enables or disables the parallel update of the moving game objects of
+     * the level, see {@link ParallelMover}.
+     * <p>
+     * On devices with only one processor the game objects are always moved
+     * serially.
+     * 
+     * @param enabled
+     *            True, to move the game objects on several threads, false to
+     *            move them on the render thread.
+     */
+    public void setParallelUpdate(boolean enabled) {
+        if (enabled && parallelMover == null) {
+            int threads = Math.min(MAX_UPDATE_THREADS, Runtime.getRuntime().availableProcessors());
+            if (threads > 1) {
+                parallelMover = new ParallelMover(threads);
+                Gdx.app.log("GameController.setParallelUpdate", "Moving game objects on " + threads + " threads.");
+            }
+        } else if (!enabled && parallelMover != null) {
+            parallelMover.dispose();
+            parallelMover = null;
+        }
+        if (level != null) {
+            level.setParallelMover(parallelMover);
+        }
+    }
+    
+    /**
+     * Getter for the event bus.
+     * 
+     * @return {@link #eventBus}
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+    
+    /**
+     * Getter for the frame profiler.
+     * 
+     * @return {@link #profiler}
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+    
+    /**
+     * Records the frame times and the steering of the game, see
+     * {@link InputRecording}. The recording is written to the local directory
+     * "recordings" when the game is disposed.
+     * <p>
+     * The random numbers of the game logic have to be seeded with the seed of
+     * the recording before the level is generated.
+     * 
+     * @param recording
+     *            The empty recording to fill.
+     */
+    public void startRecording(InputRecording recording) {
+        inputRecording = recording;
+        replaying = false;
+        flightController.startRecording(recording);
+        startDeterministicRun();
+    }
+    
+    /**
+     * Replays the frame times and the steering of a recorded game instead of
+     * the frame times of the caller and the input of the user.
+     * <p>
+     * The random numbers of the game logic have to be seeded with the seed of
+     * the recording before the level is generated.
+     * 
+     * @param recording
+     *            The recording to replay.
+     */
+    public void startReplay(InputRecording recording) {
+        inputRecording = recording;
+        replaying = true;
+        replayFrame = 0;
+        setFixedTickRate(recording.getFixedTickRate());
+        flightController.startReplay(recording);
+        startDeterministicRun();
+    }
+    
+    /**
+     * Lets the game time and the low priority updates depend only on the
+     * simulated time instead of the measured time.
+     */
+    private void startDeterministicRun() {
+        timeController.setSimulatedClock(true);
+        updateScheduler.setBudget(Float.MAX_VALUE);
+    }
+    
+    /**
+     * Getter for the recording of the input.
+     * 
+     * @return the recorded or replayed recording, null if there is none
+     */
+    public InputRecording getInputRecording() {
+        return inputRecording;
+    }
+    
+    /**
+     * Checks if all frames of a replayed recording are simulated.
+     * 
+     * @return true, if a replay is finished.
+     */
+    public boolean isReplayFinished() {
+        return replaying && replayFrame >= inputRecording.getFrames();
+    }
+    
+    /**
+     * Returns if the simulation runs with a fixed time step.
+     * 
+     * @return true, if the game is updated in fixed ticks, false otherwise.
+     */
+    public boolean isFixedTimeStep() {
+        return fixedTimeStep > 0.0f;
+    }
+    
     /**
      * This method is called every frame. Furthermore all optional features in
      * {@link #optionalFeaturesToRender} are updated and rendered.
@@ -236,43 +475,129 @@ public class GameController implements TimeIsUpListener {
      *            Time after the last call.
      */
     public void renderGame(float delta) {
+        profiler.startFrame();
         stage.act(delta);
+        profiler.lap(FrameProfiler.STAGE_ACT);
         int len, i;
         
-        if (gameState == GameState.RUNNING) {
-            // update features if the game is not paused
-            
-            flightController.update(delta);
-            camera = cameraController.updateCamera();
-            level.update(delta, camera);
-            
-            len = optionalFeaturesToUpdate.size();
-            for (i = 0; i < len; i++) {
-                optionalFeaturesToUpdate.get(i).update(delta);
-            }
-            
-            CollisionDetector.getInstance().perform(delta);
-            timeController.checkTime();
-        }
+        updateGame(delta);
         
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
         
         // render features
         batch.begin(camera);
         level.render(delta, batch, camera);
+        profiler.lap(FrameProfiler.BATCH_RENDER);
         len = optionalFeaturesToRender.size();
+        if (renderSections.length != len) {
+            renderSections = profiler.addSections("render", optionalFeaturesToRender);
+        }
         for (i = 0; i < len; i++) {
             optionalFeaturesToRender.get(i).render(delta);
+            profiler.lap(renderSections[i]);
         }
         ParticleController.getInstance().render();
         batch.end();
+        profiler.lap(FrameProfiler.BATCH_RENDER);
         
         // draw features
         len = optionalFeaturesToDraw.size();
+        if (drawSections.length != len) {
+            drawSections = profiler.addSections("draw", optionalFeaturesToDraw);
+        }
+        drawScheduler.startFrame();
+        drawScheduler.startTick(optionalFeaturesToDraw);
         for (i = 0; i < len; i++) {
-            optionalFeaturesToDraw.get(i).draw(delta);
+            drawScheduler.run(i, delta);
+            profiler.lap(drawSections[i]);
         }
         stage.draw();
+        profiler.lap(FrameProfiler.STAGE_DRAW);
+        profiler.endFrame();
+    }
+    
+    /**
+     * This method is called every frame while the game is running and not
+     * paused. It simulates the game for the given time without rendering it,
+     * either in one step or in fixed ticks.
+     * <p>
+     * It is called by {@link #renderGame(float)} and can be called directly to
+     * run the game without a screen.
+     * 
+     * @param delta
+     *            Time after the last call.
+     */
+    public void updateGame(float delta) {
+        // events of the input and the user interface since the last frame
+        eventBus.dispatch();
+        if (gameState != GameState.RUNNING) {
+            return;
+        }
+        if (inputRecording != null) {
+            if (!replaying) {
+                inputRecording.addFrame(delta);
+            } else if (replayFrame < inputRecording.getFrames()) {
+                delta = inputRecording.getFrameDelta(replayFrame++);
+            } else {
+                // the recording ends here, for example because the game was
+                // left
+                return;
+            }
+        }
+        
+        // the low priority features share one budget for all ticks of the
+        // frame
+        updateScheduler.startFrame();
+        if (fixedTimeStep > 0.0f) {
+            accumulator += Math.min(delta, MAX_FRAME_TIME);
+            while (accumulator >= fixedTimeStep && gameState == GameState.RUNNING) {
+                if (planeObject != null) {
+                    planeObject.storePreviousTransform();
+                }
+                CollisionDetector.getInstance().storePreviousTransforms();
+                simulateTick(fixedTimeStep);
+                accumulator -= fixedTimeStep;
+            }
+            GameObject.setInterpolationAlpha(accumulator / fixedTimeStep);
+            if (planeObject != null) {
+                camera = cameraController.updateCamera(planeObject.getInterpolatedTransform());
+            }
+        } else {
+            simulateTick(delta);
+        }
+        timeController.checkTime();
+    }
+    
+    /**
+     * Updates the flight, the camera, the level, all optional features in
+     * {@link #optionalFeaturesToUpdate} and the collision detection by one
+     * step.
+     * 
+     * @param delta
+     *            Time that is simulated in this step.
+     */
+    protected void simulateTick(float delta) {
+        timeController.advance(delta);
+        flightController.update(delta);
+        profiler.lap(FrameProfiler.FLIGHT);
+        camera = cameraController.updateCamera();
+        profiler.lap(FrameProfiler.CAMERA);
+        level.update(delta, camera);
+        profiler.lap(FrameProfiler.LEVEL_UPDATE);
+        
+        final int len = optionalFeaturesToUpdate.size();
+        if (updateSections.length != len) {
+            updateSections = profiler.addSections("update", optionalFeaturesToUpdate);
+        }
+        updateScheduler.startTick(optionalFeaturesToUpdate);
+        for (int i = 0; i < len; i++) {
+            updateScheduler.run(i, delta);
+            profiler.lap(updateSections[i]);
+        }
+        
+        CollisionDetector.getInstance().perform(delta);
+        eventBus.dispatch();
+        profiler.lap(FrameProfiler.COLLISION);
     }
     
     /**
@@ -297,6 +622,28 @@ public class GameController implements TimeIsUpListener {
         }
         // remove all objects from a previous level
         CollisionDetector.getInstance().dispose();
+        eventBus.clear();
+        
+        if (profiler.isEnabled() && profiler.getFrames() > 0) {
+            String name = "profiles/frames-" + TimeUtils.millis();
+            profiler.export(Gdx.files.local(name + ".csv"));
+            profiler.export(Gdx.files.local(name + ".json"));
+        }
+        profiler.reset();
+        profiler.setGLStateCounter(null);
+        GLStateCounter.uninstall();
+        if (inputRecording != null && !replaying && inputRecording.getFrames() > 0) {
+            inputRecording.write(Gdx.files.local("recordings/input-" + TimeUtils.millis() + ".rec"));
+        }
+        inputRecording = null;
+        replaying = false;
+        updateScheduler.setBudget(FeatureScheduler.DEFAULT_BUDGET);
+        setParallelUpdate(false);
+        updateScheduler.reset();
+        drawScheduler.reset();
+        updateSections = new int[0];
+        renderSections = new int[0];
+        drawSections = new int[0];
         
         audioManager.dispose();
         
@@ -309,6 +656,8 @@ public class GameController implements TimeIsUpListener {
         optionalFeaturesToFinish.clear();
         gameStateListeners.clear();
         gameState = GameState.PAUSED;
+        planeObject = null;
+        GameObject.setInterpolationAlpha(1.0f);
     }
     
     /**
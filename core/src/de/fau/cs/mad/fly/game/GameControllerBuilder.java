@@ -8,11 +8,11 @@ import java.util.List;
 import com.badlogic.gdx.Application.ApplicationType;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.physics.bullet.Bullet;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.FillViewport;
@@ -31,6 +31,7 @@ import de.fau.cs.mad.fly.features.IFeatureUpdate;
 import de.fau.cs.mad.fly.features.game.EndlessLevelGenerator;
 import de.fau.cs.mad.fly.features.game.EndlessRailLevelGenerator;
 import de.fau.cs.mad.fly.features.overlay.BackButtonOverlay;
+import de.fau.cs.mad.fly.features.overlay.DebugOverlay;
 import de.fau.cs.mad.fly.features.overlay.FPSOverlay;
 import de.fau.cs.mad.fly.features.overlay.GameFinishedOverlay;
 import de.fau.cs.mad.fly.features.overlay.GateIndicator;
@@ -46,12 +47,15 @@ import de.fau.cs.mad.fly.features.upgrades.ResizeGatesUpgradeHandler;
 import de.fau.cs.mad.fly.features.upgrades.TemporarySpeedUpgradeHandler;
 import de.fau.cs.mad.fly.features.upgrades.types.TemporarySpeedUpgrade;
 import de.fau.cs.mad.fly.game.GameController.GameState;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
+import de.fau.cs.mad.fly.graphics.FlyRenderableSorter;
+import de.fau.cs.mad.fly.graphics.GLStateCounter;
 import de.fau.cs.mad.fly.graphics.shaders.FlyShaderProvider;
+import de.fau.cs.mad.fly.helper.RandomHelper;
 import de.fau.cs.mad.fly.levels.DefaultLevel;
 import de.fau.cs.mad.fly.levels.ILevel;
 import de.fau.cs.mad.fly.player.IPlane;
 import de.fau.cs.mad.fly.player.Player;
-import de.fau.cs.mad.fly.player.Spaceship;
 import de.fau.cs.mad.fly.profile.PlayerProfile;
 import de.fau.cs.mad.fly.profile.PlayerProfileManager;
 import de.fau.cs.mad.fly.res.GateCircuit;
@@ -75,6 +79,10 @@ import de.fau.cs.mad.fly.ui.screens.MainMenuScreen;
  * 
  */
 public class GameControllerBuilder {
+    
+    /** Local file that is replayed if {@link SettingManager#REPLAY_INPUT} is set. */
+    public static final String REPLAY_FILE = "recordings/replay.rec";
+    
     private Player player;
     private PlayerProfile playerProfile;
     private Stage stage;
@@ -93,6 +101,15 @@ public class GameControllerBuilder {
     private ScoreController scoreController;
     private EndlessLevelGenerator generator;
     private AudioManager audioManager;
+    private int fixedTickRate;
+    private boolean profileFrames;
+    private boolean parallelUpdate;
+    private boolean profileAllocations;
+    private AllocationCounter allocationCounter;
+    private boolean headless;
+    private boolean recordInput;
+    private InputRecording replay;
+    private long seed;
     
     /**
      * Creates a basic {@link GameController} with a certain level, linked to
@@ -108,11 +125,14 @@ public class GameControllerBuilder {
      */
     public GameControllerBuilder init(final Fly game) {
         clearFeatureLists();
+        headless = false;
         
         gameStateListener = new ArrayList<GameStateListener>();
         player = new Player();
         playerProfile = PlayerProfileManager.getInstance().getCurrentPlayerProfile();
         level = Loader.getInstance().getCurrentLevel();
+        allocationCounter = game.getAllocationCounter();
+        checkRecordAndReplaySettings();
         switch( Gdx.app.getType() ) {
             case iOS:
                 try {
@@ -141,35 +161,51 @@ public class GameControllerBuilder {
         Viewport viewport = new FillViewport(Gdx.graphics.getWidth() * scalingFactor, Gdx.graphics.getHeight() * scalingFactor, stage.getCamera());
         stage.setViewport(viewport);
         
+        setUpLevel();
+        
+        checkAndAddSettingFeatures();
+        
+        checkAndAddUpgradeHandler();
+        
+        addLevelFeatures(level);
+        
+        return this;
+    }
+    
+    /**
+     * Sets up the gates, the collision detection and the level generator of
+     * the current level.
+     */
+    private void setUpLevel() {
+        // the level generator and the level features use the seeded random
+        // numbers, a replay generates the same level
+        seed = replay != null ? replay.getSeed() : RandomHelper.newSeed();
+        RandomHelper.setSeed(seed);
+        
         GateCircuit gateCircuit = level.getGateCircuit();
         optionalFeaturesToLoad.add(gateCircuit);
         
         addPlayerPlane();
-        Bullet.init();
-        CollisionDetector.createCollisionDetector();
+        if (level.collisionBackend.usesBullet()) {
+            Bullet.init();
+        }
+        // endless levels have no bounds for a sweep and prune broadphase
+        boolean axisSweep = level.axisSweepBroadphase && !level.head.isEndless() && !level.head.isEndlessRails();
+        CollisionDetector.createCollisionDetector(level.collisionBackend, axisSweep ? level.radius : 0.0f);
         CollisionDetector collisionDetector = CollisionDetector.getInstance();
         
-        collisionDetector.getCollisionContactListener().addListener(gateCircuit);
-        collisionDetector.getCollisionContactListener().addListener(new ICollisionListener() {
+        addCollisionListener(gateCircuit);
+        addCollisionListener(new ICollisionListener() {
             @Override
-            public void onCollision(GameObject g1, GameObject g2) {
-                GameObject g;
-                if (g1 instanceof Spaceship) {
-                    g = g2;
-                } else if (g2 instanceof Spaceship) {
-                    g = g1;
-                } else {
-                    return;
-                }
-                
-                if (g.isDummy()) {
+            public void onEvent(CollisionEvent event) {
+                if (event.getSecond().isDummy()) {
                     return;
                 }
                 audioManager.play(AudioManager.Sounds.CRASH);
                 Player currentPlayer = GameController.getInstance().getPlayer();
 
                 if (!currentPlayer.decreaseLives()) {
-                    game.getGameController().setGameState(GameState.NO_LIVES);
+                    GameController.getInstance().setGameState(GameState.NO_LIVES);
                 }
             }
         });
@@ -216,17 +252,20 @@ public class GameControllerBuilder {
         } else if (level.head.isEndlessRails()) {
 
             generator = new EndlessRailLevelGenerator(Loader.getInstance().getCurrentLevel(), this);
-            if(Gdx.app.getType().equals(ApplicationType.iOS)) {
-                try {
-                    Constructor c = Class.forName("de.fau.cs.mad.fly.ios.input.IOSRailFlightController").getConstructor(Player.class, PlayerProfile.class, EndlessLevelGenerator.class, Perspective.class);
-                    flightController = (FlightController) c.newInstance(player, playerProfile, generator, level.start);
-                } catch(Exception e) {
-                    throw new GdxRuntimeException("Error instantiating IOSRailFlightController",e);
+            if (!headless) {
+                // a headless simulation keeps its scripted flight controller
+                if(Gdx.app.getType().equals(ApplicationType.iOS)) {
+                    try {
+                        Constructor c = Class.forName("de.fau.cs.mad.fly.ios.input.IOSRailFlightController").getConstructor(Player.class, PlayerProfile.class, EndlessLevelGenerator.class, Perspective.class);
+                        flightController = (FlightController) c.newInstance(player, playerProfile, generator, level.start);
+                    } catch(Exception e) {
+                        throw new GdxRuntimeException("Error instantiating IOSRailFlightController",e);
+                    }
+                } else {
+                    flightController = new RailFlightController(player, playerProfile, generator, level.start);
                 }
-            } else {
-                flightController = new RailFlightController(player, playerProfile, generator, level.start);
+                addCollisionListener((ICollisionListener) flightController);
             }
-            CollisionDetector.getInstance().getCollisionContactListener().addListener((ICollisionListener) flightController);
             
             gateCircuit.addListener(new GateCircuitAdapter() {
                 @Override
@@ -236,11 +275,54 @@ public class GameControllerBuilder {
                 }
             });
         }
+    }
+    
+    /**
+     * Creates a {@link GameController} for a headless simulation of a level.
+     * <p>
+     * The plane is steered by a {@link ScriptedFlightController} and nothing is
+     * created that needs a screen or a graphics context, like the stage, the
+     * overlays and the model batch. The gates, the collision detection, the
+     * upgrades and the level script features are set up like in
+     * {@link #init(Fly)}. In endless rail levels the plane is also steered by
+     * the script.
+     * 
+     * @param level
+     *            The loaded level to simulate.
+     * @param player
+     *            The player with the plane to fly through the level.
+     * @param script
+     *            The script that steers the plane.
+     * @return Builder instance for the headless simulation
+     */
+    public GameControllerBuilder initHeadless(Level level, Player player, ScriptedFlightController.Script script) {
+        clearFeatureLists();
+        headless = true;
+        profileFrames = false;
+        parallelUpdate = false;
+        profileAllocations = false;
+        allocationCounter = null;
         
-        checkAndAddSettingFeatures();
+        gameStateListener = new ArrayList<GameStateListener>();
+        this.player = player;
+        playerProfile = null;
+        this.level = level;
+        Loader.getInstance().setCurrentLevel(level);
         
-        checkAndAddUpgradeHandler();
+        flightController = new ScriptedFlightController(player, script);
+        flightController.init();
+        cameraController = new CameraController(player, null);
         
+        stage = null;
+        timeController = new TimeController();
+        scoreController = new ScoreController();
+        audioManager = new AudioManager();
+        
+        setUpLevel();
+        
+        InfoOverlay.createInfoOverlay(null);
+        addFeatureToLists(InfoOverlay.getInstance());
+        checkAndAddUpgradeHandler();
         addLevelFeatures(level);
         
         return this;
@@ -285,17 +367,33 @@ public class GameControllerBuilder {
         GameObject o;
         List<GameObject> gameObjects = level.components;
         int size = gameObjects.size();
-        btCollisionShape displayShape;
         for (int i = 0; i < size; i++) {
             o = gameObjects.get(i);
             if (!o.getId().equals(Level.BORDER_NAME)) {
-                displayShape = collisionDetector.getShapeManager().createConvexShape(o.getModelId(), o);
-                o.createRigidBody(o.getModelId(), displayShape, 0.0f, CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
+                collisionDetector.createConvexBody(o, o.getModelId(), 0.0f, CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
                 collisionDetector.addRigidBody(o);
             }
         }
     }
     
+    /**
+     * Checks the preferences if the input should be recorded or the local file
+     * {@link #REPLAY_FILE} should be replayed.
+     */
+    private void checkRecordAndReplaySettings() {
+        SettingManager settings = playerProfile.getSettingManager();
+        recordInput = settings.getBoolean(SettingManager.RECORD_INPUT, false, false);
+        replay = null;
+        if (settings.getBoolean(SettingManager.REPLAY_INPUT, false, false)) {
+            FileHandle file = Gdx.files.local(REPLAY_FILE);
+            if (file.exists()) {
+                setReplay(InputRecording.read(file));
+            } else {
+                Gdx.app.error("GameControllerBuilder.checkRecordAndReplaySettings", REPLAY_FILE + " does not exist.");
+            }
+        }
+    }
+    
     /**
      * Checks the preferences if the standard features should be used and adds
      * them to the game controller if necessary.
@@ -304,6 +402,11 @@ public class GameControllerBuilder {
         // if needed for debugging: Debug.init(game.getSkin(), stage, 1);
         
         SettingManager settings = playerProfile.getSettingManager();
+        fixedTickRate = settings.getInteger(SettingManager.FIXED_TICK_RATE, 0, false);
+        profileFrames = settings.getBoolean(SettingManager.PROFILE_FRAMES, false, false);
+        parallelUpdate = settings.getBoolean(SettingManager.PARALLEL_UPDATE, false, false);
+        profileAllocations = settings.getBoolean(SettingManager.PROFILE_ALLOCATIONS, false, false);
+        profileFrames |= profileAllocations;
         addGateIndicator();
         addTimeLeftOverlay();
         addScoreOverlay();
@@ -316,23 +419,17 @@ public class GameControllerBuilder {
         if (settings.getBoolean(SettingManager.SHOW_FPS)) {
             addFPSOverlay();
         }
+        if (profileFrames) {
+            addDebugOverlay();
+        }
         if (settings.getBoolean(SettingManager.USE_TOUCH)) {
             addTouchScreenOverlay();
         }
         if (settings.getBoolean(SettingManager.VIBRATE_WHEN_COLLIDE)) {
-            CollisionDetector.getInstance().getCollisionContactListener().addListener(new ICollisionListener() {
+            addCollisionListener(new ICollisionListener() {
                 @Override
-                public void onCollision(GameObject g1, GameObject g2) {
-                    GameObject g;
-                    if (g1 instanceof Spaceship) {
-                        g = g2;
-                    } else if (g2 instanceof Spaceship) {
-                        g = g1;
-                    } else {
-                        return;
-                    }
-                    
-                    if (g.isDummy()) {
+                public void onEvent(CollisionEvent event) {
+                    if (event.getSecond().isDummy()) {
                         return;
                     }
                     Gdx.input.vibrate(500);
@@ -460,7 +557,7 @@ public class GameControllerBuilder {
         }
         
         if (feature instanceof ICollisionListener) {
-            CollisionDetector.getInstance().getCollisionContactListener().addListener((ICollisionListener) feature);
+            addCollisionListener((ICollisionListener) feature);
         }
         
         if (feature instanceof IntegerTimeListener) {
@@ -472,6 +569,16 @@ public class GameControllerBuilder {
         }
     }
     
+    /**
+     * Subscribes a collision listener to the collision events of the player.
+     * 
+     * @param listener
+     *            The listener to subscribe.
+     */
+    private void addCollisionListener(ICollisionListener listener) {
+        GameController.getInstance().getEventBus().subscribe(CollisionEvent.class, listener, CollisionEvent.INVOLVES_PLAYER);
+    }
+    
     /**
      * Adds a {@link GateIndicator} to the GameController, that is initialized,
      * updated every frame and updated, when a gate is passed.
@@ -533,6 +640,19 @@ public class GameControllerBuilder {
         return this;
     }
     
+    /**
+     * Adds a {@link DebugOverlay} to the {@link GameController}, that shows
+     * the {@link FrameProfiler}.
+     * 
+     * @return Builder instance with {@link DebugOverlay}
+     */
+    private GameControllerBuilder addDebugOverlay() {
+        DebugOverlay debugOverlay = new DebugOverlay(SkinManager.getInstance().getSkin(), stage, 0);
+        debugOverlay.showProfiler(GameController.getInstance().getProfiler());
+        addFeatureToLists(debugOverlay);
+        return this;
+    }
+    
     /**
      * Adds {@link BackButtonOverlay} to show a button to return to
      * {@link MainMenuScreen}.
@@ -581,6 +701,111 @@ public class GameControllerBuilder {
         return this;
     }
     
+    /**
+     * Lets the created {@link GameController} update the game in fixed ticks
+     * instead of once per frame.
+     * 
+     * @param ticksPerSecond
+     *            Number of simulation ticks per second, 0 to use the frame
+     *            delta.
+     * @return Builder instance with the tick rate
+     */
+    public GameControllerBuilder setFixedTickRate(int ticksPerSecond) {
+        this.fixedTickRate = ticksPerSecond;
+        return this;
+    }
+    
+    /**
+     * Lets the created {@link GameController} measure the time of the phases
+     * of every frame and of every feature with its {@link FrameProfiler} and
+     * count the OpenGL state changes with a {@link GLStateCounter}.
+     * 
+     * @param profileFrames
+     *            true, to enable the profiler
+     * @return Builder instance with the profiler setting
+     */
+    public GameControllerBuilder setProfileFrames(boolean profileFrames) {
+        this.profileFrames = profileFrames;
+        return this;
+    }
+    
+    /**
+     * Lets the created {@link GameController} measure the allocated bytes of
+     * the phases and features as well with the counter of
+     * {@link #setAllocationCounter(AllocationCounter)}. Enables the profiler.
+     * 
+     * @param profileAllocations
+     *            true, to count the allocations of the render thread
+     * @return Builder instance with the allocation setting
+     */
+    public GameControllerBuilder setProfileAllocations(boolean profileAllocations) {
+        this.profileAllocations = profileAllocations;
+        this.profileFrames |= profileAllocations;
+        return this;
+    }
+    
+    /**
+     * Setter for the counter of the allocations, see
+     * {@link #setProfileAllocations(boolean)}. {@link #init(Fly)} takes the
+     * counter of the platform from {@link Fly#getAllocationCounter()}.
+     * 
+     * @param allocationCounter
+     *            Counts the allocations of the render thread, null if the
+     *            platform cannot count them.
+     * @return Builder instance with the allocation counter
+     */
+    public GameControllerBuilder setAllocationCounter(AllocationCounter allocationCounter) {
+        this.allocationCounter = allocationCounter;
+        return this;
+    }
+    
+    /**
+     * Lets the created {@link GameController} move the game objects of the
+     * level on several threads, see {@link ParallelMover}.
+     * 
+     * @param parallelUpdate
+     *            true, to move the game objects on several threads
+     * @return Builder instance with the parallel update setting
+     */
+    public GameControllerBuilder setParallelUpdate(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+        return this;
+    }
+    
+    /**
+     * Lets the created {@link GameController} record the frame times and the
+     * steering, see {@link GameController#startRecording(InputRecording)}.
+     * <p>
+     * Has to be called before {@link #initHeadless(Level, Player, ScriptedFlightController.Script)},
+     * {@link #init(Fly)} reads it from the settings.
+     * 
+     * @param recordInput
+     *            true, to record the input
+     * @return Builder instance with the record setting
+     */
+    public GameControllerBuilder setRecordInput(boolean recordInput) {
+        this.recordInput = recordInput;
+        return this;
+    }
+    
+    /**
+     * Lets the created {@link GameController} replay a recorded game, see
+     * {@link GameController#startReplay(InputRecording)}. The level and the
+     * plane have to be the recorded ones.
+     * <p>
+     * Has to be called before {@link #initHeadless(Level, Player, ScriptedFlightController.Script)},
+     * as the level is generated with the seed of the recording. {@link #init(Fly)}
+     * reads it from the settings.
+     * 
+     * @param replay
+     *            the recording to replay, null to play without a replay
+     * @return Builder instance with the replay
+     */
+    public GameControllerBuilder setReplay(InputRecording replay) {
+        this.replay = replay;
+        return this;
+    }
+    
     /**
      * Creates a new GameController out of your defined preferences in the other
      * methods before.
@@ -602,13 +827,39 @@ public class GameControllerBuilder {
         gc.player = player;
         gc.flightController = flightController;
         gc.cameraController = cameraController;
-        // gc.batch = new ModelBatch();
-        gc.batch = new ModelBatch(null, new FlyShaderProvider(), null);
+        if (headless) {
+            gc.batch = null;
+            gc.setInputProcessor(null);
+        } else {
+            // gc.batch = new ModelBatch();
+            gc.batch = new ModelBatch(null, new FlyShaderProvider(), new FlyRenderableSorter());
+            gc.setInputProcessor(new InputMultiplexer(stage, flightController, new BackProcessor()));
+        }
         gc.setTimeController(timeController);
         gc.registerGameStateListener(timeController);
         gc.scoreController = scoreController;
-        gc.setInputProcessor(new InputMultiplexer(stage, flightController, new BackProcessor()));
         gc.audioManager = audioManager;
+        gc.setFixedTickRate(fixedTickRate);
+        gc.getProfiler().setEnabled(profileFrames);
+        if (profileAllocations && allocationCounter == null) {
+            Gdx.app.log("GameControllerBuilder.build", "Allocations cannot be counted on this platform.");
+        }
+        gc.getProfiler().setAllocationCounter(profileAllocations ? allocationCounter : null);
+        if (profileFrames && !headless) {
+            gc.getProfiler().setGLStateCounter(GLStateCounter.install());
+        } else {
+            gc.getProfiler().setGLStateCounter(null);
+            GLStateCounter.uninstall();
+        }
+        gc.setParallelUpdate(parallelUpdate);
+        if (replay != null) {
+            if (level.head.file != null && !level.head.file.equals(replay.getLevelFile())) {
+                Gdx.app.error("GameControllerBuilder.build", "The replay was recorded in " + replay.getLevelFile() + ".");
+            }
+            gc.startReplay(replay);
+        } else if (recordInput) {
+            gc.startRecording(new InputRecording(seed, fixedTickRate, level.head.file));
+        }
         gc.setGameState(GameState.PAUSED);
 
         level.getGateCircuit().addListener(new GateCircuitAdapter() {
@@ -619,4 +870,4 @@ public class GameControllerBuilder {
         });
         return gc;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -23,6 +23,25 @@ public class GameModel implements Disposable, Poolable {
      */
     public final Model hitbox;
     
+    /**
+     * Models with less detail, ordered from the most to the least detailed
+     * one. Empty if the model has no levels of detail.
+     */
+    public final Model[] lods;
+    
+    /**
+     * Ratio of the distance to the camera and the radius of a game object from
+     * which on the first level of detail is displayed. The distance doubles
+     * for every further level.
+     */
+    public static final float LOD_DISTANCE_FACTOR = 40.0f;
+    
+    /**
+     * Relative band around the switching distances in which the level of
+     * detail is kept, so that it does not flicker at the switching distance.
+     */
+    public static final float LOD_HYSTERESIS = 0.1f;
+    
     /**
      * Constructs a new game model with display and hitbox model.
      * 
@@ -30,8 +49,65 @@ public class GameModel implements Disposable, Poolable {
      * @param hitbox
      */
     public GameModel(final Model display, final Model hitbox) {
+        this(display, hitbox, new Model[0]);
+    }
+    
+    /**
+     * Constructs a new game model with display and hitbox model and models
+     * with less detail.
+     * 
+     * @param display
+     * @param hitbox
+     * @param lods
+     *            Models with less detail, see {@link #lods}.
+     */
+    public GameModel(final Model display, final Model hitbox, final Model[] lods) {
         this.display = display;
         this.hitbox = hitbox;
+        this.lods = lods;
+    }
+    
+    /**
+     * Getter for the displayed model of a level of detail.
+     * 
+     * @param lod
+     *            The level of detail, 0 for the {@link #display} model.
+     * @return the model of the level of detail
+     */
+    public Model getLod(int lod) {
+        if (lod == 0) {
+            return display;
+        }
+        return lods[lod - 1];
+    }
+    
+    /**
+     * Selects the level of detail for the distance of a game object to the
+     * camera.
+     * <p>
+     * The level only changes if the distance is more than
+     * {@link #LOD_HYSTERESIS} away from the switching distance.
+     * 
+     * @param distance
+     *            The distance of the game object to the camera.
+     * @param radius
+     *            The radius of the game object.
+     * @param current
+     *            The level of detail of the last frame.
+     * @return the level of detail, 0 for the {@link #display} model
+     */
+    public int selectLod(float distance, float radius, int current) {
+        int lod = 0;
+        float switchDistance = radius * LOD_DISTANCE_FACTOR;
+        while (lod < lods.length) {
+            final float hysteresis = lod < current ? 1.0f - LOD_HYSTERESIS : 1.0f + LOD_HYSTERESIS;
+            if (distance <= switchDistance * hysteresis) {
+                break;
+            }
+            lod++;
+            switchDistance *= 2.0f;
+        }
+        return lod;
     }
     
     @Override
@@ -4,16 +4,25 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody.btRigidBodyConstructionInfo;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 
+import de.fau.cs.mad.fly.game.object.ClosedFormMover;
 import de.fau.cs.mad.fly.game.object.IGameObjectMover;
+import de.fau.cs.mad.fly.graphics.LightManager;
 
 /**
  * Wrapper for ModelInstance.
@@ -35,6 +44,13 @@ public class GameObject extends ModelInstance implements Disposable {
      */
     private final Vector3 position = new Vector3();
     
+    /**
+     * Center and dimensions of the bounding box of the model, without the
+     * scale of the transform.
+     */
+    private final Vector3 modelBBoxCenter = new Vector3();
+    private final Vector3 modelBBoxDimensions = new Vector3();
+    
     /**
      * Center of the bounding box of the game object.
      */
@@ -45,26 +61,85 @@ public class GameObject extends ModelInstance implements Disposable {
      */
     private final Vector3 frustumBBoxDimensions = new Vector3();
     
+    /**
+     * True, if the scale of the transform may have changed since the
+     * bounding box was scaled.
+     */
+    private boolean frustumBBoxDirty = true;
+    
+    /**
+     * Temporary scale of {@link #scaleFrustumBoundingBox()} and
+     * {@link #scale(Vector3)}, only used on the
+     * render thread.
+     */
+    private static final Vector3 tmpScale = new Vector3();
+    
     /**
      * Bounding box of the game object used for frustum culling.
      */
     private final static BoundingBox frustumBBox = new BoundingBox();
     
+    /**
+     * Temporary matrix and vectors to compute the size of the collision shape.
+     */
+    private static final Matrix4 tmpIdentity = new Matrix4();
+    private static final Vector3 tmpMin = new Vector3();
+    private static final Vector3 tmpMax = new Vector3();
+    
+    /**
+     * Temporary position of {@link #getFrustumBounds(Vector3, Vector3)}.
+     */
+    private static final Vector3 tmpPosition = new Vector3();
+    
+    /**
+     * Temporary parts of the current and the previous transform of
+     * {@link #getInterpolatedTransform()}, only used on the render thread.
+     */
+    private static final Vector3 tmpTranslation = new Vector3();
+    private static final Vector3 tmpPreviousTranslation = new Vector3();
+    private static final Quaternion tmpRotation = new Quaternion();
+    private static final Quaternion tmpPreviousRotation = new Quaternion();
+    private static final Vector3 tmpInterpolatedScale = new Vector3();
+    private static final Vector3 tmpPreviousScale = new Vector3();
+    
     /**
      * Rigid body of the game object.
      */
     protected btRigidBody rigidBody;
     
+    /**
+     * Body of the game object if the collision backend does not use Bullet,
+     * null otherwise.
+     */
+    protected CollisionBody collisionBody;
+    
     /**
      * Motion state for the rigid body.
      */
     private GameObjectMotionState motionState;
     
+    /**
+     * True, if the transform is updated with the body after the collision
+     * step, see {@link #addMotionState()}.
+     */
+    private boolean transformFollowsBody = false;
+    
     /**
      * Model of the game object.
      */
     private final GameModel gmodel;
     
+    /**
+     * Level of detail displayed in the last frame, 0 for the display model.
+     */
+    private int lod = 0;
+    
+    /**
+     * Model instances of the levels of detail of the game model, created when
+     * they are displayed for the first time.
+     */
+    private ModelInstance[] lodInstances;
+    
     /**
      * Data used for collision detection.
      */
@@ -107,6 +182,55 @@ public class GameObject extends ModelInstance implements Disposable {
      */
     public Environment environment;
     
+    /**
+     * Transform of the game object before the last simulation tick. Only
+     * created for game objects that move while render interpolation is
+     * enabled.
+     */
+    private Matrix4 previousTransform = null;
+    
+    /**
+     * Transform between {@link #previousTransform} and the current transform
+     * that is used for rendering.
+     */
+    private Matrix4 interpolatedTransform = null;
+    
+    /**
+     * Determines if moving game objects store their previous transform to be
+     * rendered interpolated.
+     */
+    private static boolean renderInterpolation = false;
+    
+    /**
+     * Weight of the current transform compared to the previous transform when
+     * rendering interpolated. 1 means the current transform is rendered.
+     */
+    private static float interpolationAlpha = 1.0f;
+    
+    /**
+     * Selects the point lights of the game objects, null if every game object
+     * is lit by all lights of its environment.
+     */
+    private static LightManager lightManager = null;
+    
+    /**
+     * Environment with the point lights selected for the game object by the
+     * {@link #lightManager} in the last frame.
+     */
+    private Environment lightEnvironment = null;
+    
+    /**
+     * Determines if {@link #syncRigidBody()} only marks the rigid body, set
+     * while the movers run on several threads.
+     */
+    private static boolean deferRigidBodySync = false;
+    
+    /**
+     * True, if the transform changed since the last synchronization of the
+     * rigid body.
+     */
+    private boolean rigidBodyDirty = false;
+    
     /**
      * Constructs a new game object without any collision detection.
      * 
@@ -136,6 +260,23 @@ public class GameObject extends ModelInstance implements Disposable {
         this.rigidBody = CollisionDetector.createRigidBody(this, shape, this, info);
     }
     
+    /**
+     * Adds a body of the pure Java collision backend to the game object.
+     * 
+     * @param body
+     *            The body.
+     * @param filterGroup
+     *            The collision filter group.
+     * @param filterMask
+     *            The collision filter mask.
+     */
+    public void createCollisionBody(CollisionBody body, short filterGroup, short filterMask) {
+        this.filterGroup = filterGroup;
+        this.filterMask = filterMask;
+        this.collisionBody = body;
+        body.setWorldTransform(transform);
+    }
+    
     /**
      * Initializes the bounding box for the frustum culling.
      * <p>
@@ -144,17 +285,32 @@ public class GameObject extends ModelInstance implements Disposable {
      */
     private void initFrustumBoundingBox() {
         calculateBoundingBox(frustumBBox);
-        frustumBBoxCenter.set(frustumBBox.getCenter());
-        frustumBBoxDimensions.set(frustumBBox.getDimensions().cpy().scl(2.0f));
+        modelBBoxCenter.set(frustumBBox.getCenter());
+        modelBBoxDimensions.set(frustumBBox.getDimensions()).scl(2.0f);
+        frustumBBoxDirty = true;
     }
     
     /**
      * Updates the scale of the bounding box if the transform matrix was scaled.
+     * <p>
+     * The bounding box is only marked and scaled when it is used next.
      */
     public void scaleFrustumBoundingBox() {
-        Vector3 dummy = new Vector3();
-        frustumBBoxCenter.scl(transform.getScale(dummy));
-        frustumBBoxDimensions.scl(transform.getScale(dummy));
+        frustumBBoxDirty = true;
+    }
+    
+    /**
+     * Scales the bounding box of the model with the scale of the transform if
+     * it was marked by {@link #scaleFrustumBoundingBox()}.
+     */
+    private void updateFrustumBoundingBox() {
+        if (!frustumBBoxDirty) {
+            return;
+        }
+        frustumBBoxDirty = false;
+        transform.getScale(tmpScale);
+        frustumBBoxCenter.set(modelBBoxCenter).scl(tmpScale);
+        frustumBBoxDimensions.set(modelBBoxDimensions).scl(tmpScale);
     }
     
     /**
@@ -193,11 +349,36 @@ public class GameObject extends ModelInstance implements Disposable {
      * @return true, if the object is visible, otherwise false.
      */
     public boolean isVisibleInFrustum(final Camera camera) {
+        updateFrustumBoundingBox();
         transform.getTranslation(position);
         position.add(frustumBBoxCenter);
         return camera.frustum.boundsInFrustum(position, frustumBBoxDimensions);
     }
     
+    /**
+     * Computes the box that {@link #isVisibleInFrustum(Camera)} tests. If the
+     * game object is rendered interpolated, the box also contains the box at
+     * the transform before the last tick.
+     * 
+     * @param min
+     *            The minimum of the box.
+     * @param max
+     *            The maximum of the box.
+     */
+    public void getFrustumBounds(Vector3 min, Vector3 max) {
+        updateFrustumBoundingBox();
+        transform.getTranslation(min);
+        max.set(min);
+        if (renderInterpolation && previousTransform != null) {
+            previousTransform.getTranslation(tmpPosition);
+            min.set(Math.min(min.x, tmpPosition.x), Math.min(min.y, tmpPosition.y), Math.min(min.z, tmpPosition.z));
+            max.set(Math.max(max.x, tmpPosition.x), Math.max(max.y, tmpPosition.y), Math.max(max.z, tmpPosition.z));
+        }
+        tmpPosition.set(frustumBBoxDimensions).scl(0.5f);
+        min.add(frustumBBoxCenter).sub(tmpPosition);
+        max.add(frustumBBoxCenter).add(tmpPosition);
+    }
+    
     /**
      * Setter if the game object is only a dummy object.
      * 
@@ -226,46 +407,215 @@ public class GameObject extends ModelInstance implements Disposable {
     }
     
     /**
-     * Setter for the rigidBody.userValue of the GameObject.
+     * Setter for the rigid body restitution of the GameObject.
      */
-    public void setCollisionType(int userValue) {
+    public void setRestitution(float rest) {
         if (rigidBody == null)
             return;
-        rigidBody.setUserValue(userValue);
+        rigidBody.setRestitution(rest);
     }
     
     /**
-     * Setter for the rigid body restitution of the GameObject.
+     * Lets other bodies fly through the body, only the contacts are detected.
+     * The bodies of the pure Java backend never respond to contacts.
      */
-    public void setRestitution(float rest) {
-        if (rigidBody == null)
-            return;
-        rigidBody.setRestitution(rest);
+    public void disableContactResponse() {
+        if (rigidBody != null) {
+            rigidBody.setCollisionFlags(rigidBody.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_NO_CONTACT_RESPONSE);
+        }
     }
     
     /**
      * Adds a motion state to the game object which cares about the updating of
      * the transform matrix if the rigid body is updated by the dynamic world.
+     * The pure Java backend updates the transform itself.
      */
     public void addMotionState() {
-        motionState = new GameObjectMotionState();
-        motionState.transform = transform;
-        rigidBody.setMotionState(motionState);
+        transformFollowsBody = true;
+        if (rigidBody != null) {
+            motionState = new GameObjectMotionState();
+            motionState.transform = transform;
+            rigidBody.setMotionState(motionState);
+        }
+    }
+    
+    /**
+     * Checks if the transform is updated by a motion state.
+     * 
+     * @return true, if {@link #addMotionState()} was called.
+     */
+    boolean hasMotionState() {
+        return transformFollowsBody;
     }
     
     /**
      * Getter for the rigid body.
+     * 
+     * @return the rigid body, null if the collision backend does not use
+     *         Bullet
      */
     public btRigidBody getRigidBody() {
         return rigidBody;
     }
     
+    /**
+     * Getter for the body of the pure Java collision backend.
+     * 
+     * @return the body, null if the collision backend uses Bullet
+     */
+    public CollisionBody getCollisionBody() {
+        return collisionBody;
+    }
+    
+    /**
+     * Scales the collision shape of the body.
+     * 
+     * @param scaling
+     *            The scaling in x, y and z.
+     */
+    public void setCollisionScaling(Vector3 scaling) {
+        if (collisionBody != null) {
+            collisionBody.setScaling(scaling);
+        } else {
+            rigidBody.getCollisionShape().setLocalScaling(scaling);
+        }
+    }
+    
+    /**
+     * Scales the transform, the collision shape and the start transform of the
+     * mover of the game object.
+     * 
+     * @param scale
+     *            The scale in x, y and z, multiplied with the current scale.
+     */
+    public void scale(Vector3 scale) {
+        transform.scl(scale);
+        if (mover instanceof ClosedFormMover) {
+            ((ClosedFormMover) mover).scale(scale);
+        }
+        transform.getScale(tmpScale);
+        setCollisionScaling(tmpScale);
+        frustumBBoxDirty = true;
+    }
+    
+    /**
+     * Setter for the damping of the velocities of the body.
+     * 
+     * @param linearDamping
+     *            Part of the linear velocity that is lost per second.
+     * @param angularDamping
+     *            Part of the angular velocity that is lost per second.
+     */
+    public void setDamping(float linearDamping, float angularDamping) {
+        if (collisionBody != null) {
+            collisionBody.setDamping(linearDamping, angularDamping);
+        } else {
+            rigidBody.setDamping(linearDamping, angularDamping);
+        }
+    }
+    
+    /**
+     * Getter for the smallest size of the collision shape in local space,
+     * including its scaling.
+     * 
+     * @return the smallest edge of the bounding box of the shape
+     */
+    public float getCollisionSize() {
+        if (collisionBody != null) {
+            final Vector3 scaling = collisionBody.getScaling();
+            tmpMin.set(collisionBody.getVolume().getMin()).scl(scaling);
+            tmpMax.set(collisionBody.getVolume().getMax()).scl(scaling);
+        } else {
+            rigidBody.getCollisionShape().getAabb(tmpIdentity.idt(), tmpMin, tmpMax);
+        }
+        tmpMax.sub(tmpMin);
+        return Math.min(Math.abs(tmpMax.x), Math.min(Math.abs(tmpMax.y), Math.abs(tmpMax.z)));
+    }
+    
+    /**
+     * Getter for the length of the linear velocity of the body.
+     * 
+     * @return the speed
+     */
+    public float getLinearSpeed() {
+        if (collisionBody != null) {
+            return collisionBody.getLinearVelocity().len();
+        }
+        return rigidBody.getLinearVelocity().len();
+    }
+    
+    /**
+     * Sets the continuous collision detection of the body. Bullet sweeps a
+     * sphere along the motion of a substep if it is longer than the
+     * threshold. The bodies of the pure Java backend rely on the substeps.
+     * 
+     * @param motionThreshold
+     *            Motion in one substep that enables the sweep, 0 to disable
+     *            it.
+     * @param sweptSphereRadius
+     *            Radius of the swept sphere, inside the shape of the body.
+     */
+    public void setContinuousCollision(float motionThreshold, float sweptSphereRadius) {
+        if (rigidBody != null) {
+            rigidBody.setCcdMotionThreshold(motionThreshold);
+            rigidBody.setCcdSweptSphereRadius(sweptSphereRadius);
+        }
+    }
+    
+    /**
+     * Getter for the transform of the body in the collision world.
+     * 
+     * @return a temporary copy of the transform
+     */
+    public Matrix4 getBodyTransform() {
+        if (collisionBody != null) {
+            return collisionBody.getWorldTransform();
+        }
+        return rigidBody.getCenterOfMassTransform();
+    }
+    
+    /**
+     * Setter for the transform of the body in the collision world.
+     * 
+     * @param bodyTransform
+     *            The new transform.
+     */
+    public void setBodyTransform(Matrix4 bodyTransform) {
+        if (collisionBody != null) {
+            collisionBody.setWorldTransform(bodyTransform);
+        } else {
+            rigidBody.setCenterOfMassTransform(bodyTransform);
+        }
+    }
+    
+    /**
+     * Resets the body of a reused game object, see {@link GameObjectPool}. The
+     * body is moved to the current transform and its velocities are cleared.
+     */
+    public void resetBody() {
+        rigidBodyDirty = false;
+        if (collisionBody != null) {
+            collisionBody.setWorldTransform(transform);
+            collisionBody.setLinearVelocity(Vector3.Zero);
+            collisionBody.setAngularVelocity(Vector3.Zero);
+        } else if (rigidBody != null) {
+            rigidBody.setCenterOfMassTransform(transform);
+            rigidBody.setLinearVelocity(Vector3.Zero);
+            rigidBody.setAngularVelocity(Vector3.Zero);
+            rigidBody.clearForces();
+        }
+    }
+    
     /**
      * Updates the current transform matrix with the rigid body transform matrix
      * after the rigid body simulation.
      */
     public void updateRigidBody() {
-        rigidBody.getWorldTransform(transform);
+        if (collisionBody != null) {
+            collisionBody.getWorldTransform(transform);
+        } else {
+            rigidBody.getWorldTransform(transform);
+        }
     }
     
     /**
@@ -276,10 +626,147 @@ public class GameObject extends ModelInstance implements Disposable {
      */
     public void move(float delta) {
         if (mover != null) {
+            storePreviousTransform();
             mover.move(delta);
         }
     }
     
+    /**
+     * Sets the world transform of the rigid body to the current transform.
+     * <p>
+     * While the synchronization is deferred, the rigid body is only marked and
+     * synchronized later by {@link #flushRigidBody()}, because Bullet must not
+     * be called from several threads.
+     */
+    public void syncRigidBody() {
+        if (deferRigidBodySync) {
+            rigidBodyDirty = true;
+        } else {
+            setBodyWorldTransform();
+        }
+    }
+    
+    /**
+     * Sets the world transform of the rigid body to the current transform if
+     * it was changed while the synchronization was deferred.
+     */
+    public void flushRigidBody() {
+        if (rigidBodyDirty) {
+            rigidBodyDirty = false;
+            setBodyWorldTransform();
+        }
+    }
+    
+    private void setBodyWorldTransform() {
+        if (collisionBody != null) {
+            collisionBody.setWorldTransform(transform);
+        } else if (rigidBody != null) {
+            rigidBody.setWorldTransform(transform);
+        }
+    }
+    
+    /**
+     * Defers the synchronization of the rigid bodies of all game objects, see
+     * {@link #syncRigidBody()}.
+     * 
+     * @param deferred
+     *            True, while the movers run on several threads, false
+     *            otherwise.
+     */
+    public static void setDeferRigidBodySync(boolean deferred) {
+        deferRigidBodySync = deferred;
+    }
+    
+    /**
+     * Stores the current transform as the transform before the next
+     * simulation tick if render interpolation is enabled.
+     */
+    public void storePreviousTransform() {
+        if (!renderInterpolation) {
+            return;
+        }
+        if (previousTransform == null) {
+            previousTransform = new Matrix4();
+            interpolatedTransform = new Matrix4();
+        }
+        previousTransform.set(transform);
+    }
+    
+    /**
+     * Getter for the transform that should be displayed in the current frame.
+     * <p>
+     * If the game object moves and render interpolation is enabled, it is
+     * interpolated between the transform before the last simulation tick and
+     * the current transform, otherwise it is the current transform.
+     * <p>
+     * The translation and the scale are interpolated linearly, the rotation
+     * is interpolated spherically. The rotation is taken from the normalized
+     * axes, so scaled game objects are not distorted.
+     * 
+     * @return transform to display.
+     */
+    public Matrix4 getInterpolatedTransform() {
+        if (!renderInterpolation || previousTransform == null || interpolationAlpha >= 1.0f) {
+            return transform;
+        }
+        previousTransform.getTranslation(tmpPreviousTranslation);
+        previousTransform.getRotation(tmpPreviousRotation, true);
+        previousTransform.getScale(tmpPreviousScale);
+        transform.getTranslation(tmpTranslation);
+        transform.getRotation(tmpRotation, true);
+        transform.getScale(tmpInterpolatedScale);
+        
+        tmpPreviousTranslation.lerp(tmpTranslation, interpolationAlpha);
+        tmpPreviousRotation.slerp(tmpRotation, interpolationAlpha);
+        tmpPreviousScale.lerp(tmpInterpolatedScale, interpolationAlpha);
+        return interpolatedTransform.set(tmpPreviousTranslation, tmpPreviousRotation, tmpPreviousScale);
+    }
+    
+    /**
+     * Enables or disables the render interpolation for all game objects.
+     * 
+     * @param enabled
+     *            True, if moving game objects should be rendered interpolated,
+     *            false otherwise.
+     */
+    public static void setRenderInterpolation(boolean enabled) {
+        renderInterpolation = enabled;
+        interpolationAlpha = 1.0f;
+    }
+    
+    /**
+     * Setter for the weight of the current transform compared to the transform
+     * before the last simulation tick.
+     * 
+     * @param alpha
+     *            Value between 0 (previous transform) and 1 (current
+     *            transform).
+     */
+    public static void setInterpolationAlpha(float alpha) {
+        interpolationAlpha = alpha;
+    }
+    
+    /**
+     * Setter for the light manager of all game objects.
+     * 
+     * @param manager
+     *            The light manager that selects the point lights of the game
+     *            objects, null to light them with all lights of their
+     *            environment.
+     */
+    public static void setLightManager(LightManager manager) {
+        lightManager = manager;
+    }
+    
+    /**
+     * Getter for the light manager of all game objects.
+     * 
+     * @return the light manager, null if there is none
+     */
+    public static LightManager getLightManager() {
+        return lightManager;
+    }
+    
     /**
      * Renders the game object.
      * 
@@ -303,15 +790,88 @@ public class GameObject extends ModelInstance implements Disposable {
      *            The camera used to display the world.
      */
     public void render(ModelBatch batch, Environment environment, PerspectiveCamera cam) {
+        final Matrix4 currentTransform = transform;
+        transform = getInterpolatedTransform();
+        renderTransform(batch, environment, cam);
+        transform = currentTransform;
+    }
+    
+    /**
+     * Renders the game object with its current transform and environment
+     * without interpolation.
+     * 
+     * @param batch
+     *            The model batch of the screen.
+     * @param environment
+     *            The environment used to display the world.
+     * @param cam
+     *            The camera used to display the world.
+     */
+    protected void renderTransform(ModelBatch batch, Environment environment, PerspectiveCamera cam) {
         if (visible && isVisibleInFrustum(cam)) {
+            final ModelInstance instance = getLodInstance(cam);
             if (environment == null) {
-                batch.render(this);
+                batch.render(instance);
+            } else if (lightManager == null) {
+                batch.render(instance, environment);
             } else {
-                batch.render(this, environment);
+                transform.getTranslation(tmpPosition);
+                lightEnvironment = lightManager.select(environment, tmpPosition, lightEnvironment);
+                batch.render(instance, lightEnvironment);
             }
         }
     }
     
+    /**
+     * Selects the level of detail for the distance to the camera.
+     * 
+     * @param cam
+     *            The camera used to display the world.
+     * @return the game object itself or the model instance of the level of
+     *         detail with the current transform
+     */
+    private ModelInstance getLodInstance(Camera cam) {
+        if (gmodel.lods.length == 0) {
+            return this;
+        }
+        updateFrustumBoundingBox();
+        transform.getTranslation(tmpPosition);
+        lod = gmodel.selectLod(tmpPosition.dst(cam.position), frustumBBoxDimensions.len() * 0.25f, lod);
+        if (lod == 0) {
+            return this;
+        }
+        if (lodInstances == null) {
+            lodInstances = new ModelInstance[gmodel.lods.length];
+        }
+        ModelInstance instance = lodInstances[lod - 1];
+        if (instance == null) {
+            instance = new ModelInstance(gmodel.getLod(lod));
+            shareMaterials(instance.nodes);
+            lodInstances[lod - 1] = instance;
+        }
+        instance.transform = transform;
+        return instance;
+    }
+    
+    /**
+     * Replaces the materials of the nodes by the materials of the game object
+     * with the same id, so that changed materials are also displayed in the
+     * levels of detail.
+     */
+    private void shareMaterials(Array<Node> nodes) {
+        for (int i = 0; i < nodes.size; i++) {
+            final Node node = nodes.get(i);
+            for (int j = 0; j < node.parts.size; j++) {
+                final NodePart part = node.parts.get(j);
+                final Material material = getMaterial(part.material.id);
+                if (material != null) {
+                    part.material = material;
+                }
+            }
+            shareMaterials(node.children);
+        }
+    }
+    
     /**
      * Getter of the position in 3D space of the object.
      * 
@@ -328,7 +888,11 @@ public class GameObject extends ModelInstance implements Disposable {
      * @param vel
      */
     public void setRotation(Vector3 vel) {
-        rigidBody.setAngularVelocity(vel);
+        if (collisionBody != null) {
+            collisionBody.setAngularVelocity(vel);
+        } else {
+            rigidBody.setAngularVelocity(vel);
+        }
     }
     
     /**
@@ -337,7 +901,11 @@ public class GameObject extends ModelInstance implements Disposable {
      * @param vel
      */
     public void setMovement(Vector3 vel) {
-        rigidBody.setLinearVelocity(vel);
+        if (collisionBody != null) {
+            collisionBody.setLinearVelocity(vel);
+        } else {
+            rigidBody.setLinearVelocity(vel);
+        }
     }
     
     /**
@@ -363,7 +931,11 @@ public class GameObject extends ModelInstance implements Disposable {
      * Flips the direction around.
      */
     public void flipDirection() {
-        rigidBody.setLinearVelocity(rigidBody.getLinearVelocity().scl(-1.0f));
+        if (collisionBody != null) {
+            collisionBody.setLinearVelocity(collisionBody.getLinearVelocity().scl(-1.0f));
+        } else {
+            rigidBody.setLinearVelocity(rigidBody.getLinearVelocity().scl(-1.0f));
+        }
     }
     
     /**
@@ -415,6 +987,15 @@ public class GameObject extends ModelInstance implements Disposable {
         return modelId;
     }
     
+    /**
+     * Getter for the game model.
+     * 
+     * @return the game model of the game object
+     */
+    public GameModel getGameModel() {
+        return gmodel;
+    }
+    
     public void setModelId(String modelId) {
         this.modelId = modelId;
     }
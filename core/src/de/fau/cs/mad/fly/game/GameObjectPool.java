@@ -0,0 +1,116 @@
+package de.fau.cs.mad.fly.game;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pool of game objects of one type, whose bodies are created once and kept
+ * alive.
+ * <p>
+ * The endless levels add and remove game objects all the time. A freed game
+ * object keeps its model instance, its collision shape and its body, only the
+ * body is removed from the collision world. When it is obtained again, the
+ * body is moved to the new transform, stopped and added to the collision
+ * world again, so neither the Java objects nor the native Bullet objects are
+ * created again.
+ * 
+ * @param <T>
+ *            Type of the game objects.
+ */
+public abstract class GameObjectPool<T extends GameObject> extends Pool<T> {
+    
+    /** All game objects that were created by this pool. */
+    private final Array<T> created = new Array<T>(false, 16);
+    
+    /**
+     * Obtains a game object and adds its body at a transform to the collision
+     * world.
+     * 
+     * @param transform
+     *            The new transform of the game object, it is copied.
+     * @return the game object
+     */
+    public T obtain(Matrix4 transform) {
+        final boolean reused = getFree() > 0;
+        final T gameObject = obtain();
+        gameObject.transform.set(transform);
+        gameObject.scaleFrustumBoundingBox();
+        if (reused) {
+            gameObject.resetBody();
+            addBodies(gameObject);
+        } else {
+            created.add(gameObject);
+            createBodies(gameObject);
+        }
+        gameObject.storePreviousTransform();
+        return gameObject;
+    }
+    
+    /**
+     * Removes the body of a game object from the collision world and returns
+     * the game object to the pool. It must not be used anymore.
+     * 
+     * @param gameObject
+     *            A game object obtained from this pool.
+     */
+    @Override
+    public void free(T gameObject) {
+        if (gameObject == null) {
+            throw new IllegalArgumentException("gameObject cannot be null.");
+        }
+        removeBodies(gameObject);
+        gameObject.setMover(null);
+        gameObject.show();
+        super.free(gameObject);
+    }
+    
+    /**
+     * Creates the bodies of a new game object and adds them to the collision
+     * world.
+     * 
+     * @param gameObject
+     *            The new game object with its transform.
+     */
+    protected abstract void createBodies(T gameObject);
+    
+    /**
+     * Adds the bodies of a reused game object to the collision world.
+     * 
+     * @param gameObject
+     *            The game object with the reset body.
+     */
+    protected void addBodies(T gameObject) {
+        CollisionDetector.getInstance().addRigidBody(gameObject);
+    }
+    
+    /**
+     * Removes the bodies of a freed game object from the collision world.
+     * 
+     * @param gameObject
+     *            The freed game object.
+     */
+    protected void removeBodies(T gameObject) {
+        CollisionDetector.getInstance().removeRigidBody(gameObject);
+    }
+    
+    /**
+     * Checks if a game object was created by this pool.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @return true, if it can be freed to this pool
+     */
+    public boolean owns(T gameObject) {
+        return created.contains(gameObject, true);
+    }
+    
+    /**
+     * Getter for the number of game objects that were created by this pool.
+     * 
+     * @return the number of created game objects, in use or free
+     */
+    public int getCreated() {
+        return created.size;
+    }
+}
@@ -0,0 +1,113 @@
+package de.fau.cs.mad.fly.game;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * World of the {@link CollisionDetector} that creates the bodies of the game
+ * objects, moves them and detects their contacts.
+ * <p>
+ * A backend stores the ids of the two bodies of every new contact in the
+ * {@link ContactBuffer} of the collision detector, which posts them after the
+ * step. The id of a body is passed by {@link #addBody(GameObject, int)}.
+ * 
+ * @see BulletCollisionBackend
+ * @see SpatialHashCollisionBackend
+ */
+public interface ICollisionBackend extends Disposable {
+    
+    /**
+     * Creates the body of a game object with the convex hull of its model.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @param shapeId
+     *            The id of the shape, game objects with the same model share
+     *            it.
+     * @param mass
+     *            The mass, 0 for bodies that are not moved by their
+     *            velocities.
+     * @param filterGroup
+     *            The collision filter group.
+     * @param filterMask
+     *            The collision filter mask.
+     */
+    public void createConvexBody(GameObject gameObject, String shapeId, float mass, short filterGroup, short filterMask);
+    
+    /**
+     * Creates the body of a game object with a box shape.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @param shapeId
+     *            The id of the shape.
+     * @param halfExtents
+     *            Half of the size of the box.
+     * @param mass
+     *            The mass.
+     * @param filterGroup
+     *            The collision filter group.
+     * @param filterMask
+     *            The collision filter mask.
+     */
+    public void createBoxBody(GameObject gameObject, String shapeId, Vector3 halfExtents, float mass, short filterGroup, short filterMask);
+    
+    /**
+     * Creates the static body of a game object with the triangle mesh of its
+     * model, so the holes of the model are kept.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @param shapeId
+     *            The id of the shape.
+     * @param filterGroup
+     *            The collision filter group.
+     * @param filterMask
+     *            The collision filter mask.
+     */
+    public void createMeshBody(GameObject gameObject, String shapeId, short filterGroup, short filterMask);
+    
+    /**
+     * Adds the body of a game object to the world.
+     * 
+     * @param gameObject
+     *            The game object with a body created by this backend.
+     * @param id
+     *            The id of the body that is stored in the contact buffer.
+     */
+    public void addBody(GameObject gameObject, int id);
+    
+    /**
+     * Getter for the id that was passed by {@link #addBody(GameObject, int)}.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @return the id, -1 if the game object has no body or it was removed
+     */
+    public int getBodyId(GameObject gameObject);
+    
+    /**
+     * Removes the body of a game object from the world.
+     * 
+     * @param gameObject
+     *            The game object.
+     */
+    public void removeBody(GameObject gameObject);
+    
+    /**
+     * Updates the bounds of all bodies, also of the static ones, after their
+     * shapes were scaled.
+     */
+    public void updateStaticBodies();
+    
+    /**
+     * Moves the bodies and detects the contacts in substeps of equal length.
+     * 
+     * @param timeStep
+     *            Time that is simulated.
+     * @param subSteps
+     *            Number of substeps, at least 1, see {@link SubStepPolicy}.
+     * @return the number of contacts that were passed to the contact buffer
+     */
+    public int step(float timeStep, int subSteps);
+}
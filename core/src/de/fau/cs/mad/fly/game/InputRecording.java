@@ -0,0 +1,277 @@
+package de.fau.cs.mad.fly.game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/**
+ * Input of a game that is needed to replay it exactly.
+ * <p>
+ * A recording stores the seed of the game logic, see
+ * {@link de.fau.cs.mad.fly.helper.RandomHelper}, the time of every frame and
+ * the steering of the {@link FlightController} in every simulation tick. A
+ * game with the same level and plane, that is started with the seed and fed
+ * with the frames and the steering, is simulated exactly like the recorded
+ * game, on a device or headless.
+ * <p>
+ * The binary format is written with a {@link DataOutputStream}: magic number,
+ * version, seed, tick rate, level file, inverted axes, number of frames, frame
+ * times, number of ticks, roll and azimuth factor of every tick.
+ */
+public class InputRecording {
+    
+    /** "FLYR" */
+    private static final int MAGIC = 0x464C5952;
+    private static final int VERSION = 1;
+    
+    private final long seed;
+    private final int fixedTickRate;
+    private final String levelFile;
+    
+    private int invertXFactor = 1;
+    private int invertYFactor = 1;
+    
+    /** Time of every frame in seconds. */
+    private final FloatArray frameDeltas;
+    /** Roll and azimuth factor of every tick. */
+    private final FloatArray steering;
+    
+    /**
+     * Creates a new empty recording.
+     * 
+     * @param seed
+     *            The seed of the game logic.
+     * @param fixedTickRate
+     *            Ticks per second of the game, 0 for a variable time step.
+     * @param levelFile
+     *            The file of the recorded level, only used for information.
+     */
+    public InputRecording(long seed, int fixedTickRate, String levelFile) {
+        this(seed, fixedTickRate, levelFile, 1024, 2048);
+    }
+    
+    private InputRecording(long seed, int fixedTickRate, String levelFile, int frames, int ticks) {
+        this.seed = seed;
+        this.fixedTickRate = fixedTickRate;
+        this.levelFile = levelFile == null ? "" : levelFile;
+        this.frameDeltas = new FloatArray(frames);
+        this.steering = new FloatArray(2 * ticks);
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public int getFixedTickRate() {
+        return fixedTickRate;
+    }
+    
+    public String getLevelFile() {
+        return levelFile;
+    }
+    
+    /**
+     * Sets the inverted axes of the recorded player.
+     * 
+     * @param invertXFactor
+     *            -1, if the x axis is inverted, else 1.
+     * @param invertYFactor
+     *            -1, if the y axis is inverted, else 1.
+     */
+    public void setInvertFactors(int invertXFactor, int invertYFactor) {
+        this.invertXFactor = invertXFactor;
+        this.invertYFactor = invertYFactor;
+    }
+    
+    public int getInvertXFactor() {
+        return invertXFactor;
+    }
+    
+    public int getInvertYFactor() {
+        return invertYFactor;
+    }
+    
+    /**
+     * Adds the time of a frame.
+     * 
+     * @param delta
+     *            Time of the frame in seconds.
+     */
+    public void addFrame(float delta) {
+        frameDeltas.add(delta);
+    }
+    
+    /**
+     * Getter for the number of recorded frames.
+     * 
+     * @return frames
+     */
+    public int getFrames() {
+        return frameDeltas.size;
+    }
+    
+    /**
+     * Getter for the time of a frame.
+     * 
+     * @param frame
+     *            Number of the frame, starting with 0.
+     * @return time of the frame in seconds
+     */
+    public float getFrameDelta(int frame) {
+        return frameDeltas.get(frame);
+    }
+    
+    /**
+     * Adds the steering of a tick.
+     * 
+     * @param rollFactor
+     *            The roll factor of the flight controller.
+     * @param azimuthFactor
+     *            The azimuth factor of the flight controller.
+     */
+    public void addTick(float rollFactor, float azimuthFactor) {
+        steering.add(rollFactor);
+        steering.add(azimuthFactor);
+    }
+    
+    /**
+     * Getter for the number of recorded ticks.
+     * 
+     * @return ticks
+     */
+    public int getTicks() {
+        return steering.size / 2;
+    }
+    
+    /**
+     * Getter for the roll factor of a tick.
+     * 
+     * @param tick
+     *            Number of the tick, starting with 0.
+     * @return roll factor of the flight controller
+     */
+    public float getRollFactor(int tick) {
+        return steering.get(2 * tick);
+    }
+    
+    /**
+     * Getter for the azimuth factor of a tick.
+     * 
+     * @param tick
+     *            Number of the tick, starting with 0.
+     * @return azimuth factor of the flight controller
+     */
+    public float getAzimuthFactor(int tick) {
+        return steering.get(2 * tick + 1);
+    }
+    
+    /**
+     * Writes the recording to a file.
+     * 
+     * @param file
+     *            The file to write, it is overwritten.
+     */
+    public void write(FileHandle file) {
+        OutputStream out = null;
+        try {
+            out = file.write(false);
+            write(out);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing input recording: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+    
+    /**
+     * Writes the recording to a stream.
+     * 
+     * @param stream
+     *            The stream to write, it is flushed but not closed.
+     * @throws IOException
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(seed);
+        out.writeInt(fixedTickRate);
+        out.writeUTF(levelFile);
+        out.writeByte(invertXFactor);
+        out.writeByte(invertYFactor);
+        out.writeInt(frameDeltas.size);
+        for (int i = 0; i < frameDeltas.size; i++) {
+            out.writeFloat(frameDeltas.get(i));
+        }
+        out.writeInt(getTicks());
+        for (int i = 0; i < steering.size; i++) {
+            out.writeFloat(steering.get(i));
+        }
+        out.flush();
+    }
+    
+    /**
+     * Reads a recording from a file.
+     * 
+     * @param file
+     *            The file to read.
+     * @return the recording
+     */
+    public static InputRecording read(FileHandle file) {
+        InputStream in = null;
+        try {
+            in = file.read();
+            return read(in);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading input recording: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+    
+    /**
+     * Reads a recording from a stream.
+     * 
+     * @param stream
+     *            The stream to read, it is not closed.
+     * @return the recording
+     * @throws IOException
+     *             if the stream does not contain a recording of this version.
+     */
+    public static InputRecording read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an input recording.");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported input recording version " + version + ".");
+        }
+        long seed = in.readLong();
+        int fixedTickRate = in.readInt();
+        String levelFile = in.readUTF();
+        int invertXFactor = in.readByte();
+        int invertYFactor = in.readByte();
+        int frames = in.readInt();
+        InputRecording recording = new InputRecording(seed, fixedTickRate, levelFile, frames, 0);
+        recording.setInvertFactors(invertXFactor, invertYFactor);
+        for (int i = 0; i < frames; i++) {
+            recording.addFrame(in.readFloat());
+        }
+        int ticks = in.readInt();
+        recording.steering.ensureCapacity(2 * ticks);
+        for (int i = 0; i < ticks; i++) {
+            recording.addTick(in.readFloat(), in.readFloat());
+        }
+        return recording;
+    }
+}
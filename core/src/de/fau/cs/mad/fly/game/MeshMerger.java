@@ -0,0 +1,256 @@
+package de.fau.cs.mad.fly.game;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * Collects the vertices and indices of several mesh parts with the same vertex
+ * attributes in one vertex and index array.
+ * <p>
+ * The positions are transformed to world space, normals, tangents and
+ * binormals are rotated, all other attributes are copied. As the indices are
+ * unsigned shorts, the merged mesh can have at most {@link #MAX_VERTICES}
+ * vertices.
+ */
+public class MeshMerger {
+    
+    /** Maximum number of vertices of the merged mesh. */
+    public static final int MAX_VERTICES = 65536;
+    
+    private final VertexAttributes attributes;
+    
+    /** Size of a vertex in floats. */
+    private final int vertexSize;
+    
+    /** Offsets of the attributes in a vertex in floats, -1 if missing. */
+    private final int positionOffset;
+    private final int normalOffset;
+    private final int tangentOffset;
+    private final int binormalOffset;
+    
+    private final FloatArray vertices = new FloatArray();
+    private final ShortArray indices = new ShortArray();
+    private int numVertices = 0;
+    
+    private final Matrix3 normalMatrix = new Matrix3();
+    private final Vector3 tmp = new Vector3();
+    
+    /**
+     * Creates an empty merger.
+     * 
+     * @param attributes
+     *            The vertex attributes of all appended mesh parts, they have
+     *            to contain a position with three components.
+     */
+    public MeshMerger(VertexAttributes attributes) {
+        VertexAttribute position = attributes.findByUsage(Usage.Position);
+        if (position == null || position.numComponents != 3) {
+            throw new IllegalArgumentException("attributes need a position with three components.");
+        }
+        this.attributes = attributes;
+        this.vertexSize = attributes.vertexSize / 4;
+        this.positionOffset = position.offset / 4;
+        this.normalOffset = getOffset(attributes, Usage.Normal);
+        this.tangentOffset = getOffset(attributes, Usage.Tangent);
+        this.binormalOffset = getOffset(attributes, Usage.BiNormal);
+    }
+    
+    /**
+     * Offset of an attribute in floats, -1 if it is missing, unlike
+     * {@link VertexAttributes#getOffset(int)}.
+     */
+    private static int getOffset(VertexAttributes attributes, int usage) {
+        VertexAttribute attribute = attributes.findByUsage(usage);
+        return attribute == null ? -1 : attribute.offset / 4;
+    }
+    
+    /**
+     * Checks if the parts of a model can be merged: all of them are triangles
+     * without bones.
+     * 
+     * @param model
+     *            The model.
+     * @return true, if the mesh parts can be appended with their node
+     *         transforms
+     */
+    public static boolean canMerge(Model model) {
+        return canMerge(model.nodes);
+    }
+    
+    private static boolean canMerge(Array<Node> nodes) {
+        for (int i = 0; i < nodes.size; i++) {
+            final Node node = nodes.get(i);
+            for (int j = 0; j < node.parts.size; j++) {
+                final NodePart part = node.parts.get(j);
+                if (part.bones != null || part.meshPart.primitiveType != GL20.GL_TRIANGLES) {
+                    return false;
+                }
+            }
+            if (!canMerge(node.children)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Appends the vertices referenced by a range of indices.
+     * 
+     * @param sourceVertices
+     *            The vertices of the source mesh.
+     * @param sourceIndices
+     *            The indices of the source mesh, null if the mesh is not
+     *            indexed.
+     * @param indexOffset
+     *            The first index of the range.
+     * @param indexCount
+     *            The number of indices of the range.
+     * @param transform
+     *            The transform from the source mesh to the merged mesh.
+     * @return false, if the merged mesh would have more than
+     *         {@link #MAX_VERTICES} vertices, nothing is appended then
+     */
+    public boolean append(float[] sourceVertices, short[] sourceIndices, int indexOffset, int indexCount, Matrix4 transform) {
+        if (indexCount <= 0) {
+            return true;
+        }
+        int min;
+        int max;
+        if (sourceIndices == null) {
+            min = indexOffset;
+            max = indexOffset + indexCount - 1;
+        } else {
+            min = Integer.MAX_VALUE;
+            max = -1;
+            for (int i = indexOffset; i < indexOffset + indexCount; i++) {
+                final int index = sourceIndices[i] & 0xFFFF;
+                min = Math.min(min, index);
+                max = Math.max(max, index);
+            }
+        }
+        final int count = max - min + 1;
+        if (numVertices + count > MAX_VERTICES) {
+            return false;
+        }
+        
+        final int start = vertices.size;
+        vertices.addAll(sourceVertices, min * vertexSize, count * vertexSize);
+        final float[] items = vertices.items;
+        normalMatrix.set(transform).inv().transpose();
+        for (int v = start; v < start + count * vertexSize; v += vertexSize) {
+            read(items, v + positionOffset).mul(transform);
+            write(items, v + positionOffset);
+            if (normalOffset >= 0) {
+                read(items, v + normalOffset).mul(normalMatrix).nor();
+                write(items, v + normalOffset);
+            }
+            if (tangentOffset >= 0) {
+                read(items, v + tangentOffset).rot(transform).nor();
+                write(items, v + tangentOffset);
+            }
+            if (binormalOffset >= 0) {
+                read(items, v + binormalOffset).rot(transform).nor();
+                write(items, v + binormalOffset);
+            }
+        }
+        
+        final int base = numVertices - min;
+        indices.ensureCapacity(indexCount);
+        for (int i = indexOffset; i < indexOffset + indexCount; i++) {
+            final int index = sourceIndices == null ? i : sourceIndices[i] & 0xFFFF;
+            indices.add((short) (base + index));
+        }
+        numVertices += count;
+        return true;
+    }
+    
+    private Vector3 read(float[] items, int offset) {
+        return tmp.set(items[offset], items[offset + 1], items[offset + 2]);
+    }
+    
+    private void write(float[] items, int offset) {
+        items[offset] = tmp.x;
+        items[offset + 1] = tmp.y;
+        items[offset + 2] = tmp.z;
+    }
+    
+    /**
+     * Creates a static mesh with the merged vertices and indices.
+     * 
+     * @return the mesh, it has to be disposed by the caller
+     */
+    public Mesh createMesh() {
+        Mesh mesh = new Mesh(true, numVertices, indices.size, attributes);
+        mesh.setVertices(vertices.items, 0, vertices.size);
+        mesh.setIndices(indices.items, 0, indices.size);
+        return mesh;
+    }
+    
+    /**
+     * Removes all vertices and indices.
+     */
+    public void clear() {
+        vertices.clear();
+        indices.clear();
+        numVertices = 0;
+    }
+    
+    /**
+     * Getter for the vertex attributes.
+     * 
+     * @return the vertex attributes of the merged mesh
+     */
+    public VertexAttributes getAttributes() {
+        return attributes;
+    }
+    
+    /**
+     * Getter for the merged vertices.
+     * 
+     * @return the merged vertices, only the first
+     *         {@link #getNumVertices()} vertices are used
+     */
+    public float[] getVertices() {
+        return vertices.items;
+    }
+    
+    /**
+     * Getter for the merged indices.
+     * 
+     * @return the merged indices, only the first {@link #getNumIndices()}
+     *         indices are used
+     */
+    public short[] getIndices() {
+        return indices.items;
+    }
+    
+    /**
+     * Getter for the number of merged vertices.
+     * 
+     * @return the number of vertices
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+    
+    /**
+     * Getter for the number of merged indices.
+     * 
+     * @return the number of indices
+     */
+    public int getNumIndices() {
+        return indices.size;
+    }
+}
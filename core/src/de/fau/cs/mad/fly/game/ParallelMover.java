@@ -0,0 +1,187 @@
+package de.fau.cs.mad.fly.game;
+
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Moves game objects on several threads.
+ * <p>
+ * The list of game objects is split in fixed ranges, one per thread, and the
+ * calling thread moves the first range. {@link #move(List, float)} returns
+ * after all ranges are moved. Every game object is moved by exactly one
+ * thread and the movers only change their own game object, so the result is
+ * the same as moving the game objects one after another.
+ * <p>
+ * The rigid bodies are not changed by the worker threads. After all game
+ * objects are moved, they are synchronized on the calling thread in the order
+ * of the list, before the collision detection runs.
+ * <p>
+ * Small lists are moved on the calling thread, because waking up the worker
+ * threads takes longer.
+ */
+public class ParallelMover implements Disposable {
+    
+    /** Minimal number of game objects for every thread. */
+    public static final int MIN_OBJECTS_PER_THREAD = 32;
+    
+    private final int threads;
+    private final CyclicBarrier start;
+    private final CyclicBarrier end;
+    private volatile boolean disposed = false;
+    
+    /** Game objects, delta and number of ranges of the current move. */
+    private List<GameObject> objects;
+    private float delta;
+    private int ranges;
+    
+    /** First exception thrown by a worker thread in the current move. */
+    private volatile Throwable failure;
+    
+    /**
+     * Creates a new parallel mover and starts the worker threads.
+     * 
+     * @param threads
+     *            Number of threads including the calling thread, at least 2.
+     */
+    public ParallelMover(int threads) {
+        if (threads < 2) {
+            throw new IllegalArgumentException("ParallelMover needs at least 2 threads.");
+        }
+        this.threads = threads;
+        start = new CyclicBarrier(threads);
+        end = new CyclicBarrier(threads);
+        for (int i = 1; i < threads; i++) {
+            final int range = i;
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work(range);
+                }
+            }, "ParallelMover-" + range);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+    
+    /**
+     * Getter for the number of threads.
+     * 
+     * @return threads including the calling thread
+     */
+    public int getThreads() {
+        return threads;
+    }
+    
+    /**
+     * Moves all game objects and synchronizes their rigid bodies.
+     * 
+     * @param objects
+     *            The game objects to move.
+     * @param delta
+     *            Time since the last move.
+     */
+    public void move(List<GameObject> objects, float delta) {
+        final int size = objects.size();
+        if (disposed || size < 2 * MIN_OBJECTS_PER_THREAD) {
+            for (int i = 0; i < size; i++) {
+                objects.get(i).move(delta);
+            }
+            return;
+        }
+        
+        this.objects = objects;
+        this.delta = delta;
+        ranges = Math.min(threads, size / MIN_OBJECTS_PER_THREAD);
+        GameObject.setDeferRigidBodySync(true);
+        try {
+            await(start);
+            moveRange(0);
+            await(end);
+        } finally {
+            GameObject.setDeferRigidBodySync(false);
+            this.objects = null;
+        }
+        if (failure != null) {
+            Throwable cause = failure;
+            failure = null;
+            throw new GdxRuntimeException("ParallelMover: moving the game objects failed.", cause);
+        }
+        
+        for (int i = 0; i < size; i++) {
+            objects.get(i).flushRigidBody();
+        }
+    }
+    
+    /**
+     * Moves the game objects of one range.
+     * 
+     * @param range
+     *            Index of the range.
+     */
+    private void moveRange(int range) {
+        if (range >= ranges) {
+            return;
+        }
+        final int size = objects.size();
+        final int last = (range + 1) * size / ranges;
+        for (int i = range * size / ranges; i < last; i++) {
+            objects.get(i).move(delta);
+        }
+    }
+    
+    /**
+     * Loop of a worker thread, moves its range whenever the calling thread
+     * starts a move.
+     * 
+     * @param range
+     *            Index of the range of the worker.
+     */
+    private void work(int range) {
+        try {
+            while (true) {
+                start.await();
+                if (disposed) {
+                    return;
+                }
+                try {
+                    moveRange(range);
+                } catch (Throwable t) {
+                    failure = t;
+                }
+                end.await();
+            }
+        } catch (InterruptedException e) {
+            // the worker stops
+        } catch (BrokenBarrierException e) {
+            // the mover was disposed
+        }
+    }
+    
+    /**
+     * Waits on the calling thread until all worker threads reached the
+     * barrier.
+     */
+    private void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            throw new GdxRuntimeException("ParallelMover: interrupted while moving the game objects.", e);
+        } catch (BrokenBarrierException e) {
+            throw new GdxRuntimeException("ParallelMover: worker thread stopped.", e);
+        }
+    }
+    
+    /**
+     * Stops the worker threads. Following moves run on the calling thread.
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+        start.reset();
+        end.reset();
+    }
+}
@@ -3,8 +3,8 @@ package de.fau.cs.mad.fly.game;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 
 import de.fau.cs.mad.fly.Fly;
@@ -12,6 +12,8 @@ import de.fau.cs.mad.fly.features.ICollisionListener;
 import de.fau.cs.mad.fly.features.game.EndlessLevelGenerator;
 import de.fau.cs.mad.fly.features.game.EndlessRailLevelGenerator;
 import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
+import de.fau.cs.mad.fly.helper.RandomHelper;
 import de.fau.cs.mad.fly.player.Player;
 import de.fau.cs.mad.fly.profile.PlayerProfile;
 import de.fau.cs.mad.fly.res.GateDisplay;
@@ -47,6 +49,11 @@ public class RailFlightController extends FlightController implements ICollision
 	
 	/** Speed of the current plane*/
 	private float planeSpeed, rollSpeed, azimuthSpeed;
+	
+	/** Shift of the plane in the current frame */
+	private final Vector3 shiftVector = new Vector3();
+	/** Passed rail point that is reused for the next step, null if there is none */
+	private Vector3 passedRailPoint = null;
 
 	public RailFlightController(Player player, PlayerProfile playerProfile, EndlessLevelGenerator generator, Perspective perspective) {
 		super(player, playerProfile);
@@ -67,6 +74,7 @@ public class RailFlightController extends FlightController implements ICollision
 		if (useSensorData) {
             super.interpretSensorInput();
         }
+		recordOrReplayInput();
 		
 		if(endPosition.equals(currentPosition)) {
 			initRail();
@@ -82,7 +90,7 @@ public class RailFlightController extends FlightController implements ICollision
 			// remove objects behind the passed point
 			generator.removeComponents(centerRail.get(0));
 			
-			centerRail.remove(0);
+			passedRailPoint = centerRail.remove(0);
 			currentPosition = centerRail.get(0);
 			
 		}
@@ -107,9 +115,14 @@ public class RailFlightController extends FlightController implements ICollision
 	}
 	
 	private Vector3 nextStep() {
-		Vector3 nextPos = new Vector3();
-		
-		nextPos = endPosition.cpy().add(direction);
+		Vector3 nextPos;
+		if (passedRailPoint != null) {
+			nextPos = passedRailPoint.set(endPosition);
+			passedRailPoint = null;
+		} else {
+			nextPos = endPosition.cpy();
+		}
+		nextPos.add(direction);
 		
 		endPosition = nextPos;
 		return nextPos;
@@ -119,7 +132,7 @@ public class RailFlightController extends FlightController implements ICollision
 		rollSpeed = player.getPlane().getRollingSpeed();
 		azimuthSpeed = player.getPlane().getAzimuthSpeed();
 		
-		Vector3 shiftVector = new Vector3();
+		shiftVector.setZero();
 		if(Math.abs(getRollFactor()) > 0.5) {
 			if(Math.abs(railX + Math.signum(rollFactor)) <= 1.f && !changeRailX) {
 				railX += Math.signum(rollFactor);
@@ -142,7 +155,9 @@ public class RailFlightController extends FlightController implements ICollision
 		if(changeTimeY == 1f) {
 			changeRailY = true;
 		}
-		Gdx.app.log("rails", "" + planeSpeed);
+		if (Gdx.app.getLogLevel() >= Application.LOG_DEBUG) {
+			Gdx.app.debug("rails", "" + planeSpeed);
+		}
 		if(changeRailX) {
 			if(changeTimeX - delta * rollSpeed <= 0) {
 				shiftVector.z = changeX * changeTimeX * railOffset * rollSpeed;
@@ -179,7 +194,8 @@ public class RailFlightController extends FlightController implements ICollision
 	}
 
 	@Override
-	public void onCollision(GameObject g1, GameObject g2) {
+	public void onEvent(CollisionEvent event) {
+		GameObject g2 = event.getSecond();
 		
 		if(g2 instanceof GateDisplay) {
 			if(generator.checkAsteroidPosition(currentPosition, railX * railOffset, railY * railOffset)) {
@@ -212,13 +228,13 @@ public class RailFlightController extends FlightController implements ICollision
 		if(Math.abs(railX) > 0) {
 			newRailX = 0;
 		} else {
-			newRailX = (int) Math.signum(MathUtils.random(-1, 1));
+			newRailX = (int) Math.signum(RandomHelper.random(-1, 1));
 		}
 		
 		if(Math.abs(railY) > 0) {
 			newRailY = 0;
 		} else {
-			newRailY = (int) Math.signum(MathUtils.random(-1, 1));
+			newRailY = (int) Math.signum(RandomHelper.random(-1, 1));
 		}
 		
 		railX = newRailX;
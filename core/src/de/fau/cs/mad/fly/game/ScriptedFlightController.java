@@ -0,0 +1,63 @@
+package de.fau.cs.mad.fly.game;
+
+import de.fau.cs.mad.fly.player.Player;
+
+/**
+ * Flight controller that steers the player with a script instead of the user
+ * input, for example in a headless simulation.
+ */
+public class ScriptedFlightController extends FlightController {
+    
+    /**
+     * Implement this interface to provide the steering of a
+     * {@link ScriptedFlightController}.
+     */
+    public interface Script {
+        /**
+         * Called once every update to get the steering for the current step.
+         * 
+         * @param step
+         *            Number of the step, starting with 0.
+         * @param delta
+         *            The time that is simulated in this step.
+         * @param steering
+         *            Array of size 2 to store the roll factor at index 0 and
+         *            the azimuth factor at index 1, both between -1 and 1.
+         */
+        public void steer(int step, float delta, float[] steering);
+    }
+    
+    private final Script script;
+    private final float[] steering = new float[2];
+    private int step = 0;
+    
+    /**
+     * Creates a new scripted flight controller.
+     * 
+     * @param player
+     *            The player to steer.
+     * @param script
+     *            The script that provides the steering.
+     */
+    public ScriptedFlightController(Player player, Script script) {
+        super(player);
+        this.script = script;
+    }
+    
+    @Override
+    public void init() {
+        step = 0;
+    }
+    
+    @Override
+    public void update(float delta) {
+        steering[0] = 0.0f;
+        steering[1] = 0.0f;
+        script.steer(step, delta, steering);
+        step++;
+        
+        setRollFactor(steering[0]);
+        setAzimuthFactor(steering[1]);
+        super.update(delta);
+    }
+}
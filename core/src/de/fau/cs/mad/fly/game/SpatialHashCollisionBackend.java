@@ -0,0 +1,309 @@
+package de.fau.cs.mad.fly.game;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Collision backend in pure Java, without Bullet natives, see
+ * {@link CollisionDetector.Backend#SPATIAL_HASH}.
+ * <p>
+ * The game objects get {@link CollisionBody}s. Bodies with a mass are moved by
+ * their velocities, bodies with a mover are moved by the mover. The static
+ * bodies are stored once in a {@link SpatialHashGrid}, the moving bodies are
+ * stored in a second grid in every step. Every moving body is tested against
+ * the bodies in its cells, if their filters match and their contact callbacks
+ * are enabled, see {@link CollisionDetector#setContactFiltering(boolean)}. A
+ * contact is passed to the contact buffer in the step the bodies begin to
+ * intersect, like Bullet starts a contact.
+ * <p>
+ * Like the Bullet collision world, the contacts are only detected and not
+ * solved, so the bodies fly through each other.
+ */
+public class SpatialHashCollisionBackend implements ICollisionBackend {
+    
+    /** Edge length of the cells of the grids. */
+    public static final float CELL_SIZE = 8.0f;
+    
+    private final ContactBuffer contacts;
+    private final CollisionTester tester = new CollisionTester();
+    
+    /** Volumes of the shapes, bodies with the same shape id share them. */
+    private final Map<String, CollisionVolume> volumes = new HashMap<String, CollisionVolume>();
+    
+    /** Bodies in the world, the index is the id. */
+    private final Array<CollisionBody> bodies = new Array<CollisionBody>(true, 128, CollisionBody.class);
+    private final Array<GameObject> movingObjects = new Array<GameObject>(false, 32, GameObject.class);
+    
+    private final SpatialHashGrid staticGrid = new SpatialHashGrid(CELL_SIZE);
+    private final SpatialHashGrid movingGrid = new SpatialHashGrid(CELL_SIZE);
+    private final IntArray candidates = new IntArray();
+    
+    /** Pairs of intersecting bodies in the last and in the current step. */
+    private LongMap<Boolean> lastPairs = new LongMap<Boolean>();
+    private LongMap<Boolean> currentPairs = new LongMap<Boolean>();
+    
+    /**
+     * Creates the world.
+     * 
+     * @param contacts
+     *            The buffer for the contacts.
+     */
+    public SpatialHashCollisionBackend(ContactBuffer contacts) {
+        this.contacts = contacts;
+    }
+    
+    @Override
+    public void createConvexBody(GameObject gameObject, String shapeId, float mass, short filterGroup, short filterMask) {
+        CollisionVolume volume = volumes.get(shapeId);
+        if (volume == null) {
+            volume = CollisionVolume.convexHull(getHullPoints(gameObject.model.meshes.get(0)));
+            volumes.put(shapeId, volume);
+        }
+        gameObject.createCollisionBody(new CollisionBody(volume, mass), filterGroup, filterMask);
+    }
+    
+    @Override
+    public void createBoxBody(GameObject gameObject, String shapeId, Vector3 halfExtents, float mass, short filterGroup, short filterMask) {
+        CollisionVolume volume = volumes.get(shapeId);
+        if (volume == null) {
+            volume = CollisionVolume.box(halfExtents);
+            volumes.put(shapeId, volume);
+        }
+        gameObject.createCollisionBody(new CollisionBody(volume, mass), filterGroup, filterMask);
+    }
+    
+    @Override
+    public void createMeshBody(GameObject gameObject, String shapeId, short filterGroup, short filterMask) {
+        CollisionVolume volume = volumes.get(shapeId);
+        if (volume == null) {
+            FloatArray triangles = new FloatArray();
+            addTriangles(gameObject.model.nodes, triangles);
+            volume = CollisionVolume.mesh(triangles.toArray());
+            volumes.put(shapeId, volume);
+        }
+        gameObject.createCollisionBody(new CollisionBody(volume, 0.0f), filterGroup, filterMask);
+    }
+    
+    /**
+     * Reads the positions of the vertices of a mesh.
+     * 
+     * @param mesh
+     *            The mesh.
+     * @return x, y and z of every vertex position
+     */
+    private float[] getHullPoints(Mesh mesh) {
+        final int stride = mesh.getVertexSize() / 4;
+        final int offset = mesh.getVertexAttribute(Usage.Position).offset / 4;
+        final float[] vertices = mesh.getVertices(new float[mesh.getNumVertices() * stride]);
+        final float[] points = new float[3 * mesh.getNumVertices()];
+        for (int i = 0; i < mesh.getNumVertices(); i++) {
+            System.arraycopy(vertices, i * stride + offset, points, 3 * i, 3);
+        }
+        return points;
+    }
+    
+    /**
+     * Adds the triangles of the nodes and their children, transformed by the
+     * nodes, like {@link com.badlogic.gdx.physics.bullet.Bullet#obtainStaticNodeShape(Array)}.
+     */
+    private void addTriangles(Array<Node> nodes, FloatArray triangles) {
+        final Vector3 corner = new Vector3();
+        for (int n = 0; n < nodes.size; n++) {
+            final Node node = nodes.get(n);
+            for (int p = 0; p < node.parts.size; p++) {
+                final NodePart nodePart = node.parts.get(p);
+                final MeshPart meshPart = nodePart.meshPart;
+                if (meshPart.primitiveType != GL20.GL_TRIANGLES) {
+                    continue;
+                }
+                final Mesh mesh = meshPart.mesh;
+                final int stride = mesh.getVertexSize() / 4;
+                final int offset = mesh.getVertexAttribute(Usage.Position).offset / 4;
+                final float[] vertices = mesh.getVertices(new float[mesh.getNumVertices() * stride]);
+                short[] indices = null;
+                if (mesh.getNumIndices() > 0) {
+                    indices = new short[mesh.getNumIndices()];
+                    mesh.getIndices(indices);
+                }
+                for (int i = 0; i + 2 < meshPart.numVertices; i += 3) {
+                    for (int c = 0; c < 3; c++) {
+                        final int index = meshPart.indexOffset + i + c;
+                        final int vertex = (indices == null ? index : indices[index] & 0xFFFF) * stride + offset;
+                        corner.set(vertices[vertex], vertices[vertex + 1], vertices[vertex + 2]).mul(node.globalTransform);
+                        triangles.add(corner.x);
+                        triangles.add(corner.y);
+                        triangles.add(corner.z);
+                    }
+                }
+            }
+            addTriangles(node.children, triangles);
+        }
+    }
+    
+    @Override
+    public void addBody(GameObject gameObject, int id) {
+        CollisionBody body = gameObject.getCollisionBody();
+        body.id = id;
+        body.kinematic = body.getMass() == 0.0f && gameObject.getMover() != null;
+        body.filterGroup = gameObject.getFilterGroup();
+        body.filterMask = gameObject.getFilterMask();
+        body.contactCallbackFlag = gameObject.getFilterGroup();
+        body.contactCallbackFilter = CollisionDetector.getContactCallbackFilter(gameObject.getFilterGroup());
+        while (bodies.size <= id) {
+            bodies.add(null);
+        }
+        bodies.set(id, body);
+        if (body.isMoving()) {
+            movingObjects.add(gameObject);
+        } else {
+            insertStatic(body);
+        }
+    }
+    
+    @Override
+    public int getBodyId(GameObject gameObject) {
+        CollisionBody body = gameObject.getCollisionBody();
+        return body == null ? -1 : body.id;
+    }
+    
+    @Override
+    public void removeBody(GameObject gameObject) {
+        CollisionBody body = gameObject.getCollisionBody();
+        if (body.id < 0 || body.id >= bodies.size || bodies.get(body.id) != body) {
+            return;
+        }
+        bodies.set(body.id, null);
+        if (body.isMoving()) {
+            movingObjects.removeValue(gameObject, true);
+        } else {
+            // the bounds may have changed since the insertion
+            staticGrid.remove(body.id, body.gridMin, body.gridMax);
+        }
+        body.id = -1;
+    }
+    
+    @Override
+    public void updateStaticBodies() {
+        staticGrid.clear();
+        for (int i = 0; i < bodies.size; i++) {
+            CollisionBody body = bodies.get(i);
+            if (body != null && !body.isMoving()) {
+                insertStatic(body);
+            }
+        }
+    }
+    
+    /**
+     * Inserts a static body into the static grid with its current bounds.
+     */
+    private void insertStatic(CollisionBody body) {
+        body.gridMin.set(body.min);
+        body.gridMax.set(body.max);
+        staticGrid.insert(body.id, body.gridMin, body.gridMax);
+    }
+    
+    @Override
+    public int step(float timeStep, int subSteps) {
+        final float subStepTime = timeStep / subSteps;
+        int contactCallbacks = 0;
+        for (int i = 0; i < subSteps; i++) {
+            contactCallbacks += subStep(subStepTime);
+        }
+        return contactCallbacks;
+    }
+    
+    /**
+     * Moves the bodies and passes the new contacts to the contact buffer.
+     * 
+     * @param timeStep
+     *            Time that is simulated.
+     * @return the number of new contacts
+     */
+    private int subStep(float timeStep) {
+        final GameObject[] objects = movingObjects.items;
+        final int size = movingObjects.size;
+        
+        movingGrid.clear();
+        for (int i = 0; i < size; i++) {
+            final GameObject gameObject = objects[i];
+            final CollisionBody body = gameObject.getCollisionBody();
+            if (!body.kinematic) {
+                body.integrate(timeStep);
+                if (gameObject.hasMotionState()) {
+                    body.getWorldTransform(gameObject.transform);
+                }
+            }
+            movingGrid.insert(body.id, body.min, body.max);
+        }
+        
+        LongMap<Boolean> pairs = lastPairs;
+        lastPairs = currentPairs;
+        currentPairs = pairs;
+        currentPairs.clear();
+        
+        int contactCallbacks = 0;
+        for (int i = 0; i < size; i++) {
+            final CollisionBody body = objects[i].getCollisionBody();
+            candidates.clear();
+            staticGrid.query(body.min, body.max, candidates);
+            movingGrid.query(body.min, body.max, candidates);
+            for (int j = 0; j < candidates.size; j++) {
+                final CollisionBody other = bodies.get(candidates.get(j));
+                // pairs of moving bodies are tested by the body with the lower
+                // id
+                if (other == body || (other.isMoving() && other.id < body.id) || !needsContact(body, other)) {
+                    continue;
+                }
+                if (tester.intersect(body, other)) {
+                    final long key = Math.min(body.id, other.id) * (1L << 32) + Math.max(body.id, other.id);
+                    currentPairs.put(key, Boolean.TRUE);
+                    if (!lastPairs.containsKey(key)) {
+                        contactCallbacks++;
+                        // the body that wants the contact first, like the
+                        // player in the collision listeners
+                        if ((body.contactCallbackFilter & other.contactCallbackFlag) != 0) {
+                            contacts.add(body.id, other.id);
+                        } else {
+                            contacts.add(other.id, body.id);
+                        }
+                    }
+                }
+            }
+        }
+        return contactCallbacks;
+    }
+    
+    /**
+     * Checks if the filters of two bodies let them collide and if one of them
+     * wants to be called back for the contact.
+     */
+    private boolean needsContact(CollisionBody a, CollisionBody b) {
+        if ((a.filterGroup & b.filterMask) == 0 || (b.filterGroup & a.filterMask) == 0) {
+            return false;
+        }
+        return (a.contactCallbackFilter & b.contactCallbackFlag) != 0 || (b.contactCallbackFilter & a.contactCallbackFlag) != 0;
+    }
+    
+    @Override
+    public void dispose() {
+        bodies.clear();
+        movingObjects.clear();
+        staticGrid.clear();
+        movingGrid.clear();
+        lastPairs.clear();
+        currentPairs.clear();
+        volumes.clear();
+    }
+}
@@ -0,0 +1,215 @@
+package de.fau.cs.mad.fly.game;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Uniform grid of cubic cells that stores ids by their bounds, the broadphase
+ * of the {@link SpatialHashCollisionBackend}.
+ * <p>
+ * Only the cells that contain ids are stored, in a hash map from the cell
+ * coordinates to the ids. An id is stored in every cell its bounds overlap.
+ * Ids whose bounds overlap more than {@link #MAX_CELLS} cells are stored in a
+ * separate list and returned by every query.
+ * <p>
+ * Inserting, removing and querying does not allocate once the grid is warm,
+ * the lists of emptied cells are reused.
+ */
+public class SpatialHashGrid {
+    
+    /** Maximal number of cells an id is stored in. */
+    public static final int MAX_CELLS = 512;
+    
+    /** Offset of the cell coordinates, so they are positive in 21 bits. */
+    private static final int OFFSET = 1 << 20;
+    private static final int MASK = (1 << 21) - 1;
+    
+    private final float cellSize;
+    private final float inverseCellSize;
+    
+    private final LongMap<IntArray> cells = new LongMap<IntArray>();
+    /** Ids whose bounds overlap too many cells. */
+    private final IntArray oversized = new IntArray();
+    /** Lists of cells that were emptied. */
+    private final Array<IntArray> freeLists = new Array<IntArray>(false, 16, IntArray.class);
+    /** Lists of the cells that are used, to clear them without iterator. */
+    private final Array<IntArray> usedLists = new Array<IntArray>(false, 16, IntArray.class);
+    
+    /** Query number at which an id was returned last, indexed by id. */
+    private int[] marks = new int[64];
+    private int query = 0;
+    
+    /**
+     * Creates a new empty grid.
+     * 
+     * @param cellSize
+     *            Edge length of a cell.
+     */
+    public SpatialHashGrid(float cellSize) {
+        if (cellSize <= 0.0f) {
+            throw new IllegalArgumentException("cellSize has to be greater than 0.");
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0f / cellSize;
+    }
+    
+    public float getCellSize() {
+        return cellSize;
+    }
+    
+    /**
+     * Inserts an id into every cell its bounds overlap.
+     * 
+     * @param id
+     *            The id, not negative.
+     * @param min
+     *            Minimum of the bounds.
+     * @param max
+     *            Maximum of the bounds.
+     */
+    public void insert(int id, Vector3 min, Vector3 max) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id must not be negative.");
+        }
+        if (id >= marks.length) {
+            int[] newMarks = new int[Math.max(id + 1, 2 * marks.length)];
+            System.arraycopy(marks, 0, newMarks, 0, marks.length);
+            marks = newMarks;
+        }
+        final int x0 = cell(min.x), y0 = cell(min.y), z0 = cell(min.z);
+        final int x1 = cell(max.x), y1 = cell(max.y), z1 = cell(max.z);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) * (z1 - z0 + 1) > MAX_CELLS) {
+            oversized.add(id);
+            return;
+        }
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    final long key = key(x, y, z);
+                    IntArray ids = cells.get(key);
+                    if (ids == null) {
+                        ids = freeLists.size > 0 ? freeLists.pop() : new IntArray();
+                        usedLists.add(ids);
+                        cells.put(key, ids);
+                    }
+                    ids.add(id);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Removes an id, that was inserted with the same bounds.
+     * 
+     * @param id
+     *            The id.
+     * @param min
+     *            Minimum of the bounds at the insertion.
+     * @param max
+     *            Maximum of the bounds at the insertion.
+     */
+    public void remove(int id, Vector3 min, Vector3 max) {
+        final int x0 = cell(min.x), y0 = cell(min.y), z0 = cell(min.z);
+        final int x1 = cell(max.x), y1 = cell(max.y), z1 = cell(max.z);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) * (z1 - z0 + 1) > MAX_CELLS) {
+            oversized.removeValue(id);
+            return;
+        }
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    final long key = key(x, y, z);
+                    IntArray ids = cells.get(key);
+                    if (ids != null) {
+                        ids.removeValue(id);
+                        if (ids.size == 0) {
+                            cells.remove(key);
+                            usedLists.removeValue(ids, true);
+                            freeLists.add(ids);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Removes all ids.
+     */
+    public void clear() {
+        for (int i = 0; i < usedLists.size; i++) {
+            IntArray ids = usedLists.get(i);
+            ids.clear();
+            freeLists.add(ids);
+        }
+        usedLists.clear();
+        cells.clear();
+        oversized.clear();
+    }
+    
+    /**
+     * Adds every id whose cells overlap the bounds once to a list. The list
+     * may contain ids whose bounds do not overlap, but share a cell.
+     * 
+     * @param min
+     *            Minimum of the bounds.
+     * @param max
+     *            Maximum of the bounds.
+     * @param result
+     *            The list, the ids are added to the end.
+     */
+    public void query(Vector3 min, Vector3 max, IntArray result) {
+        query++;
+        if (query == 0) {
+            // the query number overflowed, the marks are not valid anymore
+            Arrays.fill(marks, 0);
+            query = 1;
+        }
+        for (int i = 0; i < oversized.size; i++) {
+            mark(oversized.get(i), result);
+        }
+        final int x0 = cell(min.x), y0 = cell(min.y), z0 = cell(min.z);
+        final int x1 = cell(max.x), y1 = cell(max.y), z1 = cell(max.z);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) * (z1 - z0 + 1) > MAX_CELLS) {
+            // cheaper to return the ids of all cells
+            for (int i = 0; i < usedLists.size; i++) {
+                final IntArray ids = usedLists.get(i);
+                for (int j = 0; j < ids.size; j++) {
+                    mark(ids.get(j), result);
+                }
+            }
+            return;
+        }
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    final IntArray ids = cells.get(key(x, y, z));
+                    if (ids != null) {
+                        for (int i = 0; i < ids.size; i++) {
+                            mark(ids.get(i), result);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private void mark(int id, IntArray result) {
+        if (marks[id] != query) {
+            marks[id] = query;
+            result.add(id);
+        }
+    }
+    
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+    
+    private static long key(int x, int y, int z) {
+        return ((long) ((x + OFFSET) & MASK) << 42) | ((long) ((y + OFFSET) & MASK) << 21) | ((z + OFFSET) & MASK);
+    }
+}
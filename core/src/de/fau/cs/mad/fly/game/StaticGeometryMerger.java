@@ -0,0 +1,270 @@
+package de.fau.cs.mad.fly.game;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+/**
+ * Merges static game objects that share a game model and an environment into
+ * one game object per cell of a grid.
+ * <p>
+ * Every game object of a level is rendered with its own draw calls. Game
+ * objects that never move can be baked into one mesh per material instead,
+ * the merged game object needs one draw call per material for all of them.
+ * The grid keeps the merged game objects small enough to be culled.
+ * <p>
+ * The merged game objects are only the display, the source game objects keep
+ * their bodies but must not be rendered anymore. Hiding a source game object
+ * does not hide it in the merged mesh, so only game objects that are visible
+ * for the whole level should be merged.
+ */
+public class StaticGeometryMerger {
+    
+    /** Default edge length of the cells, in world units. */
+    public static final float DEFAULT_CELL_SIZE = 200.0f;
+    
+    /** Game objects of the same game model and environment in one cell. */
+    private static class Group {
+        private final GameModel model;
+        private final Environment environment;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final List<GameObject> members = new ArrayList<GameObject>();
+        
+        private Group(GameModel model, Environment environment, int x, int y, int z) {
+            this.model = model;
+            this.environment = environment;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Group)) {
+                return false;
+            }
+            Group other = (Group) obj;
+            return model == other.model && environment == other.environment && x == other.x && y == other.y && z == other.z;
+        }
+        
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(model);
+            hash = 31 * hash + System.identityHashCode(environment);
+            hash = 31 * hash + x;
+            hash = 31 * hash + y;
+            return 31 * hash + z;
+        }
+    }
+    
+    /** Merged mesh parts of one material. */
+    private static class Bucket {
+        private final Material material;
+        private final MeshMerger merger;
+        
+        private Bucket(Material material, MeshMerger merger) {
+            this.material = material;
+            this.merger = merger;
+        }
+    }
+    
+    private final float cellSize;
+    private final Map<Group, Group> groups = new LinkedHashMap<Group, Group>();
+    private final List<GameObject> mergedSources = new ArrayList<GameObject>();
+    
+    private final IdentityMap<Mesh, float[]> sourceVertices = new IdentityMap<Mesh, float[]>();
+    private final IdentityMap<Mesh, short[]> sourceIndices = new IdentityMap<Mesh, short[]>();
+    private final Matrix4 tmpTransform = new Matrix4();
+    private final Vector3 tmpPosition = new Vector3();
+    
+    /**
+     * Creates a merger.
+     * 
+     * @param cellSize
+     *            The edge length of the cells, in world units.
+     */
+    public StaticGeometryMerger(float cellSize) {
+        if (cellSize <= 0.0f) {
+            throw new IllegalArgumentException("cellSize has to be positive.");
+        }
+        this.cellSize = cellSize;
+    }
+    
+    /**
+     * Checks if a game object can be merged: it is visible, it does not move
+     * and all parts of its model are triangles without bones.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @return true, if the game object can be added
+     */
+    public static boolean canMerge(GameObject gameObject) {
+        if (gameObject.isHidden() || gameObject.getMover() != null || gameObject.hasMotionState() || gameObject.getGameModel() == null) {
+            return false;
+        }
+        return MeshMerger.canMerge(gameObject.getGameModel().display);
+    }
+    
+    /**
+     * Adds a game object to the cell of its position.
+     * 
+     * @param gameObject
+     *            The game object, see {@link #canMerge(GameObject)}.
+     */
+    public void add(GameObject gameObject) {
+        if (!canMerge(gameObject)) {
+            throw new IllegalArgumentException("gameObject " + gameObject.getId() + " cannot be merged.");
+        }
+        gameObject.transform.getTranslation(tmpPosition);
+        Group key = new Group(gameObject.getGameModel(), gameObject.environment, (int) Math.floor(tmpPosition.x / cellSize), (int) Math.floor(tmpPosition.y / cellSize), (int) Math.floor(tmpPosition.z / cellSize));
+        Group group = groups.get(key);
+        if (group == null) {
+            group = key;
+            groups.put(key, group);
+        }
+        group.members.add(gameObject);
+    }
+    
+    /**
+     * Merges the game objects of every cell with at least two game objects of
+     * the same game model and environment. Creates meshes, so it has to be
+     * called on the render thread.
+     * 
+     * @return the merged game objects, their models have to be disposed by
+     *         the caller
+     */
+    public List<GameObject> merge() {
+        List<GameObject> merged = new ArrayList<GameObject>();
+        for (Group group : groups.values()) {
+            if (group.members.size() < 2) {
+                continue;
+            }
+            Model model = mergeGroup(group);
+            GameObject gameObject = new GameObject(new GameModel(model, null), "merged " + group.members.get(0).getId());
+            gameObject.environment = group.environment;
+            merged.add(gameObject);
+            mergedSources.addAll(group.members);
+        }
+        sourceVertices.clear();
+        sourceIndices.clear();
+        Gdx.app.log("StaticGeometryMerger.merge", "Merged " + mergedSources.size() + " game objects into " + merged.size() + ".");
+        return merged;
+    }
+    
+    /**
+     * Getter for the game objects that were merged by {@link #merge()}.
+     * 
+     * @return the source game objects, they must not be rendered anymore
+     */
+    public List<GameObject> getMergedSources() {
+        return mergedSources;
+    }
+    
+    private Model mergeGroup(Group group) {
+        final Model model = new Model();
+        final Array<Bucket> buckets = new Array<Bucket>();
+        final int size = group.members.size();
+        for (int i = 0; i < size; i++) {
+            appendNodes(model, buckets, group.model.display.nodes, group.members.get(i).transform);
+        }
+        for (int i = 0; i < buckets.size; i++) {
+            flush(model, buckets.get(i));
+        }
+        model.calculateTransforms();
+        return model;
+    }
+    
+    private void appendNodes(Model model, Array<Bucket> buckets, Array<Node> nodes, Matrix4 transform) {
+        for (int i = 0; i < nodes.size; i++) {
+            final Node node = nodes.get(i);
+            for (int j = 0; j < node.parts.size; j++) {
+                final NodePart part = node.parts.get(j);
+                final MeshPart meshPart = part.meshPart;
+                final Bucket bucket = getBucket(buckets, part.material, meshPart.mesh);
+                final float[] vertices = getVertices(meshPart.mesh);
+                final short[] indices = getIndices(meshPart.mesh);
+                tmpTransform.set(transform).mul(node.globalTransform);
+                if (!bucket.merger.append(vertices, indices, meshPart.indexOffset, meshPart.numVertices, tmpTransform)) {
+                    flush(model, bucket);
+                    bucket.merger.append(vertices, indices, meshPart.indexOffset, meshPart.numVertices, tmpTransform);
+                }
+            }
+            appendNodes(model, buckets, node.children, transform);
+        }
+    }
+    
+    private Bucket getBucket(Array<Bucket> buckets, Material material, Mesh mesh) {
+        for (int i = 0; i < buckets.size; i++) {
+            final Bucket bucket = buckets.get(i);
+            if (bucket.material == material && bucket.merger.getAttributes().equals(mesh.getVertexAttributes())) {
+                return bucket;
+            }
+        }
+        Bucket bucket = new Bucket(material, new MeshMerger(mesh.getVertexAttributes()));
+        buckets.add(bucket);
+        return bucket;
+    }
+    
+    /**
+     * Adds the merged mesh of a bucket as a node to the model and clears the
+     * bucket.
+     */
+    private void flush(Model model, Bucket bucket) {
+        if (bucket.merger.getNumIndices() == 0) {
+            return;
+        }
+        final String id = "merged" + model.meshParts.size;
+        final Mesh mesh = bucket.merger.createMesh();
+        model.meshes.add(mesh);
+        model.manageDisposable(mesh);
+        final MeshPart meshPart = new MeshPart(id, mesh, 0, bucket.merger.getNumIndices(), GL20.GL_TRIANGLES);
+        model.meshParts.add(meshPart);
+        if (!model.materials.contains(bucket.material, true)) {
+            model.materials.add(bucket.material);
+        }
+        final Node node = new Node();
+        node.id = id;
+        node.parts.add(new NodePart(meshPart, bucket.material));
+        model.nodes.add(node);
+        bucket.merger.clear();
+    }
+    
+    private float[] getVertices(Mesh mesh) {
+        float[] vertices = sourceVertices.get(mesh);
+        if (vertices == null) {
+            vertices = mesh.getVertices(new float[mesh.getNumVertices() * mesh.getVertexSize() / 4]);
+            sourceVertices.put(mesh, vertices);
+        }
+        return vertices;
+    }
+    
+    private short[] getIndices(Mesh mesh) {
+        if (mesh.getNumIndices() == 0) {
+            return null;
+        }
+        short[] indices = sourceIndices.get(mesh);
+        if (indices == null) {
+            indices = new short[mesh.getNumIndices()];
+            mesh.getIndices(indices);
+            sourceIndices.put(mesh, indices);
+        }
+        return indices;
+    }
+}
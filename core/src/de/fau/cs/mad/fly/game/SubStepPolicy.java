@@ -0,0 +1,117 @@
+package de.fau.cs.mad.fly.game;
+
+/**
+ * Chooses the number of substeps of a step of the {@link CollisionDetector}
+ * and the continuous collision detection of the player.
+ * <p>
+ * A body tunnels through a collider if it moves further than the collider is
+ * thick within one substep. The adaptive policy splits a step into as many
+ * substeps as needed, so the player moves at most
+ * {@link #MAX_MOVE_FRACTION} of the smallest collider size per substep. Slow
+ * ships need one substep per step, also in long frames, fast ships need more.
+ * <p>
+ * The fixed policy behaves like the former Bullet call: substeps of
+ * {@link #FIXED_SUB_STEP_TIME} and at most {@link #MAX_FIXED_SUB_STEPS} of
+ * them, independent of the speed.
+ */
+public class SubStepPolicy {
+    
+    /** Maximal number of substeps of the adaptive policy. */
+    public static final int MAX_SUB_STEPS = 8;
+    
+    /**
+     * Part of the smallest collider size the player may move in one substep.
+     */
+    public static final float MAX_MOVE_FRACTION = 0.5f;
+    
+    /**
+     * Radius of the sphere Bullet sweeps for the continuous collision
+     * detection, relative to the size of the player.
+     */
+    public static final float SWEPT_SPHERE_FRACTION = 0.2f;
+    
+    /** Length of a substep of the fixed policy. */
+    public static final float FIXED_SUB_STEP_TIME = 1.0f / 60.0f;
+    
+    /** Maximal number of substeps of the fixed policy. */
+    public static final int MAX_FIXED_SUB_STEPS = 5;
+    
+    /**
+     * Tolerance of the rounding up, so an exact multiple of the substep is not
+     * split into one more substep because of the float precision.
+     */
+    private static final float ROUNDING_TOLERANCE = 0.001f;
+    
+    private final boolean adaptive;
+    
+    /**
+     * Creates a new policy.
+     * 
+     * @param adaptive
+     *            True, to choose the substeps by the speed, false for the
+     *            fixed substeps.
+     */
+    public SubStepPolicy(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+    
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+    
+    /**
+     * Computes the number of substeps of a step.
+     * 
+     * @param timeStep
+     *            Time that is simulated in the step.
+     * @param speed
+     *            Speed of the player.
+     * @param colliderSize
+     *            Size of the smallest collider the player can hit, 0 if
+     *            unknown.
+     * @return the number of substeps, at least 1
+     */
+    public int getSubSteps(float timeStep, float speed, float colliderSize) {
+        int subSteps;
+        if (adaptive) {
+            if (colliderSize <= 0.0f) {
+                return 1;
+            }
+            subSteps = (int) Math.ceil(speed * timeStep / (MAX_MOVE_FRACTION * colliderSize) - ROUNDING_TOLERANCE);
+            subSteps = Math.min(subSteps, MAX_SUB_STEPS);
+        } else {
+            subSteps = (int) Math.ceil(timeStep / FIXED_SUB_STEP_TIME - ROUNDING_TOLERANCE);
+            subSteps = Math.min(subSteps, MAX_FIXED_SUB_STEPS);
+        }
+        return Math.max(subSteps, 1);
+    }
+    
+    /**
+     * Computes the motion in one substep above which Bullet detects the
+     * contacts of the player continuously.
+     * 
+     * @param colliderSize
+     *            Size of the smallest collider the player can hit.
+     * @return the motion threshold, 0 to disable the continuous collision
+     *         detection
+     */
+    public float getCcdMotionThreshold(float colliderSize) {
+        if (!adaptive || colliderSize <= 0.0f) {
+            return 0.0f;
+        }
+        return MAX_MOVE_FRACTION * colliderSize;
+    }
+    
+    /**
+     * Computes the radius of the sphere Bullet sweeps for the continuous
+     * collision detection of the player. It has to be inside the shape of the
+     * player.
+     * 
+     * @param playerSize
+     *            Smallest size of the collider of the player.
+     * @return the radius
+     */
+    public float getCcdSweptSphereRadius(float playerSize) {
+        return SWEPT_SPHERE_FRACTION * playerSize;
+    }
+}
@@ -25,6 +25,10 @@ public class TimeController implements GameStateListener {
     
     private int bonusTimeInSeconds;
     
+    /** True, if the time is advanced by the simulated time instead of the clock. */
+    private boolean simulatedClock = false;
+    private double simulatedTimeInSeconds = 0.0;
+    
     private List<IntegerTimeListener> integerTimeListeners;
     private List<TimeIsUpListener> timeIsUpListeners;
     
@@ -47,7 +51,7 @@ public class TimeController implements GameStateListener {
             throw new IllegalArgumentException("TimeController.initTimer(" + seconds + ") got a negative parameter.");
         }
         initTimeInMilliSeconds = seconds * 1000;
-        initTimeStampInMilliSeconds = System.currentTimeMillis();
+        initTimeStampInMilliSeconds = now();
         currentTimeInMilliSeconds = initTimeInMilliSeconds;
         timeSinceStartInMilliSeconds = 0f;
         pauseTimeStampInMilliSeconds = 0;
@@ -69,8 +73,8 @@ public class TimeController implements GameStateListener {
     public void checkTime() {
         if (!paused) {
             int timeBeforeInSeconds = currentTimeInMilliSeconds / 1000;
-            timeSinceStartInMilliSeconds = System.currentTimeMillis() - initTimeStampInMilliSeconds - pauseTimeInSeconds;
-            currentTimeInMilliSeconds = (int) (initTimeInMilliSeconds - (System.currentTimeMillis() - initTimeStampInMilliSeconds) + pauseTimeInSeconds * 1000f + bonusTimeInSeconds * 1000f);
+            timeSinceStartInMilliSeconds = now() - initTimeStampInMilliSeconds - pauseTimeInSeconds;
+            currentTimeInMilliSeconds = (int) (initTimeInMilliSeconds - (now() - initTimeStampInMilliSeconds) + pauseTimeInSeconds * 1000f + bonusTimeInSeconds * 1000f);
             if (currentTimeInMilliSeconds < 1) {
                 currentTimeInMilliSeconds = 0;
                 timeIsUp();
@@ -81,6 +85,40 @@ public class TimeController implements GameStateListener {
         }
     }
     
+    /**
+     * Lets the time controller measure the time with the simulated time of
+     * {@link #advance(float)} instead of the system clock, so that a replayed
+     * game runs out of time at the same tick as the recorded one.
+     * 
+     * @param simulatedClock
+     *            true, to use the simulated time.
+     */
+    public void setSimulatedClock(boolean simulatedClock) {
+        this.simulatedClock = simulatedClock;
+    }
+    
+    /**
+     * Advances the simulated time, if it is used.
+     * 
+     * @param delta
+     *            The simulated time in seconds.
+     */
+    public void advance(float delta) {
+        simulatedTimeInSeconds += delta;
+    }
+    
+    /**
+     * Getter for the current time.
+     * 
+     * @return the simulated time or the system time in milliseconds.
+     */
+    private long now() {
+        if (simulatedClock) {
+            return (long) (simulatedTimeInSeconds * 1000.0);
+        }
+        return System.currentTimeMillis();
+    }
+    
     /**
      * Adds bonus time in seconds to the bonus time.
      * 
@@ -99,7 +137,7 @@ public class TimeController implements GameStateListener {
     public void pause() {
         if (!paused) {
             paused = true;
-            pauseTimeStampInMilliSeconds = System.currentTimeMillis();
+            pauseTimeStampInMilliSeconds = now();
         }
     }
     
@@ -112,7 +150,7 @@ public class TimeController implements GameStateListener {
     public void resume() {
         if (paused) {
             paused = false;
-            pauseTimeInSeconds += (System.currentTimeMillis() - pauseTimeStampInMilliSeconds) / 1000;
+            pauseTimeInSeconds += (now() - pauseTimeStampInMilliSeconds) / 1000;
             pauseTimeStampInMilliSeconds = 0;
         }
     }
@@ -0,0 +1,67 @@
+package de.fau.cs.mad.fly.game.event;
+
+import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.player.Spaceship;
+
+/**
+ * Event for a contact between two game objects, posted by the
+ * {@link de.fau.cs.mad.fly.game.CollisionDetector}.
+ * <p>
+ * If the player is involved, the spaceship is the first game object.
+ */
+public class CollisionEvent extends GameEvent {
+    
+    /** Passes only the collisions that involve the spaceship of the player. */
+    public static final GameEventFilter<CollisionEvent> INVOLVES_PLAYER = new GameEventFilter<CollisionEvent>() {
+        @Override
+        public boolean accept(CollisionEvent event) {
+            return event.involvesPlayer();
+        }
+    };
+    
+    private GameObject first;
+    private GameObject second;
+    
+    /**
+     * Sets the game objects of the contact, the spaceship first.
+     * 
+     * @param g1
+     *            First game object of the contact.
+     * @param g2
+     *            Second game object of the contact.
+     * @return this event
+     */
+    public CollisionEvent set(GameObject g1, GameObject g2) {
+        if (g2 instanceof Spaceship) {
+            first = g2;
+            second = g1;
+        } else {
+            first = g1;
+            second = g2;
+        }
+        return this;
+    }
+    
+    public GameObject getFirst() {
+        return first;
+    }
+    
+    public GameObject getSecond() {
+        return second;
+    }
+    
+    /**
+     * Checks if the spaceship of the player is involved in the contact.
+     * 
+     * @return true, if the first game object is a spaceship.
+     */
+    public boolean involvesPlayer() {
+        return first instanceof Spaceship;
+    }
+    
+    @Override
+    public void reset() {
+        first = null;
+        second = null;
+    }
+}
@@ -0,0 +1,210 @@
+package de.fau.cs.mad.fly.game.event;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ReflectionPool;
+import com.badlogic.gdx.utils.SnapshotArray;
+
+/**
+ * Typed event bus with a deferred event queue.
+ * <p>
+ * Events are obtained from a pool per event type with {@link #obtain(Class)},
+ * filled and queued with {@link #post(GameEvent)}. {@link #dispatch()} passes
+ * the queued events in the order they were posted to the listeners of their
+ * type and returns them to the pool. Events posted while dispatching are
+ * dispatched in the same call.
+ * <p>
+ * After the pools and the queue are warmed up, posting and dispatching does
+ * not allocate. Listeners can be subscribed and unsubscribed while
+ * dispatching, the change is active from the next event on.
+ */
+public class EventBus {
+    
+    /** Listener with its filter. */
+    private static class Subscription {
+        private final GameEventListener<GameEvent> listener;
+        private final GameEventFilter<GameEvent> filter;
+        
+        private Subscription(GameEventListener<GameEvent> listener, GameEventFilter<GameEvent> filter) {
+            this.listener = listener;
+            this.filter = filter;
+        }
+    }
+    
+    /** Pool and subscriptions of one event type. */
+    static class Channel {
+        private final ReflectionPool<GameEvent> pool;
+        private final SnapshotArray<Subscription> subscriptions = new SnapshotArray<Subscription>(false, 8, Subscription.class);
+        
+        private Channel(Class<? extends GameEvent> type) {
+            @SuppressWarnings("unchecked")
+            Class<GameEvent> eventType = (Class<GameEvent>) type;
+            pool = new ReflectionPool<GameEvent>(eventType, 16);
+        }
+        
+        private void deliver(GameEvent event) {
+            final Subscription[] items = subscriptions.begin();
+            final int size = subscriptions.size;
+            for (int i = 0; i < size; i++) {
+                Subscription subscription = items[i];
+                if (subscription.filter == null || subscription.filter.accept(event)) {
+                    subscription.listener.onEvent(event);
+                }
+            }
+            subscriptions.end();
+        }
+    }
+    
+    private final ObjectMap<Class<? extends GameEvent>, Channel> channels = new ObjectMap<Class<? extends GameEvent>, Channel>();
+    private final Array<GameEvent> queue = new Array<GameEvent>(true, 64, GameEvent.class);
+    private boolean dispatching = false;
+    
+    /**
+     * Getter for the channel of an event type, creates it if necessary.
+     */
+    private Channel getChannel(Class<? extends GameEvent> type) {
+        Channel channel = channels.get(type);
+        if (channel == null) {
+            channel = new Channel(type);
+            channels.put(type, channel);
+        }
+        return channel;
+    }
+    
+    /**
+     * Subscribes a listener to all events of a type.
+     * 
+     * @param type
+     *            The class of the events.
+     * @param listener
+     *            The listener to call.
+     */
+    public <T extends GameEvent> void subscribe(Class<T> type, GameEventListener<? super T> listener) {
+        subscribe(type, listener, null);
+    }
+    
+    /**
+     * Subscribes a listener to the events of a type that pass a filter.
+     * 
+     * @param type
+     *            The class of the events.
+     * @param listener
+     *            The listener to call.
+     * @param filter
+     *            The filter for the events, null for all events.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends GameEvent> void subscribe(Class<T> type, GameEventListener<? super T> listener, GameEventFilter<? super T> filter) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null.");
+        }
+        getChannel(type).subscriptions.add(new Subscription((GameEventListener<GameEvent>) listener, (GameEventFilter<GameEvent>) filter));
+    }
+    
+    /**
+     * Removes all subscriptions of a listener to the events of a type.
+     * 
+     * @param type
+     *            The class of the events.
+     * @param listener
+     *            The listener to remove.
+     */
+    public void unsubscribe(Class<? extends GameEvent> type, GameEventListener<?> listener) {
+        Channel channel = channels.get(type);
+        if (channel == null) {
+            return;
+        }
+        SnapshotArray<Subscription> subscriptions = channel.subscriptions;
+        for (int i = subscriptions.size - 1; i >= 0; i--) {
+            if (subscriptions.get(i).listener == listener) {
+                subscriptions.removeIndex(i);
+            }
+        }
+    }
+    
+    /**
+     * Removes all subscriptions to the events of a type.
+     * 
+     * @param type
+     *            The class of the events.
+     */
+    public void unsubscribeAll(Class<? extends GameEvent> type) {
+        Channel channel = channels.get(type);
+        if (channel != null) {
+            channel.subscriptions.clear();
+        }
+    }
+    
+    /**
+     * Gets an event from the pool of its type.
+     * 
+     * @param type
+     *            The class of the event.
+     * @return event with the values after {@link GameEvent#reset()}
+     */
+    public <T extends GameEvent> T obtain(Class<T> type) {
+        Channel channel = getChannel(type);
+        T event = type.cast(channel.pool.obtain());
+        event.channel = channel;
+        return event;
+    }
+    
+    /**
+     * Queues an event for the next {@link #dispatch()}.
+     * 
+     * @param event
+     *            The event, obtained with {@link #obtain(Class)}.
+     */
+    public void post(GameEvent event) {
+        if (event.channel == null) {
+            throw new IllegalArgumentException("The event has to be obtained from the event bus.");
+        }
+        queue.add(event);
+    }
+    
+    /**
+     * Getter for the number of queued events.
+     * 
+     * @return events waiting for the next dispatch
+     */
+    public int getQueuedEvents() {
+        return queue.size;
+    }
+    
+    /**
+     * Passes all queued events to their listeners and returns them to their
+     * pools.
+     * <p>
+     * Calls from a listener are ignored, the events are dispatched by the
+     * running call.
+     */
+    public void dispatch() {
+        if (dispatching) {
+            return;
+        }
+        dispatching = true;
+        try {
+            for (int i = 0; i < queue.size; i++) {
+                GameEvent event = queue.get(i);
+                event.channel.deliver(event);
+            }
+        } finally {
+            clear();
+            dispatching = false;
+        }
+    }
+    
+    /**
+     * Removes all queued events without dispatching them.
+     */
+    public void clear() {
+        final int size = queue.size;
+        for (int i = 0; i < size; i++) {
+            GameEvent event = queue.get(i);
+            Channel channel = event.channel;
+            event.channel = null;
+            channel.pool.free(event);
+        }
+        queue.clear();
+    }
+}
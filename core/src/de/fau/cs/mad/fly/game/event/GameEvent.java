@@ -0,0 +1,17 @@
+package de.fau.cs.mad.fly.game.event;
+
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * Base class of the events of the {@link EventBus}.
+ * <p>
+ * Events are pooled by the event bus. Get them with
+ * {@link EventBus#obtain(Class)}, do not create them yourself, and do not keep
+ * references to them after the listener returned. Every event class needs a
+ * public constructor without parameters.
+ */
+public abstract class GameEvent implements Poolable {
+    
+    /** Channel of the event bus the event belongs to, set by the event bus. */
+    EventBus.Channel channel;
+}
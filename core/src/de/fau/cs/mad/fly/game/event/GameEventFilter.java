@@ -0,0 +1,19 @@
+package de.fau.cs.mad.fly.game.event;
+
+/**
+ * Decides which events of the {@link EventBus} are passed to a listener.
+ * 
+ * @param <T>
+ *            The type of the events.
+ */
+public interface GameEventFilter<T extends GameEvent> {
+    
+    /**
+     * Checks if the event is passed to the listener.
+     * 
+     * @param event
+     *            The event to check.
+     * @return true, if the listener gets the event, false otherwise.
+     */
+    public boolean accept(T event);
+}
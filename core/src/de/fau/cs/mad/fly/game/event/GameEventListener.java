@@ -0,0 +1,20 @@
+package de.fau.cs.mad.fly.game.event;
+
+/**
+ * Implement this interface when you want to receive events of the
+ * {@link EventBus}.
+ * 
+ * @param <T>
+ *            The type of the events.
+ */
+public interface GameEventListener<T extends GameEvent> {
+    
+    /**
+     * This method is called by {@link EventBus#dispatch()} for every queued
+     * event of the subscribed type that passed the filter.
+     * 
+     * @param event
+     *            The event, it is reused after the dispatch.
+     */
+    public void onEvent(T event);
+}
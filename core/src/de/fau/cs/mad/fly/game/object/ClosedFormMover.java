@@ -0,0 +1,228 @@
+package de.fau.cs.mad.fly.game.object;
+
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.GameObject;
+
+/**
+ * Game object mover whose transform is a function of the time the mover is
+ * active, instead of being changed a little in every frame.
+ * <p>
+ * The transform is the transform of the game object when the mover was
+ * created, rotated around a local axis with a constant angular speed and
+ * translated by a sinusoidal offset in x, y and z direction. Evaluating it
+ * from the time does not accumulate rounding errors and does not depend on
+ * the frame rate.
+ * <p>
+ * The sinusoidal parameters A, B and C of the level files describe the offset
+ * A * sin(B*t + C) that was added to the position in every frame. The mover
+ * uses the integral of these offsets at {@link #REFERENCE_FRAME_RATE}, so the
+ * game objects move along the same paths as before at any frame rate.
+ * <p>
+ * Movers of game objects that stay in the level are evaluated together by a
+ * {@link MoverBatch}, {@link #move(float)} does nothing while the mover is in
+ * a batch.
+ * 
+ * @author Tobi
+ * 
+ */
+public abstract class ClosedFormMover implements IGameObjectMover {
+    
+    /** Frame rate the sinusoidal parameters of the level files are made for. */
+    public static final float REFERENCE_FRAME_RATE = 60.0f;
+    
+    /**
+     * Speed of the rotation in degrees per second for 1 degree per frame of
+     * {@link #setRotation(Vector3, float)}.
+     */
+    public static final float DEGREES_PER_SECOND = 10.0f;
+    
+    protected final GameObject gameObject;
+    private boolean active = true;
+    
+    /** Rotation axis, normalized, and speed in degrees per frame. */
+    protected Vector3 rotation = new Vector3();
+    protected float degrees = 0.0f;
+    
+    /**
+     * Parameters in the layout of the arrays of {@link MoverBatch}, with
+     * the mover as the only entry.
+     */
+    final float[] start = new float[16];
+    final float[] sinus = new float[MoverBatch.SINUS];
+    final float[] axis = new float[3];
+    final float[] speed = new float[1];
+    final float[] time = new float[1];
+    
+    /** Transform computed in {@link #move(float)}. */
+    private final float[] values = new float[16];
+    
+    /** Batch that moves the game object, null if the mover moves it itself. */
+    MoverBatch batch = null;
+    int index = -1;
+    
+    /**
+     * Creates a new mover that starts at the current transform of the game
+     * object.
+     * 
+     * @param gameObject
+     *            The game object to which the mover belongs.
+     */
+    public ClosedFormMover(GameObject gameObject) {
+        this.gameObject = gameObject;
+        System.arraycopy(gameObject.transform.val, 0, start, 0, 16);
+    }
+    
+    /**
+     * Getter for the game object.
+     * 
+     * @return the game object moved by the mover
+     */
+    public GameObject getGameObject() {
+        return gameObject;
+    }
+    
+    /**
+     * Getter for the activation status.
+     * 
+     * @return true, if the mover is active, false otherwise
+     */
+    public boolean isActive() {
+        return active;
+    }
+    
+    /**
+     * Getter for the time the mover was active.
+     * 
+     * @return time in seconds
+     */
+    public float getTime() {
+        return batch == null ? time[0] : batch.getTime(index);
+    }
+    
+    /**
+     * Checks if the mover changes the transform of the game object at all.
+     * 
+     * @return true, if the mover translates or rotates the game object, false
+     *         otherwise
+     */
+    public boolean isMoving() {
+        getSinus(sinus, 0);
+        for (int i = 0; i < MoverBatch.SINUS; i += 3) {
+            if (sinus[i] != 0.0f) {
+                return true;
+            }
+        }
+        return degrees != 0.0f && !rotation.isZero();
+    }
+    
+    /**
+     * Checks if the mover is evaluated by a {@link MoverBatch}.
+     * 
+     * @return true, if the mover is in a batch, false otherwise
+     */
+    public boolean isBatched() {
+        return batch != null;
+    }
+    
+    /**
+     * Setter for the rotation.
+     * 
+     * @param rotation
+     *            The rotation vector. Becomes normalized.
+     * @param degrees
+     *            The degrees per frame.
+     */
+    public void setRotation(Vector3 rotation, float degrees) {
+        this.rotation = rotation.nor();
+        this.degrees = degrees;
+    }
+    
+    /**
+     * Setter for the rotation. The degrees per frame are calculated as length
+     * of the vector.
+     * 
+     * @param rotation
+     *            The rotation vector. Becomes normalized.
+     */
+    public void setRotation(Vector3 rotation) {
+        this.degrees = rotation.len();
+        this.rotation = rotation.nor();
+    }
+    
+    /**
+     * Scales the start transform like the transform of the game object, see
+     * {@link GameObject#scale(Vector3)}.
+     * 
+     * @param scale
+     *            The scale in x, y and z.
+     */
+    public void scale(Vector3 scale) {
+        if (batch != null) {
+            batch.scale(index, scale);
+        } else {
+            MoverBatch.scale(start, 0, scale);
+        }
+    }
+    
+    /**
+     * Writes the sinusoidal parameters A, B and C for x, y and z direction.
+     * 
+     * @param sinus
+     *            The array of the parameters.
+     * @param offset
+     *            Index of the parameter A for x direction.
+     */
+    protected void getSinus(float[] sinus, int offset) {
+        for (int i = 0; i < MoverBatch.SINUS; i++) {
+            sinus[offset + i] = 0.0f;
+        }
+    }
+    
+    /**
+     * Writes the sinusoidal parameters of the three directions.
+     */
+    protected static void setSinus(float[] sinus, int offset, Vector3 x, Vector3 y, Vector3 z) {
+        sinus[offset] = x.x;
+        sinus[offset + 1] = x.y;
+        sinus[offset + 2] = x.z;
+        sinus[offset + 3] = y.x;
+        sinus[offset + 4] = y.y;
+        sinus[offset + 5] = y.z;
+        sinus[offset + 6] = z.x;
+        sinus[offset + 7] = z.y;
+        sinus[offset + 8] = z.z;
+    }
+    
+    /**
+     * Writes the current parameters of the mover into the arrays of a batch.
+     */
+    void getParameters(float[] sinus, int sinusOffset, float[] axis, int axisOffset, float[] speed, int speedOffset) {
+        getSinus(sinus, sinusOffset);
+        axis[axisOffset] = rotation.x;
+        axis[axisOffset + 1] = rotation.y;
+        axis[axisOffset + 2] = rotation.z;
+        speed[speedOffset] = degrees * DEGREES_PER_SECOND;
+    }
+    
+    @Override
+    public void move(float delta) {
+        if (!active || batch != null) {
+            return;
+        }
+        time[0] += delta;
+        getParameters(sinus, 0, axis, 0, speed, 0);
+        MoverBatch.evaluate(start, sinus, axis, speed, time, 0, values);
+        if (MoverBatch.set(gameObject.transform.val, values)) {
+            gameObject.syncRigidBody();
+        }
+    }
+    
+    @Override
+    public void setActive(boolean active) {
+        this.active = active;
+        if (batch != null) {
+            batch.setActive(index, active);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package de.fau.cs.mad.fly.game.object;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.GameObject;
+
+/**
+ * Evaluates the {@link ClosedFormMover}s of many game objects in one loop.
+ * <p>
+ * The parameters of the movers are stored in primitive arrays, one entry per
+ * mover: the start transform, the sinusoidal parameters, the rotation axis,
+ * the angular speed and the time the mover was active. {@link #update(float)}
+ * walks through these arrays and writes the transforms of the game objects
+ * without touching the mover objects.
+ * <p>
+ * The parameters are copied when a game object is added, later changes of
+ * the mover are not used by the batch. {@link ClosedFormMover#setActive(boolean)}
+ * is passed on to the batch.
+ */
+public class MoverBatch {
+    
+    /** Number of sinusoidal parameters of a mover, A, B and C per axis. */
+    public static final int SINUS = 9;
+    
+    private int size = 0;
+    private GameObject[] objects = new GameObject[16];
+    private ClosedFormMover[] movers = new ClosedFormMover[16];
+    private float[] start = new float[16 * 16];
+    private float[] sinus = new float[16 * SINUS];
+    private float[] axis = new float[16 * 3];
+    private float[] speed = new float[16];
+    private float[] time = new float[16];
+    private boolean[] active = new boolean[16];
+    
+    /** Transform computed in {@link #update(float)}. */
+    private final float[] values = new float[16];
+    
+    /**
+     * Getter for the number of movers in the batch.
+     * 
+     * @return number of movers
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Checks if the mover of a game object is evaluated by a batch.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @return true, if the game object is moved by a batch, false otherwise
+     */
+    public static boolean isBatched(GameObject gameObject) {
+        return gameObject.getMover() instanceof ClosedFormMover && ((ClosedFormMover) gameObject.getMover()).isBatched();
+    }
+    
+    /**
+     * Adds the mover of a game object to the batch if it is a
+     * {@link ClosedFormMover} that is not in a batch yet.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @return true, if the mover is evaluated by the batch from now on, false
+     *         otherwise
+     */
+    public boolean add(GameObject gameObject) {
+        if (!(gameObject.getMover() instanceof ClosedFormMover)) {
+            return false;
+        }
+        final ClosedFormMover mover = (ClosedFormMover) gameObject.getMover();
+        if (mover.batch != null) {
+            return false;
+        }
+        ensureCapacity(size + 1);
+        final int i = size++;
+        objects[i] = gameObject;
+        movers[i] = mover;
+        System.arraycopy(mover.start, 0, start, 16 * i, 16);
+        mover.getParameters(sinus, SINUS * i, axis, 3 * i, speed, i);
+        time[i] = mover.time[0];
+        active[i] = mover.isActive();
+        mover.batch = this;
+        mover.index = i;
+        return true;
+    }
+    
+    /**
+     * Removes the mover of a game object from the batch, the mover moves the
+     * game object itself again.
+     * 
+     * @param gameObject
+     *            The game object.
+     * @return true, if the mover was in the batch, false otherwise
+     */
+    public boolean remove(GameObject gameObject) {
+        if (!(gameObject.getMover() instanceof ClosedFormMover)) {
+            return false;
+        }
+        final ClosedFormMover mover = (ClosedFormMover) gameObject.getMover();
+        if (mover.batch != this) {
+            return false;
+        }
+        final int i = mover.index;
+        mover.time[0] = time[i];
+        mover.batch = null;
+        mover.index = -1;
+        
+        // move the last mover into the free entry
+        final int last = --size;
+        if (i != last) {
+            objects[i] = objects[last];
+            movers[i] = movers[last];
+            movers[i].index = i;
+            System.arraycopy(start, 16 * last, start, 16 * i, 16);
+            System.arraycopy(sinus, SINUS * last, sinus, SINUS * i, SINUS);
+            System.arraycopy(axis, 3 * last, axis, 3 * i, 3);
+            speed[i] = speed[last];
+            time[i] = time[last];
+            active[i] = active[last];
+        }
+        objects[last] = null;
+        movers[last] = null;
+        return true;
+    }
+    
+    /**
+     * Removes all movers from the batch.
+     */
+    public void clear() {
+        while (size > 0) {
+            remove(objects[size - 1]);
+        }
+    }
+    
+    /**
+     * Advances the time of all active movers and sets the transforms of their
+     * game objects. Only the rigid bodies of the game objects whose transform
+     * changed are synchronized.
+     * 
+     * @param delta
+     *            Time since the last update.
+     */
+    public void update(float delta) {
+        for (int i = 0; i < size; i++) {
+            final GameObject gameObject = objects[i];
+            gameObject.storePreviousTransform();
+            if (!active[i]) {
+                continue;
+            }
+            time[i] += delta;
+            evaluate(start, sinus, axis, speed, time, i, values);
+            if (set(gameObject.transform.val, values)) {
+                gameObject.syncRigidBody();
+            }
+        }
+    }
+    
+    void scale(int index, Vector3 scale) {
+        scale(start, index, scale);
+    }
+    
+    float getTime(int index) {
+        return time[index];
+    }
+    
+    void setActive(int index, boolean active) {
+        this.active[index] = active;
+    }
+    
+    /**
+     * Copies the values of a transform if they differ from the current ones.
+     * 
+     * @param transform
+     *            The values of the current transform.
+     * @param values
+     *            The values of the new transform.
+     * @return true, if the transform changed, false otherwise
+     */
+    static boolean set(float[] transform, float[] values) {
+        for (int i = 0; i < 16; i++) {
+            if (transform[i] != values[i]) {
+                System.arraycopy(values, i, transform, i, 16 - i);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Scales the start transform of one mover like {@link Matrix4#scl(Vector3)}.
+     */
+    static void scale(float[] start, int i, Vector3 scale) {
+        final int m = 16 * i;
+        for (int row = 0; row < 3; row++) {
+            start[m + row] *= scale.x;
+            start[m + 4 + row] *= scale.y;
+            start[m + 8 + row] *= scale.z;
+        }
+    }
+    
+    /**
+     * Computes the transform of one mover.
+     * 
+     * @param start
+     *            The start transforms, 16 values per mover.
+     * @param sinus
+     *            The sinusoidal parameters, {@link #SINUS} values per mover.
+     * @param axis
+     *            The normalized rotation axes, 3 values per mover.
+     * @param speed
+     *            The angular speeds in degrees per second.
+     * @param time
+     *            The times the movers were active, in seconds.
+     * @param i
+     *            Index of the mover.
+     * @param out
+     *            The values of the transform matrix to set.
+     */
+    static void evaluate(float[] start, float[] sinus, float[] axis, float[] speed, float[] time, int i, float[] out) {
+        final int m = 16 * i;
+        final float t = time[i];
+        
+        // rotation around the local axis, out = start * R
+        final float angle = speed[i] * t * MathUtils.degreesToRadians;
+        if (angle == 0.0f) {
+            System.arraycopy(start, m, out, 0, 12);
+        } else {
+            final int a = 3 * i;
+            final float x = axis[a];
+            final float y = axis[a + 1];
+            final float z = axis[a + 2];
+            final float c = (float) Math.cos(angle);
+            final float s = (float) Math.sin(angle);
+            final float k = 1.0f - c;
+            final float r00 = k * x * x + c, r01 = k * x * y - s * z, r02 = k * x * z + s * y;
+            final float r10 = k * x * y + s * z, r11 = k * y * y + c, r12 = k * y * z - s * x;
+            final float r20 = k * x * z - s * y, r21 = k * y * z + s * x, r22 = k * z * z + c;
+            for (int row = 0; row < 3; row++) {
+                final float s0 = start[m + row];
+                final float s1 = start[m + 4 + row];
+                final float s2 = start[m + 8 + row];
+                out[row] = s0 * r00 + s1 * r10 + s2 * r20;
+                out[4 + row] = s0 * r01 + s1 * r11 + s2 * r21;
+                out[8 + row] = s0 * r02 + s1 * r12 + s2 * r22;
+            }
+            out[3] = start[m + 3];
+            out[7] = start[m + 7];
+            out[11] = start[m + 11];
+        }
+        
+        // sinusoidal translation, integral of A * sin(B*t + C) per frame
+        final int p = SINUS * i;
+        for (int d = 0; d < 3; d++) {
+            final float amplitude = sinus[p + 3 * d] * ClosedFormMover.REFERENCE_FRAME_RATE;
+            final float frequency = sinus[p + 3 * d + 1];
+            final float phase = sinus[p + 3 * d + 2];
+            float offset;
+            if (amplitude == 0.0f) {
+                offset = 0.0f;
+            } else if (frequency == 0.0f) {
+                offset = amplitude * (float) Math.sin(phase) * t;
+            } else {
+                offset = amplitude / frequency * (float) (Math.cos(phase) - Math.cos(frequency * t + phase));
+            }
+            out[12 + d] = start[m + 12 + d] + offset;
+        }
+        out[15] = start[m + 15];
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity <= objects.length) {
+            return;
+        }
+        final int newCapacity = Math.max(capacity, objects.length * 2);
+        GameObject[] newObjects = new GameObject[newCapacity];
+        System.arraycopy(objects, 0, newObjects, 0, size);
+        objects = newObjects;
+        ClosedFormMover[] newMovers = new ClosedFormMover[newCapacity];
+        System.arraycopy(movers, 0, newMovers, 0, size);
+        movers = newMovers;
+        start = grow(start, 16 * newCapacity);
+        sinus = grow(sinus, SINUS * newCapacity);
+        axis = grow(axis, 3 * newCapacity);
+        speed = grow(speed, newCapacity);
+        time = grow(time, newCapacity);
+        boolean[] newActive = new boolean[newCapacity];
+        System.arraycopy(active, 0, newActive, 0, size);
+        active = newActive;
+    }
+    
+    private static float[] grow(float[] array, int length) {
+        float[] newArray = new float[length];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+}
@@ -13,14 +13,7 @@ import de.fau.cs.mad.fly.game.GameObject;
  * @author Tobi
  * 
  */
-public class SinusMover implements IGameObjectMover {
-    private GameObject gameObject;
-    private boolean active;
-    
-    private float i = 0.0f;
-    
-    private Vector3 startPosition;
-    private Vector3 moving = new Vector3();
+public class SinusMover extends ClosedFormMover {
     
     // vectors which store A, B and C for x, y and z direction.
     public Vector3 X = new Vector3();
@@ -28,27 +21,12 @@ public class SinusMover implements IGameObjectMover {
     public Vector3 Z = new Vector3();
     
     public SinusMover(GameObject gameObject) {
-        this.gameObject = gameObject;
-        this.active = true;
-        startPosition = new Vector3();
-        gameObject.transform.getTranslation(startPosition);
+        super(gameObject);
     }
     
     @Override
-    public void move(float delta) {
-    	if(!active) {
-    		return;
-    	}
-    	
-        // store A*sin(B*x+C) in level file for x,y,z
-        moving.x = X.x * (float) Math.sin(X.y * i + X.z);
-        moving.y = Y.x * (float) Math.sin(Y.y * i + Y.z);
-        moving.z = Z.x * (float) Math.sin(Z.y * i + Z.z);
-        
-        gameObject.transform.setTranslation(startPosition.add(moving));
-        gameObject.getRigidBody().setWorldTransform(gameObject.transform);
-        
-        i += delta;
+    protected void getSinus(float[] sinus, int offset) {
+        setSinus(sinus, offset, X, Y, Z);
     }
     
 	@Override
@@ -59,9 +37,4 @@ public class SinusMover implements IGameObjectMover {
 		mover.Z = this.Z;
 		return mover;
 	}
-
-	@Override
-	public void setActive(boolean active) {
-		this.active = active;
-	}
-}
\ No newline at end of file
+}
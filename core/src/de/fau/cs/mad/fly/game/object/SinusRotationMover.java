@@ -13,17 +13,7 @@ import de.fau.cs.mad.fly.game.GameObject;
  * @author Tobi
  * 
  */
-public class SinusRotationMover implements IGameObjectMover {
-    private GameObject gameObject;
-    private boolean active;
-    
-    private float i = 0.0f;
-    
-    private Vector3 rotation = new Vector3();
-    private float degrees = 0.0f;
-    
-    private Vector3 startPosition;
-    private Vector3 moving = new Vector3();
+public class SinusRotationMover extends ClosedFormMover {
     
     // vectors which store A, B and C for x, y and z direction.
     public Vector3 X = new Vector3();
@@ -31,53 +21,12 @@ public class SinusRotationMover implements IGameObjectMover {
     public Vector3 Z = new Vector3();
     
     public SinusRotationMover(GameObject gameObject) {
-        this.gameObject = gameObject;
-        this.active = true;
-        startPosition = new Vector3();
-        gameObject.transform.getTranslation(startPosition);
-    }
-    
-    /**
-     * Setter for the rotation.
-     * 
-     * @param rotation
-     *            The rotation vector. Becomes normalized.
-     * @param degrees
-     *            The degrees per frame.
-     */
-    public void setRotation(Vector3 rotation, float degrees) {
-        this.rotation = rotation.nor();
-        this.degrees = degrees;
-    }
-    
-    /**
-     * Setter for the rotation. The degrees per frame are calculated as length
-     * of the vector.
-     * 
-     * @param rotation
-     *            The rotation vector. Becomes normalized.
-     */
-    public void setRotation(Vector3 rotation) {
-        this.degrees = rotation.len();
-        this.rotation = rotation.nor();
+        super(gameObject);
     }
     
     @Override
-    public void move(float delta) {
-    	if(!active) {
-    		return;
-    	}
-    	
-        // store A*sin(B*x+C) in level file for x,y,z
-        moving.x = X.x * (float) Math.sin(X.y * i + X.z);
-        moving.y = Y.x * (float) Math.sin(Y.y * i + Y.z);
-        moving.z = Z.x * (float) Math.sin(Z.y * i + Z.z);
-        
-        gameObject.transform.rotate(rotation, degrees * delta * 10.0f);
-        gameObject.transform.setTranslation(startPosition.add(moving));
-        gameObject.getRigidBody().setWorldTransform(gameObject.transform);
-        
-        i += delta;
+    protected void getSinus(float[] sinus, int offset) {
+        setSinus(sinus, offset, X, Y, Z);
     }
     
 	@Override
@@ -89,10 +38,5 @@ public class SinusRotationMover implements IGameObjectMover {
 		mover.Z = this.Z;
 		return mover;
 	}
-
-	@Override
-	public void setActive(boolean active) {
-		this.active = active;
-	}
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package de.fau.cs.mad.fly.graphics;
+
+import java.util.Comparator;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.RenderableSorter;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import de.fau.cs.mad.fly.graphics.shaders.FlyBaseShader;
+
+/**
+ * Sorts the render queue of a model batch so that the renderables sharing
+ * OpenGL state are rendered one after another.
+ * <p>
+ * Opaque renderables come first, sorted by shader, by diffuse texture, by
+ * environment and at last by the distance to the camera, front to back. The
+ * blended renderables follow, sorted back to front by the distance first like
+ * in the DefaultRenderableSorter of libGDX, because overlapping blended
+ * renderables have to be drawn in this order. The state only decides between
+ * blended renderables at the same distance.
+ */
+public class FlyRenderableSorter implements RenderableSorter, Comparator<Renderable> {
+    
+    private Camera camera;
+    private final Vector3 tmpV1 = new Vector3();
+    private final Vector3 tmpV2 = new Vector3();
+    
+    @Override
+    public void sort(Camera camera, Array<Renderable> renderables) {
+        this.camera = camera;
+        renderables.sort(this);
+    }
+    
+    @Override
+    public int compare(Renderable o1, Renderable o2) {
+        final boolean b1 = isBlended(o1);
+        final boolean b2 = isBlended(o2);
+        if (b1 != b2) {
+            return b1 ? 1 : -1;
+        }
+        if (b1) {
+            final int result = compareDistances(o1, o2);
+            return result != 0 ? -result : compareStates(o1, o2);
+        }
+        final int result = compareStates(o1, o2);
+        return result != 0 ? result : compareDistances(o1, o2);
+    }
+    
+    /**
+     * Compares the shaders, the diffuse textures and the environments of two
+     * renderables.
+     */
+    private static int compareStates(Renderable o1, Renderable o2) {
+        int result = compareShaders(o1.shader, o2.shader);
+        if (result != 0) {
+            return result;
+        }
+        result = compareInts(getTextureHandle(o1), getTextureHandle(o2));
+        if (result != 0) {
+            return result;
+        }
+        if (o1.environment != o2.environment) {
+            return compareInts(System.identityHashCode(o1.environment), System.identityHashCode(o2.environment));
+        }
+        return 0;
+    }
+    
+    /**
+     * Compares the distances of two renderables to the camera, the nearer one
+     * comes first.
+     */
+    private int compareDistances(Renderable o1, Renderable o2) {
+        o1.worldTransform.getTranslation(tmpV1);
+        o2.worldTransform.getTranslation(tmpV2);
+        final float dst1 = camera.position.dst2(tmpV1);
+        final float dst2 = camera.position.dst2(tmpV2);
+        return dst1 < dst2 ? -1 : (dst1 > dst2 ? 1 : 0);
+    }
+    
+    private static boolean isBlended(Renderable renderable) {
+        final BlendingAttribute blending = (BlendingAttribute) renderable.material.get(BlendingAttribute.Type);
+        return blending != null && blending.blended;
+    }
+    
+    /**
+     * Orders the shaders of the game by {@link FlyBaseShader#compareTo(Shader)}
+     * and puts all other shaders after them, ordered by their identity.
+     */
+    private static int compareShaders(Shader s1, Shader s2) {
+        if (s1 == s2) {
+            return 0;
+        }
+        final boolean fly1 = s1 instanceof FlyBaseShader;
+        final boolean fly2 = s2 instanceof FlyBaseShader;
+        if (fly1 && fly2) {
+            return s1.compareTo(s2);
+        }
+        if (fly1 != fly2) {
+            return fly1 ? -1 : 1;
+        }
+        return compareInts(System.identityHashCode(s1), System.identityHashCode(s2));
+    }
+    
+    /**
+     * Getter for the OpenGL handle of the diffuse texture.
+     * 
+     * @return the handle, 0 if the renderable has no diffuse texture
+     */
+    private static int getTextureHandle(Renderable renderable) {
+        final TextureAttribute texture = (TextureAttribute) renderable.material.get(TextureAttribute.Diffuse);
+        if (texture == null || texture.textureDescription.texture == null) {
+            return 0;
+        }
+        return texture.textureDescription.texture.getTextureObjectHandle();
+    }
+    
+    private static int compareInts(int i1, int i2) {
+        return i1 < i2 ? -1 : (i1 == i2 ? 0 : 1);
+    }
+}
@@ -0,0 +1,282 @@
+package de.fau.cs.mad.fly.graphics;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.profiling.GL20Profiler;
+
+/**
+ * Wraps the OpenGL interface and counts the state changes of a frame: program
+ * binds, texture binds, uniform uploads and draw calls.
+ * <p>
+ * Unlike the counters of {@link GL20Profiler}, unbinding a program does not
+ * count as a bind and the counters belong to the instance, so they can be
+ * read and reset once per frame.
+ * <p>
+ * Shaders that skip the upload of unchanged uniforms report the avoided
+ * uploads with {@link #addAvoidedUniformUploads(int)}.
+ */
+public class GLStateCounter extends GL20Profiler {
+    
+    private int programBinds;
+    private int textureBinds;
+    private int uniformUploads;
+    private int drawCalls;
+    private int avoidedUniformUploads;
+    
+    /**
+     * Creates a counter for an OpenGL interface.
+     * 
+     * @param gl20
+     *            The OpenGL interface that is called.
+     */
+    public GLStateCounter(GL20 gl20) {
+        super(gl20);
+    }
+    
+    /**
+     * Replaces the OpenGL interface of {@link Gdx} by a counter, if it is not
+     * already replaced.
+     * 
+     * @return the installed counter
+     */
+    public static GLStateCounter install() {
+        if (Gdx.gl20 instanceof GLStateCounter) {
+            return (GLStateCounter) Gdx.gl20;
+        }
+        final GLStateCounter counter = new GLStateCounter(Gdx.gl20);
+        Gdx.gl20 = counter;
+        Gdx.gl = counter;
+        return counter;
+    }
+    
+    /**
+     * Restores the OpenGL interface of {@link Gdx} that was replaced by
+     * {@link #install()}, so the calls are not counted anymore. Does nothing
+     * if no counter is installed.
+     */
+    public static void uninstall() {
+        if (Gdx.gl20 instanceof GLStateCounter) {
+            final GL20 gl20 = ((GLStateCounter) Gdx.gl20).gl20;
+            Gdx.gl20 = gl20;
+            Gdx.gl = gl20;
+        }
+    }
+    
+    /**
+     * Resets the counters at the start of a frame.
+     */
+    public void startFrame() {
+        programBinds = 0;
+        textureBinds = 0;
+        uniformUploads = 0;
+        drawCalls = 0;
+        avoidedUniformUploads = 0;
+    }
+    
+    /**
+     * Getter for the number of bound programs since {@link #startFrame()}.
+     * 
+     * @return program binds
+     */
+    public int getProgramBinds() {
+        return programBinds;
+    }
+    
+    /**
+     * Getter for the number of bound textures since {@link #startFrame()}.
+     * 
+     * @return texture binds
+     */
+    public int getTextureBinds() {
+        return textureBinds;
+    }
+    
+    /**
+     * Getter for the number of uploaded uniforms since {@link #startFrame()}.
+     * 
+     * @return uniform uploads
+     */
+    public int getUniformUploads() {
+        return uniformUploads;
+    }
+    
+    /**
+     * Getter for the number of draw calls since {@link #startFrame()}.
+     * 
+     * @return draw calls
+     */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+    
+    /**
+     * Adds uniform uploads that were skipped because the value did not
+     * change.
+     * 
+     * @param count
+     *            The number of avoided uploads.
+     */
+    public void addAvoidedUniformUploads(int count) {
+        avoidedUniformUploads += count;
+    }
+    
+    /**
+     * Getter for the number of avoided uniform uploads since
+     * {@link #startFrame()}.
+     * 
+     * @return avoided uniform uploads
+     */
+    public int getAvoidedUniformUploads() {
+        return avoidedUniformUploads;
+    }
+    
+    @Override
+    public void glUseProgram(int program) {
+        if (program != 0) {
+            programBinds++;
+        }
+        super.glUseProgram(program);
+    }
+    
+    @Override
+    public void glBindTexture(int target, int texture) {
+        textureBinds++;
+        super.glBindTexture(target, texture);
+    }
+    
+    @Override
+    public void glDrawArrays(int mode, int first, int count) {
+        drawCalls++;
+        super.glDrawArrays(mode, first, count);
+    }
+    
+    @Override
+    public void glDrawElements(int mode, int count, int type, Buffer indices) {
+        drawCalls++;
+        super.glDrawElements(mode, count, type, indices);
+    }
+    
+    @Override
+    public void glDrawElements(int mode, int count, int type, int indices) {
+        drawCalls++;
+        super.glDrawElements(mode, count, type, indices);
+    }
+    
+    @Override
+    public void glUniform1f(int location, float x) {
+        uniformUploads++;
+        super.glUniform1f(location, x);
+    }
+    
+    @Override
+    public void glUniform1fv(int location, int count, FloatBuffer v) {
+        uniformUploads++;
+        super.glUniform1fv(location, count, v);
+    }
+    
+    @Override
+    public void glUniform1i(int location, int x) {
+        uniformUploads++;
+        super.glUniform1i(location, x);
+    }
+    
+    @Override
+    public void glUniform1iv(int location, int count, IntBuffer v) {
+        uniformUploads++;
+        super.glUniform1iv(location, count, v);
+    }
+    
+    @Override
+    public void glUniform2f(int location, float x, float y) {
+        uniformUploads++;
+        super.glUniform2f(location, x, y);
+    }
+    
+    @Override
+    public void glUniform2fv(int location, int count, FloatBuffer v) {
+        uniformUploads++;
+        super.glUniform2fv(location, count, v);
+    }
+    
+    @Override
+    public void glUniform2i(int location, int x, int y) {
+        uniformUploads++;
+        super.glUniform2i(location, x, y);
+    }
+    
+    @Override
+    public void glUniform2iv(int location, int count, IntBuffer v) {
+        uniformUploads++;
+        super.glUniform2iv(location, count, v);
+    }
+    
+    @Override
+    public void glUniform3f(int location, float x, float y, float z) {
+        uniformUploads++;
+        super.glUniform3f(location, x, y, z);
+    }
+    
+    @Override
+    public void glUniform3fv(int location, int count, FloatBuffer v) {
+        uniformUploads++;
+        super.glUniform3fv(location, count, v);
+    }
+    
+    @Override
+    public void glUniform3i(int location, int x, int y, int z) {
+        uniformUploads++;
+        super.glUniform3i(location, x, y, z);
+    }
+    
+    @Override
+    public void glUniform3iv(int location, int count, IntBuffer v) {
+        uniformUploads++;
+        super.glUniform3iv(location, count, v);
+    }
+    
+    @Override
+    public void glUniform4f(int location, float x, float y, float z, float w) {
+        uniformUploads++;
+        super.glUniform4f(location, x, y, z, w);
+    }
+    
+    @Override
+    public void glUniform4fv(int location, int count, FloatBuffer v) {
+        uniformUploads++;
+        super.glUniform4fv(location, count, v);
+    }
+    
+    @Override
+    public void glUniform4i(int location, int x, int y, int z, int w) {
+        uniformUploads++;
+        super.glUniform4i(location, x, y, z, w);
+    }
+    
+    @Override
+    public void glUniform4iv(int location, int count, IntBuffer v) {
+        uniformUploads++;
+        super.glUniform4iv(location, count, v);
+    }
+    
+    @Override
+    public void glUniformMatrix2fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniformUploads++;
+        super.glUniformMatrix2fv(location, count, transpose, value);
+    }
+    
+    @Override
+    public void glUniformMatrix3fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniformUploads++;
+        super.glUniformMatrix3fv(location, count, transpose, value);
+    }
+    
+    @Override
+    public void glUniformMatrix4fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniformUploads++;
+        super.glUniformMatrix4fv(location, count, transpose, value);
+    }
+}
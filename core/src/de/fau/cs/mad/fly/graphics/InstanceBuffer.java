@@ -0,0 +1,131 @@
+package de.fau.cs.mad.fly.graphics;
+
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * Transforms of the instances of one instanced draw call, packed for the
+ * uniform array <code>u_instances</code> of the instanced vertex shader.
+ * <p>
+ * Every instance takes three vec4s, the first three rows of its affine world
+ * transform. The shader transforms the normals with the same rows, so the
+ * transforms may rotate and scale uniformly, but not scale non-uniformly.
+ */
+public class InstanceBuffer {
+    
+    /**
+     * Maximum number of instances of one draw call. OpenGL ES 2.0 only
+     * guarantees 128 vec4 uniforms in a vertex shader, the instances use 72 of
+     * them.
+     */
+    public static final int MAX_INSTANCES = 24;
+    
+    /** Number of floats of one instance. */
+    public static final int FLOATS_PER_INSTANCE = 12;
+    
+    private final float[] data;
+    private final int maxInstances;
+    private int size = 0;
+    
+    /**
+     * Creates a buffer for {@link #MAX_INSTANCES} instances.
+     */
+    public InstanceBuffer() {
+        this(MAX_INSTANCES);
+    }
+    
+    /**
+     * Creates a buffer.
+     * 
+     * @param maxInstances
+     *            The number of instances, at most {@link #MAX_INSTANCES}.
+     */
+    public InstanceBuffer(int maxInstances) {
+        if (maxInstances <= 0 || maxInstances > MAX_INSTANCES) {
+            throw new IllegalArgumentException("maxInstances has to be between 1 and " + MAX_INSTANCES + ".");
+        }
+        this.maxInstances = maxInstances;
+        this.data = new float[maxInstances * FLOATS_PER_INSTANCE];
+    }
+    
+    /**
+     * Adds the transform of an instance.
+     * 
+     * @param transform
+     *            The world transform, it is copied.
+     * @return false, if the buffer is full, nothing is added then
+     */
+    public boolean add(Matrix4 transform) {
+        if (size == maxInstances) {
+            return false;
+        }
+        final float[] val = transform.val;
+        final int offset = size * FLOATS_PER_INSTANCE;
+        data[offset] = val[Matrix4.M00];
+        data[offset + 1] = val[Matrix4.M01];
+        data[offset + 2] = val[Matrix4.M02];
+        data[offset + 3] = val[Matrix4.M03];
+        data[offset + 4] = val[Matrix4.M10];
+        data[offset + 5] = val[Matrix4.M11];
+        data[offset + 6] = val[Matrix4.M12];
+        data[offset + 7] = val[Matrix4.M13];
+        data[offset + 8] = val[Matrix4.M20];
+        data[offset + 9] = val[Matrix4.M21];
+        data[offset + 10] = val[Matrix4.M22];
+        data[offset + 11] = val[Matrix4.M23];
+        size++;
+        return true;
+    }
+    
+    /**
+     * Removes all instances.
+     */
+    public void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Checks if another instance can be added.
+     * 
+     * @return true, if the buffer is full
+     */
+    public boolean isFull() {
+        return size == maxInstances;
+    }
+    
+    /**
+     * Getter for the packed transforms.
+     * 
+     * @return the transforms, only the first {@link #getFloats()} floats are
+     *         used
+     */
+    public float[] getData() {
+        return data;
+    }
+    
+    /**
+     * Getter for the number of used floats.
+     * 
+     * @return {@link #size()} times {@link #FLOATS_PER_INSTANCE}
+     */
+    public int getFloats() {
+        return size * FLOATS_PER_INSTANCE;
+    }
+    
+    /**
+     * Getter for the number of instances.
+     * 
+     * @return the number of added instances
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Getter for the capacity.
+     * 
+     * @return the maximum number of instances
+     */
+    public int getMaxInstances() {
+        return maxInstances;
+    }
+}
@@ -0,0 +1,271 @@
+package de.fau.cs.mad.fly.graphics;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+
+import de.fau.cs.mad.fly.game.MeshMerger;
+
+/**
+ * Renders many instances of a model with one draw call per mesh part and
+ * {@link InstanceBuffer}.
+ * <p>
+ * OpenGL ES 2.0 has no instanced draw calls, so every mesh part is copied
+ * {@link #getInstancesPerDraw()} times into one mesh with the additional
+ * vertex attribute {@link #INSTANCE_ATTRIBUTE}, the index of the copy. The
+ * instanced vertex shader reads the transform of the copy from the uniform
+ * array of the instance buffer. A draw call renders as many copies as the
+ * instance buffer has transforms.
+ * <p>
+ * The transforms are added in every frame between {@link #begin()} and
+ * rendering the instanced model with the model batch, they must not be
+ * changed until the model batch is flushed.
+ */
+public class InstancedModel implements RenderableProvider, Disposable {
+    
+    /** Name of the vertex attribute with the index of the instance. */
+    public static final String INSTANCE_ATTRIBUTE = "a_instance";
+    
+    /** Copied mesh part with the material. */
+    private static class Part {
+        private final Mesh mesh;
+        private final Material material;
+        private final int indicesPerInstance;
+        
+        private Part(Mesh mesh, Material material, int indicesPerInstance) {
+            this.mesh = mesh;
+            this.material = material;
+            this.indicesPerInstance = indicesPerInstance;
+        }
+    }
+    
+    private final Array<Part> parts = new Array<Part>();
+    private final int instancesPerDraw;
+    
+    /** Instance buffers of the current frame, {@link #usedBuffers} are used. */
+    private final Array<InstanceBuffer> buffers = new Array<InstanceBuffer>();
+    private int usedBuffers = 0;
+    private int size = 0;
+    
+    /**
+     * Creates the copied meshes of a model. Creates meshes, so it has to be
+     * called on the render thread.
+     * 
+     * @param model
+     *            The model, see {@link MeshMerger#canMerge(Model)}.
+     */
+    public InstancedModel(Model model) {
+        if (!MeshMerger.canMerge(model)) {
+            throw new IllegalArgumentException("model cannot be instanced.");
+        }
+        final Array<MeshMerger> mergers = new Array<MeshMerger>();
+        final Array<Material> materials = new Array<Material>();
+        collectParts(model.nodes, mergers, materials);
+        
+        int instances = InstanceBuffer.MAX_INSTANCES;
+        for (int i = 0; i < mergers.size; i++) {
+            instances = Math.min(instances, MeshMerger.MAX_VERTICES / Math.max(1, mergers.get(i).getNumVertices()));
+        }
+        if (instances < 1) {
+            throw new IllegalArgumentException("model has too many vertices to be instanced.");
+        }
+        instancesPerDraw = instances;
+        
+        for (int i = 0; i < mergers.size; i++) {
+            final MeshMerger merger = mergers.get(i);
+            final VertexAttributes attributes = merger.getAttributes();
+            final int vertexSize = attributes.vertexSize / 4;
+            final Mesh mesh = new Mesh(true, merger.getNumVertices() * instancesPerDraw, merger.getNumIndices() * instancesPerDraw, withInstanceAttribute(attributes));
+            final float[] vertices = replicateVertices(merger.getVertices(), merger.getNumVertices(), vertexSize, instancesPerDraw);
+            final short[] indices = replicateIndices(merger.getIndices(), merger.getNumIndices(), merger.getNumVertices(), instancesPerDraw);
+            mesh.setVertices(vertices);
+            mesh.setIndices(indices);
+            parts.add(new Part(mesh, materials.get(i), merger.getNumIndices()));
+        }
+    }
+    
+    /**
+     * Collects the mesh parts of the nodes with their node transforms, one
+     * merger per node part.
+     */
+    private static void collectParts(Array<Node> nodes, Array<MeshMerger> mergers, Array<Material> materials) {
+        for (int i = 0; i < nodes.size; i++) {
+            final Node node = nodes.get(i);
+            for (int j = 0; j < node.parts.size; j++) {
+                final NodePart part = node.parts.get(j);
+                final MeshPart meshPart = part.meshPart;
+                final Mesh mesh = meshPart.mesh;
+                final float[] vertices = mesh.getVertices(new float[mesh.getNumVertices() * mesh.getVertexSize() / 4]);
+                short[] indices = null;
+                if (mesh.getNumIndices() > 0) {
+                    indices = new short[mesh.getNumIndices()];
+                    mesh.getIndices(indices);
+                }
+                final MeshMerger merger = new MeshMerger(mesh.getVertexAttributes());
+                merger.append(vertices, indices, meshPart.indexOffset, meshPart.numVertices, node.globalTransform);
+                mergers.add(merger);
+                materials.add(part.material);
+            }
+            collectParts(node.children, mergers, materials);
+        }
+    }
+    
+    /**
+     * Creates vertex attributes with {@link #INSTANCE_ATTRIBUTE} after the
+     * attributes of the model.
+     */
+    private static VertexAttributes withInstanceAttribute(VertexAttributes attributes) {
+        final VertexAttribute[] copy = new VertexAttribute[attributes.size() + 1];
+        for (int i = 0; i < attributes.size(); i++) {
+            final VertexAttribute attribute = attributes.get(i);
+            copy[i] = new VertexAttribute(attribute.usage, attribute.numComponents, attribute.alias, attribute.unit);
+        }
+        copy[attributes.size()] = new VertexAttribute(Usage.Generic, 1, INSTANCE_ATTRIBUTE);
+        return new VertexAttributes(copy);
+    }
+    
+    /**
+     * Copies vertices several times and appends the index of the copy to
+     * every vertex.
+     * 
+     * @param vertices
+     *            The vertices.
+     * @param numVertices
+     *            The number of vertices.
+     * @param vertexSize
+     *            The size of a vertex in floats.
+     * @param copies
+     *            The number of copies.
+     * @return the copied vertices, a vertex has vertexSize + 1 floats
+     */
+    public static float[] replicateVertices(float[] vertices, int numVertices, int vertexSize, int copies) {
+        final float[] result = new float[numVertices * (vertexSize + 1) * copies];
+        int offset = 0;
+        for (int copy = 0; copy < copies; copy++) {
+            for (int v = 0; v < numVertices; v++) {
+                System.arraycopy(vertices, v * vertexSize, result, offset, vertexSize);
+                offset += vertexSize;
+                result[offset++] = copy;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Copies indices several times, the indices of every copy refer to the
+     * vertices of the copy, see
+     * {@link #replicateVertices(float[], int, int, int)}.
+     * 
+     * @param indices
+     *            The indices.
+     * @param numIndices
+     *            The number of indices.
+     * @param numVertices
+     *            The number of vertices of one copy.
+     * @param copies
+     *            The number of copies.
+     * @return the copied indices
+     */
+    public static short[] replicateIndices(short[] indices, int numIndices, int numVertices, int copies) {
+        if (numVertices * copies > MeshMerger.MAX_VERTICES) {
+            throw new IllegalArgumentException("The copies have more than " + MeshMerger.MAX_VERTICES + " vertices.");
+        }
+        final short[] result = new short[numIndices * copies];
+        int offset = 0;
+        for (int copy = 0; copy < copies; copy++) {
+            final int base = copy * numVertices;
+            for (int i = 0; i < numIndices; i++) {
+                result[offset++] = (short) (base + (indices[i] & 0xFFFF));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Removes the instances of the last frame.
+     */
+    public void begin() {
+        for (int i = 0; i < usedBuffers; i++) {
+            buffers.get(i).clear();
+        }
+        usedBuffers = 0;
+        size = 0;
+    }
+    
+    /**
+     * Adds an instance.
+     * 
+     * @param transform
+     *            The world transform of the instance, it is copied.
+     */
+    public void add(Matrix4 transform) {
+        if (usedBuffers == 0 || buffers.get(usedBuffers - 1).isFull()) {
+            if (usedBuffers == buffers.size) {
+                buffers.add(new InstanceBuffer(instancesPerDraw));
+            }
+            usedBuffers++;
+        }
+        buffers.get(usedBuffers - 1).add(transform);
+        size++;
+    }
+    
+    /**
+     * Getter for the number of instances of the current frame.
+     * 
+     * @return the number of added instances
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Getter for the number of instances of one draw call.
+     * 
+     * @return the number of copies of the mesh parts
+     */
+    public int getInstancesPerDraw() {
+        return instancesPerDraw;
+    }
+    
+    @Override
+    public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
+        for (int i = 0; i < usedBuffers; i++) {
+            final InstanceBuffer buffer = buffers.get(i);
+            for (int j = 0; j < parts.size; j++) {
+                final Part part = parts.get(j);
+                final Renderable renderable = pool.obtain();
+                renderable.worldTransform.idt();
+                renderable.mesh = part.mesh;
+                renderable.meshPartOffset = 0;
+                renderable.meshPartSize = part.indicesPerInstance * buffer.size();
+                renderable.primitiveType = GL20.GL_TRIANGLES;
+                renderable.material = part.material;
+                renderable.bones = null;
+                renderable.shader = null;
+                renderable.userData = buffer;
+                renderables.add(renderable);
+            }
+        }
+    }
+    
+    @Override
+    public void dispose() {
+        for (int i = 0; i < parts.size; i++) {
+            parts.get(i).mesh.dispose();
+        }
+        parts.clear();
+    }
+}
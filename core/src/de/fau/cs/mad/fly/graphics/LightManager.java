@@ -0,0 +1,193 @@
+package de.fau.cs.mad.fly.graphics;
+
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.environment.PointLight;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Selects the most relevant point lights of an environment for the game
+ * objects, so that the shaders only have to light every fragment with a fixed
+ * number of point lights.
+ * <p>
+ * The world is divided into cubic cells. Every cell gets its own environment
+ * with the ambient light and the directional lights of the lighting
+ * environment and the {@link #getMaxPointLights()} point lights with the
+ * highest intensity divided by the squared distance to the center of the
+ * cell. All cell environments have the same number of lights, so one shader
+ * variant renders all of them.
+ * <p>
+ * The cell environment of a game object is cached and only selected again
+ * when the game object moves to another cell.
+ */
+public class LightManager {
+    
+    /** Default number of point lights of a game object. */
+    public static final int DEFAULT_MAX_POINT_LIGHTS = 4;
+    
+    /** Default edge length of a cell, in world units. */
+    public static final float DEFAULT_CELL_SIZE = 50.0f;
+    
+    /**
+     * Environment of a cell.
+     */
+    private static class CellEnvironment extends Environment {
+        private final LightManager manager;
+        private final long cell;
+        
+        private CellEnvironment(LightManager manager, long cell) {
+            this.manager = manager;
+            this.cell = cell;
+        }
+    }
+    
+    private final Environment environment;
+    private final int maxPointLights;
+    private final float cellSize;
+    private final LongMap<CellEnvironment> cells = new LongMap<CellEnvironment>();
+    
+    /** Relevance of the selected lights, used while a cell is created. */
+    private final float[] relevance;
+    private final PointLight[] selected;
+    private final Vector3 center = new Vector3();
+    
+    /**
+     * Creates a light manager for a lighting environment.
+     * 
+     * @param environment
+     *            The lighting environment with all point lights.
+     * @param maxPointLights
+     *            The number of point lights of every game object.
+     * @param cellSize
+     *            The edge length of a cell.
+     */
+    public LightManager(Environment environment, int maxPointLights, float cellSize) {
+        if (maxPointLights < 1) {
+            throw new IllegalArgumentException("maxPointLights has to be at least 1.");
+        }
+        if (cellSize <= 0.0f) {
+            throw new IllegalArgumentException("cellSize has to be positive.");
+        }
+        this.environment = environment;
+        this.maxPointLights = maxPointLights;
+        this.cellSize = cellSize;
+        this.relevance = new float[maxPointLights];
+        this.selected = new PointLight[maxPointLights];
+    }
+    
+    /**
+     * Checks if an environment has more point lights than a game object
+     * should be lit by.
+     * 
+     * @param environment
+     *            The lighting environment.
+     * @param maxPointLights
+     *            The number of point lights of every game object.
+     * @return true, if a light manager is needed for the environment
+     */
+    public static boolean isNeeded(Environment environment, int maxPointLights) {
+        return environment != null && environment.pointLights.size > maxPointLights;
+    }
+    
+    /**
+     * Getter for the number of point lights of every game object.
+     * 
+     * @return the maximal number of point lights
+     */
+    public int getMaxPointLights() {
+        return maxPointLights;
+    }
+    
+    /**
+     * Getter for the number of created cell environments.
+     * 
+     * @return the number of cells
+     */
+    public int getCells() {
+        return cells.size;
+    }
+    
+    /**
+     * Selects the environment of a game object.
+     * 
+     * @param environment
+     *            The environment the game object is rendered with.
+     * @param position
+     *            The position of the game object.
+     * @param cached
+     *            The environment selected for the game object in the last
+     *            frame, may be null.
+     * @return the environment of the cell of the position if the environment
+     *         is the lighting environment of the manager, the environment
+     *         itself otherwise
+     */
+    public Environment select(Environment environment, Vector3 position, Environment cached) {
+        if (environment != this.environment) {
+            return environment;
+        }
+        final long cell = getCell(position);
+        if (cached instanceof CellEnvironment) {
+            final CellEnvironment cachedCell = (CellEnvironment) cached;
+            if (cachedCell.manager == this && cachedCell.cell == cell) {
+                return cachedCell;
+            }
+        }
+        CellEnvironment cellEnvironment = cells.get(cell);
+        if (cellEnvironment == null) {
+            cellEnvironment = createCell(cell, position);
+            cells.put(cell, cellEnvironment);
+        }
+        return cellEnvironment;
+    }
+    
+    /**
+     * Removes all cell environments, for example after lights are moved.
+     */
+    public void invalidate() {
+        cells.clear();
+    }
+    
+    /**
+     * Computes the key of the cell of a position, 21 bits per axis.
+     */
+    private long getCell(Vector3 position) {
+        final long x = (long) Math.floor(position.x / cellSize) & 0x1FFFFF;
+        final long y = (long) Math.floor(position.y / cellSize) & 0x1FFFFF;
+        final long z = (long) Math.floor(position.z / cellSize) & 0x1FFFFF;
+        return (x << 42) | (y << 21) | z;
+    }
+    
+    private CellEnvironment createCell(long cell, Vector3 position) {
+        center.set((float) Math.floor(position.x / cellSize) + 0.5f, (float) Math.floor(position.y / cellSize) + 0.5f, (float) Math.floor(position.z / cellSize) + 0.5f).scl(cellSize);
+        
+        final CellEnvironment cellEnvironment = new CellEnvironment(this, cell);
+        cellEnvironment.set(environment);
+        for (int i = 0; i < environment.directionalLights.size; i++) {
+            cellEnvironment.add(environment.directionalLights.get(i));
+        }
+        
+        // keep the most relevant lights sorted by relevance
+        int count = 0;
+        for (int i = 0; i < environment.pointLights.size; i++) {
+            final PointLight light = environment.pointLights.get(i);
+            final float value = light.intensity / (1.0f + center.dst2(light.position));
+            int index = count < maxPointLights ? count++ : maxPointLights;
+            while (index > 0 && relevance[index - 1] < value) {
+                if (index < maxPointLights) {
+                    relevance[index] = relevance[index - 1];
+                    selected[index] = selected[index - 1];
+                }
+                index--;
+            }
+            if (index < maxPointLights) {
+                relevance[index] = value;
+                selected[index] = light;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            cellEnvironment.add(selected[i]);
+            selected[i] = null;
+        }
+        return cellEnvironment;
+    }
+}
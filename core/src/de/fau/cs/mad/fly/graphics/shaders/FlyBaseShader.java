@@ -13,8 +13,12 @@ import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Matrix3;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
+import de.fau.cs.mad.fly.graphics.GLStateCounter;
+import de.fau.cs.mad.fly.graphics.LightManager;
+
 /**
  * Created by tschaei on 13.08.14.
  */
@@ -30,6 +34,30 @@ public abstract class FlyBaseShader implements Shader {
     protected Camera camera;
     private RenderContext context;
     
+    /**
+     * Uploaded uniform values of the program, see {@link #setUniform(int, float)}.
+     */
+    protected final UniformCache uniforms = new UniformCache();
+    
+    /**
+     * Environment and world transform of the last renderable since
+     * {@link #begin(Camera, RenderContext)}.
+     */
+    private Environment lastEnvironment;
+    private final Matrix4 lastWorldTransform = new Matrix4();
+    private boolean worldTransformValid = false;
+    
+    /**
+     * Number of created shaders, used to give every shader an id.
+     */
+    private static int createdShaders = 0;
+    
+    /**
+     * Id of the shader that gives the shaders a fixed order in the render
+     * queue, see {@link #compareTo(Shader)}.
+     */
+    private final int id = createdShaders++;
+    
     public FlyBaseShader() {
         
     }
@@ -41,8 +69,22 @@ public abstract class FlyBaseShader implements Shader {
     }
     
     protected void createShaderProgram(String vertexShader, String fragmentShader) {
+        createShaderProgram(vertexShader, fragmentShader, "");
+    }
+    
+    /**
+     * Compiles the shader program with additional defines.
+     * 
+     * @param vertexShader
+     *            Internal path of the vertex shader.
+     * @param fragmentShader
+     *            Internal path of the fragment shader.
+     * @param defines
+     *            Defines that are prepended to both shaders.
+     */
+    protected void createShaderProgram(String vertexShader, String fragmentShader, String defines) {
         // Prepare and compile the ShaderProgram
-        String prefix = "";
+        String prefix = defines;
         if (numDirLights > 0)
             prefix += "#define numDirLights " + this.numDirLights + "\n";
         if (numPointLights > 0)
@@ -89,6 +131,12 @@ public abstract class FlyBaseShader implements Shader {
         program.begin();
         this.context.setDepthTest(GL20.GL_DEPTH_TEST);
         this.context.setCullFace(GL20.GL_BACK);
+        
+        // the program may have been compiled again since the last begin
+        uniforms.invalidate();
+        lastEnvironment = null;
+        worldTransformValid = false;
+        setUpCameraUniforms();
     }
     
     @Override
@@ -96,41 +144,201 @@ public abstract class FlyBaseShader implements Shader {
         return false;
     }
     
+    /**
+     * Checks if the shader can render an environment, which needs the same
+     * attributes and the same number of lights as the environment of the
+     * shader.
+     * 
+     * @param other
+     *            The environment of a renderable.
+     * @return true, if the shader can render the environment
+     */
+    protected boolean canRenderEnvironment(Environment other) {
+        return other.equals(environment) && other.directionalLights.size == numDirLights && other.pointLights.size == numPointLights;
+    }
+    
+    /**
+     * Orders the shaders by their creation, so that the render queue renders
+     * all renderables of a shader one after another.
+     */
+    @Override
+    public int compareTo(Shader other) {
+        if (!(other instanceof FlyBaseShader)) {
+            return 0;
+        }
+        final int otherId = ((FlyBaseShader) other).id;
+        return id < otherId ? -1 : (id == otherId ? 0 : 1);
+    }
+    
+    /**
+     * Uploads the uniforms of the renderable that changed since the last
+     * renderable: the transform matrices, the material and the ambient color
+     * of the environment.
+     */
     protected void setUpBaseUniforms(Renderable renderable) {
-        // Calculate the normal matrix
-        normalMatrix.set(renderable.worldTransform).inv().transpose();
+        // Calculate the matrices only if the transform changed
+        if (!worldTransformValid || !sameValues(lastWorldTransform.val, renderable.worldTransform.val)) {
+            lastWorldTransform.set(renderable.worldTransform);
+            worldTransformValid = true;
+            if (u_normalMatrix >= 0) {
+                normalMatrix.set(renderable.worldTransform).inv().transpose();
+            }
+            if (u_modelViewMatrix >= 0) {
+                modelViewMatrix.set(camera.view).mul(renderable.worldTransform);
+            }
+            if (u_modelViewProjectionMatrix >= 0) {
+                modelViewProjectionMatrix.set(camera.combined).mul(renderable.worldTransform);
+            }
+        }
         
         // Pass the uniform values
-        program.setUniformMatrix(u_normalMatrix, normalMatrix);
-        program.setUniformMatrix(u_modelMatrix, renderable.worldTransform);
-        program.setUniformMatrix(u_modelViewMatrix, modelViewMatrix.set(camera.view).mul(renderable.worldTransform));
-        program.setUniformMatrix(u_modelViewProjectionMatrix, modelViewProjectionMatrix.set(camera.combined).mul(renderable.worldTransform));
+        setUniform(u_normalMatrix, normalMatrix);
+        setUniform(u_modelMatrix, renderable.worldTransform);
+        setUniform(u_modelViewMatrix, modelViewMatrix);
+        setUniform(u_modelViewProjectionMatrix, modelViewProjectionMatrix);
         if (renderable.material.has(FloatAttribute.Shininess)) {
-            program.setUniformf(u_shininess, ((FloatAttribute) renderable.material.get(FloatAttribute.Shininess)).value);
-            program.setUniformf(u_specularColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Specular)).color);
+            setUniform(u_shininess, ((FloatAttribute) renderable.material.get(FloatAttribute.Shininess)).value);
+            setUniform(u_specularColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Specular)).color);
         } else {
-            program.setUniformf(u_shininess, 0.0f);
-            program.setUniformf(u_specularColor, Color.BLACK);
+            setUniform(u_shininess, 0.0f);
+            setUniform(u_specularColor, Color.BLACK);
+        }
+        if (renderable.environment != lastEnvironment) {
+            lastEnvironment = renderable.environment;
+            setUpEnvironmentUniforms(renderable.environment);
         }
-        if (renderable.environment.has(ColorAttribute.AmbientLight)) {
-            program.setUniformf(u_ambientColor, ((ColorAttribute) renderable.environment.get(ColorAttribute.AmbientLight)).color);
+    }
+    
+    /**
+     * Uploads the ambient color and the lights of an environment. Every
+     * environment the shader can render has the same number of lights, but
+     * the lights may differ, see {@link LightManager}.
+     */
+    private void setUpEnvironmentUniforms(Environment environment) {
+        if (environment.has(ColorAttribute.AmbientLight)) {
+            setUniform(u_ambientColor, ((ColorAttribute) environment.get(ColorAttribute.AmbientLight)).color);
         } else {
-            program.setUniformf(u_ambientColor, Color.BLACK);
+            setUniform(u_ambientColor, Color.BLACK);
         }
         for (int i = 0; i < this.numDirLights; i++) {
-            program.setUniformf(u_dirLights[i][0], this.environment.directionalLights.get(i).direction);
-            program.setUniformf(u_dirLights[i][1], this.environment.directionalLights.get(i).color);
+            setUniform(u_dirLights[i][0], environment.directionalLights.get(i).direction);
+            setUniform(u_dirLights[i][1], environment.directionalLights.get(i).color);
         }
         
         for (int i = 0; i < this.numPointLights; i++) {
-            program.setUniformf(u_pointLights[i][0], this.environment.pointLights.get(i).position);
-            program.setUniformf(u_pointLights[i][1], this.environment.pointLights.get(i).color);
+            setUniform(u_pointLights[i][0], environment.pointLights.get(i).position);
+            setUniform(u_pointLights[i][1], environment.pointLights.get(i).color);
+        }
+    }
+    
+    /**
+     * Uploads the uniforms that are the same for all renderables of the
+     * shader.
+     */
+    private void setUpCameraUniforms() {
+        setUniform(u_cameraPosition, camera.position);
+    }
+    
+    private static boolean sameValues(float[] a, float[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Uploads a float uniform if its value changed.
+     * 
+     * @param location
+     *            The uniform location, nothing is uploaded if it is negative.
+     * @param value
+     *            The value.
+     */
+    protected void setUniform(int location, float value) {
+        if (location >= 0 && uniforms.update(location, value)) {
+            program.setUniformf(location, value);
+        }
+    }
+    
+    /**
+     * Uploads an int uniform, for example a texture unit, if its value
+     * changed.
+     * 
+     * @param location
+     *            The uniform location, nothing is uploaded if it is negative.
+     * @param value
+     *            The value.
+     */
+    protected void setUniform(int location, int value) {
+        if (location >= 0 && uniforms.update(location, value)) {
+            program.setUniformi(location, value);
+        }
+    }
+    
+    /**
+     * Uploads a vec3 uniform if its value changed.
+     * 
+     * @param location
+     *            The uniform location, nothing is uploaded if it is negative.
+     * @param value
+     *            The value.
+     */
+    protected void setUniform(int location, Vector3 value) {
+        if (location >= 0 && uniforms.update(location, value)) {
+            program.setUniformf(location, value);
+        }
+    }
+    
+    /**
+     * Uploads a vec4 uniform if its value changed.
+     * 
+     * @param location
+     *            The uniform location, nothing is uploaded if it is negative.
+     * @param value
+     *            The value.
+     */
+    protected void setUniform(int location, Color value) {
+        if (location >= 0 && uniforms.update(location, value)) {
+            program.setUniformf(location, value);
+        }
+    }
+    
+    /**
+     * Uploads a mat3 uniform if its value changed.
+     * 
+     * @param location
+     *            The uniform location, nothing is uploaded if it is negative.
+     * @param value
+     *            The value.
+     */
+    protected void setUniform(int location, Matrix3 value) {
+        if (location >= 0 && uniforms.update(location, value)) {
+            program.setUniformMatrix(location, value);
+        }
+    }
+    
+    /**
+     * Uploads a mat4 uniform if its value changed.
+     * 
+     * @param location
+     *            The uniform location, nothing is uploaded if it is negative.
+     * @param value
+     *            The value.
+     */
+    protected void setUniform(int location, Matrix4 value) {
+        if (location >= 0 && uniforms.update(location, value)) {
+            program.setUniformMatrix(location, value);
         }
-        program.setUniformf(u_cameraPosition, camera.position);
     }
     
     @Override
     public void end() {
+        if (Gdx.gl20 instanceof GLStateCounter) {
+            ((GLStateCounter) Gdx.gl20).addAvoidedUniformUploads(uniforms.getAvoidedUploads());
+        }
+        uniforms.resetCounters();
         program.end();
     }
     
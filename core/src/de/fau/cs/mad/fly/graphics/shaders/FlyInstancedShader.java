@@ -0,0 +1,71 @@
+package de.fau.cs.mad.fly.graphics.shaders;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+
+import de.fau.cs.mad.fly.graphics.InstanceBuffer;
+import de.fau.cs.mad.fly.graphics.InstancedModel;
+
+/**
+ * Shader for the renderables of an {@link InstancedModel}, with or without a
+ * diffuse texture.
+ * <p>
+ * The world transform of the renderable is the identity, the vertex shader
+ * transforms every vertex with the transform of its instance from the
+ * {@link InstanceBuffer} in the user data of the renderable.
+ */
+public class FlyInstancedShader extends FlyBaseShader {
+    
+    private String VERTEX_SHADER = "shaders/instanced.vertex.glsl";
+    private String FRAGMENT_SHADER = "shaders/fragment.glsl";
+    private String TEXTURE_FRAGMENT_SHADER = "shaders/texture.fragment.glsl";
+    private final boolean textured;
+    private int u_instances, u_diffuseColor, texture1;
+    
+    public FlyInstancedShader(Renderable renderable) {
+        super(renderable);
+        textured = renderable.material.has(TextureAttribute.Diffuse);
+    }
+    
+    @Override
+    public void init() {
+        // Prepare and compile the ShaderProgram
+        createShaderProgram(VERTEX_SHADER, textured ? TEXTURE_FRAGMENT_SHADER : FRAGMENT_SHADER, "#define maxInstances " + InstanceBuffer.MAX_INSTANCES + "\n");
+        super.init();
+        
+        // some drivers name arrays with and some without the first index
+        u_instances = program.getUniformLocation("u_instances[0]");
+        if (u_instances < 0) {
+            u_instances = program.getUniformLocation("u_instances");
+        }
+        u_diffuseColor = program.getUniformLocation("u_diffuseColor");
+        texture1 = program.getUniformLocation("texture1");
+    }
+    
+    @Override
+    public boolean canRender(Renderable instance) {
+        return (instance.userData instanceof InstanceBuffer && canRenderEnvironment(instance.environment) && instance.material.has(TextureAttribute.Diffuse) == textured && !instance.material.has(TextureAttribute.Normal));
+    }
+    
+    @Override
+    public void render(Renderable renderable) {
+        // Set up uniforms
+        super.setUpBaseUniforms(renderable);
+        final InstanceBuffer instances = (InstanceBuffer) renderable.userData;
+        program.setUniform4fv(u_instances, instances.getData(), 0, instances.getFloats());
+        if (renderable.material.has(ColorAttribute.Diffuse))
+            setUniform(u_diffuseColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Diffuse)).color);
+        else
+            setUniform(u_diffuseColor, Color.BLACK);
+        if (textured) {
+            // Bind texture
+            ((TextureAttribute) renderable.material.get(TextureAttribute.Diffuse)).textureDescription.texture.bind(0);
+            setUniform(texture1, 0);
+        }
+        
+        // Render all instances with one draw call
+        renderable.mesh.render(program, renderable.primitiveType, renderable.meshPartOffset, renderable.meshPartSize);
+    }
+}
@@ -2,7 +2,6 @@ package de.fau.cs.mad.fly.graphics.shaders;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g3d.Renderable;
-import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
 
@@ -25,33 +24,28 @@ public class FlyNormalTextureShader extends FlyBaseShader {
         normalMap = program.getUniformLocation("normalMap");
     }
     
-    @Override
-    public int compareTo(Shader other) {
-        return 0;
-    }
-    
     @Override
     public void render(Renderable renderable) {
         super.setUpBaseUniforms(renderable);
 
         if(renderable.material.has(ColorAttribute.Diffuse))
-            program.setUniformf(u_diffuseColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Diffuse)).color);
+            setUniform(u_diffuseColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Diffuse)).color);
         else
-            program.setUniformf(u_diffuseColor, Color.BLACK);
+            setUniform(u_diffuseColor, Color.BLACK);
         
         // Bind textures
         ((TextureAttribute) renderable.material.get(TextureAttribute.Diffuse)).textureDescription.texture.bind(0);
-        program.setUniformi(texture1, 0);
+        setUniform(texture1, 0);
         
         ((TextureAttribute) renderable.material.get(TextureAttribute.Normal)).textureDescription.texture.bind(1);
-        program.setUniformi(normalMap, 1);
+        setUniform(normalMap, 1);
         
         renderable.mesh.render(program, renderable.primitiveType, renderable.meshPartOffset, renderable.meshPartSize);
     }
     
     @Override
     public boolean canRender(Renderable renderable) {
-        return (renderable.environment.equals(environment) && renderable.material.has(TextureAttribute.Diffuse) && renderable.material.has(TextureAttribute.Normal));
+        return (canRenderEnvironment(renderable.environment) && renderable.material.has(TextureAttribute.Diffuse) && renderable.material.has(TextureAttribute.Normal));
     }
     
 }
@@ -146,10 +146,11 @@ package de.fau.cs.mad.fly.graphics.shaders;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g3d.Renderable;
-import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
 
+import de.fau.cs.mad.fly.graphics.InstanceBuffer;
+
 public class FlyShader extends FlyBaseShader {
     
     private String VERTEX_SHADER = "shaders/vertex.glsl";
@@ -172,21 +173,16 @@ public class FlyShader extends FlyBaseShader {
         u_diffuseColor = program.getUniformLocation("u_diffuseColor");
     }
     
-    @Override
-    public int compareTo(Shader other) {
-        return 0;
-    }
-    
     @Override
     public boolean canRender(Renderable instance) {
-        return (instance.environment.equals(environment) && !instance.material.has(TextureAttribute.Diffuse) && !instance.material.has(TextureAttribute.Normal));
+        return (canRenderEnvironment(instance.environment) && !instance.material.has(TextureAttribute.Diffuse) && !instance.material.has(TextureAttribute.Normal) && !(instance.userData instanceof InstanceBuffer));
     }
     
     @Override
     public void render(Renderable renderable) {
         // Set up uniforms
         super.setUpBaseUniforms(renderable);
-        program.setUniformf(u_diffuseColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Diffuse)).color);
+        setUniform(u_diffuseColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Diffuse)).color);
         
         // Render the renderable
         renderable.mesh.render(program, renderable.primitiveType, renderable.meshPartOffset, renderable.meshPartSize);
@@ -5,6 +5,8 @@ import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
 import com.badlogic.gdx.graphics.g3d.utils.BaseShaderProvider;
 
+import de.fau.cs.mad.fly.graphics.InstanceBuffer;
+
 /**
  * Created by tschaei on 22.07.14.
  */
@@ -27,6 +29,9 @@ public class FlyShaderProvider extends BaseShaderProvider {
     
     @Override
     protected Shader createShader(Renderable renderable) {
+        if (renderable.userData instanceof InstanceBuffer) {
+            return new FlyInstancedShader(renderable);
+        }
         if (renderable.material.has(TextureAttribute.Diffuse)) {
             return new FlyTextureShader(renderable);
         }
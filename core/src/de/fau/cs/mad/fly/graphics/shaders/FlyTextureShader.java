@@ -124,12 +124,13 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.VertexAttributes;
 import com.badlogic.gdx.graphics.g3d.Renderable;
-import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
 
 import javax.swing.text.AttributeSet;
 
+import de.fau.cs.mad.fly.graphics.InstanceBuffer;
+
 public class FlyTextureShader extends FlyBaseShader {
     
     private String VERTEX_SHADER = "shaders/vertex.glsl";
@@ -151,14 +152,9 @@ public class FlyTextureShader extends FlyBaseShader {
         texture1 = program.getUniformLocation("texture1");
     }
     
-    @Override
-    public int compareTo(Shader other) {
-        return 0;
-    }
-    
     @Override
     public boolean canRender(Renderable instance) {
-        return (instance.environment.equals(environment) && instance.material.has(TextureAttribute.Diffuse) && !instance.material.has(TextureAttribute.Normal));
+        return (canRenderEnvironment(instance.environment) && instance.material.has(TextureAttribute.Diffuse) && !instance.material.has(TextureAttribute.Normal) && !(instance.userData instanceof InstanceBuffer));
     }
     
     @Override
@@ -166,12 +162,12 @@ public class FlyTextureShader extends FlyBaseShader {
         // Set up uniforms
         super.setUpBaseUniforms(renderable);
         if(renderable.material.has(ColorAttribute.Diffuse))
-            program.setUniformf(u_diffuseColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Diffuse)).color);
+            setUniform(u_diffuseColor, ((ColorAttribute) renderable.material.get(ColorAttribute.Diffuse)).color);
         else
-            program.setUniformf(u_diffuseColor, Color.BLACK);
+            setUniform(u_diffuseColor, Color.BLACK);
         // Bind texture
         ((TextureAttribute) renderable.material.get(TextureAttribute.Diffuse)).textureDescription.texture.bind(0);
-        program.setUniformi(texture1, 0);
+        setUniform(texture1, 0);
         renderable.mesh.render(program, renderable.primitiveType, renderable.meshPartOffset, renderable.meshPartSize);
     }
 }
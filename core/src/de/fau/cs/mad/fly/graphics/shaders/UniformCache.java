@@ -0,0 +1,211 @@
+package de.fau.cs.mad.fly.graphics.shaders;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Shadow copy of the uniform values of one shader program.
+ * <p>
+ * Every update compares the new value with the last uploaded value of the
+ * uniform location and returns true only if it changed, so the shader uploads
+ * changed values only. The cache does not call OpenGL itself.
+ * <p>
+ * Values in the cache are valid until {@link #invalidate()} is called, which
+ * has to be done when the program is compiled again.
+ */
+public class UniformCache {
+    
+    /** Uploaded values, indexed by the uniform location. */
+    private float[][] values = new float[16][];
+    
+    /** True for the locations with a valid value in {@link #values}. */
+    private boolean[] valid = new boolean[16];
+    
+    private int uploads = 0;
+    private int avoidedUploads = 0;
+    
+    /**
+     * Forgets all uploaded values, the next update of every uniform uploads.
+     */
+    public void invalidate() {
+        for (int i = 0; i < valid.length; i++) {
+            valid[i] = false;
+        }
+    }
+    
+    /**
+     * Getter for the number of updates that changed the value.
+     * 
+     * @return uploads since the last {@link #resetCounters()}
+     */
+    public int getUploads() {
+        return uploads;
+    }
+    
+    /**
+     * Getter for the number of updates with an unchanged value.
+     * 
+     * @return avoided uploads since the last {@link #resetCounters()}
+     */
+    public int getAvoidedUploads() {
+        return avoidedUploads;
+    }
+    
+    /**
+     * Resets the upload counters.
+     */
+    public void resetCounters() {
+        uploads = 0;
+        avoidedUploads = 0;
+    }
+    
+    /**
+     * Updates a float uniform.
+     * 
+     * @param location
+     *            The uniform location, at least 0.
+     * @param value
+     *            The new value.
+     * @return true, if the value changed and has to be uploaded
+     */
+    public boolean update(int location, float value) {
+        final float[] shadow = getShadow(location, 1);
+        if (valid[location] && shadow[0] == value) {
+            avoidedUploads++;
+            return false;
+        }
+        shadow[0] = value;
+        return uploaded(location);
+    }
+    
+    /**
+     * Updates an int uniform, for example a texture unit.
+     * 
+     * @param location
+     *            The uniform location, at least 0.
+     * @param value
+     *            The new value.
+     * @return true, if the value changed and has to be uploaded
+     */
+    public boolean update(int location, int value) {
+        return update(location, (float) value);
+    }
+    
+    /**
+     * Updates a vec3 uniform.
+     * 
+     * @param location
+     *            The uniform location, at least 0.
+     * @param value
+     *            The new value.
+     * @return true, if the value changed and has to be uploaded
+     */
+    public boolean update(int location, Vector3 value) {
+        final float[] shadow = getShadow(location, 3);
+        if (valid[location] && shadow[0] == value.x && shadow[1] == value.y && shadow[2] == value.z) {
+            avoidedUploads++;
+            return false;
+        }
+        shadow[0] = value.x;
+        shadow[1] = value.y;
+        shadow[2] = value.z;
+        return uploaded(location);
+    }
+    
+    /**
+     * Updates a vec4 uniform with a color.
+     * 
+     * @param location
+     *            The uniform location, at least 0.
+     * @param value
+     *            The new value.
+     * @return true, if the value changed and has to be uploaded
+     */
+    public boolean update(int location, Color value) {
+        final float[] shadow = getShadow(location, 4);
+        if (valid[location] && shadow[0] == value.r && shadow[1] == value.g && shadow[2] == value.b && shadow[3] == value.a) {
+            avoidedUploads++;
+            return false;
+        }
+        shadow[0] = value.r;
+        shadow[1] = value.g;
+        shadow[2] = value.b;
+        shadow[3] = value.a;
+        return uploaded(location);
+    }
+    
+    /**
+     * Updates a mat3 uniform.
+     * 
+     * @param location
+     *            The uniform location, at least 0.
+     * @param value
+     *            The new value.
+     * @return true, if the value changed and has to be uploaded
+     */
+    public boolean update(int location, Matrix3 value) {
+        return update(location, value.val);
+    }
+    
+    /**
+     * Updates a mat4 uniform.
+     * 
+     * @param location
+     *            The uniform location, at least 0.
+     * @param value
+     *            The new value.
+     * @return true, if the value changed and has to be uploaded
+     */
+    public boolean update(int location, Matrix4 value) {
+        return update(location, value.val);
+    }
+    
+    private boolean update(int location, float[] value) {
+        final float[] shadow = getShadow(location, value.length);
+        if (valid[location] && equals(shadow, value)) {
+            avoidedUploads++;
+            return false;
+        }
+        System.arraycopy(value, 0, shadow, 0, value.length);
+        return uploaded(location);
+    }
+    
+    private static boolean equals(float[] shadow, float[] value) {
+        for (int i = 0; i < value.length; i++) {
+            if (shadow[i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean uploaded(int location) {
+        valid[location] = true;
+        uploads++;
+        return true;
+    }
+    
+    /**
+     * Getter for the shadow of a location, grows the cache if needed.
+     */
+    private float[] getShadow(int location, int size) {
+        if (location >= values.length) {
+            final int capacity = Math.max(location + 1, values.length * 2);
+            final float[][] newValues = new float[capacity][];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            values = newValues;
+            final boolean[] newValid = new boolean[capacity];
+            System.arraycopy(valid, 0, newValid, 0, valid.length);
+            valid = newValid;
+        }
+        float[] shadow = values[location];
+        if (shadow == null || shadow.length < size) {
+            shadow = new float[size];
+            values[location] = shadow;
+            valid[location] = false;
+        }
+        return shadow;
+    }
+}
@@ -1,16 +1,99 @@
 package de.fau.cs.mad.fly.helper;
 
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector3;
 
 /**
  * Helper class for calculating random stuff like random vectors.
+ * <p>
+ * All random values of the game logic are taken from one generator, that is
+ * not used by the rendering. A game started with the same seed and the same
+ * input generates the same level, see {@link #setSeed(long)}.
  * 
  * @author Tobi
  * 
  */
 public class RandomHelper {
     
+    /** Random number generator of the game logic. */
+    private static final RandomXS128 random = new RandomXS128();
+    
+    /**
+     * Sets the seed of the random number generator of the game logic.
+     * 
+     * @param seed
+     *            The seed.
+     */
+    public static void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+    
+    /**
+     * Creates a new seed for {@link #setSeed(long)}.
+     * 
+     * @return random seed.
+     */
+    public static long newSeed() {
+        return new RandomXS128().nextLong();
+    }
+    
+    /**
+     * Calculates a random number between 0 and range, both inclusive.
+     * 
+     * @param range
+     *            The maximum value.
+     * @return random number.
+     */
+    public static int random(int range) {
+        return random.nextInt(range + 1);
+    }
+    
+    /**
+     * Calculates a random number between start and end, both inclusive.
+     * 
+     * @param start
+     *            The minimum value.
+     * @param end
+     *            The maximum value.
+     * @return random number.
+     */
+    public static int random(int start, int end) {
+        return start + random.nextInt(end - start + 1);
+    }
+    
+    /**
+     * Calculates a random number between 0.0f inclusive and 1.0f exclusive.
+     * 
+     * @return random number.
+     */
+    public static float random() {
+        return random.nextFloat();
+    }
+    
+    /**
+     * Calculates a random number between 0.0f inclusive and range exclusive.
+     * 
+     * @param range
+     *            The maximum value.
+     * @return random number.
+     */
+    public static float random(float range) {
+        return random.nextFloat() * range;
+    }
+    
+    /**
+     * Calculates a random number between start inclusive and end exclusive.
+     * 
+     * @param start
+     *            The minimum value.
+     * @param end
+     *            The maximum value.
+     * @return random number.
+     */
+    public static float random(float start, float end) {
+        return start + random.nextFloat() * (end - start);
+    }
+    
     /**
      * Calculates a random vector with x, y and z value between 0.0f and max
      * value.
@@ -47,9 +130,9 @@ public class RandomHelper {
      */
     public static Vector3 getRandomVectorInSize(final Vector3 size) {
         Vector3 v = new Vector3();
-        v.x = MathUtils.random(-size.x, size.x);
-        v.y = MathUtils.random(-size.y, size.y);
-        v.z = MathUtils.random(-size.z, size.z);
+        v.x = random(-size.x, size.x);
+        v.y = random(-size.y, size.y);
+        v.z = random(-size.z, size.z);
         return v;
     }
     
@@ -62,9 +145,9 @@ public class RandomHelper {
      */
     public static Vector3 getRandomVector(final Vector3 max) {
         Vector3 v = new Vector3();
-        v.x = MathUtils.random(0.0f, max.x);
-        v.y = MathUtils.random(0.0f, max.y);
-        v.z = MathUtils.random(0.0f, max.z);
+        v.x = random(0.0f, max.x);
+        v.y = random(0.0f, max.y);
+        v.z = random(0.0f, max.z);
         return v;
     }
     
@@ -79,9 +162,9 @@ public class RandomHelper {
      */
     public static Vector3 getRandomVector(final Vector3 min, final Vector3 max) {
         Vector3 v = new Vector3();
-        v.x = MathUtils.random(min.x, max.x);
-        v.y = MathUtils.random(min.y, max.y);
-        v.z = MathUtils.random(min.z, max.z);
+        v.x = random(min.x, max.x);
+        v.y = random(min.y, max.y);
+        v.z = random(min.z, max.z);
         return v;
     }
     
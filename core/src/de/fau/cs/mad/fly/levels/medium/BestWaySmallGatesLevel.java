@@ -5,6 +5,7 @@ import com.badlogic.gdx.math.Vector3;
 import de.fau.cs.mad.fly.I18n;
 import de.fau.cs.mad.fly.features.IFeatureInit;
 import de.fau.cs.mad.fly.features.overlay.InfoOverlay;
+import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameControllerBuilder;
 import de.fau.cs.mad.fly.levels.ILevel;
@@ -28,17 +29,13 @@ public class BestWaySmallGatesLevel implements ILevel, IFeatureInit {
     public void init(GameController game) {
         
         Vector3 scale = new Vector3(.3f, .3f, .3f);
-        Vector3 scaling = new Vector3();
         for (GateGoal g : game.getLevel().getGateCircuit().allGateGoals()) {
             if (g.getDisplay() != null) {
-                g.getDisplay().transform.scl(scale);
-                g.getDisplay().transform.getScale(scaling);
-                g.getDisplay().getRigidBody().getCollisionShape().setLocalScaling(scaling);
+                g.getDisplay().scale(scale);
             }
-            g.transform.scl(scale);
-            g.transform.getScale(scaling);
-            g.getRigidBody().getCollisionShape().setLocalScaling(scaling);
+            g.scale(scale);
         }
+        CollisionDetector.getInstance().updateStaticBodies();
         
         InfoOverlay.getInstance().setOverlay(I18n.tLevel("medium.search.gate.resize.upgrade"), 5);
     }
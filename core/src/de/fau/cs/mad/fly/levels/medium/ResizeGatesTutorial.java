@@ -9,9 +9,11 @@ import de.fau.cs.mad.fly.features.ICollisionListener;
 import de.fau.cs.mad.fly.features.IFeatureInit;
 import de.fau.cs.mad.fly.features.overlay.InfoOverlay;
 import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
+import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameControllerBuilder;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
 import de.fau.cs.mad.fly.levels.ILevel;
 import de.fau.cs.mad.fly.res.GateGoal;
 
@@ -33,23 +35,20 @@ public class ResizeGatesTutorial implements ILevel, IFeatureInit, ICollisionList
         game.getLevel();
         
         Vector3 scale = new Vector3(0.2f, 0.2f, 0.2f);
-        Vector3 scaling = new Vector3();
         for (GateGoal g : game.getLevel().getGateCircuit().allGateGoals()) {
             if (g.getDisplay() != null) {
-                g.getDisplay().transform.scl(scale);
-                g.getDisplay().transform.getScale(scaling);
-                g.getDisplay().getRigidBody().getCollisionShape().setLocalScaling(scaling);
+                g.getDisplay().scale(scale);
             }
-            g.transform.scl(scale);
-            g.transform.getScale(scaling);
-            g.getRigidBody().getCollisionShape().setLocalScaling(scaling);
+            g.scale(scale);
         }
+        CollisionDetector.getInstance().updateStaticBodies();
         
         InfoOverlay.getInstance().setOverlay(I18n.tLevel("tutorial.resize"), 5);
     }
     
     @Override
-    public void onCollision(GameObject g1, GameObject g2) {
+    public void onEvent(CollisionEvent event) {
+        GameObject g2 = event.getSecond();
         if (!(g2 instanceof Collectible)) {
             return;
         }
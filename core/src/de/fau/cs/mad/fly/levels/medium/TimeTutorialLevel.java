@@ -10,6 +10,7 @@ import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameControllerBuilder;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
 import de.fau.cs.mad.fly.levels.ILevel;
 
 /**
@@ -31,7 +32,8 @@ public class TimeTutorialLevel implements ILevel, IFeatureInit, ICollisionListen
     }
     
     @Override
-    public void onCollision(GameObject g1, GameObject g2) {
+    public void onEvent(CollisionEvent event) {
+        GameObject g2 = event.getSecond();
         if (!(g2 instanceof Collectible)) {
             return;
         }
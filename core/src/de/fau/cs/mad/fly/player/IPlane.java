@@ -7,6 +7,8 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
 
 import de.fau.cs.mad.fly.features.IFeatureDispose;
 import de.fau.cs.mad.fly.features.IFeatureInit;
@@ -41,6 +43,43 @@ public interface IPlane extends IFeatureLoad, IFeatureInit, IFeatureUpdate, IFea
         public float basicSpeed;
         
         private Map<String, Integer> upgradesBought = new HashMap<String, Integer>();
+        
+        /**
+         * Creates the head of a plane out of its json file.
+         * 
+         * @param file
+         *            The json file of the plane.
+         * @return head of the plane
+         */
+        public static Head fromJson(FileHandle file) {
+            JsonValue json = new JsonReader().parse(file);
+            Head planeHead = new Head();
+            
+            planeHead.id = json.getInt("id");
+            planeHead.name = json.getString("name");
+            planeHead.modelRef = json.getString("modelRef");
+            planeHead.levelGroupDependency = json.getInt("levelGroupDependency");
+            planeHead.speed = json.getFloat("speed");
+            planeHead.basicSpeed = planeHead.speed;
+            planeHead.setRollingSpeed(json.getFloat("rollingSpeed"));
+            planeHead.azimuthSpeed = json.getFloat("azimuthSpeed");
+            planeHead.basicAzimuthSpeed = planeHead.azimuthSpeed;
+            planeHead.lives = json.getInt("lives");
+            planeHead.basicLives = planeHead.lives;
+            JsonValue rotation = json.get("rotation");
+            if (rotation != null) {
+                Vector3 rotationVector = new Vector3(rotation.getFloat(0), rotation.getFloat(1), rotation.getFloat(2));
+                planeHead.rotationSpeed = rotationVector.len();
+                planeHead.rotation = rotationVector.nor();
+            }
+            JsonValue particleOffset = json.get("particleOffset");
+            if (particleOffset != null) {
+                planeHead.particleOffset = new Vector3(particleOffset.getFloat(0), particleOffset.getFloat(1), particleOffset.getFloat(2));
+            }
+            
+            planeHead.file = file;
+            return planeHead;
+        }
 
 		/**
 		 * @return the rollingSpeed, which is actually the azimuthSpeed.
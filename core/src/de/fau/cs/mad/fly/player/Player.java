@@ -43,6 +43,19 @@ public class Player {
         setLives(plane.getHead().lives);
     }
     
+    /**
+     * Creates the player with a given plane, independent of the current player
+     * profile, for example for a headless simulation.
+     * 
+     * @param plane
+     *            The plane the player is steering.
+     */
+    public Player(IPlane plane) {
+        this.plane = plane;
+        
+        setLives(plane.getHead().lives);
+    }
+    
     /**
      * Getter for the lives of the player.
      * 
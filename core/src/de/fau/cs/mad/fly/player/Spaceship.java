@@ -7,7 +7,6 @@ import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 
 import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameController;
@@ -30,7 +29,7 @@ public class Spaceship extends GameObject implements IPlane {
     private Matrix4 startTransform;
     
     private Vector3 particleOffset = null;
-    private Matrix4 particleTransform;
+    private final Matrix4 particleTransform = new Matrix4();
     
     private IParticle particle;
     
@@ -44,6 +43,11 @@ public class Spaceship extends GameObject implements IPlane {
     
     private Vector3 movingDir = new Vector3(0, 0, 1);
     private final Vector3 up = new Vector3(0, 1, 0);
+    /** Axis to roll around, {@link #movingDir} cross {@link #up}. */
+    private final Vector3 rollAxis = new Vector3();
+    /** Temporary vectors of {@link #resetOnRail(float, float, float)}. */
+    private final Vector3 railPosition = new Vector3();
+    private final Vector3 railDirection = new Vector3();
     Vector3 linearMovement;
     
     private float lastRoll = 0.f;
@@ -101,17 +105,15 @@ public class Spaceship extends GameObject implements IPlane {
         
         transform.setToTranslation(game.getLevel().start.position);
         
-        Gdx.app.log("Spaceship.load", "Creating collision shape...");
-        btCollisionShape shape = CollisionDetector.getInstance().getShapeManager().createConvexShape(modelRef, this);
-        
         Gdx.app.log("Spaceship.load", "Scaling bounding box...");
         scaleFrustumBoundingBox();
-        createRigidBody(modelRef, shape, 1.0f, CollisionDetector.PLAYER_FLAG, CollisionDetector.ALL_FLAG);
+        Gdx.app.log("Spaceship.load", "Creating collision shape...");
+        CollisionDetector.getInstance().createConvexBody(this, modelRef, 1.0f, CollisionDetector.PLAYER_FLAG, CollisionDetector.ALL_FLAG);
         Gdx.app.log("Spaceship.load", "Adding motion state...");
         addMotionState();
-        getRigidBody().setDamping(0.0f, 0.5f);
+        setDamping(0.0f, 0.5f);
         Gdx.app.log("Spaceship.load", "Adjusting scaling...");
-        getRigidBody().getCollisionShape().setLocalScaling(new Vector3(0.7f, 0.7f, 0.7f));
+        setCollisionScaling(new Vector3(0.7f, 0.7f, 0.7f));
         Gdx.app.log("Spaceship.load", "Adding rigid body to collision detector...");
         
         CollisionDetector.getInstance().addRigidBody(this);
@@ -124,19 +126,19 @@ public class Spaceship extends GameObject implements IPlane {
         float azimuthDir = lastAzimuth * 50f;// / delta / 60.f;
         
         storedTransform = transform;
-        displayTransform.set(transform);
+        displayTransform.set(getInterpolatedTransform());
         transform = displayTransform;
         
-        transform.rotate(movingDir.cpy().crs(up), rollDir);
+        transform.rotate(rollAxis.set(movingDir).crs(up), rollDir);
         transform.rotate(movingDir, -azimuthDir);
         
         if (rotation != null) {
             transform.rotate(rotation, i * rotationSpeed);
         }
         
-        render(batch, environment, camera);
+        renderTransform(batch, environment, camera);
         
-        particleTransform = transform.cpy();
+        particleTransform.set(transform);
         particleTransform.translate(particleOffset);
         particle.render(particleTransform);
         
@@ -190,11 +192,11 @@ public class Spaceship extends GameObject implements IPlane {
         camera = gameController.getCamera();
         
         Perspective start = game.getLevel().start;
-        startTransform = getRigidBody().getCenterOfMassTransform().setToLookAt(start.viewDirection, start.upDirection);
+        startTransform = getBodyTransform().setToLookAt(start.viewDirection, start.upDirection);
         startTransform.rotate(start.upDirection, 180.0f);
         startTransform.translate(start.position);
         
-        getRigidBody().setCenterOfMassTransform(startTransform);
+        setBodyTransform(startTransform);
         
         transformValues = startTransform.getValues();
         linearMovement.set(transformValues[8], transformValues[9], transformValues[10]).scl(getCurrentSpeed());
@@ -203,9 +205,9 @@ public class Spaceship extends GameObject implements IPlane {
     
     @Override
     public void rotate(float rollDir, float azimuthDir, float deltaFactor) {
-        rotationTransform = getRigidBody().getCenterOfMassTransform();
-        rotationTransform.rotate(movingDir.cpy().crs(up), rollDir * deltaFactor).rotate(up, azimuthDir * deltaFactor);
-        getRigidBody().setCenterOfMassTransform(rotationTransform);
+        rotationTransform = getBodyTransform();
+        rotationTransform.rotate(rollAxis.set(movingDir).crs(up), rollDir * deltaFactor).rotate(up, azimuthDir * deltaFactor);
+        setBodyTransform(rotationTransform);
         
         float[] transformValues = rotationTransform.getValues();
         linearMovement.set(transformValues[8], transformValues[9], transformValues[10]).scl(getCurrentSpeed());
@@ -219,11 +221,11 @@ public class Spaceship extends GameObject implements IPlane {
     }
     
     public void shift(Vector3 vector) {
-    	rotationTransform = getRigidBody().getCenterOfMassTransform();
+    	rotationTransform = getBodyTransform();
     	
     	rotationTransform.trn(vector);
     	
-    	getRigidBody().setCenterOfMassTransform(rotationTransform);
+    	setBodyTransform(rotationTransform);
     	
     	float[] transformValues = rotationTransform.getValues();
         linearMovement.set(transformValues[8], transformValues[9], transformValues[10]).scl(getCurrentSpeed());
@@ -238,18 +240,16 @@ public class Spaceship extends GameObject implements IPlane {
      */
     public void resetOnRail(float railX, float railY, float railPos) {
     	//Vector3 newPosition = new Vector3(railY, railPos, railX);
-    	Vector3 newPosition = new Vector3(-railY, railX, railPos);
+    	Vector3 newPosition = railPosition.set(-railY, railX, railPos);
     	Gdx.app.log("reset", "" + newPosition);
-    	
-    	Vector3 yPos = new Vector3(0, railPos, 0);
 
         Perspective start = gameController.getLevel().start;
     	
-    	rotationTransform.setToLookAt(start.viewDirection.cpy().add(yPos), start.upDirection);
+    	rotationTransform.setToLookAt(railDirection.set(start.viewDirection).add(0, railPos, 0), start.upDirection);
     	rotationTransform.rotate(start.upDirection, 180.0f);
     	rotationTransform.translate(newPosition);
         
-    	getRigidBody().setCenterOfMassTransform(rotationTransform);
+    	setBodyTransform(rotationTransform);
     }
     
     @Override
@@ -7,10 +7,7 @@ import java.util.Map.Entry;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.sql.DatabaseCursor;
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonValue;
 
 import de.fau.cs.mad.fly.db.FlyDBManager;
 import de.fau.cs.mad.fly.player.IPlane;
@@ -26,7 +23,6 @@ import de.fau.cs.mad.fly.settings.SettingManager;
  */
 public class PlaneManager {
     
-    private JsonReader reader = new JsonReader();
     // private List<IPlane.Head> planes;
     private Map<Integer, IPlane.Head> planes;
     private IPlane.Head chosenPlane;
@@ -56,34 +52,8 @@ public class PlaneManager {
             planes = new HashMap<Integer, IPlane.Head>();
             FileHandle dirHandle = Gdx.files.internal("spaceships/json/");
             for (FileHandle file : dirHandle.list()) {
-                JsonValue json = reader.parse(file);
-                IPlane.Head planeHead = new IPlane.Head();
-                
-                int id = json.getInt("id");
-                planeHead.id = id;
-                planeHead.name = json.getString("name");
-                planeHead.modelRef = json.getString("modelRef");
-                planeHead.levelGroupDependency = json.getInt("levelGroupDependency");
-                planeHead.speed = json.getFloat("speed");
-                planeHead.basicSpeed = planeHead.speed;
-                planeHead.setRollingSpeed(json.getFloat("rollingSpeed"));
-                planeHead.azimuthSpeed = json.getFloat("azimuthSpeed");
-                planeHead.basicAzimuthSpeed = planeHead.azimuthSpeed;
-                planeHead.lives = json.getInt("lives");
-                planeHead.basicLives = planeHead.lives;
-                JsonValue rotation = json.get("rotation");
-                if (rotation != null) {
-                    Vector3 rotationVector = new Vector3(rotation.getFloat(0), rotation.getFloat(1), rotation.getFloat(2));
-                    planeHead.rotationSpeed = rotationVector.len();
-                    planeHead.rotation = rotationVector.nor();
-                }
-                JsonValue particleOffset = json.get("particleOffset");
-                if (particleOffset != null) {
-                    planeHead.particleOffset = new Vector3(particleOffset.getFloat(0), particleOffset.getFloat(1), particleOffset.getFloat(2));
-                }
-                
-                planeHead.file = file;
-                planes.put(id, planeHead);
+                IPlane.Head planeHead = IPlane.Head.fromJson(file);
+                planes.put(planeHead.id, planeHead);
             }
             initPlayerUpdateAndEquiped(PlayerProfileManager.getInstance().getCurrentPlayerProfile().getId());
         }
@@ -19,6 +19,11 @@ import de.fau.cs.mad.fly.game.GameModel;
  */
 public class GameModelLoader extends AsynchronousAssetLoader<GameModel, GameModelLoader.GameModelParameters> {
     
+    /**
+     * Maximum number of levels of detail of a model.
+     */
+    public static final int MAX_LODS = 3;
+    
     public GameModelLoader(FileHandleResolver resolver) {
         super(resolver);
     }
@@ -31,6 +36,7 @@ public class GameModelLoader extends AsynchronousAssetLoader<GameModel, GameMode
     
     private boolean hitboxExists = true;
     private String hitboxName;
+    private Array<String> lodNames;
     
     private void getHitbox(String fileName) {
         if (hitboxName == null && hitboxExists) {
@@ -39,16 +45,39 @@ public class GameModelLoader extends AsynchronousAssetLoader<GameModel, GameMode
         }
     }
     
+    /**
+     * Looks for models with less detail, named like the model with the suffix
+     * .lod1.g3db, .lod2.g3db and so on. The levels have to be numbered without
+     * gaps.
+     */
+    private void getLods(String fileName) {
+        if (lodNames == null) {
+            lodNames = new Array<String>();
+            for (int i = 1; i <= MAX_LODS; i++) {
+                String lodName = fileName.replace(".g3db", ".lod" + i + ".g3db");
+                if (!resolve(lodName).exists()) {
+                    break;
+                }
+                lodNames.add(lodName);
+            }
+        }
+    }
+    
     @Override
     public void loadAsync(AssetManager manager, String fileName, FileHandle file, GameModelParameters parameter) {
         fileName += ".g3db";
         object = null;
         getHitbox(fileName);
+        getLods(fileName);
         Model display = manager.get(fileName, Model.class);
+        Model[] lods = new Model[lodNames.size];
+        for (int i = 0; i < lods.length; i++) {
+            lods[i] = manager.get(lodNames.get(i), Model.class);
+        }
         if (hitboxExists) {
-            object = new GameModel(display, manager.get(hitboxName, Model.class));
+            object = new GameModel(display, manager.get(hitboxName, Model.class), lods);
         } else {
-            object = new GameModel(display, display);
+            object = new GameModel(display, display, lods);
         }
     }
     
@@ -58,6 +87,7 @@ public class GameModelLoader extends AsynchronousAssetLoader<GameModel, GameMode
         object = null;
         hitboxExists = true;
         hitboxName = null;
+        lodNames = null;
         return g;
     }
     
@@ -65,6 +95,7 @@ public class GameModelLoader extends AsynchronousAssetLoader<GameModel, GameMode
     public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, GameModelParameters parameter) {
         fileName += ".g3db";
         getHitbox(fileName);
+        getLods(fileName);
         Array<AssetDescriptor> arr = new Array<AssetDescriptor>();
         
         // ObjLoaderParameters modelParameters = new ObjLoaderParameters();
@@ -80,6 +111,9 @@ public class GameModelLoader extends AsynchronousAssetLoader<GameModel, GameMode
         arr.add(new AssetDescriptor<Model>(fileName, Model.class));
         if (hitboxExists)
             arr.add(new AssetDescriptor<Model>(hitboxName, Model.class));
+        for (String lodName : lodNames) {
+            arr.add(new AssetDescriptor<Model>(lodName, Model.class));
+        }
         return arr;
     }
     
@@ -18,6 +18,7 @@ import de.fau.cs.mad.fly.sound.AudioManager;
 import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameController;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
 
 /**
  * Manages the logic of the gates like storing the gate list and handling the
@@ -143,7 +144,7 @@ public class GateCircuit implements IFeatureLoad, ICollisionListener {
      *            The gate goal to remove.
      */
     public void removeGate(GateGoal gate) {
-        gates.remove(gate);
+        gates.remove(gate.getGateId());
         allGateGoals.remove(gate);
         allGateDisplays.remove(gate.getDisplay());
     }
@@ -215,8 +216,10 @@ public class GateCircuit implements IFeatureLoad, ICollisionListener {
      */
     public void activeGatePassed(GateGoal gate) {
         boolean finished = gate.successors.length == 0;
-        for (GateCircuitListener s : gateCircuitListeners)
-            s.onGatePassed(gate);
+        final int numberOfListeners = gateCircuitListeners.size();
+        for (int i = 0; i < numberOfListeners; i++) {
+            gateCircuitListeners.get(i).onGatePassed(gate);
+        }
         if ( finished ) {
             GameController.getInstance().getAudioManager().play(AudioManager.Sounds.GATE_PASSED);
             reachedLastGate = true;
@@ -244,8 +247,9 @@ public class GateCircuit implements IFeatureLoad, ICollisionListener {
      * Calls the gate circuit listeners for the finished gate circuit.
      */
     protected void circuitFinished() {
-        for (GateCircuitListener s : gateCircuitListeners) {
-            s.onFinished();
+        final int numberOfListeners = gateCircuitListeners.size();
+        for (int i = 0; i < numberOfListeners; i++) {
+            gateCircuitListeners.get(i).onFinished();
         }
     }
     
@@ -321,6 +325,28 @@ public class GateCircuit implements IFeatureLoad, ICollisionListener {
         }
     }
     
+    /**
+     * Adds the gate displays and goals that have a mover to a list, in the
+     * order of {@link #moveGates(float)}.
+     * 
+     * @param objects
+     *            The list to add the moving gates to.
+     */
+    public void addMovingObjects(List<GameObject> objects) {
+        GateDisplay display;
+        
+        final int numberOfDisplays = allGateDisplays.size();
+        for (int i = 0; i < numberOfDisplays; i++) {
+            display = allGateDisplays.get(i);
+            if (display.getMover() != null) {
+                objects.add(display);
+            }
+            if (display.getGoal().getMover() != null) {
+                objects.add(display.getGoal());
+            }
+        }
+    }
+    
     /**
      * Renders the gates.
      * 
@@ -359,7 +385,8 @@ public class GateCircuit implements IFeatureLoad, ICollisionListener {
     }
     
     @Override
-    public void onCollision(GameObject g1, GameObject g2) {
+    public void onEvent(CollisionEvent event) {
+        GameObject g2 = event.getSecond();
         if (!(g2 instanceof GateGoal)) {
             return;
         }
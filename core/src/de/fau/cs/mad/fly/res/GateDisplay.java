@@ -3,7 +3,6 @@ package de.fau.cs.mad.fly.res;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 import com.badlogic.gdx.utils.Disposable;
 
 import de.fau.cs.mad.fly.game.CollisionDetector;
@@ -36,8 +35,7 @@ public class GateDisplay extends GameObject implements Disposable {
      * @param collisionDetector
      */
     public void createShapeAndRigidBody(CollisionDetector collisionDetector) {
-        btCollisionShape displayShape = collisionDetector.getShapeManager().createStaticMeshShape(super.getModelId(), this);
-        super.createRigidBody(super.getModelId(), displayShape, 0.0f, CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
+        collisionDetector.createMeshBody(this, super.getModelId(), CollisionDetector.OBJECT_FLAG, CollisionDetector.ALL_FLAG);
         
         // different scaling for the gates is buggy
         /*
@@ -1,8 +1,6 @@
 package de.fau.cs.mad.fly.res;
 
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
-import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.utils.Disposable;
 
 import de.fau.cs.mad.fly.game.CollisionDetector;
@@ -16,8 +14,14 @@ import de.fau.cs.mad.fly.game.GameObject;
  * 
  */
 public class GateGoal extends GameObject implements Disposable {
+    
+    /** Half of the width and the depth of the box the player has to pass. */
+    public static final float HALF_WIDTH = 0.8f;
+    /** Half of the thickness of the box the player has to pass. */
+    public static final float HALF_THICKNESS = 0.1f;
+    
     private GateDisplay display = null;
-    private final int gateId;
+    private int gateId;
     private int score;
     public int passedTimes = 0;
     public int[] successors;
@@ -46,9 +50,8 @@ public class GateGoal extends GameObject implements Disposable {
      * @param collisionDetector
      */
     public void createShapeAndRigidBody(CollisionDetector collisionDetector) {
-        btCollisionShape goalShape = collisionDetector.getShapeManager().createBoxShape(super.getModelId() + ".goal", new Vector3(0.8f, 0.1f, 0.8f));
-        super.createRigidBody(super.getModelId() + ".goal", goalShape, 0.0f, CollisionDetector.DUMMY_FLAG, CollisionDetector.PLAYER_FLAG);
-        rigidBody.setCollisionFlags(rigidBody.getCollisionFlags() | btRigidBody.CollisionFlags.CF_NO_CONTACT_RESPONSE);
+        collisionDetector.createBoxBody(this, super.getModelId() + ".goal", new Vector3(HALF_WIDTH, HALF_THICKNESS, HALF_WIDTH), 0.0f, CollisionDetector.DUMMY_FLAG, CollisionDetector.PLAYER_FLAG);
+        disableContactResponse();
         
         // different scaling for the gates is buggy
         /*
@@ -138,6 +141,20 @@ public class GateGoal extends GameObject implements Disposable {
         this.successors = successors;
     }
     
+    /**
+     * Resets a reused gate goal to a new gate without successors.
+     * 
+     * @param gateId
+     *            The new gate id.
+     */
+    public void reset(int gateId) {
+        this.gateId = gateId;
+        setId("GateGoal " + gateId);
+        passedTimes = 0;
+        successors = new int[0];
+        unmark();
+    }
+    
     @Override
     public void dispose() {
         CollisionDetector.getInstance().removeRigidBody(this);
@@ -4,11 +4,20 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 
+import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
+import de.fau.cs.mad.fly.game.CollisionDetector;
+import de.fau.cs.mad.fly.game.FrustumCullingTree;
 import de.fau.cs.mad.fly.game.GameModel;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.ParallelMover;
+import de.fau.cs.mad.fly.game.StaticGeometryMerger;
+import de.fau.cs.mad.fly.game.object.ClosedFormMover;
+import de.fau.cs.mad.fly.game.object.MoverBatch;
 
+import de.fau.cs.mad.fly.graphics.LightManager;
 import de.fau.cs.mad.fly.profile.LevelProfile;
 import de.fau.cs.mad.fly.player.gravity.EmptyGravity;
 import de.fau.cs.mad.fly.player.gravity.IGravity;
@@ -35,6 +44,22 @@ public class Level implements Disposable {
     
     public String levelClass = "DefaultLevel";
     
+    /** The world of the collision detection in this level. */
+    public CollisionDetector.Backend collisionBackend = CollisionDetector.Backend.DYNAMICS_WORLD;
+    
+    /**
+     * True, if the collision detection uses a sweep and prune broadphase with
+     * the bounds of the level, see {@link #radius}.
+     */
+    public boolean axisSweepBroadphase = false;
+    
+    /**
+     * Edge length of the cells in which the static components are merged,
+     * see {@link #mergeStaticComponents(float)}. 0 to render every component
+     * separately.
+     */
+    public float mergeCellSize = 0.0f;
+    
     public List<GameObject> components;
     public final Perspective start;
     private final Environment environment;
@@ -42,11 +67,52 @@ public class Level implements Disposable {
     
     private GameObject borderObject = null;
     
+    /**
+     * Margin of the moving components in the {@link #cullingTree}, in world
+     * units.
+     */
+    private static final float CULLING_MARGIN = 2.0f;
+    
+    /**
+     * Components without the border, which follows the camera and is always
+     * rendered.
+     */
+    private final FrustumCullingTree cullingTree = new FrustumCullingTree(CULLING_MARGIN);
+    
+    /** Display of the merged static components, only used for rendering. */
+    private final List<GameObject> mergedComponents = new ArrayList<GameObject>();
+    
+    /** Components in the frustum, collected in every render call. */
+    private final Array<GameObject> visibleComponents = new Array<GameObject>(false, 16, GameObject.class);
+    
+    /**
+     * Selects the nearest point lights of the game objects if the level has
+     * more point lights than {@link LightManager#DEFAULT_MAX_POINT_LIGHTS},
+     * null otherwise.
+     */
+    private LightManager lightManager = null;
+    
     private GateCircuit gateCircuit = null;
     private CollectibleManager collectibleManager = null;
     
     private IGravity gravity = new EmptyGravity();
     
+    /** Evaluates the movers of the components. */
+    private final MoverBatch moverBatch = new MoverBatch();
+    
+    /**
+     * Components with a mover that is not evaluated by the
+     * {@link #moverBatch}. The other components are static and not touched
+     * by {@link #update(float, PerspectiveCamera)}.
+     */
+    private final List<GameObject> dynamicComponents = new ArrayList<GameObject>();
+    
+    /** Moves the game objects on several threads, null to move them serially. */
+    private ParallelMover parallelMover = null;
+    
+    /** Game objects with a mover, collected in every update for the {@link #parallelMover}. */
+    private final List<GameObject> movingObjects = new ArrayList<GameObject>();
+    
     private float leftTime = 0;
     
     public float getLeftTime() {
@@ -80,6 +146,18 @@ public class Level implements Disposable {
         if (borderObject == null) {
             Gdx.app.log("Level.Level", "No border specified.");
         }
+        
+        List<GameObject> culledComponents = new ArrayList<GameObject>(components);
+        culledComponents.remove(borderObject);
+        cullingTree.build(culledComponents);
+        for (GameObject component : culledComponents) {
+            addDynamicComponent(component);
+        }
+        
+        if (LightManager.isNeeded(environment, LightManager.DEFAULT_MAX_POINT_LIGHTS)) {
+            lightManager = new LightManager(environment, LightManager.DEFAULT_MAX_POINT_LIGHTS, LightManager.DEFAULT_CELL_SIZE);
+        }
+        GameObject.setLightManager(lightManager);
     }
     
     /**
@@ -144,16 +222,69 @@ public class Level implements Disposable {
     
     public void addComponent(GameObject o) {
     	components.add(o);
+    	cullingTree.insert(o);
+    	addDynamicComponent(o);
     }
     
     public boolean removeComponent(GameObject o) {
     	boolean removed = components.remove(o);
     	if(removed) {
+    		cullingTree.remove(o);
+    		moverBatch.remove(o);
+    		dynamicComponents.remove(o);
     		o.dispose();
     	}
     	return removed;
     }
     
+    /**
+     * Adds a component to the {@link #moverBatch} or to the
+     * {@link #dynamicComponents} if it has a mover that changes its transform.
+     * 
+     * @param component
+     *            The new component.
+     */
+    private void addDynamicComponent(GameObject component) {
+        if (component.getMover() == null) {
+            return;
+        }
+        if (component.getMover() instanceof ClosedFormMover && !((ClosedFormMover) component.getMover()).isMoving()) {
+            return;
+        }
+        if (!moverBatch.add(component)) {
+            dynamicComponents.add(component);
+        }
+    }
+    
+    /**
+     * Merges the static components that share a model and an environment
+     * into one mesh per cell, see {@link StaticGeometryMerger}. The merged
+     * components keep their bodies and stay in {@link #components}, but they
+     * are rendered by the merged display. Creates meshes, so it has to be
+     * called on the render thread.
+     * 
+     * @param cellSize
+     *            The edge length of the cells, in world units.
+     */
+    public void mergeStaticComponents(float cellSize) {
+        StaticGeometryMerger merger = new StaticGeometryMerger(cellSize);
+        final int numberOfComponents = components.size();
+        for (int i = 0; i < numberOfComponents; i++) {
+            GameObject c = components.get(i);
+            if (c != borderObject && StaticGeometryMerger.canMerge(c)) {
+                merger.add(c);
+            }
+        }
+        List<GameObject> merged = merger.merge();
+        for (GameObject c : merger.getMergedSources()) {
+            cullingTree.remove(c);
+        }
+        for (GameObject m : merged) {
+            cullingTree.insert(m);
+            mergedComponents.add(m);
+        }
+    }
+    
     /**
      * Environment in the level.
      * <p>
@@ -165,6 +296,17 @@ public class Level implements Disposable {
         return environment;
     }
     
+    /**
+     * Setter for the parallel mover.
+     * 
+     * @param parallelMover
+     *            Moves the gates, components and collectibles on several
+     *            threads, null to move them on the calling thread.
+     */
+    public void setParallelMover(ParallelMover parallelMover) {
+        this.parallelMover = parallelMover;
+    }
+    
     /**
      * Update the level. Checks whether the level is finished or not.
      * 
@@ -176,17 +318,50 @@ public class Level implements Disposable {
     public void update(float delta, PerspectiveCamera camera) {
         borderObject.transform.setToTranslation(camera.position);
         
+        if (parallelMover != null) {
+            moveParallel(delta);
+            return;
+        }
+        
         gateCircuit.moveGates(delta);
         
         int i;
-        final int numberOfComponents = components.size();
+        final int numberOfComponents = dynamicComponents.size();
         for (i = 0; i < numberOfComponents; i++) {
-            components.get(i).move(delta);
+            dynamicComponents.get(i).move(delta);
         }
+        moverBatch.update(delta);
         
         collectibleManager.moveCollectibles(delta);
     }
     
+    /**
+     * Moves the gates, components and collectibles with the
+     * {@link #parallelMover}.
+     * 
+     * @param delta
+     *            time after the last call.
+     */
+    private void moveParallel(float delta) {
+        movingObjects.clear();
+        gateCircuit.addMovingObjects(movingObjects);
+        
+        int i;
+        movingObjects.addAll(dynamicComponents);
+        moverBatch.update(delta);
+        
+        final List<Collectible> collectibles = collectibleManager.getCollectibles();
+        final int numberOfCollectibles = collectibles.size();
+        for (i = 0; i < numberOfCollectibles; i++) {
+            if (collectibles.get(i).getMover() != null) {
+                movingObjects.add(collectibles.get(i));
+            }
+        }
+        
+        parallelMover.move(movingObjects, delta);
+        movingObjects.clear();
+    }
+    
     /**
      * Render the level.
      * 
@@ -198,14 +373,24 @@ public class Level implements Disposable {
      *            that displays the level.
      */
     public void render(float delta, ModelBatch batch, PerspectiveCamera camera) {
+        if (borderObject != null) {
+            borderObject.render(batch, camera);
+        }
+        
+        cullingTree.refit();
+        visibleComponents.clear();
+        cullingTree.query(camera.frustum, visibleComponents);
+        
         int i;
-        final int numberOfComponents = components.size();
-        for (i = 0; i < numberOfComponents; i++) {
-            if (components.get(i).environment != null)
-                components.get(i).render(batch, camera);
+        final GameObject[] visible = visibleComponents.items;
+        final int numberOfVisible = visibleComponents.size;
+        for (i = 0; i < numberOfVisible; i++) {
+            if (visible[i].environment != null)
+                visible[i].render(batch, camera);
             else
-                components.get(i).render(batch, environment, camera);
+                visible[i].render(batch, environment, camera);
         }
+        visibleComponents.clear();
         
         gateCircuit.render(batch, environment, camera);
         
@@ -222,6 +407,17 @@ public class Level implements Disposable {
         Gdx.app.log("Level.dispose", "Disposing...");
         for (GameObject o : components)
             o.dispose();
+        for (GameObject o : mergedComponents) {
+            o.dispose();
+            o.model.dispose();
+        }
+        mergedComponents.clear();
+        cullingTree.clear();
+        moverBatch.clear();
+        dynamicComponents.clear();
+        if (lightManager != null && GameObject.getLightManager() == lightManager) {
+            GameObject.setLightManager(null);
+        }
         // for ( GameModel m : dependencies )
         // m.dispose();
     }
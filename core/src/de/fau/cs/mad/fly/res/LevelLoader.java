@@ -31,8 +31,10 @@ import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
 import de.fau.cs.mad.fly.features.upgrades.types.ResizeGatesUpgrade;
 import de.fau.cs.mad.fly.features.upgrades.types.SpeedUpgradeEffect;
 import de.fau.cs.mad.fly.features.upgrades.types.TemporarySpeedUpgrade;
+import de.fau.cs.mad.fly.game.CollisionDetector;
 import de.fau.cs.mad.fly.game.GameModel;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.StaticGeometryMerger;
 import de.fau.cs.mad.fly.game.object.RotationMover;
 import de.fau.cs.mad.fly.game.object.SinusMover;
 import de.fau.cs.mad.fly.game.object.SinusRotationMover;
@@ -88,6 +90,18 @@ public class LevelLoader extends AsynchronousAssetLoader<Level, LevelLoader.Leve
         if (levelClass != null) {
             level.levelClass = levelClass.asString();
         }
+        JsonValue collision = json.get("collision");
+        if (collision != null) {
+            level.collisionBackend = parseCollisionBackend(collision.asString());
+        }
+        JsonValue broadphase = json.get("broadphase");
+        if (broadphase != null) {
+            level.axisSweepBroadphase = parseAxisSweepBroadphase(broadphase.asString());
+        }
+        JsonValue mergeStatic = json.get("mergeStaticGeometry");
+        if (mergeStatic != null) {
+            level.mergeCellSize = parseMergeCellSize(mergeStatic);
+        }
         level.head.id = json.getInt("id");
         level.setLeftTime(json.getInt("time"));
         
@@ -100,6 +114,62 @@ public class LevelLoader extends AsynchronousAssetLoader<Level, LevelLoader.Leve
         level.addCollectibleManager(parseCollectibles());
     }
     
+    /**
+     * Parses the world of the collision detection.
+     * 
+     * @param type
+     *            "collisionWorld", "dynamicsWorld" or "spatialHash".
+     * @return the backend, the dynamics world for unknown types
+     */
+    private CollisionDetector.Backend parseCollisionBackend(String type) {
+        if ("collisionWorld".equals(type)) {
+            return CollisionDetector.Backend.COLLISION_WORLD;
+        } else if ("spatialHash".equals(type)) {
+            return CollisionDetector.Backend.SPATIAL_HASH;
+        } else if (!"dynamicsWorld".equals(type)) {
+            Gdx.app.error("LevelLoader.parseCollisionBackend", "Unknown collision " + type + ", using the dynamics world.");
+        }
+        return CollisionDetector.Backend.DYNAMICS_WORLD;
+    }
+    
+    /**
+     * Parses the broadphase of the collision detection.
+     * 
+     * @param type
+     *            "axisSweep" or "dbvt".
+     * @return true for the sweep and prune broadphase, false for the dynamic
+     *         AABB tree and unknown types
+     */
+    private boolean parseAxisSweepBroadphase(String type) {
+        if ("axisSweep".equals(type)) {
+            return true;
+        } else if (!"dbvt".equals(type)) {
+            Gdx.app.error("LevelLoader.parseAxisSweepBroadphase", "Unknown broadphase " + type + ", using the dynamic AABB tree.");
+        }
+        return false;
+    }
+    
+    /**
+     * Parses the merging of the static components.
+     * 
+     * @param e
+     *            true for the {@link StaticGeometryMerger#DEFAULT_CELL_SIZE},
+     *            the edge length of the cells or false.
+     * @return the edge length of the cells, 0 to render the components
+     *         separately
+     */
+    private float parseMergeCellSize(JsonValue e) {
+        if (e.isBoolean()) {
+            return e.asBoolean() ? StaticGeometryMerger.DEFAULT_CELL_SIZE : 0.0f;
+        }
+        float cellSize = e.asFloat();
+        if (cellSize < 0.0f) {
+            Gdx.app.error("LevelLoader.parseMergeCellSize", "Negative cell size " + cellSize + ", rendering the components separately.");
+            return 0.0f;
+        }
+        return cellSize;
+    }
+    
     /**
      * Parses and adds the gravity to the level.
      * 
@@ -485,6 +555,10 @@ public class LevelLoader extends AsynchronousAssetLoader<Level, LevelLoader.Leve
     public Level loadSync(AssetManager manager, String fileName, FileHandle file, LevelParameters parameter) {
         Gdx.app.log("LevelLoader.loadSync", "LOADING.");
         Level l = level;
+        if (l.mergeCellSize > 0.0f) {
+            // creates meshes, so not in loadAsync
+            l.mergeStaticComponents(l.mergeCellSize);
+        }
         deinit();
         return l;
     }
@@ -37,6 +37,18 @@ public class SettingManager {
 	public static final String MOVE_LEFT = "moveLeft";
 	public static final String MOVE_DOWN = "moveDown";
 	public static final String MOVE_RIGHT = "moveRight";
+	/** Ticks per second of the fixed time step simulation, 0 for a variable time step. */
+	public static final String FIXED_TICK_RATE = "fixedTickRate";
+	/** Measures the frame time of the phases and features and shows it in the debug overlay. */
+	public static final String PROFILE_FRAMES = "profileFrames";
+	/** Moves the game objects of the level on several threads. */
+	public static final String PARALLEL_UPDATE = "parallelUpdate";
+	/** Measures the allocated bytes of the phases and features as well, desktop only. */
+	public static final String PROFILE_ALLOCATIONS = "profileAllocations";
+	/** Records the frame times and the steering of every game in the local directory "recordings". */
+	public static final String RECORD_INPUT = "recordInput";
+	/** Replays the local file "recordings/replay.rec" instead of the input. */
+	public static final String REPLAY_INPUT = "replayInput";
 
 	private Preferences prefs;
 	private List<ISetting> settings = new ArrayList<ISetting>();
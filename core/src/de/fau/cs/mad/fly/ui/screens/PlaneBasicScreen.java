@@ -21,6 +21,7 @@ import com.badlogic.gdx.utils.viewport.Viewport;
 import de.fau.cs.mad.fly.I18n;
 import de.fau.cs.mad.fly.game.GameModel;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.graphics.FlyRenderableSorter;
 import de.fau.cs.mad.fly.graphics.shaders.FlyShaderProvider;
 import de.fau.cs.mad.fly.player.IPlane;
 import de.fau.cs.mad.fly.profile.PlaneManager;
@@ -73,7 +74,7 @@ public class PlaneBasicScreen extends BasicScreenWithBackButton implements Scree
         skin = SkinManager.getInstance().getSkin();
         labelStyle = skin.get(LabelStyle.class);
         
-        batch = new ModelBatch(null, new FlyShaderProvider(), null);
+        batch = new ModelBatch(null, new FlyShaderProvider(), new FlyRenderableSorter());
         
         float widthScalingFactor = UI.Window.REFERENCE_WIDTH / (float) screenWidth;
         float heightScalingFactor = UI.Window.REFERENCE_HEIGHT / (float) screenHeight;
@@ -0,0 +1,85 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.CollisionBody;
+import de.fau.cs.mad.fly.game.CollisionTester;
+import de.fau.cs.mad.fly.game.CollisionVolume;
+
+/** Test class for {@link CollisionTester} */
+public class CollisionTesterTest {
+    
+    private final CollisionTester tester = new CollisionTester();
+    
+    private static CollisionBody body(CollisionVolume volume, float x, float y, float z) {
+        CollisionBody body = new CollisionBody(volume, 0.0f);
+        body.setWorldTransform(new Matrix4().setToTranslation(x, y, z));
+        return body;
+    }
+    
+    /** Corners of a cube with edge length 2 as convex hull. */
+    private static CollisionVolume cube() {
+        float[] points = new float[24];
+        for (int i = 0; i < 8; i++) {
+            points[3 * i] = (i & 1) == 0 ? -1.0f : 1.0f;
+            points[3 * i + 1] = (i & 2) == 0 ? -1.0f : 1.0f;
+            points[3 * i + 2] = (i & 4) == 0 ? -1.0f : 1.0f;
+        }
+        return CollisionVolume.convexHull(points);
+    }
+    
+    @Test
+    public void spheresIntersectIfTheirDistanceIsSmallerThanTheRadii() {
+        CollisionVolume sphere = CollisionVolume.sphere(1.0f);
+        assertTrue(tester.intersect(body(sphere, 0, 0, 0), body(sphere, 1.9f, 0, 0)));
+        assertFalse(tester.intersect(body(sphere, 0, 0, 0), body(sphere, 1.5f, 1.5f, 0)));
+    }
+    
+    @Test
+    public void boxesIntersectIfTheyOverlap() {
+        CollisionVolume box = CollisionVolume.box(new Vector3(1.0f, 1.0f, 1.0f));
+        assertTrue(tester.intersect(body(box, 0, 0, 0), body(box, 1.5f, 1.5f, 1.5f)));
+        assertFalse(tester.intersect(body(box, 0, 0, 0), body(box, 2.1f, 0, 0)));
+    }
+    
+    @Test
+    public void convexHullIsTestedAgainstSphere() {
+        CollisionVolume sphere = CollisionVolume.sphere(1.0f);
+        // the bounds overlap in both cases, the sphere is 0.87 away from a
+        // corner and 1.27 away from an edge
+        assertTrue(tester.intersect(body(cube(), 0, 0, 0), body(sphere, 1.5f, 1.5f, 1.5f)));
+        assertFalse(tester.intersect(body(cube(), 0, 0, 0), body(sphere, 1.9f, 1.9f, 0)));
+    }
+    
+    @Test
+    public void rotationAndScalingAreApplied() {
+        CollisionVolume box = CollisionVolume.box(new Vector3(2.0f, 0.1f, 0.1f));
+        CollisionBody rotated = body(box, 0, 0, 0);
+        CollisionBody other = body(CollisionVolume.sphere(0.5f), 0, 1.8f, 0);
+        assertFalse(tester.intersect(rotated, other));
+        
+        rotated.setWorldTransform(new Matrix4().setToRotation(Vector3.Z, 90.0f));
+        assertTrue(tester.intersect(rotated, other));
+        
+        rotated.setScaling(new Vector3(0.5f, 1.0f, 1.0f));
+        assertFalse(tester.intersect(rotated, other));
+    }
+    
+    @Test
+    public void holeOfMeshIsFree() {
+        // two quads in the plane z = 0 with a gap between x = -1 and x = 1
+        float[] triangles = new float[] { -3, -1, 0, -1, -1, 0, -1, 1, 0, -3, -1, 0, -1, 1, 0, -3, 1, 0, 1, -1, 0, 3, -1, 0, 3, 1, 0, 1, -1, 0, 3, 1, 0, 1, 1, 0 };
+        CollisionBody mesh = body(CollisionVolume.mesh(triangles), 0, 0, 0);
+        CollisionVolume sphere = CollisionVolume.sphere(0.5f);
+        assertFalse(tester.intersect(mesh, body(sphere, 0, 0, 0)));
+        assertTrue(tester.intersect(mesh, body(sphere, 2.0f, 0, 0.3f)));
+        assertTrue(tester.intersect(body(sphere, -2.0f, 0.5f, -0.4f), mesh));
+        assertFalse(tester.intersect(mesh, body(sphere, 2.0f, 0, 0.6f)));
+    }
+}
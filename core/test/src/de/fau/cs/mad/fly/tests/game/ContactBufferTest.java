@@ -0,0 +1,66 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.fau.cs.mad.fly.game.ContactBuffer;
+
+/** Test class for {@link ContactBuffer} */
+public class ContactBufferTest {
+    
+    @Test
+    public void contactsArePolledInOrder() {
+        ContactBuffer buffer = new ContactBuffer(4);
+        buffer.add(1, 2);
+        buffer.add(3, 4);
+        assertEquals(2, buffer.size());
+        
+        assertEquals(1, buffer.peekFirst());
+        assertEquals(2, buffer.peekSecond());
+        buffer.poll();
+        assertEquals(3, buffer.peekFirst());
+        assertEquals(4, buffer.peekSecond());
+        buffer.poll();
+        assertEquals(0, buffer.size());
+    }
+    
+    @Test
+    public void duplicatesAreIgnored() {
+        ContactBuffer buffer = new ContactBuffer(4);
+        assertTrue(buffer.add(1, 2));
+        assertFalse(buffer.add(1, 2));
+        assertFalse(buffer.add(2, 1));
+        assertTrue(buffer.add(1, 3));
+        assertEquals(2, buffer.size());
+    }
+    
+    @Test
+    public void fullBufferDropsContacts() {
+        ContactBuffer buffer = new ContactBuffer(2);
+        buffer.add(1, 2);
+        buffer.add(1, 3);
+        assertFalse(buffer.add(1, 4));
+        assertEquals(1, buffer.getDropped());
+        buffer.clear();
+        assertEquals(0, buffer.getDropped());
+        assertEquals(0, buffer.size());
+    }
+    
+    @Test
+    public void bufferWrapsAround() {
+        ContactBuffer buffer = new ContactBuffer(2);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(buffer.add(i, 10));
+            assertTrue(buffer.add(i, 11));
+            assertEquals(i, buffer.peekFirst());
+            assertEquals(10, buffer.peekSecond());
+            buffer.poll();
+            assertEquals(11, buffer.peekSecond());
+            buffer.poll();
+        }
+        assertEquals(0, buffer.getDropped());
+    }
+}
@@ -0,0 +1,62 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import de.fau.cs.mad.fly.game.ConvexHullCache;
+
+/** Test class for {@link ConvexHullCache} */
+public class ConvexHullCacheTest {
+    
+    private FileHandle directory;
+    private ConvexHullCache cache;
+    
+    @Before
+    public void setUp() throws IOException {
+        File file = File.createTempFile("shapes", "");
+        file.delete();
+        directory = new FileHandle(file);
+        cache = new ConvexHullCache(directory);
+    }
+    
+    @After
+    public void tearDown() {
+        cache.clear();
+    }
+    
+    @Test
+    public void pointsAreLoadedAsSaved() {
+        float[] points = new float[] { 1.0f, -2.0f, 3.5f, 0.0f, 0.25f, -7.0f };
+        cache.save("models/asteroid", 42L, points);
+        assertArrayEquals(points, cache.load("models/asteroid", 42L), 0.0f);
+    }
+    
+    @Test
+    public void otherVerticesAreNotLoaded() {
+        cache.save("asteroid", 42L, new float[] { 1.0f, 2.0f, 3.0f });
+        assertNull(cache.load("asteroid", 43L));
+        assertNull(cache.load("spaceship", 42L));
+    }
+    
+    @Test
+    public void hashDependsOnVertices() {
+        FloatBuffer vertices = FloatBuffer.wrap(new float[] { 1.0f, 2.0f, 3.0f, 4.0f, 5.0f, 6.0f });
+        long hash = ConvexHullCache.hash(vertices, 2, 12);
+        assertEquals(hash, ConvexHullCache.hash(vertices, 2, 12));
+        assertFalse(hash == ConvexHullCache.hash(vertices, 1, 12));
+        vertices.put(5, 6.5f);
+        assertFalse(hash == ConvexHullCache.hash(vertices, 2, 12));
+    }
+}
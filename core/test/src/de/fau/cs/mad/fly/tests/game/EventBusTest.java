@@ -0,0 +1,141 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.fau.cs.mad.fly.game.GameController.GameState;
+import de.fau.cs.mad.fly.game.event.EventBus;
+import de.fau.cs.mad.fly.game.event.GameEvent;
+import de.fau.cs.mad.fly.game.event.GameEventFilter;
+import de.fau.cs.mad.fly.game.event.GameEventListener;
+
+/** Test class for {@link EventBus} */
+public class EventBusTest {
+    
+    /** Event with a game state. */
+    public static class TestEvent extends GameEvent {
+        private GameState gameState;
+        
+        public TestEvent set(GameState gameState) {
+            this.gameState = gameState;
+            return this;
+        }
+        
+        public GameState getGameState() {
+            return gameState;
+        }
+        
+        @Override
+        public void reset() {
+            gameState = null;
+        }
+    }
+    
+    private EventBus eventBus;
+    private List<GameState> received;
+    
+    /** Stores the game state of every received event. */
+    private final GameEventListener<TestEvent> recorder = new GameEventListener<TestEvent>() {
+        @Override
+        public void onEvent(TestEvent event) {
+            received.add(event.getGameState());
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        eventBus = new EventBus();
+        received = new ArrayList<GameState>();
+    }
+    
+    private void post(GameState gameState) {
+        eventBus.post(eventBus.obtain(TestEvent.class).set(gameState));
+    }
+    
+    @Test
+    public void eventsAreDeferredUntilDispatch() {
+        eventBus.subscribe(TestEvent.class, recorder);
+        post(GameState.RUNNING);
+        post(GameState.PAUSED);
+        assertEquals(0, received.size());
+        assertEquals(2, eventBus.getQueuedEvents());
+        
+        eventBus.dispatch();
+        assertEquals(2, received.size());
+        assertEquals(GameState.RUNNING, received.get(0));
+        assertEquals(GameState.PAUSED, received.get(1));
+        assertEquals(0, eventBus.getQueuedEvents());
+    }
+    
+    @Test
+    public void filterSelectsEvents() {
+        eventBus.subscribe(TestEvent.class, recorder, new GameEventFilter<TestEvent>() {
+            @Override
+            public boolean accept(TestEvent event) {
+                return event.getGameState() == GameState.VICTORY;
+            }
+        });
+        post(GameState.RUNNING);
+        post(GameState.VICTORY);
+        eventBus.dispatch();
+        assertEquals(1, received.size());
+        assertEquals(GameState.VICTORY, received.get(0));
+    }
+    
+    @Test
+    public void eventsArePooled() {
+        TestEvent first = eventBus.obtain(TestEvent.class).set(GameState.RUNNING);
+        eventBus.post(first);
+        eventBus.dispatch();
+        TestEvent second = eventBus.obtain(TestEvent.class);
+        assertSame(first, second);
+        assertEquals(null, second.getGameState());
+    }
+    
+    @Test
+    public void eventsPostedWhileDispatchingAreDispatched() {
+        eventBus.subscribe(TestEvent.class, new GameEventListener<TestEvent>() {
+            @Override
+            public void onEvent(TestEvent event) {
+                if (event.getGameState() == GameState.RUNNING) {
+                    post(GameState.VICTORY);
+                }
+            }
+        });
+        eventBus.subscribe(TestEvent.class, recorder);
+        post(GameState.RUNNING);
+        eventBus.dispatch();
+        assertEquals(2, received.size());
+        assertEquals(GameState.VICTORY, received.get(1));
+    }
+    
+    @Test
+    public void unsubscribedListenerIsNotCalled() {
+        eventBus.subscribe(TestEvent.class, recorder);
+        eventBus.unsubscribe(TestEvent.class, recorder);
+        post(GameState.RUNNING);
+        eventBus.dispatch();
+        assertEquals(0, received.size());
+    }
+    
+    @Test
+    public void unsubscribeAllRemovesEveryListener() {
+        eventBus.subscribe(TestEvent.class, recorder);
+        eventBus.subscribe(TestEvent.class, new GameEventListener<TestEvent>() {
+            @Override
+            public void onEvent(TestEvent event) {
+                received.add(event.getGameState());
+            }
+        });
+        eventBus.unsubscribeAll(TestEvent.class);
+        post(GameState.RUNNING);
+        eventBus.dispatch();
+        assertEquals(0, received.size());
+    }
+}
@@ -0,0 +1,170 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.fau.cs.mad.fly.features.IFeatureSchedule;
+import de.fau.cs.mad.fly.features.IFeatureUpdate;
+import de.fau.cs.mad.fly.game.FeatureScheduler;
+
+/** Test class for {@link FeatureScheduler} */
+public class FeatureSchedulerTest {
+    
+    private static final float FRAME = 1.0f / 60.0f;
+    
+    /** Feature that counts its updates and the updated time. */
+    private static class CountingFeature implements IFeatureUpdate, IFeatureSchedule {
+        private final float frequency;
+        private final int priority;
+        /** Time in nanoseconds an update takes at least. */
+        long busyNanos = 0;
+        int calls = 0;
+        float time = 0.0f;
+        
+        CountingFeature(float frequency, int priority) {
+            this.frequency = frequency;
+            this.priority = priority;
+        }
+        
+        @Override
+        public void update(float delta) {
+            calls++;
+            time += delta;
+            final long end = System.nanoTime() + busyNanos;
+            while (System.nanoTime() < end) {
+                // busy
+            }
+        }
+        
+        @Override
+        public float getFrequency() {
+            return frequency;
+        }
+        
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+    }
+    
+    private FeatureScheduler<IFeatureUpdate> scheduler;
+    private List<IFeatureUpdate> features;
+    
+    @Before
+    public void setUp() throws Exception {
+        scheduler = new FeatureScheduler<IFeatureUpdate>() {
+            @Override
+            protected void call(IFeatureUpdate feature, float delta) {
+                feature.update(delta);
+            }
+        };
+        features = new ArrayList<IFeatureUpdate>();
+    }
+    
+    private void runFrames(int frames) {
+        runFrames(frames, 1, FRAME);
+    }
+    
+    private void runFrames(int frames, int ticks, float delta) {
+        for (int f = 0; f < frames; f++) {
+            scheduler.startFrame();
+            for (int t = 0; t < ticks; t++) {
+                scheduler.startTick(features);
+                for (int i = 0; i < features.size(); i++) {
+                    scheduler.run(i, delta);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testFrequency() {
+        CountingFeature everyFrame = new CountingFeature(0.0f, IFeatureSchedule.PRIORITY_NORMAL);
+        CountingFeature tenPerSecond = new CountingFeature(10.0f, IFeatureSchedule.PRIORITY_NORMAL);
+        features.add(everyFrame);
+        features.add(tenPerSecond);
+        
+        runFrames(60);
+        assertEquals(60, everyFrame.calls);
+        assertEquals(10, tenPerSecond.calls, 1);
+        // the scheduled feature gets the time since its last call
+        assertEquals(1.0f, tenPerSecond.time, 0.11f);
+    }
+    
+    @Test
+    public void testFrequencyWithoutDrift() {
+        // the interval is 2.5 frames, the calls are late by half a frame in
+        // turn
+        CountingFeature twentyFourPerSecond = new CountingFeature(24.0f, IFeatureSchedule.PRIORITY_NORMAL);
+        features.add(twentyFourPerSecond);
+        
+        runFrames(600);
+        assertEquals(240, twentyFourPerSecond.calls, 1);
+        assertEquals(10.0f, twentyFourPerSecond.time, 0.05f);
+    }
+    
+    @Test
+    public void testStall() {
+        CountingFeature tenPerSecond = new CountingFeature(10.0f, IFeatureSchedule.PRIORITY_NORMAL);
+        features.add(tenPerSecond);
+        runFrames(60);
+        int calls = tenPerSecond.calls;
+        
+        // one call for the whole stall, not one per missed interval
+        runFrames(1, 1, 1.0f);
+        assertEquals(calls + 1, tenPerSecond.calls);
+        // and no calls to catch up after it
+        runFrames(6);
+        assertTrue(tenPerSecond.calls <= calls + 2);
+    }
+    
+    @Test
+    public void testChangedFeatures() {
+        features.add(new CountingFeature(0.0f, IFeatureSchedule.PRIORITY_NORMAL));
+        runFrames(10);
+        
+        // same list and size, but another feature
+        CountingFeature tenPerSecond = new CountingFeature(10.0f, IFeatureSchedule.PRIORITY_NORMAL);
+        features.set(0, tenPerSecond);
+        runFrames(60);
+        assertEquals(10, tenPerSecond.calls, 1);
+    }
+    
+    @Test
+    public void testBudgetPerFrame() {
+        CountingFeature low = new CountingFeature(0.0f, IFeatureSchedule.PRIORITY_LOW);
+        low.busyNanos = 2000000L;
+        features.add(low);
+        scheduler.setBudget(1.0f);
+        
+        // the first tick uses up the budget of the frame, the other ticks of
+        // the frame are not late enough to exceed it
+        runFrames(1, 3, FRAME);
+        assertEquals(1, low.calls);
+        runFrames(1, 3, FRAME);
+        assertEquals(2, low.calls);
+    }
+    
+    @Test
+    public void testLowPriorityWithoutBudget() {
+        CountingFeature low = new CountingFeature(0.0f, IFeatureSchedule.PRIORITY_LOW);
+        features.add(low);
+        scheduler.setBudget(0.0f);
+        
+        runFrames(60);
+        // moved until it is MAX_DELAY frames late
+        assertEquals(60 / FeatureScheduler.MAX_DELAY, low.calls);
+        assertEquals(1.0f, low.time, 0.001f);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        scheduler.setBudget(-1.0f);
+    }
+}
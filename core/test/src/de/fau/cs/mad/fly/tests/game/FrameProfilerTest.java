@@ -0,0 +1,104 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.fau.cs.mad.fly.game.AllocationCounter;
+import de.fau.cs.mad.fly.game.FrameProfiler;
+import de.fau.cs.mad.fly.game.FrameProfiler.Section;
+
+/** Test class for {@link FrameProfiler} */
+public class FrameProfilerTest {
+    
+    private FrameProfiler profiler;
+    
+    @Before
+    public void setUp() throws Exception {
+        profiler = new FrameProfiler();
+        profiler.setEnabled(true);
+    }
+    
+    @Test
+    public void testDisabled() {
+        profiler.setEnabled(false);
+        profiler.add(FrameProfiler.FLIGHT, 1000);
+        profiler.endFrame();
+        assertEquals(0, profiler.getFrames());
+        assertEquals(0, profiler.getSections().get(FrameProfiler.FLIGHT).getFrames());
+    }
+    
+    @Test
+    public void testSumPerFrame() {
+        profiler.add(FrameProfiler.COLLISION, 30000);
+        profiler.add(FrameProfiler.COLLISION, 40000);
+        profiler.endFrame();
+        profiler.add(FrameProfiler.COLLISION, 10000);
+        profiler.endFrame();
+        
+        Section collision = profiler.getSections().get(FrameProfiler.COLLISION);
+        assertEquals(2, collision.getFrames());
+        assertEquals(40000, collision.getSessionMean());
+        assertEquals(70000, collision.getSessionMax());
+        assertEquals(40000, collision.getWindowMean());
+        // 10 us in the first bucket, 70 us in the second
+        assertEquals(1, collision.getBucket(0));
+        assertEquals(1, collision.getBucket(1));
+    }
+    
+    @Test
+    public void testFeatureSections() {
+        int[] sections = profiler.addSections("update", Arrays.asList(new Object[] { "gate", new Object() {
+        } }));
+        assertEquals(2, sections.length);
+        assertEquals("update String", profiler.getSections().get(sections[0]).getName());
+        assertEquals("update FrameProfilerTest", profiler.getSections().get(sections[1]).getName());
+        
+        profiler.reset();
+        assertEquals(FrameProfiler.STAGE_DRAW + 1, profiler.getSections().size());
+    }
+    
+    @Test
+    public void testExport() throws IOException {
+        profiler.add(FrameProfiler.FLIGHT, 2000000);
+        profiler.endFrame();
+        
+        StringWriter csv = new StringWriter();
+        profiler.writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(FrameProfiler.STAGE_DRAW + 2, lines.length);
+        assertTrue(lines[FrameProfiler.FLIGHT + 1].startsWith("\"flight\",1,2000,2000,0,0,0,0,0,0,1,"));
+        
+        StringWriter json = new StringWriter();
+        profiler.writeJson(json);
+        assertTrue(json.toString().contains("{\"name\":\"flight\",\"frames\":1,\"meanUs\":2000,\"maxUs\":2000"));
+    }
+    
+    @Test
+    public void testAllocationsPerLap() {
+        // every call of the counter returns the next value
+        profiler.setAllocationCounter(new AllocationCounter() {
+            private final long[] values = { 1000, 1100, 1600 };
+            private int call = 0;
+            
+            @Override
+            public long getAllocatedBytes() {
+                return values[call++];
+            }
+        });
+        profiler.startFrame();
+        profiler.lap(FrameProfiler.FLIGHT);
+        profiler.lap(FrameProfiler.COLLISION);
+        profiler.endFrame();
+        
+        assertEquals(100, profiler.getSections().get(FrameProfiler.FLIGHT).getSessionMeanBytes());
+        assertEquals(500, profiler.getSections().get(FrameProfiler.COLLISION).getSessionMaxBytes());
+        assertEquals(0, profiler.getSections().get(FrameProfiler.CAMERA).getWindowMeanBytes());
+    }
+}
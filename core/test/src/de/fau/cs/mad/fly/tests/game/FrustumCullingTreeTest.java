@@ -0,0 +1,118 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.utils.Array;
+
+import de.fau.cs.mad.fly.game.FrustumCullingTree;
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObject;
+
+/** Test class for {@link FrustumCullingTree} */
+public class FrustumCullingTreeTest {
+    
+    private final GameModel model = new GameModel(new Model(), null);
+    private final List<GameObject> grid = new ArrayList<GameObject>();
+    private final FrustumCullingTree tree = new FrustumCullingTree(1.0f);
+    private final Array<GameObject> visible = new Array<GameObject>();
+    private final OrthographicCamera camera = new OrthographicCamera();
+    
+    @Before
+    public void setUp() {
+        for (int x = -10; x < 10; x++) {
+            for (int z = -10; z < 10; z++) {
+                GameObject gameObject = new GameObject(model, "grid");
+                gameObject.transform.setToTranslation(x * 10.0f, 0.0f, z * 10.0f);
+                grid.add(gameObject);
+            }
+        }
+        // a box from x = -5 to 55, y = -20 to 20 and z = -25 to 25, the
+        // planes are set directly as the matrices of a camera need natives
+        camera.frustum.planes[0].set(1.0f, 0.0f, 0.0f, 5.0f);
+        camera.frustum.planes[1].set(-1.0f, 0.0f, 0.0f, 55.0f);
+        camera.frustum.planes[2].set(0.0f, 1.0f, 0.0f, 20.0f);
+        camera.frustum.planes[3].set(0.0f, -1.0f, 0.0f, 20.0f);
+        camera.frustum.planes[4].set(0.0f, 0.0f, 1.0f, 25.0f);
+        camera.frustum.planes[5].set(0.0f, 0.0f, -1.0f, 25.0f);
+    }
+    
+    @Test
+    public void queryFindsTheVisibleObjectsOfALinearScan() {
+        tree.build(grid);
+        assertEquals(grid.size(), tree.size());
+        tree.query(camera.frustum, visible);
+        
+        int visibleInScan = 0;
+        for (GameObject gameObject : grid) {
+            if (gameObject.isVisibleInFrustum(camera)) {
+                visibleInScan++;
+                assertTrue(visible.contains(gameObject, true));
+            }
+        }
+        assertEquals(30, visibleInScan);
+        assertEquals(visibleInScan, visible.size);
+        assertTrue(tree.getLastVisitedNodes() < 2 * grid.size() - 1);
+    }
+    
+    @Test
+    public void buildCreatesABalancedTree() {
+        tree.build(grid);
+        assertEquals(10, tree.getHeight());
+    }
+    
+    @Test
+    public void insertedObjectsAreFoundAndRemovedObjectsAreNot() {
+        for (GameObject gameObject : grid) {
+            tree.insert(gameObject);
+        }
+        GameObject inFront = new GameObject(model, "inFront");
+        inFront.transform.setToTranslation(5.0f, 0.0f, 0.0f);
+        tree.insert(inFront);
+        tree.query(camera.frustum, visible);
+        assertTrue(visible.contains(inFront, true));
+        
+        assertTrue(tree.remove(inFront));
+        assertFalse(tree.remove(inFront));
+        visible.clear();
+        tree.query(camera.frustum, visible);
+        assertFalse(visible.contains(inFront, true));
+        assertEquals(grid.size(), tree.size());
+    }
+    
+    @Test
+    public void refitFollowsDynamicObjects() {
+        tree.build(grid);
+        GameObject moving = new GameObject(model, "moving");
+        moving.transform.setToTranslation(-50.0f, 0.0f, 0.0f);
+        tree.insert(moving, true);
+        tree.query(camera.frustum, visible);
+        assertFalse(visible.contains(moving, true));
+        
+        moving.transform.setToTranslation(20.0f, 0.0f, 0.0f);
+        tree.refit();
+        visible.clear();
+        tree.query(camera.frustum, visible);
+        assertTrue(visible.contains(moving, true));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void insertingTwiceThrows() {
+        tree.insert(grid.get(0));
+        tree.insert(grid.get(0));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeMarginThrows() {
+        new FrustumCullingTree(-1.0f);
+    }
+}
@@ -0,0 +1,41 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+
+import de.fau.cs.mad.fly.game.GameModel;
+
+/** Test class for the level of detail selection of {@link GameModel} */
+public class GameModelLodTest {
+    
+    private static final float RADIUS = 1.0f;
+    private static final float SWITCH = RADIUS * GameModel.LOD_DISTANCE_FACTOR;
+    
+    @Test
+    public void modelWithoutLodsAlwaysUsesTheDisplayModel() {
+        GameModel model = new GameModel(null, null);
+        assertEquals(0, model.selectLod(1000.0f * SWITCH, RADIUS, 0));
+    }
+    
+    @Test
+    public void lodIncreasesWithTheDistance() {
+        GameModel model = new GameModel(null, null, new Model[2]);
+        assertEquals(0, model.selectLod(0.5f * SWITCH, RADIUS, 0));
+        assertEquals(1, model.selectLod(1.5f * SWITCH, RADIUS, 0));
+        assertEquals(2, model.selectLod(3.0f * SWITCH, RADIUS, 0));
+        assertEquals(2, model.selectLod(100.0f * SWITCH, RADIUS, 0));
+    }
+    
+    @Test
+    public void lodIsKeptNearTheSwitchingDistance() {
+        GameModel model = new GameModel(null, null, new Model[2]);
+        float justBeyond = SWITCH * (1.0f + 0.5f * GameModel.LOD_HYSTERESIS);
+        float justBefore = SWITCH * (1.0f - 0.5f * GameModel.LOD_HYSTERESIS);
+        assertEquals(0, model.selectLod(justBeyond, RADIUS, 0));
+        assertEquals(1, model.selectLod(justBefore, RADIUS, 1));
+        assertEquals(0, model.selectLod(SWITCH * (1.0f - 2.0f * GameModel.LOD_HYSTERESIS), RADIUS, 1));
+    }
+}
@@ -0,0 +1,93 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.GameObjectPool;
+import de.fau.cs.mad.fly.game.object.RotationMover;
+
+/** Test class for {@link GameObjectPool} */
+public class GameObjectPoolTest {
+    
+    /** Pool that counts the body calls instead of using the collision world. */
+    private static class CountingPool extends GameObjectPool<GameObject> {
+        private final GameModel model = new GameModel(new Model(), null);
+        private int createdBodies = 0;
+        private int addedBodies = 0;
+        private int removedBodies = 0;
+        
+        @Override
+        protected GameObject newObject() {
+            return new GameObject(model, "pooled");
+        }
+        
+        @Override
+        protected void createBodies(GameObject gameObject) {
+            createdBodies++;
+        }
+        
+        @Override
+        protected void addBodies(GameObject gameObject) {
+            addedBodies++;
+        }
+        
+        @Override
+        protected void removeBodies(GameObject gameObject) {
+            removedBodies++;
+        }
+    }
+    
+    private final CountingPool pool = new CountingPool();
+    
+    @Test
+    public void freedObjectIsReusedWithoutNewBodies() {
+        GameObject first = pool.obtain(new Matrix4().setToTranslation(1.0f, 2.0f, 3.0f));
+        assertEquals(1, pool.createdBodies);
+        assertEquals(0, pool.addedBodies);
+        
+        pool.free(first);
+        assertEquals(1, pool.removedBodies);
+        
+        GameObject second = pool.obtain(new Matrix4().setToTranslation(4.0f, 5.0f, 6.0f));
+        assertSame(first, second);
+        assertEquals(1, pool.createdBodies);
+        assertEquals(1, pool.addedBodies);
+        assertEquals(new Vector3(4.0f, 5.0f, 6.0f), second.getPosition());
+        assertEquals(1, pool.getCreated());
+    }
+    
+    @Test
+    public void freedObjectIsReset() {
+        GameObject gameObject = pool.obtain(new Matrix4());
+        gameObject.hide();
+        gameObject.setMover(new RotationMover(gameObject));
+        
+        pool.free(gameObject);
+        assertTrue(gameObject.isVisible());
+        assertNull(gameObject.getMover());
+    }
+    
+    @Test
+    public void ownsOnlyCreatedObjects() {
+        GameObject pooled = pool.obtain(new Matrix4());
+        GameObject other = new GameObject(new GameModel(new Model(), null), "other");
+        assertTrue(pool.owns(pooled));
+        assertFalse(pool.owns(other));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void freeNullThrows() {
+        pool.free(null);
+    }
+}
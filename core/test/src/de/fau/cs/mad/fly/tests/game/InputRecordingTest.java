@@ -0,0 +1,61 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import de.fau.cs.mad.fly.game.InputRecording;
+import de.fau.cs.mad.fly.helper.RandomHelper;
+
+/** Test class for {@link InputRecording} */
+public class InputRecordingTest {
+    
+    private InputRecording writeAndRead(InputRecording recording) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.write(out);
+        return InputRecording.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+    
+    @Test
+    public void recordingIsReadAsWritten() throws IOException {
+        InputRecording recording = new InputRecording(-1234567890123L, 60, "levels/level1.json");
+        recording.setInvertFactors(-1, 1);
+        for (int i = 0; i < 3000; i++) {
+            recording.addFrame(0.016f + i * 0.00001f);
+            recording.addTick(i / 3000.0f, -0.5f);
+        }
+        
+        InputRecording read = writeAndRead(recording);
+        assertEquals(-1234567890123L, read.getSeed());
+        assertEquals(60, read.getFixedTickRate());
+        assertEquals("levels/level1.json", read.getLevelFile());
+        assertEquals(-1, read.getInvertXFactor());
+        assertEquals(1, read.getInvertYFactor());
+        assertEquals(3000, read.getFrames());
+        assertEquals(3000, read.getTicks());
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(recording.getFrameDelta(i), read.getFrameDelta(i), 0.0f);
+            assertEquals(recording.getRollFactor(i), read.getRollFactor(i), 0.0f);
+            assertEquals(-0.5f, read.getAzimuthFactor(i), 0.0f);
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void otherDataIsRejected() throws IOException {
+        InputRecording.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+    }
+    
+    @Test
+    public void seedRepeatsRandomNumbers() {
+        RandomHelper.setSeed(42L);
+        float first = RandomHelper.random(-1.0f, 1.0f);
+        int second = RandomHelper.random(-1, 1);
+        RandomHelper.setSeed(42L);
+        assertEquals(first, RandomHelper.random(-1.0f, 1.0f), 0.0f);
+        assertEquals(second, RandomHelper.random(-1, 1));
+    }
+}
@@ -0,0 +1,82 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.math.Matrix4;
+
+import de.fau.cs.mad.fly.game.MeshMerger;
+
+/** Test class for {@link MeshMerger} */
+public class MeshMergerTest {
+    
+    private static final float EPSILON = 0.0001f;
+    
+    /** Position and normal of three vertices of a triangle in the xy plane. */
+    private static final float[] TRIANGLE = { 0, 0, 0, 0, 0, 1, 1, 0, 0, 0, 0, 1, 0, 1, 0, 0, 0, 1 };
+    
+    private final MeshMerger merger = new MeshMerger(new VertexAttributes(new VertexAttribute(Usage.Position, 3, "a_position"), new VertexAttribute(Usage.Normal, 3, "a_normal")));
+    
+    @Test
+    public void positionsAreTransformedAndIndicesAreOffset() {
+        short[] indices = { 0, 1, 2 };
+        assertTrue(merger.append(TRIANGLE, indices, 0, 3, new Matrix4()));
+        assertTrue(merger.append(TRIANGLE, indices, 0, 3, new Matrix4().setToTranslation(10.0f, 0.0f, 0.0f)));
+        
+        assertEquals(6, merger.getNumVertices());
+        assertEquals(6, merger.getNumIndices());
+        short[] merged = new short[6];
+        System.arraycopy(merger.getIndices(), 0, merged, 0, 6);
+        assertArrayEquals(new short[] { 0, 1, 2, 3, 4, 5 }, merged);
+        
+        float[] vertices = merger.getVertices();
+        assertEquals(11.0f, vertices[4 * 6], EPSILON);
+        assertEquals(0.0f, vertices[4 * 6 + 1], EPSILON);
+        assertEquals(1.0f, vertices[4 * 6 + 5], EPSILON);
+    }
+    
+    @Test
+    public void normalsAreNormalizedAfterScaling() {
+        Matrix4 transform = new Matrix4().setToScaling(2.0f, 2.0f, 4.0f);
+        assertTrue(merger.append(TRIANGLE, null, 0, 3, transform));
+        
+        float[] vertices = merger.getVertices();
+        assertEquals(2.0f, vertices[6], EPSILON);
+        assertEquals(0.0f, vertices[9], EPSILON);
+        assertEquals(1.0f, vertices[11], EPSILON);
+    }
+    
+    @Test
+    public void onlyTheReferencedVerticesAreCopied() {
+        short[] indices = { 2, 1, 2 };
+        assertTrue(merger.append(TRIANGLE, indices, 1, 2, new Matrix4()));
+        
+        assertEquals(2, merger.getNumVertices());
+        assertEquals(0, merger.getIndices()[0]);
+        assertEquals(1, merger.getIndices()[1]);
+        assertEquals(1.0f, merger.getVertices()[0], EPSILON);
+    }
+    
+    @Test
+    public void appendFailsWhenTheIndicesWouldOverflow() {
+        float[] vertices = new float[MeshMerger.MAX_VERTICES * 6];
+        assertTrue(merger.append(vertices, null, 0, MeshMerger.MAX_VERTICES, new Matrix4()));
+        assertFalse(merger.append(TRIANGLE, null, 0, 3, new Matrix4()));
+        assertEquals(MeshMerger.MAX_VERTICES, merger.getNumVertices());
+        
+        merger.clear();
+        assertTrue(merger.append(TRIANGLE, null, 0, 3, new Matrix4()));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void attributesWithoutPositionThrow() {
+        new MeshMerger(new VertexAttributes(new VertexAttribute(Usage.Normal, 3, "a_normal")));
+    }
+}
@@ -0,0 +1,189 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.object.ClosedFormMover;
+import de.fau.cs.mad.fly.game.object.MoverBatch;
+import de.fau.cs.mad.fly.game.object.RotationMover;
+import de.fau.cs.mad.fly.game.object.SinusMover;
+import de.fau.cs.mad.fly.game.object.SinusRotationMover;
+
+/** Test class for {@link MoverBatch} and {@link ClosedFormMover} */
+public class MoverBatchTest {
+    
+    /** Steps that add up to exactly one second. */
+    private static final float STEP = 0.25f;
+    private static final float DELTA = 1.0f / 60.0f;
+    private static final float EPSILON = 1e-4f;
+    
+    private final GameModel model = new GameModel(new Model(), null);
+    
+    private GameObject createObject(String id) {
+        GameObject object = new GameObject(model, id);
+        object.transform.setToTranslation(1.0f, 2.0f, 3.0f);
+        return object;
+    }
+    
+    @Test
+    public void sinusTranslationAtOneSecond() {
+        GameObject object = createObject("sinus");
+        SinusMover mover = new SinusMover(object);
+        mover.X.set(0.05f, 1.5f, 0.3f);
+        mover.Z.set(0.02f, 0.0f, 1.0f);
+        object.setMover(mover);
+        
+        for (int m = 0; m < 4; m++) {
+            object.move(STEP);
+        }
+        Vector3 position = object.transform.getTranslation(new Vector3());
+        // 1 + 60 * 0.05 / 1.5 * (cos 0.3 - cos 1.8) = 1 + 2 * 1.182539
+        assertEquals(3.365077f, position.x, EPSILON);
+        assertEquals(2.0f, position.y, 0.0f);
+        // 3 + 60 * 0.02 * sin 1.0 * 1 s = 3 + 1.2 * 0.841471
+        assertEquals(4.009765f, position.z, EPSILON);
+    }
+    
+    @Test
+    public void rotationAtOneSecond() {
+        GameObject object = createObject("rotation");
+        RotationMover mover = new RotationMover(object);
+        // 9 degrees per frame are 90 degrees per second
+        mover.setRotation(new Vector3(0.0f, 1.0f, 0.0f), 9.0f);
+        object.setMover(mover);
+        
+        for (int m = 0; m < 4; m++) {
+            object.move(STEP);
+        }
+        Matrix4 expected = new Matrix4().set(new Vector3(1.0f, 2.0f, 3.0f), new Quaternion(Vector3.Y, 90.0f));
+        assertArrayEquals(expected.val, object.transform.val, EPSILON);
+    }
+    
+    @Test
+    public void batchEvaluatesTheClosedForm() {
+        GameObject object = createObject("sinusRotation");
+        SinusRotationMover mover = new SinusRotationMover(object);
+        mover.Y.set(0.03f, 2.0f, 0.5f);
+        mover.setRotation(new Vector3(1.0f, 0.0f, 0.0f), 4.5f);
+        object.setMover(mover);
+        GameObject inactive = createObject("inactive");
+        RotationMover inactiveMover = new RotationMover(inactive);
+        inactiveMover.setRotation(new Vector3(0.0f, 0.0f, 1.0f), 1.0f);
+        inactive.setMover(inactiveMover);
+        
+        MoverBatch batch = new MoverBatch();
+        assertTrue(batch.add(object));
+        assertTrue(batch.add(inactive));
+        assertFalse(batch.add(object));
+        inactiveMover.setActive(false);
+        for (int m = 0; m < 4; m++) {
+            // moves of batched movers are ignored
+            object.move(STEP);
+            batch.update(STEP);
+        }
+        
+        // y = 2 + 60 * 0.03 / 2 * (cos 0.5 - cos 2.5) = 2 + 0.9 * 1.678726
+        Matrix4 expected = new Matrix4().set(new Vector3(1.0f, 3.510854f, 3.0f), new Quaternion(Vector3.X, 45.0f));
+        assertArrayEquals(expected.val, object.transform.val, EPSILON);
+        assertEquals(1.0f, mover.getTime(), 0.0f);
+        assertArrayEquals(new Matrix4().setToTranslation(1.0f, 2.0f, 3.0f).val, inactive.transform.val, 0.0f);
+        assertEquals(0.0f, inactiveMover.getTime(), 0.0f);
+    }
+    
+    @Test
+    public void sinusFollowsTheOffsetsPerFrame() {
+        GameObject object = new GameObject(model, "sinus");
+        SinusMover mover = new SinusMover(object);
+        mover.X.set(0.05f, 1.5f, 0.3f);
+        mover.Y.set(0.02f, 0.0f, 0.5f);
+        object.setMover(mover);
+        
+        Vector3 expected = new Vector3();
+        for (int m = 0; m < 120; m++) {
+            float t = m * DELTA;
+            expected.x += mover.X.x * (float) Math.sin(mover.X.y * t + mover.X.z);
+            expected.y += mover.Y.x * (float) Math.sin(mover.Y.y * t + mover.Y.z);
+            object.move(DELTA);
+        }
+        // the sum per frame is a left Riemann sum of the integral, it differs
+        // by 0.0111 in x after two seconds and not at all without frequency
+        Vector3 position = object.transform.getTranslation(new Vector3());
+        assertEquals(expected.x, position.x, 0.012f);
+        assertEquals(expected.y, position.y, 1e-4f);
+        assertEquals(0.0f, position.z, 0.0f);
+    }
+    
+    @Test
+    public void removedMoverKeepsItsTime() {
+        GameObject removed = createObject("removed");
+        removed.setMover(new RotationMover(removed));
+        GameObject last = createObject("last");
+        last.setMover(new RotationMover(last));
+        MoverBatch batch = new MoverBatch();
+        batch.add(removed);
+        batch.add(last);
+        batch.update(STEP);
+        
+        assertTrue(batch.remove(removed));
+        assertFalse(batch.remove(removed));
+        assertFalse(MoverBatch.isBatched(removed));
+        assertTrue(MoverBatch.isBatched(last));
+        assertEquals(STEP, ((ClosedFormMover) removed.getMover()).getTime(), 0.0f);
+        
+        removed.move(STEP);
+        batch.update(STEP);
+        assertEquals(2 * STEP, ((ClosedFormMover) removed.getMover()).getTime(), 0.0f);
+        assertEquals(2 * STEP, ((ClosedFormMover) last.getMover()).getTime(), 0.0f);
+        
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertFalse(MoverBatch.isBatched(last));
+    }
+    
+    @Test
+    public void moverWithoutMotionIsNotMoving() {
+        GameObject object = createObject("still");
+        SinusRotationMover mover = new SinusRotationMover(object);
+        mover.setRotation(new Vector3(0.0f, 1.0f, 0.0f), 0.0f);
+        mover.Y.set(0.0f, 2.0f, 1.0f);
+        object.setMover(mover);
+        assertFalse(mover.isMoving());
+        
+        float[] before = object.transform.val.clone();
+        object.move(DELTA);
+        assertArrayEquals(before, object.transform.val, 0.0f);
+        
+        mover.Y.set(0.01f, 2.0f, 1.0f);
+        assertTrue(mover.isMoving());
+    }
+    
+    @Test
+    public void scaleIsKeptWhileRotating() {
+        GameObject object = new GameObject(model, "rotation");
+        RotationMover mover = new RotationMover(object);
+        mover.setRotation(new Vector3(0.0f, 1.0f, 0.0f), 3.0f);
+        object.setMover(mover);
+        Vector3 scale = new Vector3(0.5f, 0.5f, 0.5f);
+        object.transform.scl(scale);
+        mover.scale(scale);
+        
+        for (int m = 0; m < 120; m++) {
+            object.move(DELTA);
+        }
+        Vector3 scaling = object.transform.getScale(new Vector3());
+        assertEquals(0.5f, scaling.x, 1e-5f);
+        assertEquals(0.5f, scaling.y, 1e-5f);
+        assertEquals(0.5f, scaling.z, 1e-5f);
+    }
+}
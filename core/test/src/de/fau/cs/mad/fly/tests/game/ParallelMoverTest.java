@@ -0,0 +1,118 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.ParallelMover;
+import de.fau.cs.mad.fly.game.object.IGameObjectMover;
+
+/** Test class for {@link ParallelMover} */
+public class ParallelMoverTest {
+    
+    private static final int OBJECTS = 300;
+    private static final int MOVES = 100;
+    private static final float DELTA = 1.0f / 60.0f;
+    
+    /** Mover with its own state that only changes the translation. */
+    private static class SwingMover implements IGameObjectMover {
+        private final GameObject gameObject;
+        private final float speed;
+        private float time = 0.0f;
+        
+        SwingMover(GameObject gameObject, float speed) {
+            this.gameObject = gameObject;
+            this.speed = speed;
+        }
+        
+        @Override
+        public void move(float delta) {
+            time += delta;
+            gameObject.transform.setTranslation((float) Math.sin(speed * time), (float) Math.cos(speed * time), speed * time);
+        }
+        
+        @Override
+        public IGameObjectMover getCopy(GameObject gameObject) {
+            return new SwingMover(gameObject, speed);
+        }
+        
+        @Override
+        public void setActive(boolean active) {
+        }
+    }
+    
+    private ParallelMover parallelMover;
+    
+    @Before
+    public void setUp() {
+        parallelMover = new ParallelMover(4);
+    }
+    
+    @After
+    public void tearDown() {
+        parallelMover.dispose();
+    }
+    
+    private static List<GameObject> createObjects() {
+        GameModel model = new GameModel(new Model(), null);
+        List<GameObject> objects = new ArrayList<GameObject>();
+        for (int i = 0; i < OBJECTS; i++) {
+            GameObject object = new GameObject(model, "object" + i);
+            object.setMover(new SwingMover(object, 0.1f * i));
+            objects.add(object);
+        }
+        return objects;
+    }
+    
+    private static float[] translations(List<GameObject> objects) {
+        float[] values = new float[3 * objects.size()];
+        for (int i = 0; i < objects.size(); i++) {
+            float[] val = objects.get(i).transform.val;
+            values[3 * i] = val[12];
+            values[3 * i + 1] = val[13];
+            values[3 * i + 2] = val[14];
+        }
+        return values;
+    }
+    
+    @Test
+    public void parallelMovesLikeSerial() {
+        List<GameObject> serial = createObjects();
+        List<GameObject> parallel = createObjects();
+        for (int m = 0; m < MOVES; m++) {
+            for (int i = 0; i < serial.size(); i++) {
+                serial.get(i).move(DELTA);
+            }
+            parallelMover.move(parallel, DELTA);
+        }
+        assertArrayEquals(translations(serial), translations(parallel), 0.0f);
+    }
+    
+    @Test
+    public void disposedMoverMovesSerially() {
+        List<GameObject> serial = createObjects();
+        List<GameObject> parallel = createObjects();
+        parallelMover.dispose();
+        for (int m = 0; m < MOVES; m++) {
+            for (int i = 0; i < serial.size(); i++) {
+                serial.get(i).move(DELTA);
+            }
+            parallelMover.move(parallel, DELTA);
+        }
+        assertArrayEquals(translations(serial), translations(parallel), 0.0f);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void oneThreadIsRejected() {
+        new ParallelMover(1);
+    }
+}
@@ -0,0 +1,76 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObject;
+
+/** Test class for the render interpolation of {@link GameObject} */
+public class RenderInterpolationTest {
+    
+    private static final float EPSILON = 1e-5f;
+    
+    private GameObject gameObject;
+    
+    @Before
+    public void setUp() {
+        GameObject.setRenderInterpolation(true);
+        gameObject = new GameObject(new GameModel(new Model(), null), "object");
+    }
+    
+    @After
+    public void tearDown() {
+        GameObject.setRenderInterpolation(false);
+    }
+    
+    private void tick(Matrix4 previous, Matrix4 current, float alpha) {
+        gameObject.transform.set(previous);
+        gameObject.storePreviousTransform();
+        gameObject.transform.set(current);
+        GameObject.setInterpolationAlpha(alpha);
+    }
+    
+    @Test
+    public void translationIsInterpolated() {
+        tick(new Matrix4().setToTranslation(0.0f, 0.0f, 0.0f), new Matrix4().setToTranslation(2.0f, -4.0f, 6.0f), 0.25f);
+        Vector3 position = gameObject.getInterpolatedTransform().getTranslation(new Vector3());
+        assertArrayEquals(new float[] { 0.5f, -1.0f, 1.5f }, new float[] { position.x, position.y, position.z }, EPSILON);
+    }
+    
+    @Test
+    public void scaledRotationIsNotDistorted() {
+        Vector3 scale = new Vector3(1.8f, 1.8f, 1.8f);
+        Matrix4 previous = new Matrix4().set(new Vector3(0.0f, 0.0f, 0.0f), new Quaternion(Vector3.Y, 0.0f), scale);
+        Matrix4 current = new Matrix4().set(new Vector3(4.0f, 0.0f, 0.0f), new Quaternion(Vector3.Y, 90.0f), scale);
+        tick(previous, current, 0.5f);
+        
+        Matrix4 expected = new Matrix4().set(new Vector3(2.0f, 0.0f, 0.0f), new Quaternion(Vector3.Y, 45.0f), scale);
+        assertArrayEquals(expected.val, gameObject.getInterpolatedTransform().val, EPSILON);
+    }
+    
+    @Test
+    public void scaleIsInterpolated() {
+        Matrix4 previous = new Matrix4().setToScaling(1.0f, 1.0f, 1.0f);
+        Matrix4 current = new Matrix4().setToScaling(2.0f, 3.0f, 4.0f);
+        tick(previous, current, 0.5f);
+        
+        Vector3 scale = gameObject.getInterpolatedTransform().getScale(new Vector3());
+        assertArrayEquals(new float[] { 1.5f, 2.0f, 2.5f }, new float[] { scale.x, scale.y, scale.z }, EPSILON);
+    }
+    
+    @Test
+    public void currentTransformIsUsedWithoutWeight() {
+        tick(new Matrix4(), new Matrix4().setToTranslation(1.0f, 0.0f, 0.0f), 1.0f);
+        assertSame(gameObject.transform, gameObject.getInterpolatedTransform());
+    }
+}
@@ -0,0 +1,70 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.CollisionDetector;
+import de.fau.cs.mad.fly.game.ContactBuffer;
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.SpatialHashCollisionBackend;
+
+/** Test class for {@link SpatialHashCollisionBackend} */
+public class SpatialHashCollisionBackendTest {
+    
+    private static final GameModel MODEL = new GameModel(new Model(), null);
+    private static final Vector3 HALF_EXTENTS = new Vector3(1.0f, 1.0f, 1.0f);
+    
+    private final ContactBuffer contacts = new ContactBuffer(16);
+    private final SpatialHashCollisionBackend backend = new SpatialHashCollisionBackend(contacts);
+    
+    private GameObject createBox(String id, float mass, short filterGroup) {
+        GameObject object = new GameObject(MODEL, id);
+        backend.createBoxBody(object, "box", HALF_EXTENTS, mass, filterGroup, CollisionDetector.ALL_FLAG);
+        return object;
+    }
+    
+    @Test
+    public void playerTouchesStaticBody() {
+        GameObject wall = createBox("wall", 0.0f, CollisionDetector.OBJECT_FLAG);
+        GameObject player = createBox("player", 1.0f, CollisionDetector.PLAYER_FLAG);
+        backend.addBody(wall, 0);
+        backend.addBody(player, 1);
+        
+        assertEquals(1, backend.step(1.0f / 60.0f, 1));
+        assertEquals(1, contacts.size());
+        assertEquals(1, contacts.peekFirst());
+        assertEquals(0, contacts.peekSecond());
+    }
+    
+    @Test
+    public void bodyIdIsClearedByRemoval() {
+        GameObject wall = createBox("wall", 0.0f, CollisionDetector.OBJECT_FLAG);
+        assertEquals(-1, backend.getBodyId(wall));
+        backend.addBody(wall, 7);
+        assertEquals(7, backend.getBodyId(wall));
+        backend.removeBody(wall);
+        assertEquals(-1, backend.getBodyId(wall));
+        assertEquals(-1, backend.getBodyId(new GameObject(MODEL, "without body")));
+    }
+    
+    @Test
+    public void staticBodyMovedBeforeRemovalIsRemoved() {
+        GameObject wall = createBox("wall", 0.0f, CollisionDetector.OBJECT_FLAG);
+        backend.addBody(wall, 0);
+        // moved without updateStaticBodies(), so the grid still has the old
+        // bounds
+        wall.getCollisionBody().setWorldTransform(new Matrix4().setToTranslation(100.0f, 0.0f, 0.0f));
+        backend.removeBody(wall);
+        
+        GameObject player = createBox("player", 1.0f, CollisionDetector.PLAYER_FLAG);
+        backend.addBody(player, 1);
+        assertEquals(0, backend.step(1.0f / 60.0f, 1));
+        assertEquals(0, contacts.size());
+    }
+}
@@ -0,0 +1,68 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.IntArray;
+
+import de.fau.cs.mad.fly.game.SpatialHashGrid;
+
+/** Test class for {@link SpatialHashGrid} */
+public class SpatialHashGridTest {
+    
+    private final SpatialHashGrid grid = new SpatialHashGrid(1.0f);
+    private final IntArray result = new IntArray();
+    
+    private void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        result.clear();
+        grid.query(new Vector3(minX, minY, minZ), new Vector3(maxX, maxY, maxZ), result);
+    }
+    
+    @Test
+    public void idInSeveralCellsIsReturnedOnce() {
+        grid.insert(3, new Vector3(-1.5f, -1.5f, -1.5f), new Vector3(1.5f, 1.5f, 1.5f));
+        grid.insert(7, new Vector3(5.5f, 5.5f, 5.5f), new Vector3(5.6f, 5.6f, 5.6f));
+        query(-2.0f, -2.0f, -2.0f, 2.0f, 2.0f, 2.0f);
+        assertEquals(1, result.size);
+        assertEquals(3, result.get(0));
+        
+        query(-2.0f, -2.0f, -2.0f, 6.0f, 6.0f, 6.0f);
+        assertEquals(2, result.size);
+    }
+    
+    @Test
+    public void removedIdIsNotReturned() {
+        Vector3 min = new Vector3(0.5f, 0.5f, 0.5f);
+        Vector3 max = new Vector3(2.5f, 0.5f, 0.5f);
+        grid.insert(1, min, max);
+        grid.insert(2, min, max);
+        grid.remove(1, min, max);
+        query(0.0f, 0.0f, 0.0f, 3.0f, 1.0f, 1.0f);
+        assertEquals(1, result.size);
+        assertEquals(2, result.get(0));
+    }
+    
+    @Test
+    public void oversizedIdIsReturnedByEveryQuery() {
+        grid.insert(0, new Vector3(-100.0f, -100.0f, -100.0f), new Vector3(100.0f, 100.0f, 100.0f));
+        query(500.0f, 500.0f, 500.0f, 501.0f, 501.0f, 501.0f);
+        assertEquals(1, result.size);
+        assertEquals(0, result.get(0));
+    }
+    
+    @Test
+    public void clearRemovesAllIds() {
+        grid.insert(0, new Vector3(-100.0f, -100.0f, -100.0f), new Vector3(100.0f, 100.0f, 100.0f));
+        grid.insert(4, new Vector3(0.0f, 0.0f, 0.0f), new Vector3(0.5f, 0.5f, 0.5f));
+        grid.clear();
+        query(-1000.0f, -1000.0f, -1000.0f, 1000.0f, 1000.0f, 1000.0f);
+        assertTrue(result.size == 0);
+        
+        grid.insert(4, new Vector3(0.0f, 0.0f, 0.0f), new Vector3(0.5f, 0.5f, 0.5f));
+        query(0.0f, 0.0f, 0.0f, 0.1f, 0.1f, 0.1f);
+        assertEquals(1, result.size);
+    }
+}
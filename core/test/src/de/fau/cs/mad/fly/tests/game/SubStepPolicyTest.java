@@ -0,0 +1,51 @@
+package de.fau.cs.mad.fly.tests.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.fau.cs.mad.fly.game.SubStepPolicy;
+
+/** Test class for {@link SubStepPolicy} */
+public class SubStepPolicyTest {
+    
+    private static final float TICK = 1.0f / 60.0f;
+    
+    @Test
+    public void slowPlayerNeedsOneSubStep() {
+        SubStepPolicy policy = new SubStepPolicy(true);
+        // moves 0.1 per tick through colliders of size 0.2
+        assertEquals(1, policy.getSubSteps(TICK, 6.0f, 0.2f));
+        // also in a long frame
+        assertEquals(1, policy.getSubSteps(0.25f, 0.2f, 0.2f));
+    }
+    
+    @Test
+    public void fastPlayerMovesAtMostHalfTheColliderPerSubStep() {
+        SubStepPolicy policy = new SubStepPolicy(true);
+        float speed = 30.0f;
+        float colliderSize = 0.2f;
+        int subSteps = policy.getSubSteps(TICK, speed, colliderSize);
+        assertEquals(5, subSteps);
+        assertTrue(speed * TICK / subSteps <= SubStepPolicy.MAX_MOVE_FRACTION * colliderSize);
+        assertEquals(SubStepPolicy.MAX_SUB_STEPS, policy.getSubSteps(TICK, 1000.0f, colliderSize));
+    }
+    
+    @Test
+    public void fixedPolicyIgnoresTheSpeed() {
+        SubStepPolicy policy = new SubStepPolicy(false);
+        assertEquals(1, policy.getSubSteps(TICK, 1000.0f, 0.2f));
+        assertEquals(2, policy.getSubSteps(1.0f / 30.0f, 0.0f, 0.2f));
+        assertEquals(SubStepPolicy.MAX_FIXED_SUB_STEPS, policy.getSubSteps(1.0f, 0.0f, 0.2f));
+        assertEquals(0.0f, policy.getCcdMotionThreshold(0.2f), 0.0f);
+    }
+    
+    @Test
+    public void unknownColliderSizeNeedsOneSubStep() {
+        SubStepPolicy policy = new SubStepPolicy(true);
+        assertEquals(1, policy.getSubSteps(TICK, 1000.0f, 0.0f));
+        assertEquals(0.0f, policy.getCcdMotionThreshold(0.0f), 0.0f);
+        assertEquals(0.1f, policy.getCcdMotionThreshold(0.2f), 1.0e-6f);
+    }
+}
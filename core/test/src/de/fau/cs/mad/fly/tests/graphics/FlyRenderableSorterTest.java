@@ -0,0 +1,275 @@
+package de.fau.cs.mad.fly.tests.graphics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.utils.Array;
+
+import de.fau.cs.mad.fly.graphics.FlyRenderableSorter;
+import de.fau.cs.mad.fly.graphics.GLStateCounter;
+import de.fau.cs.mad.fly.graphics.shaders.FlyShader;
+
+/**
+ * Test class for {@link FlyRenderableSorter} and {@link GLStateCounter} with
+ * an OpenGL interface that does nothing.
+ */
+public class FlyRenderableSorterTest {
+    
+    private GL20 previousGL20;
+    private GL20 mockGL;
+    private OrthographicCamera camera;
+    private Environment environment;
+    
+    /** Answers every OpenGL call with 0 and creates increasing handles. */
+    private static class MockGL implements InvocationHandler {
+        private int handles = 0;
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().startsWith("glGen")) {
+                if (args != null && args.length == 2 && args[1] instanceof IntBuffer) {
+                    final IntBuffer buffer = (IntBuffer) args[1];
+                    for (int i = 0; i < (Integer) args[0]; i++) {
+                        buffer.put(buffer.position() + i, ++handles);
+                    }
+                    return null;
+                }
+                return ++handles;
+            }
+            final Class<?> type = method.getReturnType();
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == float.class) {
+                return 0.0f;
+            }
+            return null;
+        }
+    }
+    
+    /** Texture data that uploads nothing. */
+    private static class EmptyTextureData implements TextureData {
+        @Override
+        public TextureDataType getType() {
+            return TextureDataType.Custom;
+        }
+        
+        @Override
+        public boolean isPrepared() {
+            return true;
+        }
+        
+        @Override
+        public void prepare() {
+        }
+        
+        @Override
+        public Pixmap consumePixmap() {
+            return null;
+        }
+        
+        @Override
+        public boolean disposePixmap() {
+            return false;
+        }
+        
+        @Override
+        public void consumeCustomData(int target) {
+        }
+        
+        @Override
+        public int getWidth() {
+            return 1;
+        }
+        
+        @Override
+        public int getHeight() {
+            return 1;
+        }
+        
+        @Override
+        public Format getFormat() {
+            return Format.RGBA8888;
+        }
+        
+        @Override
+        public boolean useMipMaps() {
+            return false;
+        }
+        
+        @Override
+        public boolean isManaged() {
+            return false;
+        }
+    }
+    
+    @Before
+    public void setUp() {
+        previousGL20 = Gdx.gl20;
+        mockGL = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class }, new MockGL());
+        Gdx.gl20 = mockGL;
+        Gdx.gl = mockGL;
+        camera = new OrthographicCamera();
+        camera.position.set(0.0f, 0.0f, 0.0f);
+        environment = new Environment();
+    }
+    
+    @After
+    public void tearDown() {
+        Gdx.gl20 = previousGL20;
+        Gdx.gl = previousGL20;
+    }
+    
+    private Renderable createRenderable(Shader shader, Texture texture, float distance) {
+        Renderable renderable = new Renderable();
+        renderable.environment = environment;
+        renderable.material = new Material();
+        if (texture != null) {
+            renderable.material.set(TextureAttribute.createDiffuse(texture));
+        }
+        renderable.shader = shader;
+        renderable.worldTransform.setToTranslation(0.0f, 0.0f, distance);
+        return renderable;
+    }
+    
+    /**
+     * Binds the program and the texture of every renderable like a model batch
+     * if they differ from the ones of the previous renderable.
+     */
+    private void render(Array<Renderable> renderables, GL20 gl) {
+        Shader shader = null;
+        Texture texture = null;
+        for (Renderable renderable : renderables) {
+            if (renderable.shader != shader) {
+                shader = renderable.shader;
+                gl.glUseProgram(System.identityHashCode(shader));
+            }
+            TextureAttribute attribute = (TextureAttribute) renderable.material.get(TextureAttribute.Diffuse);
+            Texture current = attribute == null ? null : attribute.textureDescription.texture;
+            if (current != null && current != texture) {
+                texture = current;
+                gl.glBindTexture(GL20.GL_TEXTURE_2D, texture.getTextureObjectHandle());
+            }
+            gl.glUniformMatrix4fv(0, 1, false, null);
+            gl.glDrawElements(GL20.GL_TRIANGLES, 3, GL20.GL_UNSIGNED_SHORT, 0);
+        }
+    }
+    
+    @Test
+    public void renderablesAreGroupedByShaderTextureAndDepth() {
+        Renderable template = createRenderable(null, null, 0.0f);
+        Shader shader1 = new FlyShader(template);
+        Shader shader2 = new FlyShader(template);
+        Texture texture1 = new Texture(new EmptyTextureData());
+        Texture texture2 = new Texture(new EmptyTextureData());
+        
+        Array<Renderable> renderables = new Array<Renderable>();
+        Renderable far2 = createRenderable(shader2, texture2, 30.0f);
+        Renderable near1 = createRenderable(shader1, texture1, 10.0f);
+        Renderable near2 = createRenderable(shader2, texture2, 5.0f);
+        Renderable texture2Shader1 = createRenderable(shader1, texture2, 1.0f);
+        Renderable far1 = createRenderable(shader1, texture1, 20.0f);
+        renderables.addAll(far2, near1, near2, texture2Shader1, far1);
+        
+        new FlyRenderableSorter().sort(camera, renderables);
+        
+        int firstTexture = Math.min(texture1.getTextureObjectHandle(), texture2.getTextureObjectHandle());
+        Renderable[] expected;
+        if (firstTexture == texture1.getTextureObjectHandle()) {
+            expected = new Renderable[] { near1, far1, texture2Shader1, near2, far2 };
+        } else {
+            expected = new Renderable[] { texture2Shader1, near1, far1, near2, far2 };
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue("renderable " + i, expected[i] == renderables.get(i));
+        }
+    }
+    
+    @Test
+    public void blendedRenderablesComeLastFromBackToFront() {
+        Shader shader = new FlyShader(createRenderable(null, null, 0.0f));
+        Renderable opaque = createRenderable(shader, null, 50.0f);
+        Renderable nearBlended = createRenderable(shader, null, 1.0f);
+        nearBlended.material.set(new BlendingAttribute(0.5f));
+        Renderable farBlended = createRenderable(shader, null, 10.0f);
+        farBlended.material.set(new BlendingAttribute(0.5f));
+        
+        Array<Renderable> renderables = new Array<Renderable>();
+        renderables.addAll(nearBlended, opaque, farBlended);
+        new FlyRenderableSorter().sort(camera, renderables);
+        
+        assertTrue(opaque == renderables.get(0));
+        assertTrue(farBlended == renderables.get(1));
+        assertTrue(nearBlended == renderables.get(2));
+    }
+    
+    @Test
+    public void sortingReducesTheCountedStateChanges() {
+        Renderable template = createRenderable(null, null, 0.0f);
+        Shader shader1 = new FlyShader(template);
+        Shader shader2 = new FlyShader(template);
+        Texture texture1 = new Texture(new EmptyTextureData());
+        Texture texture2 = new Texture(new EmptyTextureData());
+        Array<Renderable> renderables = new Array<Renderable>();
+        for (int i = 0; i < 8; i++) {
+            renderables.add(createRenderable(i % 2 == 0 ? shader1 : shader2, i % 3 == 0 ? texture1 : texture2, i));
+        }
+        
+        GLStateCounter counter = new GLStateCounter(mockGL);
+        counter.startFrame();
+        render(renderables, counter);
+        assertEquals(8, counter.getProgramBinds());
+        assertEquals(6, counter.getTextureBinds());
+        assertEquals(8, counter.getUniformUploads());
+        assertEquals(8, counter.getDrawCalls());
+        
+        new FlyRenderableSorter().sort(camera, renderables);
+        counter.startFrame();
+        render(renderables, counter);
+        counter.glUseProgram(0);
+        assertEquals(2, counter.getProgramBinds());
+        assertEquals(4, counter.getTextureBinds());
+        assertEquals(8, counter.getUniformUploads());
+        assertEquals(8, counter.getDrawCalls());
+    }
+    
+    @Test
+    public void uninstallRestoresTheOpenGLInterface() {
+        GLStateCounter counter = GLStateCounter.install();
+        assertSame(counter, Gdx.gl20);
+        assertSame(counter, Gdx.gl);
+        assertSame(counter, GLStateCounter.install());
+        
+        GLStateCounter.uninstall();
+        assertSame(mockGL, Gdx.gl20);
+        assertSame(mockGL, Gdx.gl);
+        GLStateCounter.uninstall();
+        assertSame(mockGL, Gdx.gl20);
+    }
+}
@@ -0,0 +1,79 @@
+package de.fau.cs.mad.fly.tests.graphics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Matrix4;
+
+import de.fau.cs.mad.fly.graphics.InstanceBuffer;
+import de.fau.cs.mad.fly.graphics.InstancedModel;
+
+/** Test class for {@link InstanceBuffer} and the copies of {@link InstancedModel} */
+public class InstanceBufferTest {
+    
+    private static final float EPSILON = 0.0001f;
+    
+    @Test
+    public void transformsArePackedAsRows() {
+        InstanceBuffer buffer = new InstanceBuffer(2);
+        assertTrue(buffer.add(new Matrix4()));
+        assertTrue(buffer.add(new Matrix4().setToTranslation(1.0f, 2.0f, 3.0f)));
+        
+        float[] expected = { 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 1, 0, 0, 1, 0, 1, 0, 2, 0, 0, 1, 3 };
+        assertEquals(2 * InstanceBuffer.FLOATS_PER_INSTANCE, buffer.getFloats());
+        assertArrayEquals(expected, buffer.getData(), EPSILON);
+    }
+    
+    @Test
+    public void rowsTransformAPointLikeTheMatrix() {
+        Matrix4 transform = new Matrix4().setToRotation(0.0f, 1.0f, 0.0f, 90.0f).trn(5.0f, 0.0f, 0.0f);
+        InstanceBuffer buffer = new InstanceBuffer(1);
+        buffer.add(transform);
+        
+        float[] data = buffer.getData();
+        float x = 1.0f;
+        float y = 2.0f;
+        float z = 3.0f;
+        for (int row = 0; row < 3; row++) {
+            float expected = transform.val[row] * x + transform.val[4 + row] * y + transform.val[8 + row] * z + transform.val[12 + row];
+            float packed = data[row * 4] * x + data[row * 4 + 1] * y + data[row * 4 + 2] * z + data[row * 4 + 3];
+            assertEquals(expected, packed, EPSILON);
+        }
+    }
+    
+    @Test
+    public void fullBufferRejectsInstancesUntilCleared() {
+        InstanceBuffer buffer = new InstanceBuffer(1);
+        assertTrue(buffer.add(new Matrix4()));
+        assertTrue(buffer.isFull());
+        assertFalse(buffer.add(new Matrix4()));
+        assertEquals(1, buffer.size());
+        
+        buffer.clear();
+        assertEquals(0, buffer.getFloats());
+        assertTrue(buffer.add(new Matrix4()));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyInstancesThrow() {
+        new InstanceBuffer(InstanceBuffer.MAX_INSTANCES + 1);
+    }
+    
+    @Test
+    public void verticesAreCopiedWithTheInstanceIndex() {
+        float[] vertices = { 1, 2, 3, 4 };
+        float[] copies = InstancedModel.replicateVertices(vertices, 2, 2, 2);
+        assertArrayEquals(new float[] { 1, 2, 0, 3, 4, 0, 1, 2, 1, 3, 4, 1 }, copies, EPSILON);
+    }
+    
+    @Test
+    public void indicesReferToTheVerticesOfTheirCopy() {
+        short[] indices = { 0, 1, 2 };
+        short[] copies = InstancedModel.replicateIndices(indices, 3, 3, 3);
+        assertArrayEquals(new short[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 }, copies);
+    }
+}
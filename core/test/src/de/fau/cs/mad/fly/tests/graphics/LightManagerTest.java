@@ -0,0 +1,84 @@
+package de.fau.cs.mad.fly.tests.graphics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.environment.PointLight;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.graphics.LightManager;
+
+/** Test class for {@link LightManager} */
+public class LightManagerTest {
+    
+    private static final float CELL_SIZE = 10.0f;
+    
+    private Environment environment;
+    private PointLight near;
+    private PointLight bright;
+    private PointLight far;
+    private PointLight weak;
+    
+    @Before
+    public void setUp() {
+        environment = new Environment();
+        environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.3f, 0.3f, 0.3f, 1.0f));
+        environment.add(new DirectionalLight().set(Color.WHITE, new Vector3(0.0f, -1.0f, 0.0f)));
+        near = new PointLight().set(Color.RED, new Vector3(6.0f, 5.0f, 5.0f), 1.0f);
+        bright = new PointLight().set(Color.GREEN, new Vector3(45.0f, 5.0f, 5.0f), 10000.0f);
+        far = new PointLight().set(Color.BLUE, new Vector3(500.0f, 5.0f, 5.0f), 1.0f);
+        weak = new PointLight().set(Color.WHITE, new Vector3(15.0f, 5.0f, 5.0f), 0.01f);
+        environment.add(far, weak, near, bright);
+    }
+    
+    @Test
+    public void managerIsOnlyNeededForMoreLights() {
+        assertTrue(LightManager.isNeeded(environment, 2));
+        assertFalse(LightManager.isNeeded(environment, 4));
+    }
+    
+    @Test
+    public void cellEnvironmentHasTheMostRelevantLights() {
+        LightManager manager = new LightManager(environment, 2, CELL_SIZE);
+        Environment cell = manager.select(environment, new Vector3(5.0f, 5.0f, 5.0f), null);
+        
+        assertNotSame(environment, cell);
+        assertTrue(cell.equals(environment));
+        assertEquals(1, cell.directionalLights.size);
+        assertEquals(2, cell.pointLights.size);
+        assertSame(bright, cell.pointLights.get(0));
+        assertSame(near, cell.pointLights.get(1));
+    }
+    
+    @Test
+    public void selectionIsCachedPerCell() {
+        LightManager manager = new LightManager(environment, 2, CELL_SIZE);
+        Environment cell = manager.select(environment, new Vector3(5.0f, 5.0f, 5.0f), null);
+        assertSame(cell, manager.select(environment, new Vector3(9.0f, 1.0f, 1.0f), cell));
+        assertSame(cell, manager.select(environment, new Vector3(1.0f, 1.0f, 1.0f), null));
+        assertEquals(1, manager.getCells());
+        
+        Environment otherCell = manager.select(environment, new Vector3(495.0f, 5.0f, 5.0f), cell);
+        assertNotSame(cell, otherCell);
+        assertSame(bright, otherCell.pointLights.get(0));
+        assertSame(far, otherCell.pointLights.get(1));
+        assertEquals(2, manager.getCells());
+    }
+    
+    @Test
+    public void otherEnvironmentsAreNotChanged() {
+        LightManager manager = new LightManager(environment, 2, CELL_SIZE);
+        Environment ambient = new Environment();
+        assertSame(ambient, manager.select(ambient, new Vector3(), null));
+    }
+}
@@ -0,0 +1,66 @@
+package de.fau.cs.mad.fly.tests.graphics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.graphics.shaders.UniformCache;
+
+/** Test class for {@link UniformCache} */
+public class UniformCacheTest {
+    
+    @Test
+    public void unchangedValuesAreNotUploaded() {
+        UniformCache cache = new UniformCache();
+        assertTrue(cache.update(0, 1.0f));
+        assertFalse(cache.update(0, 1.0f));
+        assertTrue(cache.update(0, 2.0f));
+        
+        Vector3 position = new Vector3(1.0f, 2.0f, 3.0f);
+        assertTrue(cache.update(1, position));
+        assertFalse(cache.update(1, position));
+        position.z = 4.0f;
+        assertTrue(cache.update(1, position));
+        
+        assertTrue(cache.update(2, Color.BLACK));
+        assertFalse(cache.update(2, new Color(0.0f, 0.0f, 0.0f, 1.0f)));
+        
+        assertEquals(5, cache.getUploads());
+        assertEquals(3, cache.getAvoidedUploads());
+        cache.resetCounters();
+        assertEquals(0, cache.getUploads());
+        assertEquals(0, cache.getAvoidedUploads());
+    }
+    
+    @Test
+    public void matricesAreComparedByValue() {
+        UniformCache cache = new UniformCache();
+        Matrix4 transform = new Matrix4().setToTranslation(1.0f, 2.0f, 3.0f);
+        assertTrue(cache.update(3, transform));
+        assertFalse(cache.update(3, new Matrix4().setToTranslation(1.0f, 2.0f, 3.0f)));
+        transform.val[Matrix4.M23] = 5.0f;
+        assertTrue(cache.update(3, transform));
+        
+        Matrix3 normalMatrix = new Matrix3();
+        assertTrue(cache.update(4, normalMatrix));
+        assertFalse(cache.update(4, normalMatrix));
+    }
+    
+    @Test
+    public void invalidatedValuesAreUploadedAgain() {
+        UniformCache cache = new UniformCache();
+        assertTrue(cache.update(0, 1));
+        assertTrue(cache.update(40, 1.0f));
+        cache.invalidate();
+        assertTrue(cache.update(0, 1));
+        assertTrue(cache.update(40, 1.0f));
+        assertFalse(cache.update(40, 1.0f));
+    }
+}
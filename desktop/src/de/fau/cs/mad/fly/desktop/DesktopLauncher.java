@@ -18,7 +18,9 @@ public class DesktopLauncher {
 		config.height = 640;
 		// config.fullscreen = true;
 
-		new LwjglApplication(new Fly(), config);
+		Fly fly = new Fly();
+		fly.setAllocationCounter(ThreadAllocationCounter.create());
+		new LwjglApplication(fly, config);
 
 		try {
 			Scanner in = new Scanner(new FileReader("DesktopVersion.txt"));
@@ -0,0 +1,55 @@
+package de.fau.cs.mad.fly.desktop;
+
+import java.lang.management.ManagementFactory;
+
+import de.fau.cs.mad.fly.game.AllocationCounter;
+
+/**
+ * Counts the memory allocated by the thread that calls the counter with the
+ * thread allocation statistics of the desktop virtual machines.
+ * <p>
+ * It is injected by the desktop launcher and the headless harness, Android
+ * and iOS have no such statistics.
+ */
+public class ThreadAllocationCounter implements AllocationCounter {
+    
+    private final com.sun.management.ThreadMXBean bean;
+    
+    /** Bytes one call of the bean allocates itself. */
+    private final long overhead;
+    private long calls = 0;
+    
+    private ThreadAllocationCounter(com.sun.management.ThreadMXBean bean) {
+        this.bean = bean;
+        // warm up, then measure what the measurement allocates
+        final long threadId = Thread.currentThread().getId();
+        bean.getThreadAllocatedBytes(threadId);
+        long first = bean.getThreadAllocatedBytes(threadId);
+        long second = bean.getThreadAllocatedBytes(threadId);
+        this.overhead = second - first;
+    }
+    
+    /**
+     * Creates a counter.
+     * 
+     * @return counter, or null if the virtual machine cannot count the
+     *         allocations of a thread
+     */
+    public static AllocationCounter create() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+                return new ThreadAllocationCounter(sunBean);
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public long getAllocatedBytes() {
+        calls++;
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId()) - calls * overhead;
+    }
+}
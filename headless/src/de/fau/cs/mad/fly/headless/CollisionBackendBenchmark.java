@@ -0,0 +1,55 @@
+package de.fau.cs.mad.fly.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import de.fau.cs.mad.fly.game.CollisionDetector;
+
+/**
+ * Simulates a level with the Bullet dynamics world and with the pure Java
+ * spatial hash grid and prints the ticks per second, the time of the
+ * collision steps and the contacts that are passed to Java, see
+ * {@link CollisionDetector.Backend}.
+ * <p>
+ * Arguments: level file and number of ticks, relative to the assets directory.
+ * Levels with many flying objects show the difference best, for example
+ * <code>"levels/Medium Levels/level11.json" 3600</code>
+ *
+ */
+public class CollisionBackendBenchmark {
+
+    public static final String DEFAULT_LEVEL = "levels/Medium Levels/level11.json";
+
+    public static void main(String[] arg) throws InterruptedException {
+        String levelFile = arg.length > 0 ? arg[0] : DEFAULT_LEVEL;
+        int ticks = arg.length > 1 ? Integer.parseInt(arg[1]) : HeadlessLauncher.DEFAULT_TICKS;
+
+        SimulationHarness bullet = run(levelFile, ticks, CollisionDetector.Backend.DYNAMICS_WORLD);
+        SimulationHarness spatialHash = run(levelFile, ticks, CollisionDetector.Backend.SPATIAL_HASH);
+
+        System.out.println("level: " + levelFile + ", ticks: " + ticks);
+        print("bullet", bullet);
+        print("spatial hash", spatialHash);
+        System.exit(0);
+    }
+
+    private static void print(String name, SimulationHarness harness) {
+        System.out.println(name + ": " + harness.getTicksPerSecond() + " ticks per second, " + harness.getBulletStepMicros() + " us per step, " + harness.getContactCallbacksPerTick() + " callbacks per tick");
+    }
+
+    /**
+     * Simulates the level in a new headless application and waits for the
+     * result.
+     */
+    private static SimulationHarness run(String levelFile, int ticks, CollisionDetector.Backend backend) throws InterruptedException {
+        SimulationHarness harness = new SimulationHarness(levelFile, HeadlessLauncher.DEFAULT_PLANE, ticks, HeadlessLauncher.DEFAULT_TICK_RATE);
+        harness.setCollisionBackend(backend);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = 1.0f;
+        new HeadlessApplication(harness, config);
+        if (!harness.awaitFinished(600)) {
+            throw new IllegalStateException("The simulation did not finish.");
+        }
+        return harness;
+    }
+}
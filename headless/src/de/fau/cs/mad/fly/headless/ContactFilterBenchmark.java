@@ -0,0 +1,50 @@
+package de.fau.cs.mad.fly.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import de.fau.cs.mad.fly.game.CollisionDetector;
+
+/**
+ * Simulates a level without and with contact callback filtering and prints the
+ * contacts that are passed from Bullet to Java and the time of the Bullet
+ * steps, see {@link CollisionDetector#setContactFiltering(boolean)}.
+ * <p>
+ * Arguments: level file and number of ticks, relative to the assets directory.
+ * Levels with many flying objects show the difference best, for example
+ * <code>"levels/Medium Levels/level11.json" 3600</code>
+ *
+ */
+public class ContactFilterBenchmark {
+
+    public static final String DEFAULT_LEVEL = "levels/Medium Levels/level11.json";
+
+    public static void main(String[] arg) throws InterruptedException {
+        String levelFile = arg.length > 0 ? arg[0] : DEFAULT_LEVEL;
+        int ticks = arg.length > 1 ? Integer.parseInt(arg[1]) : HeadlessLauncher.DEFAULT_TICKS;
+
+        SimulationHarness unfiltered = run(levelFile, ticks, false);
+        SimulationHarness filtered = run(levelFile, ticks, true);
+
+        System.out.println("level: " + levelFile + ", ticks: " + ticks);
+        System.out.println("without filtering: " + unfiltered.getContactCallbacksPerTick() + " callbacks per tick, " + unfiltered.getBulletStepMicros() + " us per step");
+        System.out.println("with filtering: " + filtered.getContactCallbacksPerTick() + " callbacks per tick, " + filtered.getBulletStepMicros() + " us per step");
+        System.exit(0);
+    }
+
+    /**
+     * Simulates the level in a new headless application and waits for the
+     * result.
+     */
+    private static SimulationHarness run(String levelFile, int ticks, boolean contactFiltering) throws InterruptedException {
+        CollisionDetector.setContactFiltering(contactFiltering);
+        SimulationHarness harness = new SimulationHarness(levelFile, HeadlessLauncher.DEFAULT_PLANE, ticks, HeadlessLauncher.DEFAULT_TICK_RATE);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = 1.0f;
+        new HeadlessApplication(harness, config);
+        if (!harness.awaitFinished(600)) {
+            throw new IllegalStateException("The simulation did not finish.");
+        }
+        return harness;
+    }
+}
@@ -0,0 +1,112 @@
+package de.fau.cs.mad.fly.headless;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import de.fau.cs.mad.fly.game.FrustumCullingTree;
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.GameObject;
+
+/**
+ * Culls a scene of game objects against a rotating camera with a linear scan
+ * of {@link GameObject#isVisibleInFrustum(com.badlogic.gdx.graphics.Camera)}
+ * and with the {@link FrustumCullingTree} and prints the time per frame.
+ * <p>
+ * The levels have only a few components, so the scene is generated: game
+ * objects without a mesh, randomly placed in a cube with an edge length of
+ * 2000, a share of them moves in every frame and is refit.
+ * <p>
+ * Arguments: number of game objects, percentage of moving game objects and
+ * number of frames, for example <code>10000 10 600</code>
+ *
+ */
+public class CullingBenchmark {
+
+    public static final int DEFAULT_OBJECTS = 10000;
+    public static final int DEFAULT_MOVING_PERCENTAGE = 10;
+    public static final int DEFAULT_FRAMES = 600;
+
+    public static void main(String[] arg) {
+        int objects = arg.length > 0 ? Integer.parseInt(arg[0]) : DEFAULT_OBJECTS;
+        int movingPercentage = arg.length > 1 ? Integer.parseInt(arg[1]) : DEFAULT_MOVING_PERCENTAGE;
+        int frames = arg.length > 2 ? Integer.parseInt(arg[2]) : DEFAULT_FRAMES;
+        GdxNativesLoader.load();
+
+        Random random = new Random(42);
+        GameModel model = new GameModel(new Model(), null);
+        List<GameObject> staticObjects = new ArrayList<GameObject>();
+        List<GameObject> movingObjects = new ArrayList<GameObject>();
+        List<Vector3> velocities = new ArrayList<Vector3>();
+        for (int i = 0; i < objects; i++) {
+            GameObject gameObject = new GameObject(model, "object" + i);
+            gameObject.transform.setToTranslation(random.nextFloat() * 2000.0f - 1000.0f, random.nextFloat() * 2000.0f - 1000.0f, random.nextFloat() * 2000.0f - 1000.0f);
+            if (random.nextInt(100) < movingPercentage) {
+                movingObjects.add(gameObject);
+                velocities.add(new Vector3(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f));
+            } else {
+                staticObjects.add(gameObject);
+            }
+        }
+
+        FrustumCullingTree tree = new FrustumCullingTree(2.0f);
+        long start = System.nanoTime();
+        tree.build(staticObjects);
+        for (int i = 0; i < movingObjects.size(); i++) {
+            tree.insert(movingObjects.get(i), true);
+        }
+        double buildMillis = (System.nanoTime() - start) / 1000000.0;
+
+        PerspectiveCamera camera = new PerspectiveCamera(67.0f, 800.0f, 480.0f);
+        camera.near = 0.1f;
+        camera.far = 500.0f;
+        Array<GameObject> visible = new Array<GameObject>(false, 256, GameObject.class);
+        long linearNanos = 0;
+        long treeNanos = 0;
+        long linearVisible = 0;
+        long treeVisible = 0;
+        long visitedNodes = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            for (int i = 0; i < movingObjects.size(); i++) {
+                movingObjects.get(i).transform.translate(velocities.get(i));
+            }
+            camera.direction.set(1.0f, 0.0f, 0.0f).rotate(Vector3.Y, 360.0f * frame / frames);
+            camera.update();
+
+            start = System.nanoTime();
+            int count = 0;
+            for (int i = 0; i < staticObjects.size(); i++) {
+                if (staticObjects.get(i).isVisibleInFrustum(camera)) {
+                    count++;
+                }
+            }
+            for (int i = 0; i < movingObjects.size(); i++) {
+                if (movingObjects.get(i).isVisibleInFrustum(camera)) {
+                    count++;
+                }
+            }
+            linearNanos += System.nanoTime() - start;
+            linearVisible += count;
+
+            start = System.nanoTime();
+            tree.refit();
+            visible.clear();
+            tree.query(camera.frustum, visible);
+            treeNanos += System.nanoTime() - start;
+            treeVisible += visible.size;
+            visitedNodes += tree.getLastVisitedNodes();
+        }
+
+        System.out.println("objects: " + objects + ", moving: " + movingObjects.size() + ", frames: " + frames);
+        System.out.println("tree build: " + buildMillis + " ms, height: " + tree.getHeight());
+        System.out.println("linear scan: " + (linearNanos / 1000.0 / frames) + " us per frame, " + (linearVisible / frames) + " visible");
+        System.out.println("culling tree: " + (treeNanos / 1000.0 / frames) + " us per frame, " + (treeVisible / frames) + " candidates, " + (visitedNodes / frames) + " visited nodes");
+        System.exit(0);
+    }
+}
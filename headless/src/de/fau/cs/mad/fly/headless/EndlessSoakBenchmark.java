@@ -0,0 +1,53 @@
+package de.fau.cs.mad.fly.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import de.fau.cs.mad.fly.game.GameObjectPool;
+
+/**
+ * Simulates an endless level for a long time and prints the used heap and the
+ * bodies in the collision world in an interval. With the
+ * {@link GameObjectPool}s of the endless levels both stay flat once the pools
+ * are filled, growing samples show objects that are never released.
+ * <p>
+ * Arguments: level file, number of ticks, ticks per second and ticks between
+ * two samples, the level is relative to the assets directory. The defaults
+ * simulate one hour of the endless level, for example
+ * <code>"levels/Endless/randomEndlessLevel.json" 216000 60 3600</code>
+ *
+ */
+public class EndlessSoakBenchmark {
+
+    public static final String DEFAULT_LEVEL = "levels/Endless/randomEndlessLevel.json";
+    public static final int DEFAULT_TICKS = 216000;
+    public static final int DEFAULT_SAMPLE_INTERVAL = 3600;
+
+    public static void main(String[] arg) throws InterruptedException {
+        String levelFile = arg.length > 0 ? arg[0] : DEFAULT_LEVEL;
+        int ticks = arg.length > 1 ? Integer.parseInt(arg[1]) : DEFAULT_TICKS;
+        int tickRate = arg.length > 2 ? Integer.parseInt(arg[2]) : HeadlessLauncher.DEFAULT_TICK_RATE;
+        int sampleInterval = arg.length > 3 ? Integer.parseInt(arg[3]) : DEFAULT_SAMPLE_INTERVAL;
+
+        SimulationHarness harness = new SimulationHarness(levelFile, HeadlessLauncher.DEFAULT_PLANE, ticks, tickRate);
+        harness.setSampleInterval(sampleInterval);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = 1.0f;
+        new HeadlessApplication(harness, config);
+        if (!harness.awaitFinished(24 * 3600)) {
+            throw new IllegalStateException("The simulation did not finish.");
+        }
+
+        System.out.println("level: " + levelFile + ", ticks: " + harness.getSimulatedTicks() + " of " + ticks + " at " + tickRate + " ticks per second");
+        final int samples = harness.getSampleTicks().size;
+        for (int i = 0; i < samples; i++) {
+            System.out.println("tick " + harness.getSampleTicks().get(i) + ": " + harness.getSampledHeapBytes().get(i) / 1024 + " KiB heap, " + harness.getSampledBodies().get(i) + " bodies");
+        }
+        if (samples > 1) {
+            long heapGrowth = harness.getSampledHeapBytes().get(samples - 1) - harness.getSampledHeapBytes().get(0);
+            int bodyGrowth = harness.getSampledBodies().get(samples - 1) - harness.getSampledBodies().get(0);
+            System.out.println("growth since the first sample: " + heapGrowth / 1024 + " KiB heap, " + bodyGrowth + " bodies");
+        }
+        System.exit(0);
+    }
+}
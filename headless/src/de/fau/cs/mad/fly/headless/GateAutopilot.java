@@ -0,0 +1,57 @@
+package de.fau.cs.mad.fly.headless;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.game.GameController;
+import de.fau.cs.mad.fly.game.ScriptedFlightController;
+import de.fau.cs.mad.fly.res.GateCircuit;
+import de.fau.cs.mad.fly.res.GateGoal;
+
+/**
+ * Steers the plane to the nearest of the currently active gates.
+ * <p>
+ * The position of the gate is transformed in the coordinate system of the
+ * plane. The roll turns the plane up and down, the azimuth left and right.
+ *
+ */
+public class GateAutopilot implements ScriptedFlightController.Script {
+
+    /** Factor from the angle to the gate in radians to the steering. */
+    private static final float GAIN = 2.0f;
+
+    private final Matrix4 inverse = new Matrix4();
+    private final Vector3 planePosition = new Vector3();
+    private final Vector3 target = new Vector3();
+
+    @Override
+    public void steer(int step, float delta, float[] steering) {
+        GameController gameController = GameController.getInstance();
+        GateCircuit gateCircuit = gameController.getLevel().getGateCircuit();
+        Matrix4 planeTransform = gameController.getPlayer().getPlane().getTransform();
+        planeTransform.getTranslation(planePosition);
+
+        int[] currentGates = gateCircuit.currentGates();
+        GateGoal nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < currentGates.length; i++) {
+            GateGoal gate = gateCircuit.getGateGoalById(currentGates[i]);
+            if (gate == null) {
+                continue;
+            }
+            float distance = gate.getPosition().dst2(planePosition);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = gate;
+            }
+        }
+        if (nearest == null) {
+            return;
+        }
+
+        target.set(nearest.getPosition()).mul(inverse.set(planeTransform).inv());
+        steering[0] = MathUtils.clamp(GAIN * MathUtils.atan2(target.y, target.z), -1.0f, 1.0f);
+        steering[1] = MathUtils.clamp(GAIN * MathUtils.atan2(target.x, target.z), -1.0f, 1.0f);
+    }
+}
@@ -0,0 +1,46 @@
+package de.fau.cs.mad.fly.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+
+import de.fau.cs.mad.fly.game.InputRecording;
+
+/**
+ * Starts a {@link SimulationHarness} on the headless backend.
+ * <p>
+ * Arguments: level file, number of ticks, ticks per second, plane file and
+ * optionally a recorded game to replay. The paths of the level and the plane
+ * are relative to the assets directory, for example
+ * <code>levels/Endless/randomEndlessLevel.json 3600 60 spaceships/json/Spaceship1.json</code>
+ *
+ */
+public class HeadlessLauncher {
+
+    public static final int DEFAULT_TICKS = 3600;
+    public static final int DEFAULT_TICK_RATE = 60;
+    public static final String DEFAULT_PLANE = "spaceships/json/Spaceship1.json";
+
+    public static void main(String[] arg) {
+        if (arg.length < 1) {
+            System.err.println("Usage: HeadlessLauncher <level file> [ticks] [ticks per second] [plane file] [replay file]");
+            System.exit(1);
+        }
+
+        String levelFile = arg[0];
+        int ticks = arg.length > 1 ? Integer.parseInt(arg[1]) : DEFAULT_TICKS;
+        int tickRate = arg.length > 2 ? Integer.parseInt(arg[2]) : DEFAULT_TICK_RATE;
+        String planeFile = arg.length > 3 ? arg[3] : DEFAULT_PLANE;
+        SimulationHarness harness = new SimulationHarness(levelFile, planeFile, ticks, tickRate);
+        if (arg.length > 4) {
+            harness.setReplay(InputRecording.read(new FileHandle(arg[4])));
+        }
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // the harness runs the whole simulation in create(), there is nothing
+        // to render
+        config.renderInterval = 1.0f;
+
+        new HeadlessApplication(harness, config);
+    }
+}
@@ -0,0 +1,45 @@
+package de.fau.cs.mad.fly.headless;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * Creates a {@link GL20} that does nothing.
+ * <p>
+ * The headless backend does not provide a GL context, but loading the models
+ * of a level creates textures and meshes. All calls return 0, false or an
+ * empty string.
+ *
+ */
+public class NoOpGL20 {
+
+    private NoOpGL20() {
+    }
+
+    /**
+     * Creates the GL20 that ignores all calls.
+     *
+     * @return GL20 without an implementation
+     */
+    public static GL20 create() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                Class<?> type = method.getReturnType();
+                if (type == boolean.class) {
+                    return false;
+                } else if (type == int.class) {
+                    return 0;
+                } else if (type == float.class) {
+                    return 0.0f;
+                } else if (type == String.class) {
+                    return "";
+                }
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package de.fau.cs.mad.fly.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+
+import de.fau.cs.mad.fly.game.CollisionShapeManager;
+import de.fau.cs.mad.fly.game.ConvexHullCache;
+
+/**
+ * Loads a level without the convex hull cache, with an empty cache and with
+ * the filled cache and prints the load times, see
+ * {@link CollisionShapeManager#setHullCacheEnabled(boolean)}.
+ * <p>
+ * Arguments: level file, relative to the assets directory, and number of
+ * loads that are averaged. Levels with many asteroids show the difference
+ * best, for example <code>"levels/Beginner Levels/level17.json" 5</code>
+ * <p>
+ * The cache is written to the local directory {@link ConvexHullCache#DIRECTORY}
+ * of the working directory, it is deleted before and after the benchmark.
+ *
+ */
+public class ShapeCacheBenchmark {
+
+    public static final String DEFAULT_LEVEL = "levels/Beginner Levels/level17.json";
+    public static final int DEFAULT_LOADS = 5;
+
+    public static void main(String[] arg) throws InterruptedException {
+        String levelFile = arg.length > 0 ? arg[0] : DEFAULT_LEVEL;
+        int loads = arg.length > 1 ? Integer.parseInt(arg[1]) : DEFAULT_LOADS;
+        ConvexHullCache cache = new ConvexHullCache(new FileHandle(ConvexHullCache.DIRECTORY));
+        cache.clear();
+
+        // the first load also loads the classes
+        load(levelFile, false);
+        double uncached = 0.0;
+        for (int i = 0; i < loads; i++) {
+            uncached += load(levelFile, false);
+        }
+        double empty = load(levelFile, true);
+        double cached = 0.0;
+        for (int i = 0; i < loads; i++) {
+            cached += load(levelFile, true);
+        }
+        cache.clear();
+
+        System.out.println("level: " + levelFile + ", loads: " + loads);
+        System.out.println("without cache: " + (uncached / loads) + " ms");
+        System.out.println("with empty cache: " + empty + " ms");
+        System.out.println("with filled cache: " + (cached / loads) + " ms");
+        System.exit(0);
+    }
+
+    /**
+     * Loads the level in a new headless application, simulates one tick and
+     * returns the load time in milliseconds.
+     */
+    private static double load(String levelFile, boolean hullCache) throws InterruptedException {
+        CollisionShapeManager.setHullCacheEnabled(hullCache);
+        SimulationHarness harness = new SimulationHarness(levelFile, HeadlessLauncher.DEFAULT_PLANE, 1, HeadlessLauncher.DEFAULT_TICK_RATE);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = 1.0f;
+        new HeadlessApplication(harness, config);
+        if (!harness.awaitFinished(600)) {
+            throw new IllegalStateException("The simulation did not finish.");
+        }
+        return harness.getLoadMillis();
+    }
+}
@@ -0,0 +1,435 @@
+package de.fau.cs.mad.fly.headless;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import de.fau.cs.mad.fly.desktop.ThreadAllocationCounter;
+import de.fau.cs.mad.fly.game.AllocationCounter;
+import de.fau.cs.mad.fly.game.CollisionDetector;
+import de.fau.cs.mad.fly.game.FrameProfiler;
+import de.fau.cs.mad.fly.game.GameController;
+import de.fau.cs.mad.fly.game.GameController.GameState;
+import de.fau.cs.mad.fly.game.GameControllerBuilder;
+import de.fau.cs.mad.fly.game.GameModel;
+import de.fau.cs.mad.fly.game.InputRecording;
+import de.fau.cs.mad.fly.player.IPlane;
+import de.fau.cs.mad.fly.player.Player;
+import de.fau.cs.mad.fly.player.Spaceship;
+import de.fau.cs.mad.fly.res.Assets;
+import de.fau.cs.mad.fly.res.GateCircuitAdapter;
+import de.fau.cs.mad.fly.res.GateGoal;
+import de.fau.cs.mad.fly.res.Level;
+
+/**
+ * Loads a level and simulates it with the {@link GateAutopilot} or a replayed
+ * {@link InputRecording} as fast as possible, without rendering.
+ * <p>
+ * Every call of {@link GameController#updateGame(float)} simulates exactly one
+ * tick. At the end the load time of the level, the ticks per second, the time
+ * of the ticks, the time of the collision steps, the contacts passed from the collision backend to Java, the substeps, the gates the player tunneled through, the allocated
+ * memory and the samples of the heap are logged. The allocations of the
+ * first {@link #WARM_UP_TICKS} ticks are not counted, they load classes and
+ * fill pools.
+ *
+ */
+public class SimulationHarness implements ApplicationListener {
+
+    /** Number of ticks that are simulated before the allocations are counted. */
+    public static final int WARM_UP_TICKS = 60;
+
+    private final String levelFile;
+    private final String planeFile;
+    private final int ticks;
+    private final int tickRate;
+
+    private InputRecording replay = null;
+    /** Backend that replaces the one of the level, null to keep it. */
+    private CollisionDetector.Backend collisionBackend = null;
+    /** Ticks between two samples of the heap and the bodies, 0 for none. */
+    private int sampleInterval = 0;
+
+    private int gatesPassed = 0;
+
+    /** Results of the simulation, valid after {@link #awaitFinished(long)}. */
+    private int simulatedTicks = 0;
+    private long allocatedBytes = -1;
+    private long bulletNanos = 0;
+    private long contactCallbacks = 0;
+    private long loadNanos = 0;
+    private long totalNanos = 0;
+    private long subSteps = 0;
+    private TunnelMissCounter tunnelMissCounter;
+    private final IntArray sampleTicks = new IntArray();
+    private final LongArray sampledHeapBytes = new LongArray();
+    private final IntArray sampledBodies = new IntArray();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * Creates a new simulation harness.
+     *
+     * @param levelFile
+     *            Path of the level json in the assets.
+     * @param planeFile
+     *            Path of the plane json in the assets.
+     * @param ticks
+     *            Maximum number of ticks to simulate.
+     * @param tickRate
+     *            Ticks per second.
+     */
+    public SimulationHarness(String levelFile, String planeFile, int ticks, int tickRate) {
+        if (ticks <= 0 || tickRate <= 0) {
+            throw new IllegalArgumentException("ticks and tick rate have to be greater than 0.");
+        }
+        this.levelFile = levelFile;
+        this.planeFile = planeFile;
+        this.ticks = ticks;
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Replays a recorded game instead of flying with the {@link GateAutopilot}.
+     * The frames of the recording are simulated instead of the ticks, up to
+     * the maximum number of ticks. Has to be called before the application is
+     * started.
+     *
+     * @param replay
+     *            The recording of a game in the level with the plane of the
+     *            harness.
+     */
+    public void setReplay(InputRecording replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Simulates the level with another collision backend than the one of the
+     * level file. Has to be called before the application is started.
+     *
+     * @param collisionBackend
+     *            The backend, null to use the one of the level.
+     */
+    public void setCollisionBackend(CollisionDetector.Backend collisionBackend) {
+        this.collisionBackend = collisionBackend;
+    }
+
+    /**
+     * Samples the used heap after a garbage collection and the bodies in the
+     * collision world in an interval, to find memory that grows in long
+     * games. The garbage collections are part of the tick time. Has to be
+     * called before the application is started.
+     *
+     * @param sampleInterval
+     *            Ticks between two samples, 0 for no samples.
+     */
+    public void setSampleInterval(int sampleInterval) {
+        if (sampleInterval < 0) {
+            throw new IllegalArgumentException("sampleInterval cannot be negative.");
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    @Override
+    public void create() {
+        try {
+            run();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Loads the level and the plane, simulates the game and disposes it.
+     */
+    private void run() {
+        GL20 gl = NoOpGL20.create();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+
+        Assets.init();
+
+        long loadStart = TimeUtils.nanoTime();
+        Assets.load(new AssetDescriptor<Level>(levelFile, Level.class));
+        Level level = Assets.manager.get(levelFile, Level.class);
+        if (collisionBackend != null) {
+            level.collisionBackend = collisionBackend;
+        }
+        if (level.collisionBackend.usesBullet()) {
+            Bullet.init();
+        }
+        level.getGateCircuit().reset();
+        level.head.file = levelFile;
+
+        IPlane.Head head = IPlane.Head.fromJson(Gdx.files.internal(planeFile));
+        // particles need a model batch
+        head.particleOffset = null;
+        String ref = "models/planes/" + head.modelRef + "/" + head.modelRef;
+        Assets.load(new AssetDescriptor<GameModel>(ref, GameModel.class));
+        Player player = new Player(new Spaceship(Assets.manager.get(ref, GameModel.class), head));
+
+        GameControllerBuilder builder = new GameControllerBuilder();
+        builder.setReplay(replay);
+        builder.initHeadless(level, player, new GateAutopilot());
+        builder.setFixedTickRate(tickRate);
+        builder.setProfileFrames(true);
+        builder.setAllocationCounter(ThreadAllocationCounter.create());
+        builder.setProfileAllocations(true);
+        tunnelMissCounter = new TunnelMissCounter(level.getGateCircuit().allGateGoals());
+        builder.addFeatureToLists(tunnelMissCounter);
+        GameController gameController = builder.build();
+        level.getGateCircuit().addListener(new GateCircuitAdapter() {
+            @Override
+            public void onGatePassed(GateGoal passed) {
+                gatesPassed++;
+            }
+        });
+
+        gameController.loadGame();
+        gameController.initGame();
+        loadNanos = TimeUtils.nanoTime() - loadStart;
+
+        simulate(gameController);
+
+        // the profile is logged, do not export it in the assets
+        gameController.getProfiler().setEnabled(false);
+        gameController.disposeGame();
+        Assets.dispose();
+        Gdx.app.exit();
+    }
+
+    /**
+     * Runs the game until the number of ticks is reached or the game is over
+     * and logs the results.
+     *
+     * @param gameController
+     *            The loaded and initialized game controller.
+     */
+    private void simulate(GameController gameController) {
+        final float tickTime = 1.0f / tickRate;
+        long maxTickNanos = 0;
+
+        FrameProfiler profiler = gameController.getProfiler();
+        IPlane plane = gameController.getPlayer().getPlane();
+        AllocationCounter allocationCounter = profiler.getAllocationCounter();
+        long startBytes = -1;
+        long start = TimeUtils.nanoTime();
+        int tick = 0;
+        while (tick < ticks && gameController.getGameState() == GameState.RUNNING && !gameController.isReplayFinished()) {
+            if (tick == WARM_UP_TICKS && allocationCounter != null) {
+                startBytes = allocationCounter.getAllocatedBytes();
+            }
+            long tickStart = TimeUtils.nanoTime();
+            profiler.startFrame();
+            gameController.updateGame(tickTime);
+            profiler.endFrame();
+            long tickNanos = TimeUtils.nanoTime() - tickStart;
+            if (tickNanos > maxTickNanos) {
+                maxTickNanos = tickNanos;
+            }
+            bulletNanos += CollisionDetector.getInstance().getLastStepNanos();
+            contactCallbacks += CollisionDetector.getInstance().getLastStepContactCallbacks();
+            subSteps += CollisionDetector.getInstance().getLastStepSubSteps();
+            tunnelMissCounter.update(plane.getPosition());
+            tick++;
+            if (sampleInterval > 0 && tick % sampleInterval == 0) {
+                sample(tick);
+            }
+        }
+        totalNanos = TimeUtils.nanoTime() - start;
+        simulatedTicks = tick;
+        if (startBytes >= 0) {
+            allocatedBytes = allocationCounter.getAllocatedBytes() - startBytes;
+        }
+
+        String tag = "SimulationHarness";
+        Gdx.app.log(tag, "level: " + levelFile + ", plane: " + planeFile);
+        if (replay != null) {
+            Gdx.app.log(tag, "replayed " + tick + " of " + replay.getFrames() + " frames, seed: " + replay.getSeed());
+        }
+        Gdx.app.log(tag, "load time: " + getLoadMillis() + " ms");
+        Gdx.app.log(tag, "ticks: " + tick + " at " + tickRate + " ticks per second, game state: " + gameController.getGameState());
+        Gdx.app.log(tag, "gates passed: " + gatesPassed + ", lives: " + gameController.getPlayer().getLives());
+        if (tick > 0) {
+            Gdx.app.log(tag, "ticks per second: " + getTicksPerSecond());
+            Gdx.app.log(tag, "tick time: " + (totalNanos / 1000.0 / tick) + " us mean, " + (maxTickNanos / 1000.0) + " us max");
+            Gdx.app.log(tag, "bullet step time: " + getBulletStepMicros() + " us mean");
+            Gdx.app.log(tag, "contact callbacks: " + contactCallbacks + ", " + getContactCallbacksPerTick() + " per tick");
+            Gdx.app.log(tag, "sub steps: " + getSubStepsPerTick() + " per tick, gate crossings: " + getGateCrossings() + ", tunnel misses: " + getTunnelMisses());
+            if (allocatedBytes >= 0) {
+                Gdx.app.log(tag, "allocated after " + WARM_UP_TICKS + " ticks: " + allocatedBytes + " bytes, " + getAllocatedBytesPerTick() + " bytes per tick");
+            }
+            for (int i = 0; i < sampleTicks.size; i++) {
+                Gdx.app.log(tag, "sample at tick " + sampleTicks.get(i) + ": " + sampledHeapBytes.get(i) + " bytes heap, " + sampledBodies.get(i) + " bodies");
+            }
+            StringBuilder summary = new StringBuilder();
+            profiler.summary(summary, profiler.getSections().size());
+            Gdx.app.log(tag, "sections of the last " + Math.min(tick, FrameProfiler.WINDOW_SIZE) + " ticks:\n" + summary);
+        }
+    }
+
+    /**
+     * Samples the used heap after a garbage collection and the bodies in the
+     * collision world.
+     */
+    private void sample(int tick) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        sampleTicks.add(tick);
+        sampledHeapBytes.add(runtime.totalMemory() - runtime.freeMemory());
+        sampledBodies.add(CollisionDetector.getInstance().getBodyCount());
+    }
+
+    /**
+     * Waits until the simulation is finished.
+     *
+     * @param seconds
+     *            Maximal time to wait.
+     * @return true, if the simulation finished, false if the time ran out.
+     * @throws InterruptedException
+     */
+    public boolean awaitFinished(long seconds) throws InterruptedException {
+        return finished.await(seconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Getter for the number of simulated ticks.
+     *
+     * @return ticks, including the warm up ticks
+     */
+    public int getSimulatedTicks() {
+        return simulatedTicks;
+    }
+
+    /**
+     * Getter for the simulated ticks per second of real time.
+     *
+     * @return ticks per second, 0 if no tick was simulated
+     */
+    public double getTicksPerSecond() {
+        return totalNanos == 0 ? 0.0 : simulatedTicks * 1000000000.0 / totalNanos;
+    }
+
+    /**
+     * Getter for the time to load the level and the plane and to build and
+     * initialize the game.
+     *
+     * @return load time in milliseconds
+     */
+    public double getLoadMillis() {
+        return loadNanos / 1000000.0;
+    }
+
+    /**
+     * Getter for the mean time of the Bullet steps.
+     *
+     * @return time per tick in microseconds
+     */
+    public double getBulletStepMicros() {
+        return simulatedTicks == 0 ? 0.0 : bulletNanos / 1000.0 / simulatedTicks;
+    }
+
+    /**
+     * Getter for the mean number of contacts that were passed from Bullet to
+     * the contact listener.
+     *
+     * @return contact callbacks per tick
+     */
+    public double getContactCallbacksPerTick() {
+        return simulatedTicks == 0 ? 0.0 : contactCallbacks / (double) simulatedTicks;
+    }
+
+    /**
+     * Getter for the mean number of substeps of the collision detection.
+     *
+     * @return substeps per tick
+     */
+    public double getSubStepsPerTick() {
+        return simulatedTicks == 0 ? 0.0 : subSteps / (double) simulatedTicks;
+    }
+
+    /**
+     * Getter for the number of gate goals the player flew through, see
+     * {@link TunnelMissCounter}.
+     *
+     * @return crossings
+     */
+    public int getGateCrossings() {
+        return tunnelMissCounter == null ? 0 : tunnelMissCounter.getCrossings();
+    }
+
+    /**
+     * Getter for the number of gate goals the player flew through without a
+     * contact, see {@link TunnelMissCounter}.
+     *
+     * @return tunnel misses
+     */
+    public int getTunnelMisses() {
+        return tunnelMissCounter == null ? 0 : tunnelMissCounter.getMisses();
+    }
+
+    /**
+     * Getter for the ticks of the samples, see {@link #setSampleInterval(int)}.
+     *
+     * @return ticks of the samples
+     */
+    public IntArray getSampleTicks() {
+        return sampleTicks;
+    }
+
+    /**
+     * Getter for the used heap of the samples.
+     *
+     * @return used heap after a garbage collection in bytes
+     */
+    public LongArray getSampledHeapBytes() {
+        return sampledHeapBytes;
+    }
+
+    /**
+     * Getter for the number of bodies in the collision world of the samples.
+     *
+     * @return number of bodies
+     */
+    public IntArray getSampledBodies() {
+        return sampledBodies;
+    }
+
+    /**
+     * Getter for the mean bytes allocated per tick after the warm up.
+     *
+     * @return bytes per tick, or -1 if the allocations could not be counted
+     */
+    public long getAllocatedBytesPerTick() {
+        if (allocatedBytes < 0 || simulatedTicks <= WARM_UP_TICKS) {
+            return -1;
+        }
+        return allocatedBytes / (simulatedTicks - WARM_UP_TICKS);
+    }
+
+    @Override
+    public void resize(int width, int height) {
+    }
+
+    @Override
+    public void render() {
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
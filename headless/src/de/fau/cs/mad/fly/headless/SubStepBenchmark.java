@@ -0,0 +1,58 @@
+package de.fau.cs.mad.fly.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import de.fau.cs.mad.fly.game.CollisionDetector;
+import de.fau.cs.mad.fly.game.SubStepPolicy;
+
+/**
+ * Simulates a level with the fixed and with the adaptive substeps and prints
+ * the gate goals the player tunneled through, the substeps per tick and the
+ * time of the collision steps, see {@link SubStepPolicy}.
+ * <p>
+ * Arguments: level file, number of ticks and ticks per second, the level is
+ * relative to the assets directory. Few ticks per second and fast planes show
+ * the difference best, for example
+ * <code>"levels/Medium Levels/level11.json" 3600 20</code>
+ *
+ */
+public class SubStepBenchmark {
+
+    public static final String DEFAULT_LEVEL = "levels/Medium Levels/level11.json";
+    public static final int DEFAULT_TICK_RATE = 20;
+
+    public static void main(String[] arg) throws InterruptedException {
+        String levelFile = arg.length > 0 ? arg[0] : DEFAULT_LEVEL;
+        int ticks = arg.length > 1 ? Integer.parseInt(arg[1]) : HeadlessLauncher.DEFAULT_TICKS;
+        int tickRate = arg.length > 2 ? Integer.parseInt(arg[2]) : DEFAULT_TICK_RATE;
+
+        SimulationHarness fixed = run(levelFile, ticks, tickRate, false);
+        SimulationHarness adaptive = run(levelFile, ticks, tickRate, true);
+
+        System.out.println("level: " + levelFile + ", ticks: " + ticks + " at " + tickRate + " ticks per second");
+        print("fixed", fixed);
+        print("adaptive", adaptive);
+        System.exit(0);
+    }
+
+    private static void print(String name, SimulationHarness harness) {
+        System.out.println(name + ": " + harness.getTunnelMisses() + " of " + harness.getGateCrossings() + " gates tunneled, " + harness.getSubStepsPerTick() + " sub steps per tick, " + harness.getBulletStepMicros() + " us per step");
+    }
+
+    /**
+     * Simulates the level in a new headless application and waits for the
+     * result.
+     */
+    private static SimulationHarness run(String levelFile, int ticks, int tickRate, boolean adaptiveSubSteps) throws InterruptedException {
+        CollisionDetector.setAdaptiveSubSteps(adaptiveSubSteps);
+        SimulationHarness harness = new SimulationHarness(levelFile, HeadlessLauncher.DEFAULT_PLANE, ticks, tickRate);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = 1.0f;
+        new HeadlessApplication(harness, config);
+        if (!harness.awaitFinished(600)) {
+            throw new IllegalStateException("The simulation did not finish.");
+        }
+        return harness;
+    }
+}
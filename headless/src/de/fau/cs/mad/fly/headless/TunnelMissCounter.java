@@ -0,0 +1,127 @@
+package de.fau.cs.mad.fly.headless;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+import de.fau.cs.mad.fly.features.ICollisionListener;
+import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
+import de.fau.cs.mad.fly.res.GateGoal;
+
+/**
+ * Counts the gate goals the player flew through without a contact, because
+ * the collision detection stepped over them.
+ * <p>
+ * After every tick the positions of the player before and after the tick are
+ * mapped to the local space of every gate goal. The player crossed a goal if
+ * it changed the side of the thin box and the crossing point is inside the
+ * width of the box. A crossing is a tunnel miss if no contact with the goal
+ * was posted in the last {@link #CONTACT_WINDOW} ticks.
+ *
+ */
+public class TunnelMissCounter implements ICollisionListener {
+
+    /**
+     * Ticks a contact may be posted before the center of the player crosses
+     * the goal, because the shape of the player touches it earlier.
+     */
+    public static final int CONTACT_WINDOW = 30;
+
+    private final List<GateGoal> goals;
+
+    /** Tick of the last contact with a goal. */
+    private final Map<GameObject, Integer> lastContactTicks = new HashMap<GameObject, Integer>();
+
+    private final Vector3 previous = new Vector3();
+    private final Vector3 previousLocal = new Vector3();
+    private final Vector3 currentLocal = new Vector3();
+    private final Matrix4 inverse = new Matrix4();
+
+    private boolean hasPrevious = false;
+    private int tick = 0;
+    private int crossings = 0;
+    private int misses = 0;
+
+    /**
+     * Creates a new counter.
+     *
+     * @param goals
+     *            The gate goals of the level, the list may change.
+     */
+    public TunnelMissCounter(List<GateGoal> goals) {
+        this.goals = goals;
+    }
+
+    @Override
+    public void onEvent(CollisionEvent event) {
+        GameObject g2 = event.getSecond();
+        if (g2 instanceof GateGoal) {
+            lastContactTicks.put(g2, tick);
+        }
+    }
+
+    /**
+     * Checks the goals the player crossed in the last tick. Has to be called
+     * after every tick.
+     *
+     * @param position
+     *            Position of the player after the tick.
+     */
+    public void update(Vector3 position) {
+        if (hasPrevious) {
+            final int size = goals.size();
+            for (int i = 0; i < size; i++) {
+                checkCrossing(goals.get(i), position);
+            }
+        }
+        previous.set(position);
+        hasPrevious = true;
+        tick++;
+    }
+
+    private void checkCrossing(GateGoal goal, Vector3 position) {
+        inverse.set(goal.transform).inv();
+        previousLocal.set(previous).mul(inverse);
+        currentLocal.set(position).mul(inverse);
+        // the goal is thin in local y, the player crosses it if the sign
+        // changes
+        if ((previousLocal.y < 0.0f) == (currentLocal.y < 0.0f)) {
+            return;
+        }
+        final float t = previousLocal.y / (previousLocal.y - currentLocal.y);
+        final float x = previousLocal.x + t * (currentLocal.x - previousLocal.x);
+        final float z = previousLocal.z + t * (currentLocal.z - previousLocal.z);
+        if (Math.abs(x) > GateGoal.HALF_WIDTH || Math.abs(z) > GateGoal.HALF_WIDTH) {
+            return;
+        }
+        crossings++;
+        Integer contactTick = lastContactTicks.get(goal);
+        if (contactTick == null || tick - contactTick > CONTACT_WINDOW) {
+            misses++;
+            Gdx.app.log("TunnelMissCounter", "Tunneled through " + goal.getId() + " in tick " + tick + ".");
+        }
+    }
+
+    /**
+     * Getter for the number of goals the player crossed.
+     *
+     * @return crossings
+     */
+    public int getCrossings() {
+        return crossings;
+    }
+
+    /**
+     * Getter for the number of crossings without a contact.
+     *
+     * @return tunnel misses
+     */
+    public int getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,49 @@
+package de.fau.cs.mad.fly.headless;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import de.fau.cs.mad.fly.game.CollisionDetector;
+
+/**
+ * Flies the {@link GateAutopilot} through a reference level with the pure Java
+ * collision backend and fails if the game loop allocates more than the budget
+ * per tick.
+ * <p>
+ * Needs the assets directory as working directory.
+ */
+public class AllocationBudgetTest {
+
+    /** Level with many moving asteroids. */
+    private static final String REFERENCE_LEVEL = "levels/Medium Levels/level11.json";
+    private static final int TICKS = 1200;
+
+    /**
+     * Mean bytes a tick may allocate after the warm up. The 1140 counted ticks
+     * of the reference level allocated 608 to 656 bytes, less than 1 byte per
+     * tick. The budget leaves a margin for the virtual machine, but a single
+     * vector allocated in every tick exceeds it.
+     */
+    private static final long MAX_BYTES_PER_TICK = 16;
+
+    @Test
+    public void scriptedFlightStaysInBudget() throws InterruptedException {
+        SimulationHarness harness = new SimulationHarness(REFERENCE_LEVEL, HeadlessLauncher.DEFAULT_PLANE, TICKS, HeadlessLauncher.DEFAULT_TICK_RATE);
+        // the budget was measured with the pure Java backend, the allocations
+        // of the Bullet wrappers are not part of it
+        harness.setCollisionBackend(CollisionDetector.Backend.SPATIAL_HASH);
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = 1.0f;
+        new HeadlessApplication(harness, config);
+
+        assertTrue("simulation did not finish", harness.awaitFinished(120));
+        long bytesPerTick = harness.getAllocatedBytesPerTick();
+        Assume.assumeTrue("allocations cannot be counted on this virtual machine", bytesPerTick >= 0);
+        assertTrue(bytesPerTick + " bytes per tick allocated, budget is " + MAX_BYTES_PER_TICK, bytesPerTick <= MAX_BYTES_PER_TICK);
+    }
+}
@@ -12,6 +12,7 @@ import de.fau.cs.mad.fly.features.game.EndlessLevelGenerator;
 import de.fau.cs.mad.fly.features.game.EndlessRailLevelGenerator;
 import de.fau.cs.mad.fly.features.upgrades.types.Collectible;
 import de.fau.cs.mad.fly.game.GameObject;
+import de.fau.cs.mad.fly.game.event.CollisionEvent;
 import de.fau.cs.mad.fly.player.Player;
 import de.fau.cs.mad.fly.profile.PlayerProfile;
 import de.fau.cs.mad.fly.res.GateDisplay;
@@ -177,7 +178,8 @@ public class IOSRailFlightController extends IOSFlightController implements ICol
     }
 
     @Override
-    public void onCollision(GameObject g1, GameObject g2) {
+    public void onEvent(CollisionEvent event) {
+        GameObject g2 = event.getSecond();
 
         if(g2 instanceof GateDisplay) {
             if(generator.checkAsteroidPosition(currentPosition, railX * railOffset, railY * railOffset)) {